@@ -2,8 +2,13 @@ package com.example.organizer;
 
 // ===== JavaFX =====
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.ListCell;
@@ -16,39 +21,99 @@ import javafx.stage.Stage;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * 메인 UI
- * - 왼쪽: 오늘 할 일(단발 + 반복)  ← TaskCell 렌더링 (완료/미완료 토글 + 삭제)
+ * - 왼쪽: 탭 두 개
+ *   · 오늘: 오늘 할 일(단발 + 반복)  ← TaskCell 렌더링 (완료/미완료 토글 + 삭제)
+ *   · 보기: 저장된 보기(SmartFilter) 결과 + 결과 안에서 찾기
  * - 중앙: 달력(미완료=회색점, 완료=초록점, 반복=빨간점)
  * - 오른쪽: 새 할 일(단발/반복) 등록
+ * - 위: 월 이동 + 태그 필터 (오늘/보기 패널, 달력, 날짜 모달에 같이 적용)
+ * - 시작: 뼈대 UI를 먼저 띄우고, 저장소 열기와 첫 화면 데이터는 백그라운드에서 (loadInBackground)
  */
 public class App extends Application {
     // ---------- 필드 ----------
     private GridPane calendarGrid;
+    private CalendarCanvas calendarCanvas;    // null이면 기존 GridPane 달력 (-Dtodo.calendar=nodes)
     private YearMonth currentMonth = YearMonth.now();
-    private final TaskDao dao = new TaskDao();
+    private TaskStore dao;
+    private MaintenanceService maintenance;   // SQLite일 때만 (백업/vacuum)
 
     private Label monthLabel;
     private ListView<Task> todayList;   // 오늘 할 일(단발 + 반복) - Task 객체로!
+    private CheckBox focusChk;          // 집중 모드: 중요한 상위 FOCUS_K개만
+    private TagFilter tagFilter;        // null이면 필터 없음
+    private SmartFilter smartFilter = SmartFilter.ALL;                         // 보기 패널 조건
+    private final ObservableList<Task> smartResults = FXCollections.observableArrayList();
+    private Label smartCount;
+    private ListView<Task> smartList;
+    private ComboBox<String> savedBox;
+    private Label agendaLabel;
+    private VBox agendaBox;
+    private LocalDate agendaFrom = weekStart(LocalDate.now());   // 주간 보기 첫날 (일요일)
+    private SortedMap<LocalDate, List<Task>> agenda = Collections.emptySortedMap();   // 주간 보기가 읽어 둔 한 주 (날짜 모달도 여기서)
+    private StartupTrace trace;
+    private final FrameCache frames = new FrameCache(FrameCache.defaultFile());   // 첫 화면 캐시 (이번 달 + 오늘)
+    private final FocusRanker focus = new FocusRanker(FOCUS_K);
+    private final RefreshScheduler refresh = new RefreshScheduler();   // 갱신 요청 합치기
+    private boolean todayStale;   // VIEW_MAIN 갱신 때 오늘 목록도 다시 읽을지 (달력은 항상)
+
+    private static final Log LOG = Log.get("APP");
+
+    private static final int FOCUS_K = 10;
+    private static final String[] WEEKDAYS = {"일", "월", "화", "수", "목", "금", "토"};
+    private static final String VIEW_MAIN = "main";         // 달력 + 오늘 목록 (ViewSnapshot 하나로)
+    private static final String VIEW_DAY_MODAL = "dayModal";
+    private static final String VIEW_SMART = "smart";
+    private static final String VIEW_AGENDA = "agenda";
+    private static final int AGENDA_PER_DAY = 8;   // 주간 보기에서 하루에 보여 줄 최대 개수 (전체는 날짜 모달)
+    private static final int SMART_LIMIT = 500;   // 보기 패널에 한 번에 올릴 최대 개수
+    private static final int STARTUP_THREADS = 2;  // 시작할 때 동시에 읽는 단계 수 (달력+오늘/보기)
+    private static final String SAVE_FAILED = "DB에 저장하지 못했습니다 (잠겨 있거나 오류). 잠시 후 다시 시도하세요.";
 
     // ---------- 진입 ----------
     @Override
     public void start(Stage stage) {
-        Database.migrate();
-
+        trace = new StartupTrace();
+        // 저장소 열기(드라이버 로드 + migrate)는 바로 백그라운드에서 시작 → 아래 뼈대 UI 만들기와 겹침
+        ExecutorService pool = Executors.newFixedThreadPool(STARTUP_THREADS, startupThreads());
+        CompletableFuture<TaskStore> store = CompletableFuture.supplyAsync(() -> {
+            // 기본 SQLite, -Dtodo.store=memory 면 메모리 저장소
+            TaskStore s = TaskStore.open();
+            trace.mark("저장소 준비");
+            return s;
+        }, pool);
+
+        // ---- 뼈대 UI: 저장소 없이 만들 수 있는 것 전부 (목록은 비어 있고, 준비될 때까지 조작 막음)
         calendarGrid = new GridPane();
         calendarGrid.setHgap(6);
         calendarGrid.setVgap(6);
         calendarGrid.setPadding(new Insets(10));
+        // 기본은 Canvas 하나에 그리는 달력 (노드/CSS 비용 최소), nodes면 기존 버튼/라벨 달력
+        if (!"nodes".equalsIgnoreCase(System.getProperty("todo.calendar", "canvas"))) {
+            calendarCanvas = new CalendarCanvas();
+            calendarCanvas.setOnDayClicked(this::openDayTasksModal);
+        }
 
-        // 첫 렌더
-        renderCalendar(currentMonth);
+        // 지난번에 남긴 첫 화면 캐시가 오늘 것이면 그것으로, 아니면 빈 달력 (숫자만) → 점은 집계가 오면
+        ViewSnapshot cached = frames.read(currentMonth, LocalDate.now());
+        renderCalendar(cached != null ? cached : ViewSnapshot.empty(currentMonth));
 
         // 중앙 달력 스크롤
-        ScrollPane calendarScroll = new ScrollPane(calendarGrid);
+        ScrollPane calendarScroll = new ScrollPane(calendarCanvas != null ? calendarCanvas : calendarGrid);
         calendarScroll.setFitToWidth(true);
         calendarScroll.setFitToHeight(true);
         calendarScroll.setPrefViewportWidth(680);
@@ -57,21 +122,159 @@ public class App extends Application {
         VBox rightPanel = buildRightPanel();
         rightPanel.setPrefWidth(300);
 
-        VBox todayPanel = buildTodayPanel();
-        todayPanel.setPrefWidth(280);
+        TabPane leftTabs = new TabPane(new Tab("오늘", buildTodayPanel()), new Tab("보기", buildSmartPanel()),
+                new Tab("주간", buildAgendaPanel()));
+        leftTabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        leftTabs.setPrefWidth(300);
 
-        HBox centerRow = new HBox(16, todayPanel, calendarScroll, rightPanel);
+        HBox centerRow = new HBox(16, leftTabs, calendarScroll, rightPanel);
         centerRow.setPadding(new Insets(12));
         HBox.setHgrow(calendarScroll, Priority.ALWAYS);
 
+        if (cached != null) {
+            // 저장소 전이라 셀 버튼은 못 씀 (root가 꺼져 있음), attachStore에서 진짜 셀로 바뀜
+            todayList.setCellFactory(v -> new TaskCell(null));
+            todayList.getItems().setAll(cached.todayTasks());
+            trace.mark("첫 화면 캐시");
+        }
+
         BorderPane root = new BorderPane();
         root.setTop(buildMonthBar());
         root.setCenter(centerRow);
+        root.setDisable(true);
 
         Scene scene = new Scene(root, 1200, 680);
         stage.setTitle("Todo Program");
         stage.setScene(scene);
+        // 첫 프레임: show() 뒤 처음으로 레이아웃이 끝나고 그리기 직전
+        Runnable firstFrame = new Runnable() {
+            @Override
+            public void run() {
+                trace.firstFrame();
+                scene.removePostLayoutPulseListener(this);
+            }
+        };
+        scene.addPostLayoutPulseListener(firstFrame);
         stage.show();
+
+        loadInBackground(store, pool, root, cached);
+    }
+
+    /**
+     * 시작 파이프라인 (백그라운드 STARTUP_THREADS개)
+     *   저장소 열기 (드라이버 로드 + migrate, 메모리 저장소면 스냅샷/저널 읽기)
+     *     ├─ 달력 한 달 + 오늘 목록 (ViewSnapshot 하나) ─┐ 동시에 읽고, 끝나는 대로 화면에 반영 (JavaFX 스레드)
+     *     └─ 저장된 보기                                  ┘
+     *   → 전부 끝나면 갱신 뷰 등록 + UI 켬 (= 조작 가능)
+     * - 첫 화면 캐시(cached)가 있으면 DB 버전 스탬프만 비교해서 같으면 달력+오늘을 다시 읽지 않음
+     *   (다르면 새로 읽어 다시 그리고 캐시도 새로 씀)
+     * - 동시에 읽는 단계는 각자 forThread() 저장소 (SQLite면 연결을 따로 열어서)
+     * - 하나라도 실패하면 오류 창을 띄우고 종료
+     * - -Dtodo.startup.quit=true 면 조작 가능이 되자마자 종료 (시작 시간 측정용)
+     */
+    private void loadInBackground(CompletableFuture<TaskStore> store, ExecutorService pool, Parent root,
+                                  ViewSnapshot cached) {
+        Executor fx = Platform::runLater;
+        YearMonth ym = currentMonth;
+        LocalDate today = LocalDate.now();
+
+        CompletableFuture<ViewSnapshot> view = read(store, pool, "달력+오늘", s -> {
+            long version = cached != null ? s.version() : -1;
+            if (version >= 0 && version == cached.version()) {
+                LOG.debug("첫 화면 캐시가 최신 (버전 {})", version);
+                return cached;
+            }
+            ViewSnapshot fresh = s.loadView(ym, today, null);
+            frames.write(fresh);
+            return fresh;
+        });
+        CompletableFuture<SmartData> smart = read(store, pool, "저장된 보기",
+                s -> new SmartData(List.copyOf(s.savedFilters().keySet()), querySmart(s, SmartFilter.ALL, null)));
+
+        // 데이터 반영은 저장소가 필요 없어서 먼저 와도 됨 (셀이 나중에 붙으면 다시 그려짐)
+        CompletableFuture<Void> attached = store.thenAcceptAsync(this::attachStore, fx);
+        view.thenAcceptAsync(v -> {
+            if (v == cached) {
+                todayList.setPlaceholder(new Label("오늘 할 일이 없습니다"));
+                return;
+            }
+            renderCalendar(v);
+            todayList.getItems().setAll(v.todayTasks());
+            todayList.setPlaceholder(new Label("오늘 할 일이 없습니다"));
+        }, fx);
+        smart.thenAcceptAsync(data -> {
+            savedBox.getItems().setAll(data.saved());
+            showSmart(data.items());
+        }, fx);
+
+        CompletableFuture.allOf(attached, view, smart).whenCompleteAsync((v, err) -> {
+            pool.shutdown();
+            if (err != null) {
+                startupFailed(err);
+                return;
+            }
+            refresh.register(VIEW_MAIN, this::refreshMain);
+            refresh.register(VIEW_SMART, this::refreshSmart);
+            refresh.register(VIEW_AGENDA, this::refreshAgenda);
+            refresh.markDirty(VIEW_AGENDA);   // 한 주 범위 조회 한 번이라 조작 가능 직후 바로
+            root.setDisable(false);
+            trace.interactive();
+            if (Boolean.getBoolean("todo.startup.quit")) Platform.exit();
+        }, fx);
+    }
+
+    /** 저장소가 열리면 그 스레드 전용 저장소로 load 실행 (끝나면 시간 기록) */
+    private <T> CompletableFuture<T> read(CompletableFuture<TaskStore> store, Executor pool,
+                                          String phase, Function<TaskStore, T> load) {
+        return store.thenApplyAsync(s -> {
+            TaskStore mine = s.forThread();
+            try {
+                T result = load.apply(mine);
+                trace.mark(phase);
+                return result;
+            } finally {
+                if (mine != s) mine.close();
+            }
+        }, pool);
+    }
+
+    /** 저장소 준비됨 (JavaFX 스레드): 셀은 버튼이 저장소를 쓰므로 이때 붙임 */
+    private void attachStore(TaskStore store) {
+        dao = store;
+        if (dao instanceof TaskDao) {
+            maintenance = new MaintenanceService();
+            maintenance.start();
+        }
+        todayList.setCellFactory(v -> new TaskCell(dao, this::refreshAll, this::onTodayToggled));
+        smartList.setCellFactory(v -> new TaskCell(dao, this::refreshAll));
+    }
+
+    private void startupFailed(Throwable err) {
+        Throwable cause = err.getCause() != null ? err.getCause() : err;
+        LOG.error("시작 실패", cause);
+        Alert alert = new Alert(Alert.AlertType.ERROR, "시작하지 못했습니다: " + cause.getMessage(), ButtonType.OK);
+        alert.setHeaderText(null);
+        alert.showAndWait();
+        Platform.exit();
+    }
+
+    private static java.util.concurrent.ThreadFactory startupThreads() {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "startup-" + n.incrementAndGet());
+            t.setDaemon(true); // 창을 일찍 닫아도 종료를 막지 않게
+            return t;
+        };
+    }
+
+    // ---------- 종료 ----------
+    @Override
+    public void stop() {
+        // 저장소가 열어둔 연결/파일 정리
+        if (maintenance != null) maintenance.close();
+        // 다음 시작의 첫 프레임용 (쓰기 뒤에 남긴 것 이후의 보관 이동 등까지 반영, 예약된 쓰기 뒤에 차례로)
+        frames.close(dao);
+        if (dao != null) dao.close();
     }
 
     // ---------- 상단 월 이동 바 ----------
@@ -83,20 +286,49 @@ public class App extends Application {
         prev.setOnAction(e -> {
             currentMonth = currentMonth.minusMonths(1);
             monthLabel.setText(formatMonth(currentMonth));
-            refreshAll();
+            if (maintenance != null) maintenance.touch();
+            markMain(false); // 월 이동은 달력만
         });
         next.setOnAction(e -> {
             currentMonth = currentMonth.plusMonths(1);
             monthLabel.setText(formatMonth(currentMonth));
-            refreshAll();
+            if (maintenance != null) maintenance.touch();
+            markMain(false); // 월 이동은 달력만
         });
 
-        HBox box = new HBox(10, prev, monthLabel, next);
+        HBox box = new HBox(10, prev, monthLabel, next, new Separator(javafx.geometry.Orientation.VERTICAL),
+                new Label("태그 필터"), buildFilterField());
         box.setAlignment(Pos.CENTER);
         box.setPadding(new Insets(8, 0, 8, 0));
         return box;
     }
 
+    /**
+     * 태그 필터 입력: 고칠 때마다 파싱 → 맞으면 바로 적용, 틀리면 빨간 테두리 (이전 필터 유지)
+     * - 예: work & urgent & !done, 집 | 개인
+     */
+    private TextField buildFilterField() {
+        TextField field = new TextField();
+        field.setPromptText("예) work & urgent & !done");
+        field.setPrefColumnCount(22);
+        Tooltip tip = new Tooltip();
+        field.setTooltip(tip);
+        tip.setOnShowing(e -> tip.setText("& 그리고, | 또는, ! 제외, 괄호 / done = 완료\n태그: "
+                + String.join(" ", dao.allTags())));
+        field.textProperty().addListener((obs, o, text) -> {
+            try {
+                tagFilter = TagFilter.parse(text);
+                field.setStyle("");
+            } catch (IllegalArgumentException ex) {
+                field.setStyle("-fx-border-color: #d32f2f;");
+                return;
+            }
+            markMain(true);
+            refresh.markDirty(VIEW_DAY_MODAL, VIEW_SMART, VIEW_AGENDA);
+        });
+        return field;
+    }
+
     private String formatMonth(YearMonth ym) {
         return ym.getYear() + "년 " + ym.getMonthValue() + "월";
     }
@@ -107,17 +339,18 @@ public class App extends Application {
      * - 초록 ●: 완료 단발 count (최대 3개)
      * - 빨강 ●: 반복 존재
      */
-    private void renderCalendar(YearMonth ym) {
+    private void renderCalendar(ViewSnapshot month) {
+        if (calendarCanvas != null) {
+            calendarCanvas.setMonth(month.month(), month.doneArray(), month.todoArray(), month.recurringArray());
+            return;
+        }
+        YearMonth ym = month.month();
         calendarGrid.getChildren().clear();
         calendarGrid.getColumnConstraints().clear();
 
-        // 날짜별 [완료, 미완료] 카운트
-        Map<LocalDate, int[]> counts = dao.getDailyDoneTodoCounts(ym);
-
         // 헤더
-        String[] wk = {"일","월","화","수","목","금","토"};
         for (int i = 0; i < 7; i++) {
-            Label head = new Label(wk[i]);
+            Label head = new Label(WEEKDAYS[i]);
             head.setStyle("-fx-font-weight: bold;");
             if (i == 0) head.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
             calendarGrid.add(head, i, 0);
@@ -140,15 +373,14 @@ public class App extends Application {
                 btn.setStyle("-fx-text-fill: red;");
             }
 
-            int[] arr = counts.getOrDefault(date, new int[]{0, 0});
-            int done = arr[0], todo = arr[1];
+            int done = month.done(day), todo = month.todo(day);
 
             Label todoDots = new Label(todo > 0 ? "●".repeat(Math.min(todo, 3)) : "");
             todoDots.setStyle("-fx-opacity: 0.75; -fx-font-size: 10px; -fx-text-fill: gray;");
             Label doneDots = new Label(done > 0 ? "●".repeat(Math.min(done, 3)) : "");
             doneDots.setStyle("-fx-opacity: 0.95; -fx-font-size: 10px; -fx-text-fill: green;");
 
-            boolean hasRecurring = dao.hasRecurringOn(date);
+            boolean hasRecurring = month.recurring(day);
             Label recurDot = new Label(hasRecurring ? "●" : "");
             recurDot.setStyle("-fx-text-fill: red; -fx-font-size: 10px;");
 
@@ -170,44 +402,247 @@ public class App extends Application {
         calendarGrid.getColumnConstraints().setAll(cc, cc, cc, cc, cc, cc, cc);
     }
 
-    // 달력 + 오늘 리스트 동시 갱신
+    /**
+     * 달력 + 오늘 목록 갱신 (VIEW_MAIN)
+     * - 저장소에서 ViewSnapshot 하나로 읽음 → 둘 다 다시 그릴 때 같은 시점의 데이터 (달력 점과 목록이 어긋나지 않음)
+     * - 오늘 목록이 바뀌지 않았거나(월 이동) 집중 모드면 달력만 읽음 (집중 모드 목록은 FocusRanker가)
+     */
+    private void refreshMain() {
+        boolean today = todayStale;
+        boolean focusMode = focusChk != null && focusChk.isSelected();
+        todayStale = false;
+
+        ViewSnapshot view = dao.loadView(currentMonth, today && !focusMode ? LocalDate.now() : null, tagFilter);
+        renderCalendar(view);
+        if (view.hasToday()) todayList.getItems().setAll(view.todayTasks());
+        else if (today) showFocus();
+    }
+
+    /** VIEW_MAIN 갱신 예약 (today: 오늘 목록도, 같은 순간의 요청은 합쳐짐) */
+    private void markMain(boolean today) {
+        todayStale |= today;
+        refresh.markDirty(VIEW_MAIN);
+    }
+
+    // 달력 + 오늘 리스트 (+ 열려 있는 모달) 갱신 예약 → 같은 순간의 요청은 한 번으로 합쳐짐
     private void refreshAll() {
-        renderCalendar(currentMonth);
-        refreshTodayTasks();
+        // 사용자 활동 → 유지보수는 유휴 시간으로 미룸
+        if (maintenance != null) maintenance.touch();
+        focus.invalidate();
+        todayStale = true;
+        agenda = Collections.emptySortedMap();
+        refresh.markAllDirty();
+        frames.saveLater(dao);
+    }
+
+    // 오늘 패널에서 완료 토글만 일어난 경우: 집중 모드 힙은 재스캔 없이 증분 갱신
+    private void onTodayToggled(Task task) {
+        if (maintenance != null) maintenance.touch();
+        focus.onToggled(task);
+        markMain(true);
+        moveAgenda(agendaFrom);   // 같은 할 일이 주간 보기에도 있을 수 있음
+        frames.saveLater(dao);
     }
 
     // ---------- 왼쪽: 오늘 패널 ----------
     private VBox buildTodayPanel() {
         todayList = new ListView<>();
-        // ✅ 오늘 리스트는 Task 객체로 렌더링 + 삭제/토글 가능
-        todayList.setCellFactory(v -> new TaskCell(dao, this::refreshAll));
-        refreshTodayTasks();
+        // ✅ 오늘 리스트는 Task 객체로 렌더링 + 삭제/토글 가능 (TaskCell은 저장소가 준비되면 attachStore에서)
+        todayList.setPlaceholder(new Label("불러오는 중…"));
+        // Ctrl/Shift 클릭으로 여러 개 선택 → 아래 일괄 버튼
+        todayList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
         Label title = new Label("오늘 할 일 (" + LocalDate.now() + ")");
         title.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
 
-        VBox box = new VBox(10, title, todayList);
+        focusChk = new CheckBox("집중 모드 (중요 " + FOCUS_K + "개)");
+        focusChk.selectedProperty().addListener((obs, o, on) -> markMain(true));
+
+        VBox box = new VBox(10, title, focusChk, todayList, buildBulkBar(todayList, this::refreshAll));
         box.setPadding(new Insets(10));
         return box;
     }
 
+    /** 집중 모드 오늘 목록: 점수 상위 K개 (변경이 토글뿐이었으면 재스캔 없음) */
+    private void showFocus() {
+        if (focus.isStale()) focus.rebuild(dao, LocalDate.now());
+        todayList.getItems().setAll(tagFilter == null ? focus.top() : tagFilter.filter(dao, focus.top()));
+    }
+
+    // ---------- 왼쪽 세 번째 탭: 주간 ----------
     /**
-     * 오늘(LocalDate.now()) 기준으로
-     * - 단발: 오늘까지 마감 & 미완료(필요시 includeCompleted=true로 구현했다면 변경 가능)
-     * - 반복: 오늘 요일/기간에 해당하는 모든 반복
-     * 를 합쳐서 ListView<Task>에 넣는다.
+     * 주간(아젠다) 보기: 일요일부터 7일, 날마다 단발 → 반복
+     * - 한 주를 listBetween 한 번으로 읽어 agenda에 둠 → 날짜를 누르면 날짜 모달도 다시 조회하지 않고 여기서
+     * - 하루에 AGENDA_PER_DAY개까지 보이고 나머지는 개수만 (전체는 날짜 모달에서)
      */
-    private void refreshTodayTasks() {
-        if (todayList == null) return;
+    private VBox buildAgendaPanel() {
+        Button prev = new Button("〈");
+        Button next = new Button("〉");
+        Button thisWeek = new Button("이번 주");
+        prev.setOnAction(e -> moveAgenda(agendaFrom.minusWeeks(1)));
+        next.setOnAction(e -> moveAgenda(agendaFrom.plusWeeks(1)));
+        thisWeek.setOnAction(e -> moveAgenda(weekStart(LocalDate.now())));
+        agendaLabel = new Label();
+        HBox nav = new HBox(6, prev, agendaLabel, next, thisWeek);
+        nav.setAlignment(Pos.CENTER_LEFT);
+
+        agendaBox = new VBox(2);
+        agendaBox.getChildren().add(new Label("불러오는 중…"));
+        ScrollPane scroll = new ScrollPane(agendaBox);
+        scroll.setFitToWidth(true);
+        VBox.setVgrow(scroll, Priority.ALWAYS);
+
+        VBox box = new VBox(10, nav, scroll);
+        box.setPadding(new Insets(10));
+        return box;
+    }
+
+    /** 주간 보기를 from 주로 (읽어 둔 것은 버리고 다시 읽기 예약) */
+    private void moveAgenda(LocalDate from) {
+        agendaFrom = from;
+        agenda = Collections.emptySortedMap();
+        refresh.markDirty(VIEW_AGENDA);
+    }
+
+    /** 주간 보기 갱신 (VIEW_AGENDA): 읽어 둔 주가 없을 때만 다시 읽고, 태그 필터는 그릴 때 적용 */
+    private void refreshAgenda() {
+        if (agenda.isEmpty()) agenda = dao.listBetween(agendaFrom, agendaFrom.plusDays(6));
+        LocalDate last = agendaFrom.plusDays(6);
+        agendaLabel.setText(agendaFrom.getMonthValue() + "/" + agendaFrom.getDayOfMonth()
+                + " ~ " + last.getMonthValue() + "/" + last.getDayOfMonth());
+
         LocalDate today = LocalDate.now();
+        List<javafx.scene.Node> rows = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<Task>> day : agenda.entrySet()) {
+            LocalDate date = day.getKey();
+            List<Task> items = tagFilter == null ? day.getValue() : tagFilter.filter(dao, day.getValue());
+
+            Hyperlink head = new Hyperlink(date.getMonthValue() + "/" + date.getDayOfMonth()
+                    + " (" + WEEKDAYS[date.getDayOfWeek().getValue() % 7] + ")  " + items.size() + "개");
+            String color = date.equals(today) ? "#1565c0" : date.getDayOfWeek().getValue() == 7 ? "red" : "black";
+            head.setStyle("-fx-font-weight: bold; -fx-text-fill: " + color + ";");
+            head.setOnAction(e -> openDayTasksModal(date));
+            rows.add(head);
+
+            for (Task t : items.subList(0, Math.min(items.size(), AGENDA_PER_DAY))) rows.add(agendaRow(t));
+            if (items.size() > AGENDA_PER_DAY) {
+                Label more = new Label("    … 외 " + (items.size() - AGENDA_PER_DAY) + "개");
+                more.setStyle("-fx-font-size: 11px; -fx-text-fill: #555;");
+                rows.add(more);
+            }
+        }
+        agendaBox.getChildren().setAll(rows);
+    }
+
+    /** 주간 보기 한 줄: ● (시간/🔁) 제목, 완료면 회색 ✔ */
+    private static Label agendaRow(Task t) {
+        String when = t.isRecurring == 1 ? "🔁 " : shortTime(t.dueAt).isEmpty() ? "" : shortTime(t.dueAt) + " ";
+        Label row = new Label("    " + (t.completed ? "✔ " : "● ") + when + t.title);
+        if (t.completed) row.setStyle("-fx-text-fill: #999;");
+        return row;
+    }
+
+    /** date가 속한 주의 일요일 (달력과 같이 일요일 시작) */
+    private static LocalDate weekStart(LocalDate date) {
+        return date.minusDays(date.getDayOfWeek().getValue() % 7);
+    }
+
+    // ---------- 왼쪽 두 번째 탭: 저장된 보기 ----------
+    /**
+     * 저장된 보기(SmartFilter) 패널
+     * - 조건 입력: 고칠 때마다 파싱 → 맞으면 바로 조회, 틀리면 빨간 테두리 (이전 조건 유지)
+     *   예) priority:1 due:week done:no / recurring:yes 운동 / due:overdue
+     * - 저장된 보기를 고르면 그 조건이 입력칸에 들어감
+     * - "결과 안에서 찾기"는 다시 조회하지 않고 받아 둔 결과만 거름 (FilteredList)
+     */
+    private VBox buildSmartPanel() {
+        savedBox = new ComboBox<>();
+        savedBox.setPromptText("저장된 보기");
+        savedBox.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(savedBox, Priority.ALWAYS);
+
+        TextField specField = new TextField();
+        specField.setPromptText("예) priority:1 due:week done:no");
+        specField.setTooltip(new Tooltip("priority:1,2  due:0..6 (today, tomorrow, week, overdue, ..-1, 3..)\n"
+                + "recurring:yes|no  done:yes|no  title:\"단어\" (키 없이 쓴 단어도 제목)"));
+        specField.textProperty().addListener((obs, o, text) -> {
+            try {
+                smartFilter = SmartFilter.parse(text);
+                specField.setStyle("");
+            } catch (IllegalArgumentException ex) {
+                specField.setStyle("-fx-border-color: #d32f2f;");
+                return;
+            }
+            refresh.markDirty(VIEW_SMART);
+        });
+        savedBox.setOnAction(e -> {
+            SmartFilter saved = dao.savedFilters().get(savedBox.getValue());
+            if (saved != null) specField.setText(saved.format());
+        });
+
+        Button saveBtn = new Button("저장");
+        saveBtn.setOnAction(e -> {
+            TextInputDialog dialog = new TextInputDialog(savedBox.getValue() == null ? "" : savedBox.getValue());
+            dialog.setTitle("보기 저장");
+            dialog.setHeaderText(smartFilter.format());
+            dialog.setContentText("이름:");
+            dialog.showAndWait().filter(name -> !name.isBlank()).ifPresent(name -> {
+                if (!dao.saveFilter(name, smartFilter)) {
+                    showInfo(SAVE_FAILED);
+                    return;
+                }
+                savedBox.getItems().setAll(dao.savedFilters().keySet());
+                savedBox.setValue(name.strip());
+            });
+        });
+        Button deleteBtn = new Button("삭제");
+        deleteBtn.disableProperty().bind(savedBox.valueProperty().isNull());
+        deleteBtn.setOnAction(e -> {
+            if (dao.deleteFilter(savedBox.getValue())) savedBox.getItems().setAll(dao.savedFilters().keySet());
+        });
+
+        FilteredList<Task> shown = new FilteredList<>(smartResults);
+        TextField findField = new TextField();
+        findField.setPromptText("결과 안에서 찾기");
+        findField.textProperty().addListener((obs, o, text) -> {
+            String needle = text.strip().toLowerCase(Locale.ROOT);
+            shown.setPredicate(needle.isEmpty() ? null : t -> t.title.toLowerCase(Locale.ROOT).contains(needle));
+        });
+
+        smartList = new ListView<>(shown);   // TaskCell은 저장소가 준비되면 attachStore에서
+        smartList.setPlaceholder(new Label("불러오는 중…"));
+        smartList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        VBox.setVgrow(smartList, Priority.ALWAYS);
+
+        smartCount = new Label();
+        smartCount.setStyle("-fx-font-size: 11px; -fx-text-fill: #555;");
+
+        VBox box = new VBox(8, new HBox(6, savedBox, deleteBtn), new HBox(6, specField, saveBtn),
+                findField, smartCount, smartList, buildBulkBar(smartList, this::refreshAll));
+        HBox.setHgrow(specField, Priority.ALWAYS);
+        box.setPadding(new Insets(10));
+        return box;
+    }
+
+    /** 보기 조건으로 다시 조회 (+ 태그 필터) */
+    private void refreshSmart() {
+        showSmart(querySmart(dao, smartFilter, tagFilter));
+    }
+
+    private void showSmart(List<Task> items) {
+        smartResults.setAll(items);
+        smartList.setPlaceholder(new Label("맞는 할 일이 없습니다"));
+        smartCount.setText(items.size() + "개" + (items.size() >= SMART_LIMIT ? " (앞의 " + SMART_LIMIT + "개까지)" : ""));
+    }
 
-        List<Task> items = new ArrayList<>();
-        // 단발(미완료 중심) — includeCompleted=false 가정
-        items.addAll(dao.listDueUntil(today, /*includeCompleted*/ false));
-        // 반복 — 반드시 추가!
-        items.addAll(dao.listRecurringByDate(today));
+    /** 저장된 보기 패널 첫 데이터: 보기 이름들 + 조건 없는 결과 */
+    private record SmartData(List<String> saved, List<Task> items) {
+    }
 
-        todayList.getItems().setAll(items);
+    /** 보기 조건 결과 읽기 (화면을 건드리지 않음 → 어느 스레드에서나) */
+    private static List<Task> querySmart(TaskStore store, SmartFilter filter, TagFilter tags) {
+        List<Task> items = store.query(filter, LocalDate.now(), SMART_LIMIT);
+        return tags == null ? items : tags.filter(store, items);
     }
 
     // ---------- 오른쪽: 새 할 일 ----------
@@ -254,16 +689,18 @@ public class App extends Application {
                         : selectedDate.toString() + " " + timeText;
             }
 
+            boolean saved;
             if (!recurringChk.isSelected()) {
-                dao.addTask(title, priority, dueAt); // 단발
+                saved = dao.addTask(title, priority, dueAt); // 단발
             } else {
                 int mask = buildDaysMask(dayToggles); // 일=bit0 … 토=bit6
                 if (mask == 0) { showInfo("반복 요일을 하나 이상 선택하세요."); return; }
                 String recurStart = (selectedDate != null ? selectedDate.toString() : LocalDate.now().toString());
                 String recurUntil = null;
                 int intervalWeeks = 1;
-                dao.addRecurringTask(title, priority, mask, recurStart, recurUntil, intervalWeeks, timeText);
+                saved = dao.addRecurringTask(title, priority, mask, recurStart, recurUntil, intervalWeeks, timeText);
             }
+            if (!saved) { showInfo(SAVE_FAILED); return; }
 
             // 갱신 + 리셋
             refreshAll();
@@ -307,30 +744,84 @@ public class App extends Application {
 
         // ✅ 문자열 X, Task로 렌더링 + 삭제/토글 가능
         ListView<Task> list = new ListView<>();
-        list.setCellFactory(v -> new ModalTaskCell(dao, () -> {
-            // 토글/삭제 후 전체 리프레시
-            refreshAll();
-            // 모달 목록 즉시 갱신
-            list.getItems().setAll(collectTasksFor(date));
-        }));
-        list.getItems().setAll(collectTasksFor(date));
+        // 토글/삭제 후 전체 리프레시 (모달 목록도 등록된 뷰라 같이 한 번만 다시 읽음)
+        list.setCellFactory(v -> new ModalTaskCell(dao, this::refreshAll));
+        list.getItems().setAll(tasksOn(date));
+        refresh.register(VIEW_DAY_MODAL, () -> list.getItems().setAll(tasksOn(date)));
+        list.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
         Button close = new Button("닫기");
         close.setOnAction(e -> dialog.close());
 
-        VBox box = new VBox(10, new Label(date.toString()), list, close);
+        HBox bulkBar = buildBulkBar(list, this::refreshAll);
+
+        VBox box = new VBox(10, new Label(date.toString()), list, bulkBar, close);
         box.setPadding(new Insets(12));
 
         dialog.setScene(new Scene(box, 480, 420));
         dialog.showAndWait();
+        refresh.unregister(VIEW_DAY_MODAL);
+    }
+
+    // ---------- 다중 선택 일괄 처리 ----------
+    /**
+     * 선택한 Task들을 한 번에 완료/미완료/삭제
+     * - DB 반영은 일괄 메서드 한 번(= 트랜잭션 한 번), 화면 갱신도 끝나고 한 번만
+     */
+    private HBox buildBulkBar(ListView<Task> list, Runnable onChanged) {
+        Button doneBtn = new Button("선택 완료");
+        Button undoneBtn = new Button("선택 미완료");
+        Button deleteBtn = new Button("선택 삭제");
+
+        doneBtn.setOnAction(e -> bulkComplete(list, true, onChanged));
+        undoneBtn.setOnAction(e -> bulkComplete(list, false, onChanged));
+        deleteBtn.setOnAction(e -> {
+            int[] ids = selectedIds(list);
+            if (ids.length == 0) return;
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                    "선택한 일정 " + ids.length + "개를 삭제할까요?", ButtonType.OK, ButtonType.CANCEL);
+            confirm.setHeaderText("일괄 삭제 확인");
+            confirm.showAndWait().ifPresent(bt -> {
+                if (bt != ButtonType.OK) return;
+                try {
+                    if (!dao.deleteByIds(ids)) throw new IllegalStateException(SAVE_FAILED);
+                    onChanged.run();
+                } catch (Exception ex) {
+                    new Alert(Alert.AlertType.ERROR, "삭제 실패: " + ex.getMessage()).showAndWait();
+                }
+            });
+        });
+
+        // 아무것도 선택 안 했으면 비활성
+        doneBtn.disableProperty().bind(list.getSelectionModel().selectedItemProperty().isNull());
+        undoneBtn.disableProperty().bind(doneBtn.disableProperty());
+        deleteBtn.disableProperty().bind(doneBtn.disableProperty());
+
+        HBox bar = new HBox(6, doneBtn, undoneBtn, deleteBtn);
+        bar.setAlignment(Pos.CENTER_LEFT);
+        return bar;
+    }
+
+    private void bulkComplete(ListView<Task> list, boolean completed, Runnable onChanged) {
+        int[] ids = selectedIds(list);
+        if (ids.length == 0) return;
+        try {
+            if (!dao.updateCompletedBatch(ids, completed)) throw new IllegalStateException(SAVE_FAILED);
+            onChanged.run();
+        } catch (Exception ex) {
+            new Alert(Alert.AlertType.ERROR, "저장 실패: " + ex.getMessage()).showAndWait();
+        }
     }
 
-    // 모달에 보여줄 Task 수집(단발 + 반복)
-    private List<Task> collectTasksFor(LocalDate date) {
-        List<Task> items = new ArrayList<>();
-        items.addAll(dao.listByDate(date));
-        items.addAll(dao.listRecurringByDate(date));
-        return items;
+    private static int[] selectedIds(ListView<Task> list) {
+        return list.getSelectionModel().getSelectedItems().stream().mapToInt(t -> t.id).toArray();
+    }
+
+    /** 날짜 모달 목록: 주간 보기가 읽어 둔 주면 그대로, 아니면 그날 하루만 listBetween */
+    private List<Task> tasksOn(LocalDate date) {
+        List<Task> items = agenda.get(date);
+        if (items == null) items = dao.listBetween(date, date).getOrDefault(date, List.of());
+        return tagFilter == null ? items : tagFilter.filter(dao, items);
     }
 
     // ---------- 공용 헬퍼 ----------
@@ -345,13 +836,38 @@ public class App extends Application {
         return s.substring(idx + 1, idx + 6); // "HH:mm"
     }
 
+    /** 셀 메타 줄에 붙일 태그 (" #a #b", 없으면 "") */
+    static String tagText(TaskStore dao, int id) {
+        if (dao == null) return "";   // 저장소 전 (첫 화면 캐시 미리 보기)
+        StringBuilder sb = new StringBuilder();
+        for (String tag : dao.tagsOf(id)) sb.append(" #").append(tag);
+        return sb.toString();
+    }
+
+    /** 태그 편집: 공백/쉼표로 구분해 입력받아 통째로 교체 */
+    static void editTags(TaskStore dao, Task task, Runnable onChanged) {
+        TextInputDialog dialog = new TextInputDialog(String.join(" ", dao.tagsOf(task.id)));
+        dialog.setTitle("태그");
+        dialog.setHeaderText(task.title);
+        dialog.setContentText("태그 (공백/쉼표로 구분):");
+        dialog.showAndWait().ifPresent(text -> {
+            List<String> tags = Arrays.stream(text.split("[\\s,]+")).filter(s -> !s.isEmpty()).toList();
+            try {
+                if (!dao.setTags(task.id, tags)) throw new IllegalStateException(SAVE_FAILED);
+                if (onChanged != null) onChanged.run();
+            } catch (Exception ex) {
+                new Alert(Alert.AlertType.ERROR, "태그 저장 실패: " + ex.getMessage()).showAndWait();
+            }
+        });
+    }
+
     public static void main(String[] args) { launch(args); }
 
     // ==============================================================
     // 모달 셀: 완료/미완료 토글 + 삭제 버튼
     // ==============================================================
     private static class ModalTaskCell extends ListCell<Task> {
-        private final TaskDao dao;
+        private final TaskStore dao;
         private final Runnable onChanged;
 
         private final Circle circle = new Circle(6);
@@ -359,11 +875,12 @@ public class App extends Application {
         private final Label meta   = new Label();
         private final Label recurLabel = new Label();
         private final Button toggleBtn = new Button("완료/미완료");
+        private final Button tagBtn = new Button("태그");
         private final Button deleteBtn = new Button("삭제");
-        private final HBox header = new HBox(8, circle, title, recurLabel, meta, toggleBtn, deleteBtn);
+        private final HBox header = new HBox(8, circle, title, recurLabel, meta, toggleBtn, tagBtn, deleteBtn);
         private final VBox root = new VBox(2, header);
 
-        ModalTaskCell(TaskDao dao, Runnable onChanged) {
+        ModalTaskCell(TaskStore dao, Runnable onChanged) {
             this.dao = dao;
             this.onChanged = onChanged;
             header.setAlignment(Pos.CENTER_LEFT);
@@ -395,7 +912,7 @@ public class App extends Application {
 
             String dueLabel = dueStr.isEmpty() ? "" : (" / 마감: " + dueStr + (timeStr.isEmpty() ? "" : " " + timeStr));
             String dText    = (dday == null ? "" : " / D" + (dday == 0 ? "-DAY" : (dday > 0 ? "-" + dday : "+" + Math.abs(dday))));
-            meta.setText("(우선순위 " + task.priority + ")" + dueLabel + dText);
+            meta.setText("(우선순위 " + task.priority + ")" + dueLabel + dText + App.tagText(dao, task.id));
 
             // 경고색
             if (!task.completed && dday != null) {
@@ -414,7 +931,7 @@ public class App extends Application {
                 task.completed = next;
                 circle.setFill(next ? Color.GREEN : Color.GRAY);
                 try {
-                    dao.updateCompleted(task.id, next);
+                    if (!dao.updateCompleted(task.id, next)) throw new IllegalStateException(SAVE_FAILED);
                     if (onChanged != null) onChanged.run();
                 } catch (Exception ex) {
                     task.completed = !next;
@@ -423,6 +940,8 @@ public class App extends Application {
                 }
             });
 
+            tagBtn.setOnAction(e -> App.editTags(dao, task, onChanged));
+
             // 삭제
             deleteBtn.setOnAction(e -> {
                 Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
@@ -431,7 +950,7 @@ public class App extends Application {
                 confirm.showAndWait().ifPresent(bt -> {
                     if (bt == ButtonType.OK) {
                         try {
-                            dao.deleteById(task.id);
+                            if (!dao.deleteById(task.id)) throw new IllegalStateException(SAVE_FAILED);
                             if (onChanged != null) onChanged.run();
                             // 리스트에서 즉시 제거
                             if (getListView() != null) getListView().getItems().remove(task);
@@ -445,15 +964,10 @@ public class App extends Application {
             setGraphic(root);
         }
 
+        /** 마감까지 남은 날 (없으면 null), 셀을 그릴 때마다 LocalDate.parse 하지 않게 epochDay로 */
         private Integer ddayOf(String dueAt) {
-            try {
-                if (dueAt == null || dueAt.isBlank()) return null;
-                LocalDate due = LocalDate.parse(App.shortDate(dueAt));
-                LocalDate today = LocalDate.now();
-                return (int) java.time.temporal.ChronoUnit.DAYS.between(today, due);
-            } catch (Exception e) {
-                return null;
-            }
+            int due = TaskColumns.epochDay(dueAt);
+            return due == TaskColumns.NONE ? null : (int) (due - LocalDate.now().toEpochDay());
         }
     }
 
@@ -461,8 +975,9 @@ public class App extends Application {
     // 오늘 패널 셀: 완료/미완료 토글 + 삭제 버튼 + 🔁반복 배지
     // ==============================================================
     private static class TaskCell extends ListCell<Task> {
-        private final TaskDao dao;
+        private final TaskStore dao;
         private final Runnable onChanged;
+        private final java.util.function.Consumer<Task> onToggled;   // null이면 토글도 onChanged로 처리
 
         private final Circle circle = new Circle(6);
         private final Label title  = new Label();
@@ -470,20 +985,23 @@ public class App extends Application {
         private final Label recurLabel = new Label();
         private final Label doneLabel = new Label();
         private final Button toggleBtn = new Button("완료/미완료");
+        private final Button tagBtn = new Button("태그");
         private final Button deleteBtn = new Button("삭제");
 
-        private final HBox header = new HBox(8, circle, title, recurLabel, doneLabel, toggleBtn, deleteBtn);
+        private final HBox header = new HBox(8, circle, title, recurLabel, doneLabel, toggleBtn, tagBtn, deleteBtn);
         private final VBox root = new VBox(2, header, meta);
 
-        TaskCell(TaskDao dao, Runnable onChanged) {
+        TaskCell(TaskStore dao, Runnable onChanged, java.util.function.Consumer<Task> onToggled) {
             this.dao = dao;
             this.onChanged = onChanged;
+            this.onToggled = onToggled;
             header.setAlignment(Pos.CENTER_LEFT);
             root.setAlignment(Pos.CENTER_LEFT);
             recurLabel.setStyle("-fx-font-size: 11px; -fx-text-fill: #555;");
             meta.setStyle("-fx-font-size: 11px; -fx-text-fill: #555;");
         }
-        TaskCell(TaskDao dao) { this(dao, null); }
+        TaskCell(TaskStore dao, Runnable onChanged) { this(dao, onChanged, null); }
+        TaskCell(TaskStore dao) { this(dao, null, null); }
 
         @Override
         protected void updateItem(Task task, boolean empty) {
@@ -508,7 +1026,7 @@ public class App extends Application {
 
             String dueLabel = dueStr.isEmpty() ? "" : (" / 마감: " + dueStr + (timeStr.isEmpty() ? "" : " " + timeStr));
             String dText    = (dday == null ? "" : " / D" + (dday == 0 ? "-DAY" : (dday > 0 ? "-" + dday : "+" + Math.abs(dday))));
-            meta.setText("(우선순위 " + task.priority + ")" + dueLabel + dText);
+            meta.setText("(우선순위 " + task.priority + ")" + dueLabel + dText + App.tagText(dao, task.id));
 
             applyVisual(task.completed);
 
@@ -529,8 +1047,9 @@ public class App extends Application {
                 task.completed = next;
                 applyVisual(next);
                 try {
-                    dao.updateCompleted(task.id, next);
-                    if (onChanged != null) onChanged.run();
+                    if (!dao.updateCompleted(task.id, next)) throw new IllegalStateException(SAVE_FAILED);
+                    if (onToggled != null) onToggled.accept(task);
+                    else if (onChanged != null) onChanged.run();
                 } catch (Exception ex) {
                     task.completed = !next;
                     applyVisual(task.completed);
@@ -538,6 +1057,8 @@ public class App extends Application {
                 }
             });
 
+            tagBtn.setOnAction(e -> App.editTags(dao, task, onChanged));
+
             // 삭제
             deleteBtn.setOnAction(e -> {
                 Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
@@ -546,7 +1067,7 @@ public class App extends Application {
                 confirm.showAndWait().ifPresent(bt -> {
                     if (bt == ButtonType.OK) {
                         try {
-                            dao.deleteById(task.id);
+                            if (!dao.deleteById(task.id)) throw new IllegalStateException(SAVE_FAILED);
                             if (onChanged != null) onChanged.run();
                             if (getListView() != null) getListView().getItems().remove(task);
                         } catch (Exception ex) {
@@ -565,15 +1086,10 @@ public class App extends Application {
             doneLabel.setStyle("-fx-text-fill: " + (completed ? "#2e7d32" : "#555") + "; -fx-font-size: 11px;");
         }
 
+        /** 마감까지 남은 날 (없으면 null), 셀을 그릴 때마다 LocalDate.parse 하지 않게 epochDay로 */
         private Integer ddayOf(String dueAt) {
-            try {
-                if (dueAt == null || dueAt.isBlank()) return null;
-                LocalDate due = LocalDate.parse(App.shortDate(dueAt));
-                LocalDate today = LocalDate.now();
-                return (int) java.time.temporal.ChronoUnit.DAYS.between(today, due);
-            } catch (Exception e) {
-                return null;
-            }
+            int due = TaskColumns.epochDay(dueAt);
+            return due == TaskColumns.NONE ? null : (int) (due - LocalDate.now().toEpochDay());
         }
     }
 }
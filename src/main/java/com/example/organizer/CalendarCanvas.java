@@ -0,0 +1,207 @@
+package com.example.organizer;
+
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.function.Consumer;
+
+/**
+ * 한 달 달력을 Canvas 하나에 직접 그리는 렌더러
+ * - 기존 GridPane 방식은 날짜마다 VBox/Button/HBox/Label 여러 개 + 인라인 CSS → 한 달에 200개 넘는 노드
+ * - 여기서는 노드 2개(Region + Canvas), CSS 처리 없음, 점도 문자열 대신 원으로 그림
+ * - 클릭 위치로 날짜를 계산(hit-test)해서 onDayClicked 호출
+ *
+ * 표시 규칙은 기존과 같음
+ * - 회색 ●: 미완료 개수 (최대 3개), 초록 ●: 완료 개수 (최대 3개), 빨강 ●: 반복 있음
+ * - 일요일은 빨간 글씨
+ */
+public final class CalendarCanvas extends Region {
+
+    private static final String[] WEEK = {"일", "월", "화", "수", "목", "금", "토"};
+    private static final double HEADER_H = 24;
+    private static final double GAP = 6;
+    private static final double DOT_R = 3.5;
+    private static final int MAX_DOTS = 3;
+
+    private static final Color GRID = Color.web("#dddddd");
+    private static final Color CELL_BG = Color.web("#fafafa");
+    private static final Color CELL_HOVER = Color.web("#eef4ff");
+    private static final Color TODAY_BORDER = Color.web("#4a90d9");
+    private static final Color TODO_DOT = Color.gray(0.5, 0.75);
+    private static final Color DONE_DOT = Color.web("#2e7d32", 0.95);
+    private static final Color RECUR_DOT = Color.RED;
+
+    private static final Font HEAD_FONT = Font.font(null, FontWeight.BOLD, 12);
+    private static final Font DAY_FONT = Font.font(13);
+
+    private final Canvas canvas = new Canvas();
+
+    private YearMonth month = YearMonth.now();
+    private int firstDow;                  // 1일의 칸 (일=0 … 토=6)
+    private int[] done = new int[31];      // 날짜(1일=0)별 완료 개수
+    private int[] todo = new int[31];      // 날짜별 미완료 개수
+    private boolean[] recurring = new boolean[31];
+    private int hoverDay;                  // 마우스가 올라간 날짜 (0 = 없음)
+
+    private Consumer<LocalDate> onDayClicked;
+
+    public CalendarCanvas() {
+        getChildren().add(canvas);
+        setPrefSize(680, 540);
+
+        canvas.setOnMouseClicked(e -> {
+            int day = dayAt(e.getX(), e.getY());
+            if (day > 0 && onDayClicked != null) onDayClicked.accept(month.atDay(day));
+        });
+        canvas.setOnMouseMoved(e -> setHover(dayAt(e.getX(), e.getY())));
+        canvas.setOnMouseExited(e -> setHover(0));
+    }
+
+    public void setOnDayClicked(Consumer<LocalDate> handler) {
+        this.onDayClicked = handler;
+    }
+
+    /**
+     * 한 달치 데이터 교체 후 다시 그림
+     *
+     * @param doneByDay  index = 날짜-1
+     * @param todoByDay  index = 날짜-1
+     * @param recurByDay index = 날짜-1
+     */
+    public void setMonth(YearMonth ym, int[] doneByDay, int[] todoByDay, boolean[] recurByDay) {
+        this.month = ym;
+        this.firstDow = ym.atDay(1).getDayOfWeek().getValue() % 7;
+        this.done = doneByDay;
+        this.todo = todoByDay;
+        this.recurring = recurByDay;
+        this.hoverDay = 0;
+        draw();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double w = snapSizeX(getWidth()), h = snapSizeY(getHeight());
+        if (canvas.getWidth() != w || canvas.getHeight() != h) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+            draw();
+        }
+    }
+
+    // ==============================================================
+    // hit-test
+    // ==============================================================
+
+    private int rows() {
+        return (firstDow + month.lengthOfMonth() + 6) / 7;
+    }
+
+    private double cellW() {
+        return (canvas.getWidth() - GAP) / 7;
+    }
+
+    private double cellH() {
+        return (canvas.getHeight() - HEADER_H - GAP) / rows();
+    }
+
+    /** 좌표 → 날짜(1~말일), 칸 밖/빈 칸이면 0 */
+    int dayAt(double x, double y) {
+        if (y < HEADER_H || x < 0) return 0;
+        int col = (int) (x / cellW());
+        int row = (int) ((y - HEADER_H) / cellH());
+        if (col > 6 || row >= rows()) return 0;
+        int day = row * 7 + col - firstDow + 1;
+        return day >= 1 && day <= month.lengthOfMonth() ? day : 0;
+    }
+
+    private void setHover(int day) {
+        if (day == hoverDay) return;
+        hoverDay = day;
+        canvas.setCursor(day > 0 ? Cursor.HAND : Cursor.DEFAULT);
+        draw();
+    }
+
+    // ==============================================================
+    // 그리기
+    // ==============================================================
+
+    private void draw() {
+        double w = canvas.getWidth(), h = canvas.getHeight();
+        if (w <= 0 || h <= 0) return;
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.clearRect(0, 0, w, h);
+
+        double cw = cellW(), ch = cellH();
+
+        // 요일 헤더
+        g.setFont(HEAD_FONT);
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+        for (int i = 0; i < 7; i++) {
+            g.setFill(i == 0 ? Color.RED : Color.BLACK);
+            g.fillText(WEEK[i], i * cw + cw / 2, HEADER_H / 2);
+        }
+
+        LocalDate today = LocalDate.now();
+        int todayDay = YearMonth.from(today).equals(month) ? today.getDayOfMonth() : 0;
+        int length = month.lengthOfMonth();
+
+        g.setFont(DAY_FONT);
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setTextBaseline(VPos.TOP);
+        g.setLineWidth(1);
+
+        for (int day = 1; day <= length; day++) {
+            int slot = firstDow + day - 1;
+            double x = (slot % 7) * cw + GAP / 2;
+            double y = HEADER_H + (slot / 7) * ch + GAP / 2;
+            double iw = cw - GAP, ih = ch - GAP;
+
+            // 칸 배경/테두리
+            g.setFill(day == hoverDay ? CELL_HOVER : CELL_BG);
+            g.fillRect(x, y, iw, ih);
+            g.setStroke(day == todayDay ? TODAY_BORDER : GRID);
+            g.strokeRect(x + 0.5, y + 0.5, iw - 1, ih - 1);
+
+            // 날짜 숫자 (일요일 빨강)
+            g.setFill(slot % 7 == 0 ? Color.RED : Color.BLACK);
+            g.fillText(Integer.toString(day), x + 6, y + 4);
+
+            // 점: 1줄 = 미완료(회색) + 완료(초록), 2줄 = 반복(빨강)
+            int i = day - 1;
+            int nTodo = Math.min(at(todo, i), MAX_DOTS);
+            int nDone = Math.min(at(done, i), MAX_DOTS);
+            double step = DOT_R * 2 + 3;
+            double rowW = (nTodo + nDone) * step + (nTodo > 0 && nDone > 0 ? 4 : 0);
+            double dx = x + (iw - rowW) / 2 + DOT_R;
+            double dy = y + ih * 0.62;
+            g.setFill(TODO_DOT);
+            for (int k = 0; k < nTodo; k++, dx += step) dot(g, dx, dy);
+            if (nTodo > 0) dx += 4;
+            g.setFill(DONE_DOT);
+            for (int k = 0; k < nDone; k++, dx += step) dot(g, dx, dy);
+
+            if (i < recurring.length && recurring[i]) {
+                g.setFill(RECUR_DOT);
+                dot(g, x + iw / 2, dy + DOT_R * 2 + 5);
+            }
+        }
+    }
+
+    private static void dot(GraphicsContext g, double cx, double cy) {
+        g.fillOval(cx - DOT_R, cy - DOT_R, DOT_R * 2, DOT_R * 2);
+    }
+
+    private static int at(int[] a, int i) {
+        return i < a.length ? a[i] : 0;
+    }
+}
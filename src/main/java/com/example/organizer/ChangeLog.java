@@ -0,0 +1,423 @@
+package com.example.organizer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 변경 기록 change_log (기기 간 동기화용, todo.db에만 있음)
+ * - TaskDao의 모든 쓰기가 같은 트랜잭션 안에서 남김 → seq(AUTOINCREMENT)가 곧 이 DB의 변경 순서
+ *   · op: I(추가, 모든 컬럼) / U(수정, 실제로 바뀐 컬럼만) / D(삭제)
+ *   · cols: 컬럼 → 값 JSON 객체 (SQLite json_object로 만들고 json_each로 읽음)
+ *   · at/node: 언제(epoch ms) 어느 기기에서 바뀌었는지 (다른 기기에서 받아 적용한 변경은 원래 값 그대로)
+ * - 기기마다 id가 다르므로 동기화에서는 할 일을 uid로 구분 (task_uid: id ↔ uid)
+ * - 보관/파티션 이동처럼 저장 위치만 바뀌는 것은 기록하지 않음
+ * - 테이블을 처음 만들 때 기존 할 일을 I로 한 번 기록 (at=0 → 이후의 실제 수정이 항상 이김)
+ *   · 이때 uid는 id + 생성 시각으로 정함 → 같은 파일을 복사해 쓰던 두 기기에서도 같은 할 일은 같은 uid
+ *
+ * 변경 파일 형식 (SyncTool export/apply): 한 줄에 변경 하나, 탭 구분
+ *   seq  uid  op  at  node  cols(JSON, D는 빈 칸)
+ */
+final class ChangeLog {
+
+    private static final Log LOG = Log.get("SYNC");
+
+    /** 변경 하나 (보내는 쪽 seq 기준) */
+    record Change(long seq, String uid, String op, String cols, long at, String node) {
+    }
+
+    /** 동기화되는 컬럼 (id 제외) */
+    static final Set<String> COLUMNS = Set.of("title", "priority", "due_at", "is_recurring", "next_fire_at",
+            "created_at", "completed", "recur_days", "recur_start", "recur_until", "recur_interval");
+
+    private static final String ALL_JSON = """
+            json_object('title', t.title, 'priority', t.priority, 'due_at', t.due_at, 'is_recurring', t.is_recurring,
+                        'next_fire_at', t.next_fire_at, 'created_at', t.created_at, 'completed', t.completed,
+                        'recur_days', t.recur_days, 'recur_start', t.recur_start, 'recur_until', t.recur_until,
+                        'recur_interval', t.recur_interval)""";
+
+    /** updateTask가 바꾸는 컬럼 */
+    private static final String EDIT_JSON = """
+            json_object('title', t.title, 'priority', t.priority, 'due_at', t.due_at, 'is_recurring', t.is_recurring,
+                        'next_fire_at', t.next_fire_at)""";
+
+    private static final String NODE = "(SELECT value FROM main.sync_meta WHERE key = 'node')";
+
+    // ---------- TaskDao 쓰기에서 (schema가 바뀌는 문장은 tasks → yYYYY.tasks) ----------
+    private static final String SQL_BIND_NEW = """
+            INSERT OR IGNORE INTO main.task_uid(id, uid)
+            SELECT id, lower(hex(randomblob(16))) FROM tasks WHERE id > ? AND id <= ?
+            """;
+
+    private static final String SQL_LOG_INSERTED = """
+            INSERT INTO main.change_log(uid, op, cols, at, node)
+            SELECT u.uid, 'I', %s, ?, %s
+            FROM tasks t JOIN main.task_uid u ON u.id = t.id
+            WHERE t.id > ? AND t.id <= ?
+            """.formatted(ALL_JSON, NODE);
+
+    private static final String SQL_SNAPSHOT = "SELECT " + EDIT_JSON + " FROM tasks t WHERE t.id = ?";
+
+    /** 수정 전/후 JSON에서 값이 달라진 컬럼만 기록 (하나도 없으면 기록 안 함) */
+    private static final String SQL_LOG_UPDATED = """
+            INSERT INTO main.change_log(uid, op, cols, at, node)
+            SELECT u.uid, 'U', d.cols, ?, %s
+            FROM main.task_uid u,
+                 (SELECT json_group_object(a.key, a.value) AS cols
+                  FROM json_each(?) a LEFT JOIN json_each(?) b ON b.key = a.key
+                  WHERE b.key IS NULL OR b.value IS NOT a.value) d
+            WHERE u.id = ? AND d.cols != '{}'
+            """.formatted(NODE);
+
+    private static final String SQL_LOG_COMPLETED = """
+            INSERT INTO main.change_log(uid, op, cols, at, node)
+            SELECT uid, 'U', json_object('completed', ?), ?, %s
+            FROM main.task_uid WHERE id IN (SELECT value FROM json_each(?))
+            """.formatted(NODE);
+
+    private static final String SQL_LOG_DELETED = """
+            INSERT INTO main.change_log(uid, op, cols, at, node)
+            SELECT uid, 'D', NULL, ?, %s
+            FROM main.task_uid WHERE id IN (SELECT value FROM json_each(?))
+            """.formatted(NODE);
+
+    private static final String SQL_UNBIND = "DELETE FROM main.task_uid WHERE id IN (SELECT value FROM json_each(?))";
+
+    // ---------- 동기화 적용 ----------
+    private static final String SQL_SEEN =
+            "SELECT 1 FROM main.change_log WHERE uid = ? AND op = ? AND at = ? AND node = ? AND cols IS ? LIMIT 1";
+
+    private static final String SQL_DELETED = "SELECT 1 FROM main.change_log WHERE uid = ? AND op = 'D' LIMIT 1";
+
+    private static final String SQL_ID_OF = "SELECT id FROM main.task_uid WHERE uid = ?";
+
+    private static final String SQL_BIND = "INSERT OR REPLACE INTO main.task_uid(id, uid) VALUES (?, ?)";
+
+    /** uid의 컬럼별 마지막 변경 (at, node) */
+    private static final String SQL_COLUMN_TIMES = """
+            SELECT j.key, c.at, c.node
+            FROM main.change_log c, json_each(c.cols) j
+            WHERE c.uid = ?
+            """;
+
+    private static final String SQL_KEYS = "SELECT key, value FROM json_each(?)";
+
+    private static final String SQL_PICK = """
+            SELECT json_group_object(key, value) FROM json_each(?)
+            WHERE key IN (SELECT value FROM json_each(?))
+            """;
+
+    private static final String SQL_APPEND =
+            "INSERT INTO main.change_log(uid, op, cols, at, node) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SQL_ADVANCE = """
+            INSERT INTO main.sync_peer(node, seq) VALUES (?, ?)
+            ON CONFLICT(node) DO UPDATE SET seq = max(seq, excluded.seq)
+            """;
+
+    // ---------- 읽기 ----------
+    static final String SQL_SINCE =
+            "SELECT seq, uid, op, cols, at, node FROM main.change_log WHERE seq > ? ORDER BY seq LIMIT ?";
+
+    static final String SQL_PEER = "SELECT seq FROM main.sync_peer WHERE node = ?";
+
+    static final String SQL_NODE = "SELECT value FROM main.sync_meta WHERE key = 'node'";
+
+    /** node id 새로 뽑기 (DB 파일을 복사해서 다른 기기에 둔 경우) */
+    static final String SQL_RENEW_NODE = "UPDATE main.sync_meta SET value = lower(hex(randomblob(8))) WHERE key = 'node'";
+
+    private ChangeLog() {
+    }
+
+    // ==============================================================
+    // 설치 (Database.migrate에서, 파티션 옮기기 뒤)
+    // ==============================================================
+
+    /**
+     * 테이블 생성, 처음이면 기존 할 일(todo.db + 연도 파일)을 I로 기록
+     */
+    static void install(Connection conn, String url) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            boolean fresh;
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'change_log'")) {
+                fresh = !rs.next();
+            }
+
+            st.execute("""
+                CREATE TABLE IF NOT EXISTS change_log (
+                    seq INTEGER PRIMARY KEY AUTOINCREMENT,  -- 이 DB에서의 변경 순서
+                    uid TEXT NOT NULL,                      -- 할 일 (기기 공통 id)
+                    op TEXT NOT NULL,                       -- I/U/D
+                    cols TEXT,                              -- 바뀐 컬럼 JSON (D는 NULL)
+                    at INTEGER NOT NULL,                    -- 바뀐 시각 (epoch ms, 처음 기록은 0)
+                    node TEXT NOT NULL                      -- 바뀐 기기
+                )
+            """);
+            st.execute("CREATE INDEX IF NOT EXISTS idx_change_log_uid ON change_log(uid)");
+            st.execute("CREATE TABLE IF NOT EXISTS task_uid (id INTEGER PRIMARY KEY, uid TEXT NOT NULL UNIQUE)");
+            st.execute("CREATE TABLE IF NOT EXISTS sync_meta (key TEXT PRIMARY KEY, value TEXT NOT NULL)");
+            st.execute("CREATE TABLE IF NOT EXISTS sync_peer (node TEXT PRIMARY KEY, seq INTEGER NOT NULL)");
+            st.execute("INSERT OR IGNORE INTO sync_meta(key, value) VALUES ('node', lower(hex(randomblob(8))))");
+
+            if (fresh) {
+                long t0 = System.nanoTime();
+                seed(conn, "main.tasks");
+                seed(conn, "main.tasks_archive");
+                if (Partitions.enabled(url)) {
+                    StatementCache sc = new StatementCache(conn);
+                    for (int year : Partitions.years(url)) {
+                        Partitions.attachForRead(sc, url, year);
+                        seed(conn, Partitions.schema(year) + ".tasks");
+                        sc.detach(Partitions.schema(year));
+                    }
+                }
+                long n;
+                try (ResultSet rs = st.executeQuery("SELECT count(*) FROM change_log")) {
+                    n = rs.next() ? rs.getLong(1) : 0;
+                }
+                LOG.info("change_log 생성: 기존 할 일 {}건 기록 ({}ms)", n, (System.nanoTime() - t0) / 1_000_000);
+            }
+        }
+    }
+
+    private static void seed(Connection conn, String table) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT OR IGNORE INTO main.task_uid(id, uid) "
+                    + "SELECT id, printf('s%d-%s', id, lower(hex(coalesce(created_at, '')))) FROM " + table);
+            st.executeUpdate("INSERT INTO main.change_log(uid, op, cols, at, node) SELECT u.uid, 'I', " + ALL_JSON
+                    + ", 0, " + NODE + " FROM " + table + " t JOIN main.task_uid u ON u.id = t.id");
+        }
+    }
+
+    // ==============================================================
+    // TaskDao 쓰기 트랜잭션 안에서 호출
+    // ==============================================================
+
+    /** year 파일(0 = todo.db)에 새로 들어간 (afterId, lastId] 행에 uid를 주고 I로 기록 */
+    static void inserted(StatementCache w, int year, int afterId, int lastId) throws SQLException {
+        PreparedStatement bind = stmt(w, "changeBindNew", year, SQL_BIND_NEW);
+        bind.setInt(1, afterId);
+        bind.setInt(2, lastId);
+        bind.executeUpdate();
+        PreparedStatement log = stmt(w, "changeInserted", year, SQL_LOG_INSERTED);
+        log.setLong(1, System.currentTimeMillis());
+        log.setInt(2, afterId);
+        log.setInt(3, lastId);
+        log.executeUpdate();
+    }
+
+    /** 수정 전 값 (updated에 넘김, 행이 없으면 null) */
+    static String snapshot(StatementCache w, int year, int id) throws SQLException {
+        PreparedStatement ps = stmt(w, "changeSnapshot", year, SQL_SNAPSHOT);
+        ps.setInt(1, id);
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    /** before(snapshot)와 비교해서 바뀐 컬럼만 U로 기록 */
+    static void updated(StatementCache w, int year, int id, String before) throws SQLException {
+        if (before == null) return;
+        String after = snapshot(w, year, id);
+        if (after == null) return;
+        PreparedStatement log = w.get("changeUpdated", SQL_LOG_UPDATED);
+        log.setLong(1, System.currentTimeMillis());
+        log.setString(2, after);
+        log.setString(3, before);
+        log.setInt(4, id);
+        log.executeUpdate();
+    }
+
+    static void completed(StatementCache w, String idsJson, boolean completed) throws SQLException {
+        PreparedStatement log = w.get("changeCompleted", SQL_LOG_COMPLETED);
+        log.setInt(1, completed ? 1 : 0);
+        log.setLong(2, System.currentTimeMillis());
+        log.setString(3, idsJson);
+        log.executeUpdate();
+    }
+
+    /** D로 기록하고 uid 연결을 끊음 (행을 지우기 전/후 어느 때나) */
+    static void deleted(StatementCache w, String idsJson) throws SQLException {
+        PreparedStatement log = w.get("changeDeleted", SQL_LOG_DELETED);
+        log.setLong(1, System.currentTimeMillis());
+        log.setString(2, idsJson);
+        log.executeUpdate();
+        unbind(w, idsJson);
+    }
+
+    /** uid 연결만 끊음 (받은 삭제를 적용할 때, 기록은 받은 줄 그대로) */
+    static void unbind(StatementCache w, String idsJson) throws SQLException {
+        PreparedStatement ps = w.get("changeUnbind", SQL_UNBIND);
+        ps.setString(1, idsJson);
+        ps.executeUpdate();
+    }
+
+    // ==============================================================
+    // 동기화 적용 (TaskDao.applyChanges)
+    // ==============================================================
+
+    /** 같은 변경(uid, op, at, node, cols)을 이미 기록했는지 = 이미 받았거나 이쪽에서 보낸 것 */
+    static boolean seen(StatementCache w, Change c) throws SQLException {
+        PreparedStatement ps = w.get("changeSeen", SQL_SEEN);
+        ps.setString(1, c.uid());
+        ps.setString(2, c.op());
+        ps.setLong(3, c.at());
+        ps.setString(4, c.node());
+        ps.setString(5, c.cols());
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    static boolean isDeleted(StatementCache w, String uid) throws SQLException {
+        PreparedStatement ps = w.get("changeDeletedUid", SQL_DELETED);
+        ps.setString(1, uid);
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    /** uid의 이 DB id (없으면 0) */
+    static int idOf(StatementCache sc, String uid) throws SQLException {
+        PreparedStatement ps = sc.get("changeIdOf", SQL_ID_OF);
+        ps.setString(1, uid);
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    static void bind(StatementCache w, int id, String uid) throws SQLException {
+        PreparedStatement ps = w.get("changeBind", SQL_BIND);
+        ps.setInt(1, id);
+        ps.setString(2, uid);
+        ps.executeUpdate();
+    }
+
+    /**
+     * c의 컬럼 중 이쪽 기록보다 나중인 것만 (컬럼별 나중 것이 이김, 시각이 같으면 node 문자열이 큰 쪽)
+     *
+     * @return 이긴 컬럼만 담은 JSON, 하나도 없으면 null
+     */
+    static String winners(StatementCache w, Change c) throws SQLException {
+        Map<String, Stamp> latest = new HashMap<>();
+        PreparedStatement ps = w.get("changeColumnTimes", SQL_COLUMN_TIMES);
+        ps.setString(1, c.uid());
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Stamp s = new Stamp(rs.getLong(2), rs.getString(3));
+                latest.merge(rs.getString(1), s, (a, b) -> b.after(a) ? b : a);
+            }
+        }
+        Stamp incoming = new Stamp(c.at(), c.node());
+        StringBuilder keys = new StringBuilder("[");
+        PreparedStatement kp = w.get("changeKeys", SQL_KEYS);
+        kp.setString(1, c.cols());
+        try (ResultSet rs = kp.executeQuery()) {
+            while (rs.next()) {
+                String key = rs.getString(1);
+                if (!COLUMNS.contains(key)) continue;
+                Stamp local = latest.get(key);
+                if (local != null && !incoming.after(local)) continue;
+                if (keys.length() > 1) keys.append(',');
+                keys.append('"').append(key).append('"');
+            }
+        }
+        if (keys.length() == 1) return null;
+        PreparedStatement pick = w.get("changePick", SQL_PICK);
+        pick.setString(1, c.cols());
+        pick.setString(2, keys.append(']').toString());
+        try (ResultSet rs = pick.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    /** 변경 시각 (같으면 node 문자열이 큰 쪽을 나중으로 → 두 기기가 항상 같은 쪽을 고름) */
+    private record Stamp(long at, String node) {
+        boolean after(Stamp o) {
+            return at != o.at ? at > o.at : node.compareTo(o.node) > 0;
+        }
+    }
+
+    /** cols(JSON)의 값을 t에 덮어씀 */
+    static void overlay(StatementCache sc, String cols, Task t) throws SQLException {
+        PreparedStatement ps = sc.get("changeKeys", SQL_KEYS);
+        ps.setString(1, cols);
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                switch (rs.getString(1)) {
+                    case "title" -> t.title = rs.getString(2);
+                    case "priority" -> t.priority = rs.getInt(2);
+                    case "due_at" -> t.dueAt = rs.getString(2);
+                    case "is_recurring" -> t.isRecurring = rs.getInt(2);
+                    case "next_fire_at" -> t.nextFireAt = rs.getString(2);
+                    case "created_at" -> t.createdAt = rs.getString(2);
+                    case "completed" -> t.completed = rs.getInt(2) == 1;
+                    case "recur_days" -> t.recurDays = rs.getInt(2);
+                    case "recur_start" -> t.recurStart = rs.getString(2);
+                    case "recur_until" -> t.recurUntil = rs.getString(2);
+                    case "recur_interval" -> t.recurInterval = Math.max(1, rs.getInt(2));
+                    default -> { }
+                }
+            }
+        }
+    }
+
+    /** 받은 변경을 원래 at/node 그대로 이쪽 기록에 추가 (cols = 실제로 적용한 컬럼) */
+    static void append(StatementCache w, Change c, String cols) throws SQLException {
+        PreparedStatement ps = w.get("changeAppend", SQL_APPEND);
+        ps.setString(1, c.uid());
+        ps.setString(2, c.op());
+        ps.setString(3, cols);
+        ps.setLong(4, c.at());
+        ps.setString(5, c.node());
+        ps.executeUpdate();
+    }
+
+    /** 보낸 쪽 기기의 어디까지 받았는지 기록 */
+    static void advance(StatementCache w, String node, long seq) throws SQLException {
+        PreparedStatement ps = w.get("changeAdvance", SQL_ADVANCE);
+        ps.setString(1, node);
+        ps.setLong(2, seq);
+        ps.executeUpdate();
+    }
+
+    // ==============================================================
+    // 변경 파일 한 줄
+    // ==============================================================
+
+    static void write(Writer out, Change c) throws IOException {
+        out.write(Long.toString(c.seq()));
+        out.write('\t');
+        out.write(c.uid());
+        out.write('\t');
+        out.write(c.op());
+        out.write('\t');
+        out.write(Long.toString(c.at()));
+        out.write('\t');
+        out.write(c.node());
+        out.write('\t');
+        if (c.cols() != null) out.write(c.cols()); // JSON 문자열 안의 탭/줄바꿈은 이스케이프돼 있음
+        out.write('\n');
+    }
+
+    /** 한 줄 → Change (형식이 다르면 IllegalArgumentException) */
+    static Change parse(String line) {
+        String[] f = line.split("\t", 6);
+        if (f.length != 6 || !(f[2].equals("I") || f[2].equals("U") || f[2].equals("D"))) {
+            throw new IllegalArgumentException("변경 형식 오류: " + line);
+        }
+        return new Change(Long.parseLong(f[0]), f[1], f[2], f[5].isEmpty() ? null : f[5], Long.parseLong(f[3]), f[4]);
+    }
+
+    private static PreparedStatement stmt(StatementCache w, String id, int year, String sql) throws SQLException {
+        return year == 0 ? w.get(id, sql) : w.get(id, Partitions.schema(year), sql);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.organizer;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 날짜별 요약 테이블 daily_stats (day, done, todo, recurring)
+ * - tasks / tasks_archive 의 INSERT·UPDATE·DELETE 트리거가 같은 트랜잭션 안에서 바로 갱신 → 항상 정확
+ * - 달력은 원본 테이블을 GROUP BY 하지 않고 한 달치(최대 31행)만 읽음
+ * - 집계 기준은 기존 달력 질의와 같음: due_at이 있는 행을 마감 날짜(앞 10자리)별로
+ *   · done = completed=1, todo = completed=0, recurring = 그중 is_recurring=1 인 행
+ *   · 요일 규칙으로 펼쳐지는 반복 업무 발생일은 행이 아니므로 여기 없음 (DateIndex 담당)
+ * - 트리거가 꺼진 채 수정됐거나 파일이 손상됐을 때: check()로 차이 확인, rebuild()로 재계산
+ *
+ * 단독 실행: gradle dailyStats --args="check|rebuild"
+ */
+public class DailyStats {
+
+    private static final Log LOG = Log.get("DB");
+
+    /** tasks ∪ tasks_archive 에서 날짜별로 새로 집계 (check/rebuild 공용) */
+    private static final String SQL_AGGREGATE = """
+                SELECT substr(due_at, 1, 10) AS day,
+                       SUM(CASE WHEN completed = 1 THEN 1 ELSE 0 END) AS done,
+                       SUM(CASE WHEN completed = 0 THEN 1 ELSE 0 END) AS todo,
+                       SUM(CASE WHEN is_recurring = 1 THEN 1 ELSE 0 END) AS recurring
+                FROM (SELECT due_at, completed, is_recurring FROM tasks
+                      UNION ALL
+                      SELECT due_at, completed, is_recurring FROM tasks_archive)
+                WHERE due_at IS NOT NULL
+                GROUP BY day
+            """;
+
+    /** 집계 결과와 daily_stats 가 다른 날짜 (양쪽 중 한쪽에만 있는 날짜 포함) */
+    private static final String SQL_DIFF = """
+                WITH fresh AS (%s)
+                SELECT f.day, f.done, f.todo, f.recurring, s.done, s.todo, s.recurring
+                FROM fresh f LEFT JOIN daily_stats s ON s.day = f.day
+                WHERE s.day IS NULL OR s.done != f.done OR s.todo != f.todo OR s.recurring != f.recurring
+                UNION ALL
+                SELECT s.day, 0, 0, 0, s.done, s.todo, s.recurring
+                FROM daily_stats s
+                WHERE s.day NOT IN (SELECT day FROM fresh)
+                  AND (s.done != 0 OR s.todo != 0 OR s.recurring != 0)
+            """.formatted(SQL_AGGREGATE);
+
+    private DailyStats() {
+    }
+
+    /**
+     * 테이블/트리거 생성 (Database.migrate()에서 호출, 여러 번 불러도 안전)
+     * - 테이블을 처음 만드는 경우에만 기존 데이터로 한 번 채움
+     */
+    static void install(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            boolean fresh;
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'daily_stats'")) {
+                fresh = !rs.next();
+            }
+
+            st.execute("""
+                CREATE TABLE IF NOT EXISTS daily_stats (
+                    day TEXT PRIMARY KEY,                   -- "YYYY-MM-DD"
+                    done INTEGER NOT NULL DEFAULT 0,        -- 완료 개수
+                    todo INTEGER NOT NULL DEFAULT 0,        -- 미완료 개수
+                    recurring INTEGER NOT NULL DEFAULT 0    -- 그중 반복 행 개수
+                ) WITHOUT ROWID
+            """);
+
+            for (String table : new String[]{"tasks", "tasks_archive"}) {
+                st.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_%1$s_stats_ins AFTER INSERT ON %1$s
+                    BEGIN
+                        %2$s
+                    END
+                """.formatted(table, add("NEW")));
+                st.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_%1$s_stats_del AFTER DELETE ON %1$s
+                    BEGIN
+                        %2$s
+                    END
+                """.formatted(table, sub("OLD")));
+                st.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_%1$s_stats_upd
+                    AFTER UPDATE OF due_at, completed, is_recurring ON %1$s
+                    BEGIN
+                        %2$s
+                        %3$s
+                    END
+                """.formatted(table, sub("OLD"), add("NEW")));
+            }
+
+            if (fresh) {
+                int days = rebuild(conn);
+                LOG.info("daily_stats 생성: {}일", days);
+            }
+        }
+    }
+
+    /** row(NEW)의 마감 날짜 칸에 +1 (UPSERT, 마감 없으면 아무것도 안 함) */
+    private static String add(String row) {
+        return """
+                INSERT INTO daily_stats(day, done, todo, recurring)
+                SELECT substr(%1$s.due_at, 1, 10),
+                       CASE WHEN %1$s.completed = 1 THEN 1 ELSE 0 END,
+                       CASE WHEN %1$s.completed = 0 THEN 1 ELSE 0 END,
+                       CASE WHEN %1$s.is_recurring = 1 THEN 1 ELSE 0 END
+                WHERE %1$s.due_at IS NOT NULL
+                ON CONFLICT(day) DO UPDATE SET
+                    done = done + excluded.done,
+                    todo = todo + excluded.todo,
+                    recurring = recurring + excluded.recurring;
+                """.formatted(row);
+    }
+
+    /** row(OLD)의 마감 날짜 칸에서 -1, 비게 된 날짜 행은 삭제 */
+    private static String sub(String row) {
+        return """
+                UPDATE daily_stats SET
+                    done = done - (CASE WHEN %1$s.completed = 1 THEN 1 ELSE 0 END),
+                    todo = todo - (CASE WHEN %1$s.completed = 0 THEN 1 ELSE 0 END),
+                    recurring = recurring - (CASE WHEN %1$s.is_recurring = 1 THEN 1 ELSE 0 END)
+                WHERE day = substr(%1$s.due_at, 1, 10);
+                DELETE FROM daily_stats
+                WHERE day = substr(%1$s.due_at, 1, 10) AND done = 0 AND todo = 0 AND recurring = 0;
+                """.formatted(row);
+    }
+
+    /**
+     * 원본 테이블에서 전부 다시 집계 (한 트랜잭션)
+     *
+     * @return 채워진 날짜 수
+     */
+    public static int rebuild(Connection conn) throws SQLException {
+        boolean auto = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM daily_stats");
+            int days = st.executeUpdate("INSERT INTO daily_stats(day, done, todo, recurring) " + SQL_AGGREGATE);
+            conn.commit();
+            return days;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(auto);
+        }
+    }
+
+    /**
+     * daily_stats 와 원본 집계를 비교
+     *
+     * @return 어긋난 날짜 설명 ("YYYY-MM-DD expected=[d,t,r] actual=[d,t,r]"), 정상이면 빈 목록
+     */
+    public static List<String> check(Connection conn) throws SQLException {
+        List<String> out = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(SQL_DIFF)) {
+            while (rs.next()) {
+                out.add(rs.getString(1)
+                        + " expected=[" + rs.getInt(2) + "," + rs.getInt(3) + "," + rs.getInt(4) + "]"
+                        + " actual=[" + rs.getInt(5) + "," + rs.getInt(6) + "," + rs.getInt(7) + "]");
+            }
+        }
+        return out;
+    }
+
+    // ==============================================================
+    // 단독 실행: 점검(check, 기본) / 재계산(rebuild)
+    // ==============================================================
+
+    public static void main(String[] args) throws SQLException {
+        String cmd = args.length > 0 ? args[0] : "check";
+        Database.migrate();
+        try (Connection conn = Database.getConnection()) {
+            switch (cmd) {
+                case "check" -> {
+                    List<String> diff = check(conn);
+                    diff.forEach(d -> System.out.println("[STATS] 불일치 " + d));
+                    System.out.println("[STATS] 점검 완료: 불일치 " + diff.size() + "일");
+                    if (!diff.isEmpty()) System.exit(1);
+                }
+                case "rebuild" -> System.out.println("[STATS] 재계산 완료: " + rebuild(conn) + "일");
+                default -> throw new IllegalArgumentException("사용법: DailyStats [check|rebuild]");
+            }
+        }
+    }
+}
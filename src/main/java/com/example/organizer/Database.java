@@ -11,16 +11,33 @@ import java.io.File;
  */
 public class Database {
 
-    private static final String DB_URL = "jdbc:sqlite:" + userDbPath();
+    static final String DB_URL = "jdbc:sqlite:" + userDbPath();
     // SQLite 파일 경로 (프로젝트 실행 폴더에 todo.db 생성됨)
     //private static final String DB_URL = "jdbc:sqlite:todo.db";
 
+    private static final Log LOG = Log.get("DB");
+
+    /** 락 대기 시간 (이후에도 잠겨 있으면 DbWriter가 백오프 재시도) */
+    private static final int BUSY_TIMEOUT_MILLIS = 1000;
+
     /**
      * DB 연결을 반환하는 메서드
      * - Connection을 얻어서 SQL 실행에 사용
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        return getConnection(DB_URL);
+    }
+
+    /**
+     * 다른 DB 파일에 연결 (쿼리 플랜 점검용 픽스처 DB 등)
+     * - 모든 연결에 busy_timeout: 다른 연결이 쓰기 락을 잡고 있으면 바로 실패하지 않고 잠시 기다림
+     */
+    public static Connection getConnection(String url) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+        }
+        return conn;
     }
 
     /**
@@ -29,8 +46,63 @@ public class Database {
      * 2) 반복 업무 관련 컬럼이 없으면 추가
      */
     public static void migrate() {
-        try (Connection conn = getConnection();
-             Statement st = conn.createStatement()) {
+        migrate(DB_URL);
+    }
+
+    /** url 의 DB에 같은 마이그레이션 적용 */
+    public static void migrate(String url) {
+        try (Connection conn = getConnection(url)) {
+            createSchema(conn);
+
+            // 5) id → 연도 파티션 위치 (파티션 모드에서만 채워짐, 없는 id = todo.db에 있음)
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE IF NOT EXISTS task_part (id INTEGER PRIMARY KEY, year INTEGER NOT NULL)");
+            }
+
+            // 6) 연도별 파티션을 켰으면 todo.db에 남은 마감 있는 단발 일정을 연도 파일로 옮김 (이미 옮겼으면 할 일 없음)
+            if (Partitions.enabled(url)) Partitions.split(conn, url);
+
+            // 7) 기기 간 동기화용 변경 기록 (처음이면 기존 할 일을 한 번 기록)
+            ChangeLog.install(conn, url);
+
+            // 8) 태그: 이름표 + 할 일 ↔ 태그 (id가 todo.db 순번이라 파티션 모드에서도 todo.db에만)
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE IF NOT EXISTS tags (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE)");
+                st.execute("""
+                    CREATE TABLE IF NOT EXISTS task_tags (
+                        task_id INTEGER NOT NULL,
+                        tag_id INTEGER NOT NULL,
+                        PRIMARY KEY (task_id, tag_id)
+                    ) WITHOUT ROWID
+                """);
+                st.execute("CREATE INDEX IF NOT EXISTS idx_task_tags_tag ON task_tags(tag_id)");
+            }
+
+            // 9) 저장된 보기: 이름 → SmartFilter 조건 글 (todo.db에만)
+            try (Statement st = conn.createStatement()) {
+                st.execute("""
+                    CREATE TABLE IF NOT EXISTS saved_filters (
+                        name TEXT PRIMARY KEY,
+                        spec TEXT NOT NULL,
+                        created_at TEXT DEFAULT CURRENT_TIMESTAMP
+                    )
+                """);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("DB migrate 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 테이블/컬럼/인덱스/트리거 생성 (여러 번 불러도 안전)
+     * - todo.db와 연도별 파티션 파일이 같은 스키마를 씀
+     */
+    static void createSchema(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+
+            // 0) 빈 페이지를 조금씩 반환할 수 있게 (테이블이 없는 새 DB에서만 효과 있음)
+            st.execute("PRAGMA auto_vacuum = INCREMENTAL");
 
             // 1) 기본 테이블 생성 (없으면 새로 만듦)
             st.execute("""
@@ -46,6 +118,12 @@ public class Database {
                 )
             """);
 
+            // WAL: 읽기와 쓰기가 서로 막지 않음 (서버 모드의 읽기 풀/단일 writer 전제, DB 파일에 영구 저장됨)
+            //     (PRAGMA가 결과 행을 돌려주므로 ResultSet을 바로 닫아야 이후 ALTER가 막히지 않음)
+            try (ResultSet rs = st.executeQuery("PRAGMA journal_mode=WAL")) {
+                rs.next();
+            }
+
             // 2) 반복업무용 컬럼 보강 (없으면 추가)
             addColumnIfMissing(conn, "tasks", "completed",     "INTEGER", "0");
             addColumnIfMissing(conn, "tasks", "recur_days",     "INTEGER", "0");   // 요일 비트마스크
@@ -53,8 +131,36 @@ public class Database {
             addColumnIfMissing(conn, "tasks", "recur_until",    "TEXT",    null);  // 반복 종료일
             addColumnIfMissing(conn, "tasks", "recur_interval", "INTEGER", "1");   // 반복 간격(주 단위)
 
-        } catch (SQLException e) {
-            throw new RuntimeException("DB migrate 실패: " + e.getMessage(), e);
+            // 2-1) 조회용 인덱스 (질의가 모두 substr(due_at, 1, 10) 으로 날짜를 비교하므로 같은 식으로 인덱스)
+            //      - 날짜별 목록: 날짜 = ? 로 찾고 priority, due_at 순서 그대로 읽음
+            st.execute("CREATE INDEX IF NOT EXISTS idx_tasks_due_day ON tasks(substr(due_at, 1, 10), priority, due_at)");
+            //      - 마감 임박/지난 단발 일정: is_recurring = 0 AND 날짜 <= ? 범위 + 정렬
+            st.execute("CREATE INDEX IF NOT EXISTS idx_tasks_kind_day ON tasks(is_recurring, substr(due_at, 1, 10), priority)");
+            //      - 반복 업무: 반복 행만 담는 부분 인덱스 (우선순위, 제목 순)
+            st.execute("CREATE INDEX IF NOT EXISTS idx_tasks_recurring ON tasks(is_recurring, priority, title) WHERE is_recurring = 1");
+
+            // 3) 보관 테이블: 오래된 완료 단발 일정을 옮겨두는 곳 (tasks와 같은 컬럼 + 옮긴 시각)
+            st.execute("""
+                CREATE TABLE IF NOT EXISTS tasks_archive (
+                    id INTEGER PRIMARY KEY,                 -- tasks.id 그대로 유지
+                    title TEXT NOT NULL,
+                    priority INTEGER NOT NULL,
+                    due_at TEXT,
+                    is_recurring INTEGER DEFAULT 0,
+                    next_fire_at TEXT,
+                    created_at TEXT,
+                    completed INTEGER DEFAULT 1,
+                    recur_days INTEGER DEFAULT 0,
+                    recur_start TEXT,
+                    recur_until TEXT,
+                    recur_interval INTEGER DEFAULT 1,
+                    archived_at TEXT DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+            st.execute("CREATE INDEX IF NOT EXISTS idx_tasks_archive_due_day ON tasks_archive(substr(due_at, 1, 10))");
+
+            // 4) 날짜별 요약 테이블 + 갱신 트리거 (달력 집계용)
+            DailyStats.install(conn);
         }
     }
 
@@ -81,8 +187,8 @@ public class Database {
 
         try (Statement st = conn.createStatement()) {
             st.execute(sb.toString());
-            System.out.println("[DB] 컬럼 추가: " + table + "." + column + " (" + type +
-                    (defaultVal != null ? " DEFAULT " + defaultVal : "") + ")");
+            LOG.info("컬럼 추가: {}.{} ({}{})", table, column, type,
+                    defaultVal != null ? " DEFAULT " + defaultVal : "");
         }
     }
 
@@ -103,13 +209,21 @@ public class Database {
     }
     // Database.java
     private static String userDbPath() {
-        // Windows: %APPDATA%\TodoProgram\todo.db
+        return appDataDir() + File.separator + "todo.db";
+    }
+
+    /**
+     * 앱 데이터 폴더 (없으면 생성)
+     * - Windows: %APPDATA%\TodoProgram
+     * - 그 외   : ~/.todoprogram
+     */
+    public static String appDataDir() {
         String appData = System.getenv("APPDATA");
         String base = (appData != null && !appData.isBlank())
                 ? appData + File.separator + "TodoProgram"
                 : System.getProperty("user.home") + File.separator + ".todoprogram";
         new File(base).mkdirs();
-        return base + File.separator + "todo.db";
+        return base;
     }
 
 
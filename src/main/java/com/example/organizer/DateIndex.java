@@ -0,0 +1,407 @@
+package com.example.organizer;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 날짜(epoch-day) 기준 메모리 인덱스
+ * - 단발 일정: (날짜, id) 순으로 정렬된 기본형 배열 → 범위/지난 일정/다가오는 일정을 이분 탐색으로 찾음
+ * - 반복 일정: [시작일, 종료일] 구간 + 요일 마스크 목록 (개수가 적어서 순차 비교로 충분)
+ * - 앱 시작 후 처음 쓸 때 tasks 전체를 한 번 순차 스캔해서 만들고, 이후에는 TaskDao 쓰기마다 증분 갱신
+ * - 같은 프로세스의 모든 TaskDao가 하나를 공유 (읽기/쓰기 락으로 보호)
+ * - 다른 프로세스가 DB를 바꾼 것은 모름 → 필요하면 invalidate() 후 다시 로드
+ * - rebuild의 스캔은 락 밖에서 돌므로 그동안 들어온 증분 갱신은 모아 뒀다가 결과를 올린 직후 다시 적용
+ *   (모든 갱신이 "이 id의 지금 상태"를 덮어쓰는 꼴이라 스캔이 이미 본 것을 또 적용해도 같음)
+ *   스캔 중에 invalidate()가 불리면 세대(generation)가 바뀌어, 결과는 올리되 loaded는 false로 남김 → 다음 사용 때 다시 스캔
+ */
+public class DateIndex {
+
+    /** 날짜 없음 (id → 날짜 표에서 사용) */
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    /** 반복 종료일이 없을 때 */
+    private static final int OPEN_END = Integer.MAX_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean loaded;
+    /** invalidate()마다 +1 (스캔 시작 때와 다르면 그 스캔 결과는 이미 낡음) */
+    private long generation;
+    /** 진행 중인 rebuild 수 (0보다 크면 로드 전 증분 갱신을 missed에 모음) */
+    private int rebuilding;
+    private final List<Runnable> missed = new ArrayList<>();
+
+    // ---------- 단발: (days[i], ids[i]) 오름차순 정렬 ----------
+    private int n;
+    private int[] days = new int[0];
+    private int[] ids = new int[0];
+    private boolean[] done = new boolean[0];
+    /** id → 단발 마감일 (없으면 NO_DAY) */
+    private int[] dayById = new int[0];
+
+    // ---------- 반복 규칙 ----------
+    private int m;
+    private int[] ruleIds = new int[0];
+    private int[] ruleMasks = new int[0];
+    private int[] ruleStarts = new int[0];
+    private int[] ruleUntils = new int[0];
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 다음 사용 때 전체 재구성하도록 표시 */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** rebuild가 차례로 스캔할 테이블 (null = 끝), 이름을 돌려주기 전에 ATTACH 등 준비 가능 */
+    @FunctionalInterface
+    interface Tables {
+        String next() throws SQLException;
+    }
+
+    /**
+     * tasks 전체를 한 번 순차 스캔해서 인덱스를 새로 만든다
+     * - 단발은 (날짜<<32 | id) 를 long 하나로 묶어 정렬 → 객체 생성 없이 정렬
+     */
+    public void rebuild(Connection conn) throws SQLException {
+        boolean[] first = {true};
+        rebuild(conn, () -> {
+            if (!first[0]) return null;
+            first[0] = false;
+            return "tasks";
+        });
+    }
+
+    /** 여러 테이블(todo.db + 연도별 파티션의 tasks)을 차례로 스캔해서 인덱스 하나로 만든다 (id는 테이블 간에 겹치지 않음) */
+    void rebuild(Connection conn, Tables tables) throws SQLException {
+        long gen;
+        lock.writeLock().lock();
+        try {
+            gen = generation;
+            rebuilding++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            scan(conn, tables, gen);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (--rebuilding == 0) missed.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void scan(Connection conn, Tables tables, long gen) throws SQLException {
+        long[] keys = new long[1024];
+        boolean[] doneById = new boolean[1024];
+        int cnt = 0;
+        int rc = 0;
+        int[] rIds = new int[16], rMasks = new int[16], rStarts = new int[16], rUntils = new int[16];
+        int maxId = 0;
+
+        for (String table; (table = tables.next()) != null; ) {
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery(
+                         "SELECT id, due_at, is_recurring, completed, recur_days, recur_start, recur_until FROM " + table)) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    maxId = Math.max(maxId, id);
+                    if (rs.getInt(3) == 1) {
+                        if (rc == rIds.length) {
+                            rIds = Arrays.copyOf(rIds, rc * 2);
+                            rMasks = Arrays.copyOf(rMasks, rc * 2);
+                            rStarts = Arrays.copyOf(rStarts, rc * 2);
+                            rUntils = Arrays.copyOf(rUntils, rc * 2);
+                        }
+                        rIds[rc] = id;
+                        rMasks[rc] = rs.getInt(5);
+                        int start = dayOf(rs.getString(6));
+                        int until = dayOf(rs.getString(7));
+                        rStarts[rc] = start;
+                        rUntils[rc] = until == NO_DAY ? OPEN_END : until;
+                        rc++;
+                        continue;
+                    }
+                    int day = dayOf(rs.getString(2));
+                    if (day == NO_DAY) continue;
+                    if (cnt == keys.length) keys = Arrays.copyOf(keys, cnt * 2);
+                    keys[cnt++] = pack(day, id);
+                    if (id >= doneById.length) doneById = Arrays.copyOf(doneById, Math.max(doneById.length * 2, id + 1));
+                    doneById[id] = rs.getInt(4) == 1;
+                }
+            }
+        }
+        Arrays.sort(keys, 0, cnt);
+
+        lock.writeLock().lock();
+        try {
+            n = cnt;
+            days = new int[Math.max(cnt, 16)];
+            ids = new int[days.length];
+            done = new boolean[days.length];
+            dayById = new int[maxId + 64];
+            Arrays.fill(dayById, NO_DAY);
+            for (int i = 0; i < cnt; i++) {
+                days[i] = (int) (keys[i] >> 32);
+                ids[i] = (int) keys[i];
+                done[i] = doneById[ids[i]];
+                dayById[ids[i]] = days[i];
+            }
+            m = rc;
+            ruleIds = rIds;
+            ruleMasks = rMasks;
+            ruleStarts = rStarts;
+            ruleUntils = rUntils;
+            // 스캔하는 동안 커밋된 쓰기 (스캔이 봤든 못 봤든 다시 적용하면 최신 상태)
+            for (Runnable op : missed) op.run();
+            missed.clear();
+            loaded = generation == gen;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==============================================================
+    // 증분 갱신 (로드 전이면 무시 → 나중에 rebuild가 반영, rebuild 중이면 모았다가 적용)
+    // ==============================================================
+
+    private void update(Runnable op) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) op.run();
+            else if (rebuilding > 0) missed.add(op);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 단발 일정 추가/이동 (dueAt이 없으면 인덱스에서 빠짐) */
+    public void putOneOff(int id, String dueAt, boolean completed) {
+        update(() -> {
+            removeOneOff(id);
+            int day = dayOf(dueAt);
+            if (day == NO_DAY) return;
+            int pos = lowerBound(day, id);
+            if (n == days.length) {
+                int cap = Math.max(16, n * 2);
+                days = Arrays.copyOf(days, cap);
+                ids = Arrays.copyOf(ids, cap);
+                done = Arrays.copyOf(done, cap);
+            }
+            System.arraycopy(days, pos, days, pos + 1, n - pos);
+            System.arraycopy(ids, pos, ids, pos + 1, n - pos);
+            System.arraycopy(done, pos, done, pos + 1, n - pos);
+            days[pos] = day;
+            ids[pos] = id;
+            done[pos] = completed;
+            n++;
+            if (id >= dayById.length) {
+                int old = dayById.length;
+                dayById = Arrays.copyOf(dayById, Math.max(old * 2, id + 64));
+                Arrays.fill(dayById, old, dayById.length, NO_DAY);
+            }
+            dayById[id] = day;
+        });
+    }
+
+    /** 반복 규칙 추가 (같은 id가 이미 있으면 바꿈) */
+    public void putRecurring(int id, int daysMask, String recurStart, String recurUntil) {
+        update(() -> {
+            removeRule(id);
+            if (m == ruleIds.length) {
+                int cap = Math.max(16, m * 2);
+                ruleIds = Arrays.copyOf(ruleIds, cap);
+                ruleMasks = Arrays.copyOf(ruleMasks, cap);
+                ruleStarts = Arrays.copyOf(ruleStarts, cap);
+                ruleUntils = Arrays.copyOf(ruleUntils, cap);
+            }
+            int until = dayOf(recurUntil);
+            ruleIds[m] = id;
+            ruleMasks[m] = daysMask;
+            ruleStarts[m] = dayOf(recurStart);
+            ruleUntils[m] = until == NO_DAY ? OPEN_END : until;
+            m++;
+        });
+    }
+
+    /** 완료 여부 변경 (단발만 의미 있음) */
+    public void setCompleted(int id, boolean completed) {
+        update(() -> {
+            int pos = find(id);
+            if (pos >= 0) done[pos] = completed;
+        });
+    }
+
+    /** 단발/반복 어느 쪽이든 제거 */
+    public void remove(int id) {
+        update(() -> {
+            removeOneOff(id);
+            removeRule(id);
+        });
+    }
+
+    // ==============================================================
+    // 조회 (결과는 id 배열, 날짜 → id 순)
+    // ==============================================================
+
+    /** from ≤ 마감일 ≤ to 인 단발 일정 id */
+    public int[] idsBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            int lo = lowerBound((int) from.toEpochDay(), Integer.MIN_VALUE);
+            int hi = lowerBound((int) to.toEpochDay() + 1, Integer.MIN_VALUE);
+            return Arrays.copyOfRange(ids, lo, Math.max(lo, hi));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** today 이전 마감인데 아직 미완료인 단발 일정 id (오래된 순) */
+    public int[] overdueIds(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            int hi = lowerBound((int) today.toEpochDay(), Integer.MIN_VALUE);
+            int[] out = new int[hi];
+            int k = 0;
+            for (int i = 0; i < hi; i++) {
+                if (!done[i]) out[k++] = ids[i];
+            }
+            return Arrays.copyOf(out, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** from 이후(포함) 마감인 미완료 단발 일정 중 가장 가까운 limit개 id */
+    public int[] upcomingIds(LocalDate from, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] out = new int[Math.max(0, limit)];
+            int k = 0;
+            for (int i = lowerBound((int) from.toEpochDay(), Integer.MIN_VALUE); i < n && k < limit; i++) {
+                if (!done[i]) out[k++] = ids[i];
+            }
+            return Arrays.copyOf(out, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 해당 날짜에 걸리는 반복 규칙이 있는지
+     * - TaskDao SQL과 같은 조건: 요일 비트 + (시작일 ≤ date ≤ 종료일)
+     */
+    public boolean recurringOn(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        int dowMask = 1 << (date.getDayOfWeek().getValue() % 7);
+        lock.readLock().lock();
+        try {
+            for (int r = 0; r < m; r++) {
+                if ((ruleMasks[r] & dowMask) != 0
+                        && (ruleStarts[r] == NO_DAY || ruleStarts[r] <= day)
+                        && ruleUntils[r] >= day) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 구간 [from, to]와 기간이 겹치는 반복 규칙 id */
+    public int[] recurringIdsBetween(LocalDate from, LocalDate to) {
+        int a = (int) from.toEpochDay();
+        int b = (int) to.toEpochDay();
+        lock.readLock().lock();
+        try {
+            int[] out = new int[m];
+            int k = 0;
+            for (int r = 0; r < m; r++) {
+                if ((ruleStarts[r] == NO_DAY || ruleStarts[r] <= b) && ruleUntils[r] >= a) out[k++] = ruleIds[r];
+            }
+            return Arrays.copyOf(out, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==============================================================
+    // 내부 헬퍼 (락을 잡은 상태에서만 호출)
+    // ==============================================================
+
+    /** (day, id) 이상인 첫 위치 */
+    private int lowerBound(int day, int id) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day || (days[mid] == day && ids[mid] < id)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** id의 단발 위치 (없으면 -1) */
+    private int find(int id) {
+        if (id < 0 || id >= dayById.length || dayById[id] == NO_DAY) return -1;
+        int pos = lowerBound(dayById[id], id);
+        return (pos < n && ids[pos] == id) ? pos : -1;
+    }
+
+    private void removeOneOff(int id) {
+        int pos = find(id);
+        if (pos < 0) return;
+        System.arraycopy(days, pos + 1, days, pos, n - pos - 1);
+        System.arraycopy(ids, pos + 1, ids, pos, n - pos - 1);
+        System.arraycopy(done, pos + 1, done, pos, n - pos - 1);
+        n--;
+        dayById[id] = NO_DAY;
+    }
+
+    private void removeRule(int id) {
+        for (int r = 0; r < m; r++) {
+            if (ruleIds[r] != id) continue;
+            int last = --m;
+            ruleIds[r] = ruleIds[last];
+            ruleMasks[r] = ruleMasks[last];
+            ruleStarts[r] = ruleStarts[last];
+            ruleUntils[r] = ruleUntils[last];
+            return;
+        }
+    }
+
+    private static long pack(int day, int id) {
+        return ((long) day << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /** "YYYY-MM-DD…" → epoch-day (없거나 형식이 틀리면 NO_DAY) */
+    static int dayOf(String ymd) {
+        if (ymd == null || ymd.length() < 10) return NO_DAY;
+        try {
+            return (int) LocalDate.parse(ymd.substring(0, 10)).toEpochDay();
+        } catch (RuntimeException e) {
+            return NO_DAY;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.organizer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * DB 쓰기 전용 스레드 (DB 파일(url)마다 하나, 프로세스 전체 공유)
+ * - 모든 TaskDao 쓰기는 여기로 넘어와 한 번에 하나씩, 전용 연결 하나로 실행됨
+ *   → 같은 프로세스 안에서는 쓰기끼리 락 경쟁이 없음 (읽기는 각 TaskDao 연결에서 WAL로 동시 진행)
+ * - 작업마다 BEGIN IMMEDIATE … COMMIT → 시작 시점에 쓰기 락을 잡아 중간에 BUSY로 깨지지 않음
+ * - 다른 프로세스(두 번째 실행, 유지보수 연결 등)가 락을 잡고 있으면
+ *   busy_timeout 대기 후에도 BUSY일 때 지수 백오프(+지터)로 MAX_ATTEMPTS번까지 재시도
+ * - 최악의 경우 약 MAX_ATTEMPTS × (busy_timeout 1초 + 백오프) ≈ 5~6초 후 실패로 돌려줌 (UI가 오래 멈추지 않게)
+ * - 대기열은 QUEUE_CAPACITY개로 제한 → 가득 차면 제출한 쪽이 빈자리가 날 때까지 대기 (메모리 폭주 없음)
+ * - afterCommit(메모리 캐시 갱신)이 실패해도 쓰기는 이미 커밋됨 → 쓰기 실패로 돌려주지 않고
+ *   기록한 뒤 onStaleCaches로 등록된 캐시 무효화를 실행 (다음 사용 때 DB에서 다시 만듦)
+ */
+final class DbWriter {
+
+    /** 쓰기 스레드에서 실행될 작업 (트랜잭션은 DbWriter가 감쌈) */
+    @FunctionalInterface
+    interface Work<T> {
+        T run(StatementCache w) throws SQLException;
+    }
+
+    private static final int QUEUE_CAPACITY = 256;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long FIRST_BACKOFF_MILLIS = 10;
+    private static final long MAX_BACKOFF_MILLIS = 500;
+
+    // SQLite 결과 코드 (확장 코드의 하위 8비트)
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+
+    private static final Log LOG = Log.get("DB");
+
+    private static final Map<String, DbWriter> WRITERS = new ConcurrentHashMap<>();
+
+    /** afterCommit이 실패했을 때 실행할 캐시 무효화 (TaskDao가 등록) */
+    private static volatile Runnable staleCaches = () -> { };
+
+    static {
+        // 종료 시 대기 중인 쓰기까지 끝내고 연결 정리
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> WRITERS.values().forEach(DbWriter::shutdown)));
+    }
+
+    /** afterCommit 실패 시 메모리 캐시를 버리는 방법 등록 (캐시가 프로세스 공용이라 하나) */
+    static void onStaleCaches(Runnable invalidate) {
+        staleCaches = invalidate;
+    }
+
+    /** url(null = 기본 todo.db)의 쓰기 스레드 */
+    static DbWriter of(String url) {
+        return WRITERS.computeIfAbsent(url == null ? Database.DB_URL : url, DbWriter::new);
+    }
+
+    private final String url;
+    private final ThreadPoolExecutor executor;
+    private volatile Thread thread;
+    private StatementCache stmts; // 쓰기 스레드 전용
+
+    private DbWriter(String url) {
+        this.url = url;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread t = new Thread(r, "db-writer");
+                    t.setDaemon(true);
+                    thread = t;
+                    return t;
+                },
+                (r, ex) -> {
+                    // 대기열이 가득 차면 제출한 스레드가 자리가 날 때까지 기다림 (백프레셔)
+                    if (ex.isShutdown()) throw new RejectedExecutionException("db-writer 종료됨");
+                    try {
+                        ex.getQueue().put(r);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException(e);
+                    }
+                });
+    }
+
+    /**
+     * work를 쓰기 스레드에서 트랜잭션 하나로 실행하고 끝날 때까지 기다림
+     * - afterCommit: 커밋 직후 같은 쓰기 스레드에서 결과로 호출 (null 가능)
+     *   → 메모리 인덱스 갱신이 DB 커밋 순서와 항상 같음
+     * - 쓰기 스레드 안에서 다시 부르면 (이미 트랜잭션 안이므로) 그 자리에서 바로 실행
+     *
+     * @throws SQLException 재시도를 다 써도 실패했거나 BUSY가 아닌 오류
+     */
+    <T> T submit(Work<T> work, Consumer<T> afterCommit) throws SQLException {
+        return submit(null, work, afterCommit);
+    }
+
+    /**
+     * submit과 같지만, 시도마다 BEGIN 전에 prepare를 트랜잭션 밖에서 먼저 실행
+     * - ATTACH처럼 트랜잭션 안에서는 할 수 없는 준비용 (연도별 파티션)
+     * - 쓰기 스레드 안에서 다시 부른 경우엔 이미 트랜잭션 안이므로 prepare를 건너뜀 → work가 스스로 확인할 것
+     */
+    <T> T submit(Work<?> prepare, Work<T> work, Consumer<T> afterCommit) throws SQLException {
+        if (Thread.currentThread() == thread) {
+            T result = work.run(stmts);
+            afterCommit(afterCommit, result);
+            return result;
+        }
+        Future<T> f;
+        try {
+            f = executor.submit(() -> {
+                T result = runWithRetry(prepare, work);
+                afterCommit(afterCommit, result);
+                return result;
+            });
+        } catch (RejectedExecutionException e) {
+            throw new SQLException("쓰기 대기열에 넣지 못함: " + e.getMessage(), e);
+        }
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("쓰기 대기 중 인터럽트", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException se) throw se;
+            throw new SQLException(e.getCause());
+        }
+    }
+
+    /** 커밋은 이미 끝났으므로 여기서 난 예외는 쓰기 결과를 바꾸지 않음 → 기록 + 캐시 무효화 */
+    private static <T> void afterCommit(Consumer<T> afterCommit, T result) {
+        if (afterCommit == null) return;
+        try {
+            afterCommit.accept(result);
+        } catch (RuntimeException e) {
+            LOG.error("커밋 후 캐시 갱신 실패 → 캐시를 버리고 다음 사용 때 다시 만듦", e);
+            staleCaches.run();
+        }
+    }
+
+    private <T> T runWithRetry(Work<?> prepare, Work<T> work) throws SQLException {
+        long backoff = FIRST_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            Connection conn = connection();
+            try (Statement st = conn.createStatement()) {
+                if (prepare != null) prepare.run(stmts);
+                st.execute("BEGIN IMMEDIATE");
+                try {
+                    T result = work.run(stmts);
+                    st.execute("COMMIT");
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    rollbackQuietly(st);
+                    throw e;
+                }
+            } catch (SQLException e) {
+                if (!isBusy(e)) {
+                    reset(); // 연결 상태를 믿을 수 없음 → 다음 작업 때 새로 연결
+                    throw e;
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new SQLException("DB가 계속 잠겨 있음 (" + attempt + "회 시도): " + e.getMessage(), e);
+                }
+                LOG.warn("쓰기 잠김, {}ms 후 재시도 ({}/{})", backoff, attempt, MAX_ATTEMPTS);
+                sleep(backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    static boolean isBusy(SQLException e) {
+        int code = e.getErrorCode() & 0xFF;
+        return code == SQLITE_BUSY || code == SQLITE_LOCKED;
+    }
+
+    private Connection connection() throws SQLException {
+        if (stmts == null || stmts.connection().isClosed()) {
+            stmts = new StatementCache(Database.getConnection(url));
+        }
+        return stmts.connection();
+    }
+
+    private void reset() {
+        if (stmts != null) {
+            stmts.close();
+            stmts = null;
+        }
+    }
+
+    private static void rollbackQuietly(Statement st) {
+        try {
+            st.execute("ROLLBACK");
+        } catch (SQLException ignore) {
+            // 트랜잭션이 이미 끝난 경우 (BEGIN 실패 등)
+        }
+    }
+
+    private static void sleep(long millis) throws SQLException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("재시도 대기 중 인터럽트", e);
+        }
+    }
+
+    /** 남은 작업을 마치고 연결을 닫음 */
+    private void shutdown() {
+        try {
+            executor.execute(this::reset); // 대기열 맨 뒤 → 남은 쓰기가 끝난 다음 연결 정리
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | RejectedExecutionException e) {
+            // 종료 중이면 무시
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.organizer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * "집중 모드"용 상위 K개 선별기
+ * - 후보 Task를 스트리밍으로 하나씩 받아서, 점수가 높은 것만 크기 제한 최소 힙에 남김
+ *   → 밀린 일이 몇 천 개여도 메모리는 힙 크기(2K)만큼만 사용
+ * - 힙은 보여줄 K개 + 예비 K개를 보관 → 완료 토글로 하나가 빠져도 다시 스캔하지 않고 예비에서 채움
+ * - 점수: 우선순위 > 밀린 일수 > 마감 시각(이를수록 높음)
+ */
+public class FocusRanker {
+
+    private final int k;
+    private final int capacity;
+
+    // 최소 힙 (heap[0] = 가장 점수가 낮은 후보)
+    private final Task[] heap;
+    private final double[] scores;
+    private int size;
+
+    /** 스캔에서 본 후보 수 (capacity를 넘었으면 힙 밖에도 후보가 더 있다는 뜻) */
+    private int seen;
+    private boolean stale = true;
+    private LocalDate today;
+
+    public FocusRanker(int k) {
+        this.k = k;
+        this.capacity = k * 2;
+        this.heap = new Task[capacity];
+        this.scores = new double[capacity];
+    }
+
+    /** 다음 top() 전에 다시 스캔해야 하는지 */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /** 추가/삭제 등 토글 이외의 변경이 있었을 때 → 다음에 전체 재스캔 */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * 저장소에서 후보를 스트리밍으로 다시 모은다
+     * - 단발: today까지 마감 & 미완료
+     * - 반복: today에 해당하는 반복 중 미완료
+     */
+    public void rebuild(TaskStore store, LocalDate today) {
+        this.today = today;
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        seen = 0;
+        store.forEachDueUntil(today, true, this::offer);
+        for (Task t : store.listRecurringByDate(today)) {
+            if (!t.completed) offer(t);
+        }
+        stale = false;
+    }
+
+    /**
+     * 후보 하나 제시
+     * - 힙에 들어갈 때만 복사 → 호출 쪽은 같은 Task 객체를 버퍼로 재사용해도 됨
+     */
+    public void offer(Task t) {
+        seen++;
+        double s = score(t);
+        if (size < capacity) {
+            heap[size] = t.copy();
+            scores[size] = s;
+            siftUp(size++);
+        } else if (s > scores[0]) {
+            heap[0] = t.copy();
+            scores[0] = s;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * 완료/미완료 토글 반영 (재스캔 없이)
+     * - 완료됨: 힙에서 제거 (예비가 바닥나고 힙 밖에 후보가 더 있으면 그때만 재스캔 표시)
+     * - 미완료됨: 후보로 다시 제시
+     */
+    public void onToggled(Task t) {
+        if (stale) return;
+        int i = indexOf(t.id);
+        if (t.completed) {
+            if (i < 0) return;
+            removeAt(i);
+            if (size < k && seen > capacity) stale = true;
+        } else if (i < 0) {
+            offer(t);
+        }
+    }
+
+    /** 점수 높은 순 상위 K개 */
+    public List<Task> top() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        List<Task> out = new ArrayList<>(Math.min(k, size));
+        for (int i = 0; i < size && i < k; i++) out.add(heap[order[i]]);
+        return out;
+    }
+
+    /**
+     * 점수 계산
+     * - 우선순위: 1=300, 2=200, 3=100
+     * - 밀린 일수: 하루당 +5 (최대 60일)
+     * - 마감 시각: 같은 날이면 이른 시각이 조금 더 높음 (0~1점)
+     */
+    double score(Task t) {
+        double s = (4 - t.priority) * 100.0;
+        if (t.dueAt != null && t.dueAt.length() >= 10) {
+            int overdue = (int) (today.toEpochDay() - DateIndex.dayOf(t.dueAt));
+            s += Math.max(0, Math.min(overdue, 60)) * 5.0;
+            // "YYYY-MM-DD HH:mm" 형식일 때만
+            if (t.dueAt.length() >= 16 && t.dueAt.charAt(10) == ' ') {
+                try {
+                    int minutes = Integer.parseInt(t.dueAt.substring(11, 13)) * 60
+                            + Integer.parseInt(t.dueAt.substring(14, 16));
+                    s += (1440 - minutes) / 1440.0;
+                } catch (NumberFormatException ignore) {
+                    // 시각 형식이 아니면 가산점 없음
+                }
+            }
+        }
+        return s;
+    }
+
+    // ---------- 힙 연산 ----------
+
+    private int indexOf(int id) {
+        for (int i = 0; i < size; i++) if (heap[i].id == id) return i;
+        return -1;
+    }
+
+    private void removeAt(int i) {
+        int last = --size;
+        if (i != last) {
+            heap[i] = heap[last];
+            scores[i] = scores[last];
+            heap[last] = null;
+            siftDown(i);
+            siftUp(i);
+        } else {
+            heap[last] = null;
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (scores[p] <= scores[i]) break;
+            swap(i, p);
+            i = p;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int l = i * 2 + 1, r = l + 1, min = i;
+            if (l < size && scores[l] < scores[min]) min = l;
+            if (r < size && scores[r] < scores[min]) min = r;
+            if (min == i) return;
+            swap(i, min);
+            i = min;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Task t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+    }
+}
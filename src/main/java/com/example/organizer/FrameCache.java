@@ -0,0 +1,271 @@
+package com.example.organizer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * 첫 화면 캐시 (앱 데이터 폴더/firstframe.bin)
+ * - 이번 달 달력 집계 + 오늘 목록(ViewSnapshot)을 작은 바이너리 파일로 남겨 두고
+ *   다음 시작 때 저장소를 열기 전에 읽어서(메모리 맵) 첫 프레임부터 그림
+ * - 저장소가 열리면 DB 버전 스탬프(TaskStore.version)를 비교
+ *   · 같으면 캐시가 곧 최신 → 달력/오늘 조회를 건너뜀
+ *   · 다르거나 모르면(-1) 평소처럼 읽어서 다시 그림
+ * - 쓰는 때: 쓰기가 있을 때마다(백그라운드, 연달아 오면 마지막 한 번) + 종료할 때
+ * - 파일이 없거나 깨졌거나(CRC) 다른 날/다른 달 것이면 없는 것으로 침
+ *
+ * 형식 (빅 엔디언)
+ *   int 매직 "TDFF" · short 형식 버전 · long DB 버전 · long 오늘(epochDay) · int 연 · byte 월
+ *   byte 날 수 · 날마다 [int 완료, int 미완료] · int 반복 있는 날 비트 (1일 = bit0)
+ *   int 오늘 목록 수 · 할 일마다 Task 필드 전부 (문자열은 int 길이(-1 = null) + UTF-8)
+ *   int 앞 전체의 CRC32
+ */
+final class FrameCache {
+
+    private static final Log LOG = Log.get("FRAME");
+
+    private static final int MAGIC = 0x54444646; // "TDFF"
+    private static final short FORMAT = 1;
+
+    private final File file;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "frame-cache");
+        t.setDaemon(true);
+        return t;
+    });
+    /** 다음에 다시 읽어 쓸 저장소 (null = 예약 없음) → 연달아 온 요청은 한 번으로 */
+    private final AtomicReference<TaskStore> pending = new AtomicReference<>();
+    /** writer 스레드 전용 읽기 저장소 (forThread) */
+    private TaskStore reader;
+    private TaskStore readerOf;
+
+    FrameCache(File file) {
+        this.file = file;
+    }
+
+    static File defaultFile() {
+        return new File(Database.appDataDir(), "firstframe.bin");
+    }
+
+    // ==============================================================
+    // 읽기 (시작할 때, 저장소보다 먼저)
+    // ==============================================================
+
+    /**
+     * 캐시 읽기 (파일을 메모리 맵으로)
+     *
+     * @return month/today 것이 아니거나 없거나 깨졌으면 null
+     */
+    ViewSnapshot read(YearMonth month, LocalDate today) {
+        if (!file.isFile()) return null;
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.limit() < 4) return null;
+            CRC32 crc = new CRC32();
+            crc.update(buf.slice(0, buf.limit() - 4));
+            if ((int) crc.getValue() != buf.getInt(buf.limit() - 4)) {
+                LOG.warn("첫 화면 캐시가 깨져 있어 무시: {}", file);
+                return null;
+            }
+            if (buf.getInt() != MAGIC || buf.getShort() != FORMAT) return null;
+            long version = buf.getLong();
+            LocalDate day = LocalDate.ofEpochDay(buf.getLong());
+            YearMonth ym = YearMonth.of(buf.getInt(), buf.get());
+            if (!day.equals(today) || !ym.equals(month)) return null;
+
+            int length = buf.get();
+            if (length != ym.lengthOfMonth()) return null;
+            int[] done = new int[length];
+            int[] todo = new int[length];
+            for (int i = 0; i < length; i++) {
+                done[i] = buf.getInt();
+                todo[i] = buf.getInt();
+            }
+            int bits = buf.getInt();
+            boolean[] recurring = new boolean[length];
+            for (int i = 0; i < length; i++) recurring[i] = (bits & (1 << i)) != 0;
+
+            int n = buf.getInt();
+            List<Task> tasks = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) tasks.add(readTask(buf));
+            return new ViewSnapshot(ym, done, todo, recurring, day, tasks, version);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            LOG.warn("첫 화면 캐시를 읽지 못함: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static Task readTask(ByteBuffer buf) {
+        Task t = new Task();
+        t.id = buf.getInt();
+        t.title = readString(buf);
+        t.priority = buf.get();
+        t.dueAt = readString(buf);
+        t.isRecurring = buf.get();
+        t.nextFireAt = readString(buf);
+        t.createdAt = readString(buf);
+        t.completed = buf.get() != 0;
+        t.recurDays = buf.get();
+        t.recurStart = readString(buf);
+        t.recurUntil = readString(buf);
+        t.recurInterval = buf.getInt();
+        return t;
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int len = buf.getInt();
+        if (len < 0) return null;
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ==============================================================
+    // 쓰기
+    // ==============================================================
+
+    /**
+     * 지금 바로 씀 (임시 파일 → 원자적 교체), 오늘 목록이 없는 스냅샷은 무시
+     * - 시작 풀과 writer 스레드에서 불리므로 한 번에 하나씩 (같은 .tmp를 동시에 자르거나,
+     *   다른 핸들이 열린 채로 교체하다 Windows에서 ATOMIC_MOVE가 실패하지 않게)
+     */
+    synchronized void write(ViewSnapshot view) {
+        if (!view.hasToday()) return;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT);
+            out.writeLong(view.version());
+            out.writeLong(view.today().toEpochDay());
+            out.writeInt(view.month().getYear());
+            out.writeByte(view.month().getMonthValue());
+            out.writeByte(view.length());
+            int bits = 0;
+            for (int day = 1; day <= view.length(); day++) {
+                out.writeInt(view.done(day));
+                out.writeInt(view.todo(day));
+                if (view.recurring(day)) bits |= 1 << (day - 1);
+            }
+            out.writeInt(bits);
+            out.writeInt(view.todayTasks().size());
+            for (Task t : view.todayTasks()) writeTask(out, t);
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+
+            File tmp = new File(file.getPath() + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOG.debug("첫 화면 캐시 저장: {}바이트, 오늘 {}개, 버전 {}", bytes.size(), view.todayTasks().size(), view.version());
+        } catch (IOException e) {
+            LOG.warn("첫 화면 캐시를 쓰지 못함: {}", e.toString());
+        }
+    }
+
+    private static void writeTask(DataOutputStream out, Task t) throws IOException {
+        out.writeInt(t.id);
+        writeString(out, t.title);
+        out.writeByte(t.priority);
+        writeString(out, t.dueAt);
+        out.writeByte(t.isRecurring);
+        writeString(out, t.nextFireAt);
+        writeString(out, t.createdAt);
+        out.writeByte(t.completed ? 1 : 0);
+        out.writeByte(t.recurDays);
+        writeString(out, t.recurStart);
+        writeString(out, t.recurUntil);
+        out.writeInt(t.recurInterval);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 백그라운드에서 store의 이번 달 + 오늘을 다시 읽어 씀 (쓰기 직후 호출)
+     * - 앞의 예약이 아직 안 돌았으면 그것과 합쳐짐 (마지막 상태 한 번만 씀)
+     */
+    void saveLater(TaskStore store) {
+        if (pending.getAndSet(store) != null) return;
+        writer.execute(() -> {
+            TaskStore s = pending.getAndSet(null);
+            if (s == null) return;
+            try {
+                write(readerFor(s).loadView(YearMonth.now(), LocalDate.now(), null));
+            } catch (RuntimeException e) {
+                LOG.warn("첫 화면 캐시 갱신 실패: {}", e.toString());
+            }
+        });
+    }
+
+    /** writer 스레드에서 쓸 저장소 (store.forThread()를 한 번만 만들어 재사용) */
+    private TaskStore readerFor(TaskStore store) {
+        if (readerOf != store) {
+            closeReader();
+            reader = store.forThread();
+            readerOf = store;
+        }
+        return reader;
+    }
+
+    private void closeReader() {
+        if (reader != null && reader != readerOf) reader.close();
+        reader = null;
+        readerOf = null;
+    }
+
+    /**
+     * 예약된 쓰기를 끝내고 last의 지금 상태를 한 번 더 쓴 뒤 writer 스레드 정리 (저장소를 닫기 전에)
+     * - 마지막 쓰기도 writer 스레드에서 → 시간 안에 못 끝낸 앞 쓰기가 나중에 덮어쓰지 않음
+     *
+     * @param last 종료 직전 상태를 남길 저장소 (null이면 예약된 것만)
+     */
+    void close(TaskStore last) {
+        if (last != null) {
+            writer.execute(() -> {
+                try {
+                    write(readerFor(last).loadView(YearMonth.now(), LocalDate.now(), null));
+                } catch (RuntimeException e) {
+                    LOG.warn("종료 때 첫 화면 캐시 저장 실패: {}", e.toString());
+                }
+            });
+        }
+        writer.execute(this::closeReader);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(2, TimeUnit.SECONDS)) LOG.warn("첫 화면 캐시 쓰기가 끝나지 않아 그냥 종료");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
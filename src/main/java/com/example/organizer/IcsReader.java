@@ -0,0 +1,365 @@
+package com.example.organizer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * iCalendar(.ics) 스트리밍 리더
+ * - 파일 전체를 올리지 않고 논리 줄(접힌 줄 펼침) 단위로 읽으면서 VTODO/VEVENT 하나씩 Task로 바꿈
+ *   → 메모리는 "지금 읽는 항목 하나"만큼만 사용 (파일 크기와 무관)
+ * - 변환 규칙
+ *   · SUMMARY → title, PRIORITY(1~4/5/6~9) → 1/2/3 (없거나 0이면 2)
+ *   · VTODO는 DUE(없으면 DTSTART), VEVENT는 DTSTART → dueAt ("YYYY-MM-DD" 또는 "YYYY-MM-DD HH:mm")
+ *   · STATUS:COMPLETED 또는 COMPLETED 속성 → completed
+ *   · RRULE FREQ=WEEKLY (BYDAY, INTERVAL, UNTIL, COUNT) → 반복 업무 (recurDays/recurStart/recurUntil/recurInterval)
+ *     FREQ=DAILY(INTERVAL=1)은 매일(모든 요일)로, 그 밖의 규칙은 첫 발생일 하나만 단발 일정으로 가져옴
+ * - UTC(...Z)/TZID 시각은 이 PC 시간대로 바꿈 (모르는 TZID는 그대로 현지 시각으로 취급)
+ * - VALARM 같은 하위 컴포넌트, EXDATE 등 모델에 없는 속성은 무시
+ */
+public class IcsReader implements Closeable {
+
+    /** 논리 줄 하나의 최대 길이 (이보다 긴 줄은 잘라서 메모리 폭주 방지) */
+    private static final int MAX_LINE = 64 * 1024;
+
+    /** COUNT → UNTIL 환산 시 최대 몇 일까지 펼쳐볼지 (약 100년) */
+    private static final int MAX_COUNT_SPAN_DAYS = 36_600;
+
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter BASIC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DUE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final String[] BYDAY = {"SU", "MO", "TU", "WE", "TH", "FR", "SA"};
+
+    private final BufferedReader in;
+    private String pending;        // 펼치기 위해 미리 읽어둔 다음 물리 줄
+
+    // ---------- 읽는 중인 항목 ----------
+    private String kind;           // "VTODO" / "VEVENT" (항목 밖이면 null)
+    private int nested;            // 항목 안의 하위 컴포넌트 깊이 (VALARM 등)
+    private String summary;
+    private When due;
+    private When start;
+    private int icsPriority;
+    private boolean done;
+    private String rrule;
+
+    // ---------- 통계 ----------
+    private int skipped;           // 날짜가 없거나 깨져서 버린 항목
+    private int flattened;         // 반복 규칙을 못 옮겨 단발 일정으로 가져온 항목
+
+    public IcsReader(Reader in) {
+        this.in = in instanceof BufferedReader br ? br : new BufferedReader(in);
+    }
+
+    /**
+     * 다음 VTODO/VEVENT를 t에 덮어씀 (t는 버퍼로 재사용 가능, id=0)
+     *
+     * @return false = 파일 끝
+     */
+    public boolean next(Task t) throws IOException {
+        String line;
+        while ((line = readLine()) != null) {
+            int colon = valueStart(line);
+            if (colon < 0) continue;
+            String head = line.substring(0, colon);
+            String value = line.substring(colon + 1);
+            int semi = head.indexOf(';');
+            String name = (semi < 0 ? head : head.substring(0, semi)).toUpperCase();
+            String params = semi < 0 ? "" : head.substring(semi + 1);
+
+            if (name.equals("BEGIN")) {
+                String comp = value.trim().toUpperCase();
+                if (kind != null) nested++;
+                else if (comp.equals("VTODO") || comp.equals("VEVENT")) begin(comp);
+                continue;
+            }
+            if (name.equals("END")) {
+                if (kind == null) continue;
+                if (nested > 0) {
+                    nested--;
+                } else {
+                    boolean ok = finish(t);
+                    kind = null;
+                    if (ok) return true;
+                    skipped++;
+                }
+                continue;
+            }
+            if (kind == null || nested > 0) continue;
+
+            try {
+                switch (name) {
+                    case "SUMMARY" -> summary = unescape(value);
+                    case "DUE" -> due = When.parse(value, params);
+                    case "DTSTART" -> start = When.parse(value, params);
+                    case "PRIORITY" -> icsPriority = Integer.parseInt(value.trim());
+                    case "STATUS" -> done |= value.trim().equalsIgnoreCase("COMPLETED");
+                    case "COMPLETED" -> done = true;
+                    case "RRULE" -> rrule = value.trim();
+                    default -> { }
+                }
+            } catch (RuntimeException e) {
+                // 값 하나가 깨졌으면 그 속성만 버림 (날짜가 없어지면 finish에서 항목째 건너뜀)
+            }
+        }
+        return false;
+    }
+
+    /** 날짜가 없거나 깨져서 건너뛴 항목 수 */
+    public int skipped() {
+        return skipped;
+    }
+
+    /** 반복 규칙을 옮길 수 없어 단발 일정으로 가져온 항목 수 */
+    public int flattened() {
+        return flattened;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ==============================================================
+    // 항목 → Task
+    // ==============================================================
+
+    private void begin(String comp) {
+        kind = comp;
+        nested = 0;
+        summary = null;
+        due = null;
+        start = null;
+        icsPriority = 0;
+        done = false;
+        rrule = null;
+    }
+
+    private boolean finish(Task t) {
+        When when = kind.equals("VTODO") && due != null ? due : start;
+        if (when == null) return false;
+
+        t.id = 0;
+        t.title = summary == null || summary.isBlank() ? "(제목 없음)" : summary.strip();
+        t.priority = priority(icsPriority);
+        t.createdAt = null;
+        t.completed = done;
+        t.isRecurring = 0;
+        t.recurDays = 0;
+        t.recurStart = null;
+        t.recurUntil = null;
+        t.recurInterval = 1;
+
+        if (rrule != null && weekly(t, start != null ? start.date() : when.date())) {
+            t.dueAt = null;
+            t.nextFireAt = null;
+            t.completed = false;
+            return true;
+        }
+        if (rrule != null) flattened++;
+        t.dueAt = when.dueAt();
+        t.nextFireAt = t.dueAt;
+        return true;
+    }
+
+    /** ICS PRIORITY(0=없음, 1=가장 높음 … 9=가장 낮음) → 1/2/3 */
+    static int priority(int ics) {
+        if (ics >= 1 && ics <= 4) return 1;
+        if (ics >= 6 && ics <= 9) return 3;
+        return 2;
+    }
+
+    /**
+     * RRULE을 주간 반복 규칙으로 옮김
+     *
+     * @return false = 옮길 수 없는 규칙 (MONTHLY 등)
+     */
+    private boolean weekly(Task t, LocalDate first) {
+        String freq = null, byDay = null, until = null;
+        int interval = 1, count = 0;
+        for (String part : rrule.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq < 0) continue;
+            String key = part.substring(0, eq).trim().toUpperCase();
+            String val = part.substring(eq + 1).trim().toUpperCase();
+            try {
+                switch (key) {
+                    case "FREQ" -> freq = val;
+                    case "BYDAY" -> byDay = val;
+                    case "UNTIL" -> until = val;
+                    case "INTERVAL" -> interval = Integer.parseInt(val);
+                    case "COUNT" -> count = Integer.parseInt(val);
+                    default -> { }
+                }
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        if (interval < 1) return false;
+
+        int mask;
+        if ("DAILY".equals(freq) && interval == 1) {
+            mask = byDay != null ? mask(byDay) : 0x7F;
+        } else if ("WEEKLY".equals(freq)) {
+            // BYDAY가 없으면 시작일의 요일
+            mask = byDay != null ? mask(byDay) : 1 << (first.getDayOfWeek().getValue() % 7);
+        } else {
+            return false;
+        }
+        if (mask == 0) return false;
+
+        int weeks = "WEEKLY".equals(freq) ? interval : 1;
+        LocalDate last = null;
+        if (until != null) {
+            try {
+                last = LocalDate.parse(until.substring(0, Math.min(8, until.length())), BASIC_DATE);
+            } catch (DateTimeException e) {
+                return false;
+            }
+        } else if (count > 0) {
+            last = countToUntil(first, mask, weeks, count);
+        }
+
+        t.isRecurring = 1;
+        t.recurDays = mask;
+        t.recurStart = first.toString();
+        t.recurUntil = last == null ? null : last.toString();
+        t.recurInterval = weeks;
+        return true;
+    }
+
+    /** "MO,WE,1FR,-1SU" → 요일 비트마스크 (앞의 서수는 주간 규칙에서 의미 없어 버림) */
+    private static int mask(String byDay) {
+        int mask = 0;
+        for (String d : byDay.split(",")) {
+            String code = d.trim();
+            if (code.length() < 2) continue;
+            code = code.substring(code.length() - 2);
+            for (int i = 0; i < BYDAY.length; i++) {
+                if (BYDAY[i].equals(code)) mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * COUNT(발생 횟수)를 마지막 발생일로 환산 (모델에는 종료일만 있음)
+     * - 주는 시작일이 속한 주(일요일 시작)부터 interval 주마다
+     */
+    private static LocalDate countToUntil(LocalDate first, int mask, int interval, int count) {
+        LocalDate weekStart = first.minusDays(first.getDayOfWeek().getValue() % 7);
+        LocalDate day = first;
+        for (int n = 0, i = 0; i < MAX_COUNT_SPAN_DAYS; i++, day = day.plusDays(1)) {
+            long week = ChronoUnit.WEEKS.between(weekStart, day);
+            int bit = 1 << (day.getDayOfWeek().getValue() % 7);
+            if (week % interval == 0 && (mask & bit) != 0 && ++n >= count) return day;
+        }
+        return day;
+    }
+
+    // ==============================================================
+    // 줄 읽기
+    // ==============================================================
+
+    /** 접힌 줄(다음 줄이 공백/탭으로 시작)을 이어 붙인 논리 줄 하나 */
+    private String readLine() throws IOException {
+        String line = pending != null ? pending : in.readLine();
+        pending = null;
+        if (line == null) return null;
+        StringBuilder sb = null;
+        String next;
+        while ((next = in.readLine()) != null && !next.isEmpty()
+                && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (sb == null) sb = new StringBuilder(line);
+            if (sb.length() < MAX_LINE) sb.append(next, 1, Math.min(next.length(), 1 + MAX_LINE - sb.length()));
+        }
+        pending = next;
+        return sb == null ? line : sb.toString();
+    }
+
+    /** 이름;파라미터 뒤의 ':' 위치 (따옴표 안의 ':'는 건너뜀), 없으면 -1 */
+    private static int valueStart(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (c == ':' && !quoted) return i;
+        }
+        return -1;
+    }
+
+    /** TEXT 값 이스케이프 해제 (\n, \, \; \\), 줄바꿈은 한 줄 제목에 맞게 공백으로 */
+    static String unescape(String v) {
+        if (v.indexOf('\\') < 0) return v;
+        StringBuilder sb = new StringBuilder(v.length());
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c == '\\' && i + 1 < v.length()) {
+                char n = v.charAt(++i);
+                sb.append(n == 'n' || n == 'N' ? ' ' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /** 파라미터 목록(;로 구분)에서 name=값 하나 (따옴표 제거), 없으면 null */
+    private static String param(String params, String name) {
+        for (String p : params.split(";")) {
+            int eq = p.indexOf('=');
+            if (eq > 0 && p.substring(0, eq).trim().equalsIgnoreCase(name)) {
+                return p.substring(eq + 1).replace("\"", "").trim();
+            }
+        }
+        return null;
+    }
+
+    // ==============================================================
+    // 날짜 값
+    // ==============================================================
+
+    /** DATE 또는 DATE-TIME 값 (time == null 이면 종일) */
+    private record When(LocalDate day, LocalDateTime time) {
+
+        static When parse(String value, String params) {
+            String v = value.trim();
+            if ("DATE".equalsIgnoreCase(param(params, "VALUE")) || v.length() == 8) {
+                return new When(LocalDate.parse(v.substring(0, 8), BASIC_DATE), null);
+            }
+            boolean utc = v.endsWith("Z") || v.endsWith("z");
+            LocalDateTime local = LocalDateTime.parse(utc ? v.substring(0, v.length() - 1) : v, BASIC_DATE_TIME);
+            ZoneId from = utc ? ZoneId.of("UTC") : zone(param(params, "TZID"));
+            if (from != null) {
+                local = local.atZone(from).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return new When(local.toLocalDate(), local);
+        }
+
+        /** 알 수 있는 TZID면 그 시간대, 아니면 null (= 현지 시각으로 취급) */
+        private static ZoneId zone(String tzid) {
+            if (tzid == null) return null;
+            try {
+                return ZoneId.of(tzid);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+
+        LocalDate date() {
+            return day;
+        }
+
+        String dueAt() {
+            return time == null ? day.toString() : time.format(DUE_TIME);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.organizer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * .ics 가져오기/내보내기 (IcsReader/IcsWriter + TaskStore)
+ * - 가져오기: 항목을 CHUNK개씩 모아 addAll → 청크마다 트랜잭션 하나
+ *   · 파일이 아무리 커도 메모리에는 청크 하나만 있음
+ *   · 중간에 저장이 실패하면 거기서 멈춤 (앞 청크는 이미 커밋됨, 몇 건 들어갔는지 로그로 알림)
+ * - 내보내기: 저장소를 forEachTask로 흘려 읽으면서 바로 씀 → 임시 파일에 쓰고 끝나면 교체
+ *
+ * 단독 실행: gradle ics --args="import 파일.ics" / --args="export 파일.ics"
+ */
+public class IcsTransfer {
+
+    private static final Log LOG = Log.get("ICS");
+
+    /** 트랜잭션 하나에 넣을 항목 수 */
+    static final int CHUNK = 500;
+
+    private IcsTransfer() {
+    }
+
+    /**
+     * file의 VTODO/VEVENT를 store에 추가
+     *
+     * @return 추가된 항목 수, 저장 실패로 중간에 멈췄으면 -1
+     */
+    public static int importFile(File file, TaskStore store) throws IOException {
+        long t0 = System.nanoTime();
+        int imported = 0;
+        List<Task> chunk = new ArrayList<>(CHUNK);
+        try (IcsReader reader = new IcsReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+            Task buf = new Task();
+            while (reader.next(buf)) {
+                chunk.add(buf.copy());
+                if (chunk.size() == CHUNK) {
+                    if (!store.addAll(chunk)) return failed(imported);
+                    imported += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (!store.addAll(chunk)) return failed(imported);
+            imported += chunk.size();
+
+            LOG.info("가져오기 완료: {}건 (건너뜀 {}, 반복→단발 {}) {}ms",
+                    imported, reader.skipped(), reader.flattened(), (System.nanoTime() - t0) / 1_000_000);
+        }
+        return imported;
+    }
+
+    private static int failed(int imported) {
+        LOG.error("저장 실패로 가져오기 중단 (앞서 {}건은 저장됨)", imported);
+        return -1;
+    }
+
+    /**
+     * store의 모든 할 일(보관분 포함)을 file로 내보냄
+     *
+     * @return 내보낸 항목 수
+     */
+    public static int exportFile(TaskStore store, File file) throws IOException {
+        long t0 = System.nanoTime();
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        File tmp = new File(file.getPath() + ".tmp");
+
+        int written;
+        try (BufferedWriter w = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8);
+             IcsWriter ics = new IcsWriter(w)) {
+            store.forEachTask(t -> {
+                try {
+                    ics.write(t);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            written = ics.written();
+        } catch (UncheckedIOException e) {
+            tmp.delete();
+            throw e.getCause();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        LOG.info("내보내기 완료: {}건 → {} {}ms", written, file, (System.nanoTime() - t0) / 1_000_000);
+        return written;
+    }
+
+    // ==============================================================
+    // 단독 실행
+    // ==============================================================
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("사용법: IcsTransfer import|export <파일.ics>");
+        }
+        File file = new File(args[1]);
+        try (TaskStore store = TaskStore.open()) {
+            switch (args[0]) {
+                case "import" -> {
+                    if (importFile(file, store) < 0) System.exit(1);
+                }
+                case "export" -> exportFile(store, file);
+                default -> throw new IllegalArgumentException("사용법: IcsTransfer import|export <파일.ics>");
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.organizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * iCalendar(.ics) 스트리밍 라이터
+ * - 생성 시 VCALENDAR 머리말, write(Task)마다 VTODO 하나, close()에서 꼬리말 → Task를 모아두지 않음
+ * - 단발 일정: DUE (날짜만이면 VALUE=DATE, 시각 있으면 현지 시각), STATUS:COMPLETED/NEEDS-ACTION
+ * - 반복 업무: DTSTART;VALUE=DATE=반복 시작일 + RRULE:FREQ=WEEKLY;INTERVAL;BYDAY;UNTIL
+ * - PRIORITY는 1/2/3 → 1/5/9, UID는 "todo-<id>@todoprogram"
+ * - RFC 5545 규칙대로 CRLF, TEXT 이스케이프, 75바이트(UTF-8)마다 줄 접기
+ */
+public class IcsWriter implements Closeable {
+
+    private static final int FOLD_OCTETS = 75;
+
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter BASIC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DUE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final DateTimeFormatter CREATED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] BYDAY = {"SU", "MO", "TU", "WE", "TH", "FR", "SA"};
+
+    private final Writer out;
+    private final String stamp; // DTSTAMP (내보낸 시각, 항목 공통)
+    private int written;
+
+    public IcsWriter(Writer out) throws IOException {
+        this.out = out;
+        this.stamp = LocalDateTime.now(ZoneOffset.UTC).format(BASIC_DATE_TIME) + "Z";
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//TodoProgram//KO");
+        line("CALSCALE:GREGORIAN");
+    }
+
+    /** 할 일 하나를 VTODO로 씀 (마감도 반복 규칙도 없는 항목도 그대로) */
+    public void write(Task t) throws IOException {
+        line("BEGIN:VTODO");
+        line("UID:todo-" + t.id + "@todoprogram");
+        line("DTSTAMP:" + stamp);
+        String created = created(t.createdAt);
+        if (created != null) line("CREATED:" + created);
+        line("SUMMARY:" + escape(t.title == null ? "" : t.title));
+        line("PRIORITY:" + (t.priority == 1 ? 1 : t.priority == 3 ? 9 : 5));
+
+        if (t.isRecurring == 1) {
+            if (t.recurStart != null) line("DTSTART;VALUE=DATE:" + basicDate(t.recurStart));
+            StringBuilder rule = new StringBuilder("RRULE:FREQ=WEEKLY");
+            if (t.recurInterval > 1) rule.append(";INTERVAL=").append(t.recurInterval);
+            if (t.recurDays != 0) rule.append(";BYDAY=").append(byDay(t.recurDays));
+            if (t.recurUntil != null) rule.append(";UNTIL=").append(basicDate(t.recurUntil));
+            line(rule.toString());
+        } else {
+            if (t.dueAt != null && !t.dueAt.isBlank()) line(due(t.dueAt));
+            line(t.completed ? "STATUS:COMPLETED" : "STATUS:NEEDS-ACTION");
+        }
+        line("END:VTODO");
+        written++;
+    }
+
+    /** 지금까지 쓴 항목 수 */
+    public int written() {
+        return written;
+    }
+
+    /** 꼬리말을 쓰고 닫음 */
+    @Override
+    public void close() throws IOException {
+        try {
+            line("END:VCALENDAR");
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    // ==============================================================
+    // 값 변환
+    // ==============================================================
+
+    /** "YYYY-MM-DD" → DUE;VALUE=DATE:YYYYMMDD, "YYYY-MM-DD HH:mm" → DUE:YYYYMMDDTHHmm00 (현지 시각) */
+    private static String due(String dueAt) {
+        if (dueAt.length() > 10) {
+            try {
+                return "DUE:" + LocalDateTime.parse(dueAt.substring(0, 16), DUE_TIME).format(BASIC_DATE_TIME);
+            } catch (DateTimeParseException | StringIndexOutOfBoundsException e) {
+                // 시각 부분이 이상하면 날짜만
+            }
+        }
+        return "DUE;VALUE=DATE:" + basicDate(dueAt);
+    }
+
+    private static String basicDate(String ymd) {
+        return LocalDate.parse(ymd.substring(0, 10)).format(BASIC_DATE);
+    }
+
+    /** created_at("YYYY-MM-DD HH:mm:ss", UTC) → YYYYMMDDTHHmmssZ, 없거나 형식이 다르면 null */
+    private static String created(String createdAt) {
+        if (createdAt == null) return null;
+        try {
+            return LocalDateTime.parse(createdAt, CREATED).format(BASIC_DATE_TIME) + "Z";
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String byDay(int mask) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < BYDAY.length; i++) {
+            if ((mask & (1 << i)) == 0) continue;
+            if (sb.length() > 0) sb.append(',');
+            sb.append(BYDAY[i]);
+        }
+        return sb.toString();
+    }
+
+    /** TEXT 값 이스케이프 (\ ; , 줄바꿈) */
+    static String escape(String v) {
+        StringBuilder sb = new StringBuilder(v.length() + 8);
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> sb.append('\\').append(c);
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // ==============================================================
+    // 줄 쓰기
+    // ==============================================================
+
+    /** 논리 줄 하나를 75바이트(UTF-8) 단위로 접어서 CRLF로 씀 (서로게이트 쌍은 자르지 않음) */
+    private void line(String s) throws IOException {
+        int octets = 0;
+        int from = 0;
+        for (int i = 0; i < s.length(); ) {
+            int cp = s.codePointAt(i);
+            int len = Character.charCount(cp);
+            int bytes = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            // 이어지는 줄은 맨 앞 공백 1바이트를 포함해서 75바이트
+            if (octets + bytes > FOLD_OCTETS) {
+                out.write(s, from, i - from);
+                out.write("\r\n ");
+                from = i;
+                octets = 1;
+            }
+            octets += bytes;
+            i += len;
+        }
+        out.write(s, from, s.length() - from);
+        out.write("\r\n");
+    }
+}
@@ -0,0 +1,935 @@
+package com.example.organizer;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 메모리 기반 TaskStore
+ * - 모든 할 일을 "슬롯 번호"로 접근하는 기본형 배열(int[], boolean[] …)에 보관 → 조회가 마이크로초 단위
+ * - 날짜는 epoch-day(int)로 미리 바꿔 둬서 비교가 문자열 연산 없이 끝남
+ * - 영속화(dir가 있을 때)
+ *   · tasks.snap    : 전체 스냅샷
+ *   · tasks.journal : 스냅샷 이후 변경을 한 줄씩 덧붙이는 저널 (append-only)
+ *   · 저널이 SNAPSHOT_EVERY 건 쌓이면 (다음 쓰기 전에) 스냅샷을 새로 쓰고 저널을 비움
+ *   · 쓰기는 저널에 먼저 남긴 뒤 메모리에 반영 → 저널(또는 스냅샷) 실패면 아무것도 안 바뀌고 false
+ *   · 쓰다 만 마지막 레코드(비정상 종료)는 읽을 때 버리고 파일도 거기까지 잘라 냄
+ *   · 여러 건 쓰기(addAll, deleteByIds, updateCompletedBatch)는 OP_BATCH 레코드 하나 → 전부 반영되거나 하나도 안 됨
+ * - 태그는 TagIndex 하나에 (스냅샷 끝에 태그 목록, 바꿀 때마다 저널에 OP_TAGS)
+ * - 저장된 보기(SmartFilter)는 이름 → 조건 글 (스냅샷 맨 끝, 바꿀 때마다 저널에 OP_FILTER)
+ * - dir == null 이면 디스크 I/O 없이 순수 메모리 (테스트/벤치마크용)
+ * - 모든 public 메서드는 synchronized (여러 스레드에서 써도 안전)
+ */
+public class InMemoryTaskStore implements TaskStore {
+
+    /** 저널이 이만큼 쌓이면 스냅샷을 새로 씀 */
+    private static final int SNAPSHOT_EVERY = 500;
+
+    /** 날짜 없음 표시 */
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    private static final Log LOG = Log.get("MEM");
+
+    // 저널 레코드 종류
+    private static final byte OP_ADD = 1;
+    private static final byte OP_UPDATE = 2;
+    private static final byte OP_DELETE = 3;
+    private static final byte OP_COMPLETED = 4;
+    private static final byte OP_TAGS = 5;
+    private static final byte OP_FILTER = 6;
+    /** 여러 레코드 묶음: 개수, 길이, 본문 (본문을 다 읽은 뒤에 재생 → 잘린 묶음은 통째로 버려짐) */
+    private static final byte OP_BATCH = 7;
+
+    /** SQLite CURRENT_TIMESTAMP 와 같은 형식(UTC) */
+    private static final DateTimeFormatter CREATED_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // ---------- 슬롯 배열 (0..size-1 이 살아있는 할 일) ----------
+    private int size;
+    private int[] ids = new int[64];
+    private String[] titles = new String[64];
+    private int[] priorities = new int[64];
+    private String[] dueAts = new String[64];
+    private int[] dueDays = new int[64];          // due_at 의 epoch-day (없으면 NO_DAY)
+    private boolean[] recurring = new boolean[64];
+    private String[] nextFireAts = new String[64];
+    private String[] createdAts = new String[64];
+    private boolean[] completed = new boolean[64];
+    private int[] recurDays = new int[64];        // 요일 비트마스크 (일=bit0 … 토=bit6)
+    private int[] recurStarts = new int[64];      // epoch-day (없으면 NO_DAY)
+    private int[] recurUntils = new int[64];      // epoch-day (없으면 Integer.MAX_VALUE)
+    private int[] recurIntervals = new int[64];
+
+    /** id → 슬롯 번호 (없으면 -1) */
+    private int[] slotOf = new int[64];
+    private int nextId = 1;
+
+    /** 태그 → id 비트맵 */
+    private final TagIndex tags = new TagIndex();
+
+    /** 저장된 보기: 이름 → 조건 */
+    private final Map<String, SmartFilter> filters = new TreeMap<>();
+
+    // ---------- 영속화 ----------
+    private final File snapFile;
+    private final File journalFile;
+    private DataOutputStream journal;
+    private int journalCount;
+    /** 저널 파일에서 온전한 레코드가 끝나는 위치 (기록 실패 시 여기까지 되돌림) */
+    private long journalBytes;
+    /** 레코드 하나를 먼저 여기에 만들고 통째로 저널에 씀 */
+    private final ByteArrayOutputStream recordBuf = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(recordBuf);
+
+    /** 저널 레코드 본문 쓰기 */
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /** 디스크 없이 순수 메모리로만 동작 */
+    public InMemoryTaskStore() {
+        this(null);
+    }
+
+    /**
+     * @param dir 스냅샷/저널을 둘 폴더 (null이면 영속화 안 함)
+     */
+    public InMemoryTaskStore(File dir) {
+        Arrays.fill(slotOf, -1);
+        tags.clear();
+        if (dir == null) {
+            snapFile = null;
+            journalFile = null;
+            return;
+        }
+        dir.mkdirs();
+        snapFile = new File(dir, "tasks.snap");
+        journalFile = new File(dir, "tasks.journal");
+        try {
+            load();
+            openJournal();
+        } catch (IOException e) {
+            throw new RuntimeException("메모리 저장소 로드 실패: " + e.getMessage(), e);
+        }
+    }
+
+    // ==============================================================
+    // 쓰기
+    // ==============================================================
+
+    @Override
+    public synchronized boolean addTask(String title, int priority, String dueAt) {
+        if (!snapshotIfDue("addTask")) return false;
+        return journalAdd(addSlot(title, priority, dueAt));
+    }
+
+    @Override
+    public synchronized boolean addRecurringTask(String title, int priority, int daysMask,
+                                              String recurStart, String recurUntil, int intervalWeeks, String timeHHmm) {
+        checkRecurring(title, priority, daysMask, recurStart);
+        if (!snapshotIfDue("addRecurringTask")) return false;
+        return journalAdd(addRecurringSlot(title, priority, daysMask, recurStart, recurUntil, intervalWeeks));
+    }
+
+    /**
+     * 먼저 전부 검증하고 슬롯을 만든 뒤 OP_BATCH 레코드 하나로 저널에 남김
+     * - 저널 기록이 실패하면 만든 슬롯을 모두 되돌림 (락 안이라 다른 스레드는 중간 상태를 못 봄)
+     */
+    @Override
+    public synchronized boolean addAll(List<Task> tasks) {
+        for (Task t : tasks) {
+            if (t.isRecurring == 1) checkRecurring(t.title, t.priority, t.recurDays, t.recurStart);
+        }
+        if (!snapshotIfDue("addAll")) return false;
+        int first = size;
+        for (Task t : tasks) {
+            if (t.isRecurring == 1) {
+                addRecurringSlot(t.title, t.priority, t.recurDays, t.recurStart, t.recurUntil, t.recurInterval);
+            } else {
+                completed[addSlot(t.title, t.priority, t.dueAt)] = t.completed;
+            }
+        }
+        boolean ok = journaledBatch("addAll", size - first, out -> {
+            for (int s = first; s < size; s++) {
+                out.writeByte(OP_ADD);
+                writeRecord(out, s);
+            }
+        });
+        if (!ok) {
+            while (size > first) removeSlot(ids[size - 1]);
+        }
+        return ok;
+    }
+
+    /** 단발 할 일 슬롯 만들기 (저널은 호출한 쪽에서) */
+    private int addSlot(String title, int priority, String dueAt) {
+        int s = newSlot(nextId++);
+        titles[s] = title;
+        priorities[s] = priority;
+        dueAts[s] = dueAt;
+        dueDays[s] = dayOf(dueAt);
+        nextFireAts[s] = dueAt;
+        createdAts[s] = LocalDateTime.now(ZoneOffset.UTC).format(CREATED_FMT);
+        return s;
+    }
+
+    /** 반복 업무 슬롯 만들기 (checkRecurring 을 통과한 값, 저널은 호출한 쪽에서) */
+    private int addRecurringSlot(String title, int priority, int daysMask,
+                                 String recurStart, String recurUntil, int intervalWeeks) {
+        int s = newSlot(nextId++);
+        titles[s] = title;
+        priorities[s] = priority;
+        recurring[s] = true;
+        createdAts[s] = LocalDateTime.now(ZoneOffset.UTC).format(CREATED_FMT);
+        recurDays[s] = daysMask;
+        recurStarts[s] = dayOf(recurStart);
+        recurUntils[s] = (recurUntil == null || recurUntil.isBlank()) ? Integer.MAX_VALUE : dayOf(recurUntil);
+        recurIntervals[s] = Math.max(intervalWeeks, 1);
+        return s;
+    }
+
+    /** TaskDao와 같은 검증 규칙 */
+    private static void checkRecurring(String title, int priority, int daysMask, String recurStart) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("제목(title)은 필수입니다.");
+        }
+        if (priority < 1 || priority > 3) {
+            throw new IllegalArgumentException("priority는 1~3 범위여야 합니다.");
+        }
+        if (daysMask == 0) {
+            throw new IllegalArgumentException("반복 요일(daysMask)이 최소 하나는 선택되어야 합니다.");
+        }
+        if (recurStart == null || recurStart.isBlank()) {
+            throw new IllegalArgumentException("recurStart(반복 시작일)은 필수입니다. 예) 2025-09-14");
+        }
+    }
+
+    @Override
+    public synchronized boolean updateTask(Task task) {
+        int s = slot(task.id);
+        if (s < 0) return false;
+        boolean ok = journaled("updateTask", out -> {
+            out.writeByte(OP_UPDATE);
+            out.writeInt(task.id);
+            out.writeUTF(task.title);
+            out.writeInt(task.priority);
+            writeNullable(out, task.dueAt);
+            out.writeBoolean(task.isRecurring == 1);
+            writeNullable(out, task.nextFireAt);
+        });
+        if (ok) applyUpdate(s, task.title, task.priority, task.dueAt, task.isRecurring == 1, task.nextFireAt);
+        return ok;
+    }
+
+    @Override
+    public boolean deleteTask(Task task) {
+        if (task == null || task.id == 0) {
+            throw new IllegalArgumentException("삭제할 Task의 id가 필요합니다.");
+        }
+        return deleteById(task.id);
+    }
+
+    /** 없는 id는 지울 것이 없어 true (TaskDao와 같음) */
+    @Override
+    public synchronized boolean deleteById(int id) {
+        if (slot(id) < 0) return true;
+        boolean ok = journaled("deleteById", out -> {
+            out.writeByte(OP_DELETE);
+            out.writeInt(id);
+        });
+        if (ok) removeSlot(id);
+        return ok;
+    }
+
+    /** OP_BATCH 레코드 하나 → 전부 지워지거나 하나도 안 지워짐 (없는 id는 건너뜀) */
+    @Override
+    public synchronized boolean deleteByIds(int[] ids) {
+        int[] found = existing(ids);
+        if (!journaledBatch("deleteByIds", found.length, out -> {
+            for (int id : found) {
+                out.writeByte(OP_DELETE);
+                out.writeInt(id);
+            }
+        })) {
+            return false;
+        }
+        for (int id : found) removeSlot(id);
+        return true;
+    }
+
+    /** OP_BATCH 레코드 하나 → 전부 바뀌거나 하나도 안 바뀜 (없는 id는 건너뜀) */
+    @Override
+    public synchronized boolean updateCompletedBatch(int[] ids, boolean done) {
+        int[] found = existing(ids);
+        if (!journaledBatch("updateCompletedBatch", found.length, out -> {
+            for (int id : found) {
+                out.writeByte(OP_COMPLETED);
+                out.writeInt(id);
+                out.writeBoolean(done);
+            }
+        })) {
+            return false;
+        }
+        for (int id : found) completed[slot(id)] = done;
+        return true;
+    }
+
+    /** 지금 슬롯이 있는 id만 */
+    private int[] existing(int[] ids) {
+        int[] found = new int[ids.length];
+        int n = 0;
+        for (int id : ids) {
+            if (slot(id) >= 0) found[n++] = id;
+        }
+        return n == found.length ? found : Arrays.copyOf(found, n);
+    }
+
+    /** 없는 id는 바꿀 것이 없어 true (TaskDao와 같음, false는 저장 실패만) */
+    @Override
+    public synchronized boolean updateCompleted(int id, boolean done) {
+        int s = slot(id);
+        if (s < 0) return true;
+        boolean ok = journaled("updateCompleted", out -> {
+            out.writeByte(OP_COMPLETED);
+            out.writeInt(id);
+            out.writeBoolean(done);
+        });
+        if (ok) completed[s] = done;
+        return ok;
+    }
+
+    @Override
+    public synchronized boolean setTags(int id, Collection<String> names) {
+        List<String> normalized = TagIndex.normalizeAll(names);
+        if (slot(id) < 0) return false;
+        boolean ok = journaled("setTags", out -> {
+            out.writeByte(OP_TAGS);
+            writeTags(out, id, normalized);
+        });
+        if (ok) tags.set(id, normalized);
+        return ok;
+    }
+
+    @Override
+    public List<String> tagsOf(int id) {
+        return tags.names(id);
+    }
+
+    @Override
+    public List<String> allTags() {
+        return tags.all();
+    }
+
+    /** TagIndex가 copy-on-write라 락 없이 */
+    @Override
+    public TagBitmap tagged(String tag) {
+        return tags.get(tag.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public synchronized boolean saveFilter(String name, SmartFilter filter) {
+        String key = name.strip();
+        if (key.isEmpty()) throw new IllegalArgumentException("보기 이름이 비었습니다");
+        if (!journalFilter(key, filter.format())) return false;
+        filters.put(key, filter);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deleteFilter(String name) {
+        if (!filters.containsKey(name) || !journalFilter(name, null)) return false;
+        filters.remove(name);
+        return true;
+    }
+
+    /** spec == null 이면 삭제 */
+    private boolean journalFilter(String name, String spec) {
+        return journaled("보기", out -> {
+            out.writeByte(OP_FILTER);
+            out.writeUTF(name);
+            writeNullable(out, spec);
+        });
+    }
+
+    // ==============================================================
+    // 읽기 (슬롯 배열 순차 스캔 + 정렬)
+    // ==============================================================
+
+    /** 전체 스캔 후 SmartFilter.ORDER로 정렬 (TaskDao와 같은 조건/순서) */
+    @Override
+    public synchronized List<Task> query(SmartFilter filter, LocalDate today, int limit) {
+        List<Task> out = new ArrayList<>();
+        for (int s = 0; s < size; s++) {
+            Task t = toTask(s);
+            if (filter.test(t, today)) out.add(t);
+        }
+        out.sort(SmartFilter.ORDER);
+        return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+    }
+
+    @Override
+    public synchronized SortedMap<LocalDate, List<Task>> listBetween(LocalDate from, LocalDate to) {
+        return TaskStore.super.listBetween(from, to);
+    }
+
+    /** 기본 구현(여러 조회)을 락 하나 안에서 → 중간에 쓰기가 끼지 않음 (toTask가 이미 사본) */
+    @Override
+    public synchronized ViewSnapshot loadView(YearMonth month, LocalDate today, TagFilter filter) {
+        return TaskStore.super.loadView(month, today, filter);
+    }
+
+    @Override
+    public synchronized Map<String, SmartFilter> savedFilters() {
+        return new TreeMap<>(filters);
+    }
+
+    @Override
+    public synchronized List<Task> listByDate(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        List<Task> out = new ArrayList<>();
+        for (int s = 0; s < size; s++) {
+            if (dueDays[s] == day) out.add(toTask(s));
+        }
+        // ORDER BY priority, due_at
+        out.sort((a, b) -> a.priority != b.priority
+                ? Integer.compare(a.priority, b.priority)
+                : a.dueAt.compareTo(b.dueAt));
+        return out;
+    }
+
+    @Override
+    public synchronized void forEachTask(Consumer<Task> sink) {
+        for (int s = 0; s < size; s++) sink.accept(toTask(s));
+    }
+
+    @Override
+    public synchronized List<Task> listDueUntil(LocalDate until, boolean onlyUncompleted) {
+        int day = (int) until.toEpochDay();
+        List<Task> out = new ArrayList<>();
+        for (int s = 0; s < size; s++) {
+            if (recurring[s] || dueDays[s] == NO_DAY || dueDays[s] > day) continue;
+            if (onlyUncompleted && completed[s]) continue;
+            out.add(toTask(s));
+        }
+        // ORDER BY 마감일, priority
+        out.sort((a, b) -> {
+            int c = a.dueAt.substring(0, 10).compareTo(b.dueAt.substring(0, 10));
+            return c != 0 ? c : Integer.compare(a.priority, b.priority);
+        });
+        return out;
+    }
+
+    @Override
+    public synchronized boolean hasRecurringOn(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        int dowMask = 1 << (date.getDayOfWeek().getValue() % 7);
+        for (int s = 0; s < size; s++) {
+            if (recursOn(s, day, dowMask)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized List<Task> listRecurringByDate(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        int dowMask = 1 << (date.getDayOfWeek().getValue() % 7);
+        List<Task> out = new ArrayList<>();
+        for (int s = 0; s < size; s++) {
+            if (recursOn(s, day, dowMask)) out.add(toTask(s));
+        }
+        // ORDER BY priority, title
+        out.sort((a, b) -> a.priority != b.priority
+                ? Integer.compare(a.priority, b.priority)
+                : a.title.compareTo(b.title));
+        return out;
+    }
+
+    @Override
+    public synchronized Map<LocalDate, Integer> getDailyCountsForMonth(YearMonth ym) {
+        Map<LocalDate, Integer> map = new HashMap<>();
+        int[][] counts = monthCounts(ym);
+        for (int d = 0; d < counts.length; d++) {
+            int total = counts[d][0] + counts[d][1];
+            if (total > 0) map.put(ym.atDay(d + 1), total);
+        }
+        return map;
+    }
+
+    @Override
+    public synchronized Map<LocalDate, int[]> getDailyDoneTodoCounts(YearMonth ym) {
+        Map<LocalDate, int[]> map = new HashMap<>();
+        int[][] counts = monthCounts(ym);
+        for (int d = 0; d < counts.length; d++) {
+            if (counts[d][0] + counts[d][1] > 0) map.put(ym.atDay(d + 1), counts[d]);
+        }
+        return map;
+    }
+
+    /** 해당 월의 일자별 [완료, 미완료] (인덱스 0 = 1일) */
+    private int[][] monthCounts(YearMonth ym) {
+        int first = (int) ym.atDay(1).toEpochDay();
+        int len = ym.lengthOfMonth();
+        int[][] counts = new int[len][2];
+        for (int s = 0; s < size; s++) {
+            int d = dueDays[s] - first;
+            if (dueDays[s] == NO_DAY || d < 0 || d >= len) continue;
+            counts[d][completed[s] ? 0 : 1]++;
+        }
+        return counts;
+    }
+
+    /** 반복 규칙 판정 (TaskDao SQL과 같은 조건: 요일 비트 + 기간) */
+    private boolean recursOn(int s, int day, int dowMask) {
+        return recurring[s]
+                && (recurDays[s] & dowMask) != 0
+                && (recurStarts[s] == NO_DAY || recurStarts[s] <= day)
+                && recurUntils[s] >= day;
+    }
+
+    // ==============================================================
+    // 영속화
+    // ==============================================================
+
+    /**
+     * 지금 상태를 스냅샷으로 쓰고 저널을 비운다
+     * - 임시 파일에 쓴 뒤 교체 → 중간에 죽어도 이전 스냅샷은 남음
+     */
+    public synchronized void snapshot() {
+        if (journal == null) return;
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        File tmp = new File(snapFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(nextId);
+            out.writeInt(size);
+            for (int s = 0; s < size; s++) writeRecord(out, s);
+            // 태그 (이 부분이 없는 예전 스냅샷도 읽을 수 있게 맨 뒤에)
+            int tagged = 0;
+            for (int s = 0; s < size; s++) if (!tags.names(ids[s]).isEmpty()) tagged++;
+            out.writeInt(tagged);
+            for (int s = 0; s < size; s++) {
+                List<String> names = tags.names(ids[s]);
+                if (!names.isEmpty()) writeTags(out, ids[s], names);
+            }
+            // 저장된 보기 (역시 없는 예전 스냅샷을 위해 맨 뒤에)
+            out.writeInt(filters.size());
+            for (Map.Entry<String, SmartFilter> f : filters.entrySet()) {
+                out.writeUTF(f.getKey());
+                out.writeUTF(f.getValue().format());
+            }
+        }
+        Files.move(tmp.toPath(), snapFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // 스냅샷이 확정된 뒤에 저널 비우기 (비우다 실패해도 journalBytes = 0 이라 다음 되돌리기에서 잘림,
+        // 그 전에 죽어서 남은 저널은 재생이 덮어쓰기라 스냅샷 위에 다시 돌려도 같은 상태)
+        journalCount = 0;
+        journalBytes = 0;
+        journal.close();
+        journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile, false)));
+    }
+
+    /** 저널이 다 남아 있으니 종료 스냅샷이 실패해도 데이터는 잃지 않음 → 기록만 */
+    @Override
+    public synchronized void close() {
+        if (journal == null) return;
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            LOG.error("종료 스냅샷 실패 (다음 시작 때 저널에서 복구)", e);
+        }
+        try { journal.close(); } catch (IOException ignore) { }
+        journal = null;
+    }
+
+    /** 스냅샷 읽기 + 저널 재생 */
+    private void load() throws IOException {
+        if (snapFile.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapFile)))) {
+                nextId = in.readInt();
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) readRecord(in);
+                int tagged;
+                try {
+                    tagged = in.readInt();
+                } catch (EOFException old) {
+                    tagged = 0; // 태그 기능 전의 스냅샷
+                }
+                for (int i = 0; i < tagged; i++) readTags(in);
+                int saved;
+                try {
+                    saved = in.readInt();
+                } catch (EOFException old) {
+                    saved = 0; // 저장된 보기 기능 전의 스냅샷
+                }
+                for (int i = 0; i < saved; i++) readFilter(in.readUTF(), in.readUTF());
+            }
+        }
+        if (!journalFile.exists()) return;
+        // 저널은 SNAPSHOT_EVERY 건 이하라 통째로 읽음 → 온전한 레코드가 끝나는 위치를 알 수 있음
+        byte[] bytes = Files.readAllBytes(journalFile.toPath());
+        ByteArrayInputStream buf = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(buf);
+        while (buf.available() > 0) {
+            byte op = in.readByte();
+            try {
+                replay(op, in);
+            } catch (EOFException torn) {
+                // 마지막 레코드가 쓰다 만 상태(비정상 종료) → 거기까지만 반영
+                LOG.warn("저널 끝 레코드가 잘려 있어 무시합니다: {}", journalFile);
+                break;
+            }
+            journalCount++;
+            journalBytes = bytes.length - buf.available();
+        }
+        if (journalBytes < bytes.length) truncateJournal();
+    }
+
+    /** 이어 쓰기용으로 저널 열기 */
+    private void openJournal() throws IOException {
+        journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile, true)));
+    }
+
+    /** 저널 파일을 journalBytes 까지 잘라 냄 (잘린 레코드 뒤에 이어 쓰면 그 뒤가 전부 못 읽히므로) */
+    private void truncateJournal() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(journalFile, "rw")) {
+            raf.setLength(journalBytes);
+        }
+    }
+
+    private void replay(byte op, DataInputStream in) throws IOException {
+        switch (op) {
+            case OP_ADD -> readRecord(in);
+            case OP_UPDATE -> {
+                int id = in.readInt();
+                String title = in.readUTF();
+                int priority = in.readInt();
+                String dueAt = readNullable(in);
+                boolean rec = in.readBoolean();
+                String nextFire = readNullable(in);
+                int s = slot(id);
+                if (s >= 0) applyUpdate(s, title, priority, dueAt, rec, nextFire);
+            }
+            case OP_DELETE -> removeSlot(in.readInt());
+            case OP_COMPLETED -> {
+                int id = in.readInt();
+                boolean done = in.readBoolean();
+                int s = slot(id);
+                if (s >= 0) completed[s] = done;
+            }
+            case OP_TAGS -> readTags(in);
+            case OP_FILTER -> readFilter(in.readUTF(), readNullable(in));
+            case OP_BATCH -> {
+                int count = in.readInt();
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);   // 잘린 묶음은 여기서 EOF → 하나도 반영 안 됨
+                DataInputStream ops = new DataInputStream(new ByteArrayInputStream(body));
+                for (int i = 0; i < count; i++) replay(ops.readByte(), ops);
+            }
+            default -> throw new IOException("알 수 없는 저널 레코드: " + op);
+        }
+    }
+
+    /** 방금 만든 슬롯 s를 저널에 남김, 실패하면 슬롯을 되돌림 (락 안이라 다른 스레드는 못 봄) */
+    private boolean journalAdd(int s) {
+        int id = ids[s];
+        if (journaled("addTask", out -> {
+            out.writeByte(OP_ADD);
+            writeRecord(out, slot(id));
+        })) {
+            return true;
+        }
+        removeSlot(id);
+        return false;
+    }
+
+    /**
+     * 저널이 SNAPSHOT_EVERY 건 찼으면 지금 스냅샷
+     * - 추가는 슬롯을 만들기 전에 불러야 함 (journaled 안에서 찍으면 아직 저널에 못 남긴 슬롯까지 스냅샷에 들어감)
+     */
+    private boolean snapshotIfDue(String what) {
+        if (journal == null || journalCount < SNAPSHOT_EVERY) return true;
+        try {
+            writeSnapshot();
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            LOG.error("{} 전 스냅샷 실패", what, e);
+            rewindJournal();
+            return false;
+        }
+    }
+
+    /** 레코드 count개를 OP_BATCH 하나로 저널에 남김 (ops는 각 레코드를 op 바이트부터 씀) */
+    private boolean journaledBatch(String what, int count, RecordWriter ops) {
+        if (count == 0) return true;
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        return journaled(what, out -> {
+            body.reset();
+            ops.write(new DataOutputStream(body));
+            out.writeByte(OP_BATCH);
+            out.writeInt(count);
+            out.writeInt(body.size());
+            body.writeTo(out);
+        });
+    }
+
+    /**
+     * 레코드 하나를 저널에 덧붙이고 flush (저널이 SNAPSHOT_EVERY 건 찼으면 먼저 스냅샷)
+     * - 호출한 쪽은 true일 때만 메모리에 반영
+     * - 실패하면 저널을 이 레코드 앞까지 되돌리고 false (UncheckedIOException도 새지 않음)
+     */
+    private boolean journaled(String what, RecordWriter body) {
+        if (journal == null) return true;
+        try {
+            if (journalCount >= SNAPSHOT_EVERY) writeSnapshot();
+            recordBuf.reset();
+            body.write(record);
+            recordBuf.writeTo(journal);
+            journal.flush();
+        } catch (IOException | UncheckedIOException e) {
+            LOG.error("{} 저널 기록 실패", what, e);
+            rewindJournal();
+            return false;
+        }
+        journalBytes += recordBuf.size();
+        journalCount++;
+        return true;
+    }
+
+    /** 기록하다 실패: 버퍼째 버리고 파일을 마지막 온전한 레코드까지 자른 뒤 다시 엶 */
+    private void rewindJournal() {
+        try { journal.close(); } catch (IOException ignore) { }
+        try {
+            truncateJournal();
+            openJournal();
+        } catch (IOException e) {
+            // 다음 쓰기도 실패해 다시 여기로 옴 (그동안 메모리는 안 바뀜)
+            LOG.error("저널 되돌리기 실패: {}", journalFile, e);
+        }
+    }
+
+    private void writeRecord(DataOutputStream out, int s) throws IOException {
+        out.writeInt(ids[s]);
+        out.writeUTF(titles[s]);
+        out.writeInt(priorities[s]);
+        writeNullable(out, dueAts[s]);
+        out.writeBoolean(recurring[s]);
+        writeNullable(out, nextFireAts[s]);
+        writeNullable(out, createdAts[s]);
+        out.writeBoolean(completed[s]);
+        out.writeInt(recurDays[s]);
+        out.writeInt(recurStarts[s]);
+        out.writeInt(recurUntils[s]);
+        out.writeInt(recurIntervals[s]);
+    }
+
+    /**
+     * 레코드를 끝까지 읽은 뒤에 슬롯을 만듦 → 잘린 레코드(EOF)는 흔적을 남기지 않음
+     * - 이미 있는 id면 그 슬롯을 덮어씀: 스냅샷을 바꾼 뒤 저널을 비우기 전에 죽으면
+     *   스냅샷에 이미 든 OP_ADD가 다시 재생되기 때문 (나머지 레코드는 원래 덮어쓰기라 두 번 재생해도 같음)
+     */
+    private void readRecord(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        String title = in.readUTF();
+        int priority = in.readInt();
+        String dueAt = readNullable(in);
+        boolean rec = in.readBoolean();
+        String nextFire = readNullable(in);
+        String createdAt = readNullable(in);
+        boolean done = in.readBoolean();
+        int days = in.readInt();
+        int start = in.readInt();
+        int until = in.readInt();
+        int interval = in.readInt();
+
+        int s = slot(id);
+        if (s < 0) s = newSlot(id);
+        titles[s] = title;
+        priorities[s] = priority;
+        dueAts[s] = dueAt;
+        dueDays[s] = dayOf(dueAt);
+        recurring[s] = rec;
+        nextFireAts[s] = nextFire;
+        createdAts[s] = createdAt;
+        completed[s] = done;
+        recurDays[s] = days;
+        recurStarts[s] = start;
+        recurUntils[s] = until;
+        recurIntervals[s] = interval;
+        if (id >= nextId) nextId = id + 1;
+    }
+
+    private static void writeTags(DataOutputStream out, int id, List<String> names) throws IOException {
+        out.writeInt(id);
+        out.writeInt(names.size());
+        for (String name : names) out.writeUTF(name);
+    }
+
+    private void readTags(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        int n = in.readInt();
+        List<String> names = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) names.add(in.readUTF());
+        if (slot(id) >= 0) tags.set(id, names);
+    }
+
+    private void readFilter(String name, String spec) {
+        if (spec == null) {
+            filters.remove(name);
+            return;
+        }
+        try {
+            filters.put(name, SmartFilter.parse(spec));
+        } catch (IllegalArgumentException bad) {
+            LOG.warn("저장된 보기 '{}'를 읽을 수 없어 건너뜀: {}", name, bad.getMessage());
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // ==============================================================
+    // 슬롯 관리
+    // ==============================================================
+
+    private int slot(int id) {
+        return (id > 0 && id < slotOf.length) ? slotOf[id] : -1;
+    }
+
+    /** 새 슬롯을 맨 뒤에 만들고 기본값으로 초기화 */
+    private int newSlot(int id) {
+        if (size == ids.length) grow(size * 2);
+        if (id >= slotOf.length) {
+            int old = slotOf.length;
+            slotOf = Arrays.copyOf(slotOf, Math.max(old * 2, id + 1));
+            Arrays.fill(slotOf, old, slotOf.length, -1);
+        }
+        int s = size++;
+        ids[s] = id;
+        slotOf[id] = s;
+        titles[s] = null;
+        priorities[s] = 0;
+        dueAts[s] = null;
+        dueDays[s] = NO_DAY;
+        recurring[s] = false;
+        nextFireAts[s] = null;
+        createdAts[s] = null;
+        completed[s] = false;
+        recurDays[s] = 0;
+        recurStarts[s] = NO_DAY;
+        recurUntils[s] = Integer.MAX_VALUE;
+        recurIntervals[s] = 1;
+        return s;
+    }
+
+    /** 삭제: 맨 뒤 슬롯을 빈 자리로 옮겨 배열을 빈틈없이 유지 */
+    private boolean removeSlot(int id) {
+        int s = slot(id);
+        if (s < 0) return false;
+        int last = --size;
+        if (s != last) {
+            ids[s] = ids[last];
+            titles[s] = titles[last];
+            priorities[s] = priorities[last];
+            dueAts[s] = dueAts[last];
+            dueDays[s] = dueDays[last];
+            recurring[s] = recurring[last];
+            nextFireAts[s] = nextFireAts[last];
+            createdAts[s] = createdAts[last];
+            completed[s] = completed[last];
+            recurDays[s] = recurDays[last];
+            recurStarts[s] = recurStarts[last];
+            recurUntils[s] = recurUntils[last];
+            recurIntervals[s] = recurIntervals[last];
+            slotOf[ids[s]] = s;
+        }
+        tags.remove(id);
+        // 문자열 참조는 끊어서 GC 가능하게
+        titles[last] = null;
+        dueAts[last] = null;
+        nextFireAts[last] = null;
+        createdAts[last] = null;
+        slotOf[id] = -1;
+        return true;
+    }
+
+    private void applyUpdate(int s, String title, int priority, String dueAt, boolean rec, String nextFire) {
+        titles[s] = title;
+        priorities[s] = priority;
+        dueAts[s] = dueAt;
+        dueDays[s] = dayOf(dueAt);
+        recurring[s] = rec;
+        nextFireAts[s] = nextFire;
+    }
+
+    private void grow(int cap) {
+        ids = Arrays.copyOf(ids, cap);
+        titles = Arrays.copyOf(titles, cap);
+        priorities = Arrays.copyOf(priorities, cap);
+        dueAts = Arrays.copyOf(dueAts, cap);
+        dueDays = Arrays.copyOf(dueDays, cap);
+        recurring = Arrays.copyOf(recurring, cap);
+        nextFireAts = Arrays.copyOf(nextFireAts, cap);
+        createdAts = Arrays.copyOf(createdAts, cap);
+        completed = Arrays.copyOf(completed, cap);
+        recurDays = Arrays.copyOf(recurDays, cap);
+        recurStarts = Arrays.copyOf(recurStarts, cap);
+        recurUntils = Arrays.copyOf(recurUntils, cap);
+        recurIntervals = Arrays.copyOf(recurIntervals, cap);
+    }
+
+    private Task toTask(int s) {
+        Task t = new Task();
+        t.id = ids[s];
+        t.title = titles[s];
+        t.priority = priorities[s];
+        t.dueAt = dueAts[s];
+        t.isRecurring = recurring[s] ? 1 : 0;
+        t.nextFireAt = nextFireAts[s];
+        t.createdAt = createdAts[s];
+        t.completed = completed[s];
+        if (recurring[s]) {
+            t.recurDays = recurDays[s];
+            t.recurStart = recurStarts[s] == NO_DAY ? null : LocalDate.ofEpochDay(recurStarts[s]).toString();
+            t.recurUntil = recurUntils[s] == Integer.MAX_VALUE ? null : LocalDate.ofEpochDay(recurUntils[s]).toString();
+            t.recurInterval = recurIntervals[s];
+        }
+        return t;
+    }
+
+    /** "YYYY-MM-DD…" → epoch-day (없거나 형식이 틀리면 NO_DAY) */
+    private static int dayOf(String ymd) {
+        if (ymd == null || ymd.length() < 10) return NO_DAY;
+        try {
+            return (int) LocalDate.parse(ymd.substring(0, 10)).toEpochDay();
+        } catch (RuntimeException e) {
+            return NO_DAY;
+        }
+    }
+}
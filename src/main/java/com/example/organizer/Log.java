@@ -0,0 +1,74 @@
+package com.example.organizer;
+
+/**
+ * 작은 로깅 파사드 (System.out / printStackTrace 대신)
+ * - 레벨 검사를 먼저 하고, 꺼진 레벨이면 아무것도 만들지 않음 (문자열 연결/포맷 없음)
+ * - 메시지는 "{}" 자리표시자 + 인자로 넘김 → 실제 문자열 조립은 LogAppender의 기록 스레드에서
+ *   · 인자는 기록 시점에 toString() 되므로 나중에 바뀌는 객체 대신 값(문자열/숫자)을 넘길 것
+ *   · 마지막 인자가 Throwable이면 예외로 취급해서 종류/메시지/스택을 함께 기록
+ * - 기록은 비동기: 호출한 스레드는 링 버퍼에 넣기만 함 (가득 차면 버리고 개수만 셈)
+ *
+ * 시스템 프로퍼티
+ *   todo.log.level   (기본 INFO)  TRACE|DEBUG|INFO|WARN|ERROR|OFF
+ *   todo.log.console (기본 false) true면 콘솔에도 출력 (개발용)
+ *   todo.log.dir     (기본 앱 데이터 폴더/logs)
+ */
+public final class Log {
+
+    public enum Level { TRACE, DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static volatile Level threshold = parse(System.getProperty("todo.log.level"));
+
+    private final String tag;
+
+    private Log(String tag) {
+        this.tag = tag;
+    }
+
+    /** tag: 로그 줄 앞에 붙는 구분자 (예: "DB", "MAINT") */
+    public static Log get(String tag) {
+        return new Log(tag);
+    }
+
+    /** 실행 중에 레벨 변경 */
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold.ordinal() && level != Level.OFF;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public void trace(String msg, Object... args) {
+        if (isEnabled(Level.TRACE)) LogAppender.append(Level.TRACE, tag, msg, args);
+    }
+
+    public void debug(String msg, Object... args) {
+        if (isEnabled(Level.DEBUG)) LogAppender.append(Level.DEBUG, tag, msg, args);
+    }
+
+    public void info(String msg, Object... args) {
+        if (isEnabled(Level.INFO)) LogAppender.append(Level.INFO, tag, msg, args);
+    }
+
+    public void warn(String msg, Object... args) {
+        if (isEnabled(Level.WARN)) LogAppender.append(Level.WARN, tag, msg, args);
+    }
+
+    public void error(String msg, Object... args) {
+        if (isEnabled(Level.ERROR)) LogAppender.append(Level.ERROR, tag, msg, args);
+    }
+
+    private static Level parse(String s) {
+        if (s == null || s.isBlank()) return Level.INFO;
+        try {
+            return Level.valueOf(s.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+}
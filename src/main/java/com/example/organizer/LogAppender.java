@@ -0,0 +1,230 @@
+package com.example.organizer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log의 비동기 기록기 (프로세스에 하나)
+ * - 호출 스레드: 고정 크기 링 버퍼(ArrayBlockingQueue)에 이벤트를 넣기만 함
+ *   · 가득 차면 INFO 이하는 기다리지 않고 버림, WARN/ERROR만 IMPORTANT_WAIT_MILLIS까지 기다림
+ * - "log-writer" 데몬 스레드: 모인 이벤트를 한 번에 꺼내 메시지 조립 → 파일에 쓰고 버퍼가 비면 flush
+ * - 파일: 로그 폴더/todo.log, MAX_BYTES를 넘으면 todo.1.log … todo.{KEEP_FILES}.log 로 밀어내며 교체
+ * - 버린 이벤트가 있으면 다음 줄 앞에 개수를 남김
+ * - 파일을 열 수 없으면 표준 에러로 대신 씀 (로그 때문에 앱이 죽지 않게)
+ * - 종료 시 남은 이벤트를 최대 FLUSH_ON_EXIT_MILLIS 동안 마저 씀
+ */
+final class LogAppender {
+
+    private static final int CAPACITY = 8192;
+    private static final int BATCH = 256;
+    private static final long MAX_BYTES = 5L * 1024 * 1024;
+    private static final int KEEP_FILES = 3;
+    private static final long FLUSH_ON_EXIT_MILLIS = 2000;
+    private static final long IMPORTANT_WAIT_MILLIS = 100;
+
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    /** 기록할 이벤트 하나 (메시지는 아직 조립 전) */
+    private record Event(long millis, Log.Level level, String tag, String thread, String msg, Object[] args) {
+    }
+
+    private static final LogAppender INSTANCE = new LogAppender();
+
+    static void append(Log.Level level, String tag, String msg, Object[] args) {
+        INSTANCE.offer(new Event(System.currentTimeMillis(), level, tag, Thread.currentThread().getName(), msg, args));
+    }
+
+    private final ArrayBlockingQueue<Event> ring = new ArrayBlockingQueue<>(CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final boolean console = Boolean.getBoolean("todo.log.console");
+    private final File dir;
+    private final File file;
+    private final Thread writer;
+    private volatile boolean closing;
+
+    // ---------- 기록 스레드 전용 ----------
+    private OutputStream out;
+    private long size;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private LogAppender() {
+        String d = System.getProperty("todo.log.dir");
+        dir = d != null && !d.isBlank() ? new File(d) : new File(Database.appDataDir(), "logs");
+        file = new File(dir, "todo.log");
+
+        writer = new Thread(this::run, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "log-flush"));
+    }
+
+    /** INFO 이하는 가득 차면 바로 버리고, WARN/ERROR는 자리가 날 때까지 잠깐 기다림 */
+    private void offer(Event e) {
+        if (closing) {
+            dropped.incrementAndGet();
+            return;
+        }
+        boolean queued;
+        if (e.level.compareTo(Log.Level.WARN) >= 0) {
+            try {
+                queued = ring.offer(e, IMPORTANT_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+        } else {
+            queued = ring.offer(e);
+        }
+        if (!queued) dropped.incrementAndGet();
+    }
+
+    // ==============================================================
+    // 기록 스레드
+    // ==============================================================
+
+    private void run() {
+        List<Event> batch = new ArrayList<>(BATCH);
+        while (true) {
+            try {
+                Event first = ring.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closing) break;
+                    continue;
+                }
+                batch.add(first);
+                ring.drainTo(batch, BATCH - 1);
+                for (Event e : batch) write(e);
+                batch.clear();
+                if (ring.isEmpty()) flush();
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                // 로그 한 줄 때문에 기록 스레드가 멈추면 안 됨
+                batch.clear();
+            }
+        }
+        flush();
+        closeQuietly();
+    }
+
+    private void write(Event e) {
+        line.setLength(0);
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) line.append("(로그 버퍼가 가득 차 ").append(lost).append("건 버림)\n");
+
+        TIME.formatTo(Instant.ofEpochMilli(e.millis), line);
+        line.append(' ').append(e.level);
+        if (e.level.name().length() == 4) line.append(' ');
+        line.append(" [").append(e.thread).append("] ").append(e.tag).append(" - ");
+        Throwable error = format(e.msg, e.args, line);
+        line.append('\n');
+        if (error != null) appendError(error);
+
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        if (console) System.out.print(line);
+        try {
+            if (out == null || size + bytes.length > MAX_BYTES) open(out != null);
+            out.write(bytes);
+            size += bytes.length;
+        } catch (IOException io) {
+            closeQuietly();
+            System.err.print(line);
+        }
+    }
+
+    /**
+     * "{}" 자리를 인자로 차례로 채움 (인자가 남으면 뒤에 붙임)
+     *
+     * @return 마지막 인자가 Throwable이면 그 예외 (자리표시자에 쓰이지 않은 경우만)
+     */
+    private static Throwable format(String msg, Object[] args, StringBuilder sb) {
+        int n = args == null ? 0 : args.length;
+        Throwable error = null;
+        if (n > 0 && args[n - 1] instanceof Throwable t) {
+            error = t;
+            n--;
+        }
+        int used = 0;
+        int from = 0;
+        for (int at; used < n && (at = msg.indexOf("{}", from)) >= 0; used++) {
+            sb.append(msg, from, at).append(args[used]);
+            from = at + 2;
+        }
+        sb.append(msg, from, msg.length());
+        for (; used < n; used++) sb.append(' ').append(args[used]);
+        return error;
+    }
+
+    /** 예외를 구조화해서 기록: 한 줄 요약(error=종류 message=메시지) + 들여쓴 스택 (원인 포함) */
+    private void appendError(Throwable t) {
+        line.append("    error=").append(t.getClass().getName())
+                .append(" message=").append(t.getMessage());
+        if (t instanceof SQLException se) line.append(" sqlCode=").append(se.getErrorCode());
+        line.append('\n');
+        for (Throwable c = t; c != null; c = c.getCause() == c ? null : c.getCause()) {
+            if (c != t) line.append("    caused by ").append(c).append('\n');
+            for (StackTraceElement el : c.getStackTrace()) line.append("        at ").append(el).append('\n');
+        }
+    }
+
+    // ==============================================================
+    // 파일 (교체 포함)
+    // ==============================================================
+
+    private void open(boolean roll) throws IOException {
+        closeQuietly();
+        dir.mkdirs();
+        if (roll || file.length() >= MAX_BYTES) {
+            new File(dir, "todo." + KEEP_FILES + ".log").delete();
+            for (int i = KEEP_FILES - 1; i >= 1; i--) {
+                new File(dir, "todo." + i + ".log").renameTo(new File(dir, "todo." + (i + 1) + ".log"));
+            }
+            file.renameTo(new File(dir, "todo.1.log"));
+        }
+        out = new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024);
+        size = file.length();
+    }
+
+    private void flush() {
+        if (out == null) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException ignore) {
+            // 닫기 실패는 무시
+        }
+        out = null;
+    }
+
+    /** 종료 훅: 새 이벤트는 받지 않고, 남은 것을 쓸 때까지 잠깐 기다림 */
+    private void shutdown() {
+        closing = true;
+        try {
+            writer.join(FLUSH_ON_EXIT_MILLIS);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.organizer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 백그라운드 DB 유지보수 (UI 스레드와 무관한 데몬 스레드 하나에서 실행)
+ * - 온라인 백업: VACUUM INTO 로 일관된 사본을 backups/ 에 생성, 최근 KEEP_BACKUPS개만 유지
+ *   · WAL 모드에서 VACUUM INTO 는 읽기 트랜잭션 → 쓰기를 막지 않음
+ *   · 연도별 파티션은 backups/parts/ 에 연도마다 한 벌, 원본이 백업보다 새로울 때만 다시 만듦
+ *     (지난 연도 파일은 거의 안 바뀌므로 한 번 백업하면 그대로)
+ * - 증분 vacuum: 삭제로 생긴 빈 페이지를 VACUUM_PAGES 페이지씩 짧게 나눠 반환 (쓰기 락을 오래 잡지 않음)
+ *   · 새 DB는 migrate()에서 auto_vacuum=INCREMENTAL 로 생성됨
+ *   · 그 전에 만든 DB는 실행 중에 바꾸지 않음 (전체 VACUUM은 DB 전체를 다시 쓰는 동안 배타 락을 잡고 DbWriter 밖에서 돎)
+ *     → PRAGMA optimize + 백업만 하고, 앱/서버를 모두 끈 상태에서 한 번 gradle compactDb (main) 로 변환
+ * - 보관: 마감이 ARCHIVE_AFTER_DAYS일 지난 완료 단발 일정을 ARCHIVE_BATCH개씩 tasks_archive로 옮김
+ *   · 기간은 시스템 프로퍼티 todo.archive.days (기본 90, 0 이하면 보관 안 함)
+ * - PRAGMA optimize: 통계 갱신
+ * - 사용자가 IDLE_MILLIS 동안 아무것도 안 했을 때만 동작 (touch()로 활동 알림)
+ */
+public class MaintenanceService implements AutoCloseable {
+
+    private static final Log LOG = Log.get("MAINT");
+
+    private static final long TICK_SECONDS = 60;
+    private static final long IDLE_MILLIS = 2 * 60 * 1000L;
+    private static final long BACKUP_EVERY_MILLIS = 24 * 60 * 60 * 1000L;
+    private static final long OPTIMIZE_EVERY_MILLIS = 60 * 60 * 1000L;
+    private static final int KEEP_BACKUPS = 5;
+    private static final int VACUUM_PAGES = 64;
+    private static final int VACUUM_STEPS_PER_TICK = 50;
+    static final int ARCHIVE_AFTER_DAYS = Integer.getInteger("todo.archive.days", 90);
+    private static final int ARCHIVE_BATCH = 500;
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-maintenance");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    private final File backupDir = new File(Database.appDataDir(), "backups");
+
+    private volatile long lastActivity = System.currentTimeMillis();
+    private long lastOptimize;
+    private boolean legacyWarned; // 예전 DB 안내는 실행마다 한 번만
+    private TaskDao archiveDao; // 유지보수 스레드 전용 (처음 보관할 때 생성)
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::tick, TICK_SECONDS, TICK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /** 사용자 활동 알림 (이후 IDLE_MILLIS 동안은 유지보수 보류) */
+    public void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    /** 지금 바로 백업 한 번 (유휴 여부와 무관, 백그라운드에서 실행) */
+    public void backupNow() {
+        scheduler.execute(() -> {
+            try (Connection conn = open()) {
+                backup(conn);
+            } catch (Exception e) {
+                LOG.error("수동 백업 실패", e);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (archiveDao != null) archiveDao.close();
+    }
+
+    // ==============================================================
+    // 주기 작업
+    // ==============================================================
+
+    private void tick() {
+        if (!idle()) return;
+        try (Connection conn = open()) {
+            if (latestBackupAge() >= BACKUP_EVERY_MILLIS) backup(conn);
+            if (idle()) archiveStep();
+            if (idle()) vacuumStep(conn);
+            if (idle() && System.currentTimeMillis() - lastOptimize >= OPTIMIZE_EVERY_MILLIS) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("PRAGMA optimize");
+                }
+                lastOptimize = System.currentTimeMillis();
+            }
+        } catch (Exception e) {
+            // 유지보수 실패는 앱 동작에 영향 없음 → 다음 주기에 재시도
+            LOG.warn("유지보수 실패 (다음 주기에 재시도)", e);
+        }
+    }
+
+    private boolean idle() {
+        return System.currentTimeMillis() - lastActivity >= IDLE_MILLIS;
+    }
+
+    private Connection open() throws SQLException {
+        Connection conn = Database.getConnection();
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA busy_timeout = 2000");
+        }
+        return conn;
+    }
+
+    /** VACUUM INTO 로 새 백업 파일 생성 후 오래된 것 정리 */
+    private void backup(Connection conn) throws SQLException {
+        backupDir.mkdirs();
+        File target = new File(backupDir, "todo-" + LocalDateTime.now().format(STAMP) + ".db");
+        long t0 = System.nanoTime();
+        try (Statement st = conn.createStatement()) {
+            st.execute("VACUUM INTO '" + target.getAbsolutePath().replace("'", "''") + "'");
+        }
+        LOG.info("백업 완료: {} ({}ms)", target.getName(), (System.nanoTime() - t0) / 1_000_000);
+
+        File[] old = listBackups();
+        for (int i = KEEP_BACKUPS; i < old.length; i++) {
+            if (old[i].delete()) LOG.info("오래된 백업 삭제: {}", old[i].getName());
+        }
+
+        if (Partitions.enabled(Database.DB_URL)) backupParts(conn);
+    }
+
+    /** 바뀐 연도 파티션만 backups/parts/tasks-YYYY.db 로 다시 백업 (임시 파일에 만든 뒤 교체) */
+    private void backupParts(Connection conn) throws SQLException {
+        File dir = new File(backupDir, "parts");
+        dir.mkdirs();
+        for (int year : Partitions.years(Database.DB_URL)) {
+            File src = Partitions.file(Database.DB_URL, year);
+            File target = new File(dir, src.getName());
+            long changed = Math.max(src.lastModified(), new File(src.getPath() + "-wal").lastModified());
+            if (target.exists() && target.lastModified() >= changed) continue;
+
+            File tmp = new File(dir, src.getName() + ".tmp");
+            tmp.delete();
+            long t0 = System.nanoTime();
+            try (PreparedStatement attach = conn.prepareStatement("ATTACH DATABASE ? AS part");
+                 Statement st = conn.createStatement()) {
+                attach.setString(1, src.getAbsoluteFile().toURI() + "?mode=ro");
+                attach.execute();
+                try {
+                    st.execute("VACUUM part INTO '" + tmp.getAbsolutePath().replace("'", "''") + "'");
+                } finally {
+                    st.execute("DETACH DATABASE part");
+                }
+            }
+            if (!tmp.renameTo(target)) {
+                target.delete();
+                if (!tmp.renameTo(target)) throw new SQLException("파티션 백업 교체 실패: " + target);
+            }
+            LOG.info("파티션 백업 완료: {} ({}ms)", target.getName(), (System.nanoTime() - t0) / 1_000_000);
+        }
+    }
+
+    /**
+     * 오래된 완료 일정을 배치 단위로 보관 (배치마다 짧은 트랜잭션, 사용자가 돌아오면 중단)
+     * - 보관으로 지운 행의 빈 페이지는 바로 뒤 vacuumStep에서 반환됨
+     */
+    private void archiveStep() {
+        if (ARCHIVE_AFTER_DAYS <= 0) return;
+        if (archiveDao == null) archiveDao = new TaskDao();
+        LocalDate before = LocalDate.now().minusDays(ARCHIVE_AFTER_DAYS);
+        int moved;
+        do {
+            moved = archiveDao.archiveCompletedBatch(before, ARCHIVE_BATCH);
+        } while (moved == ARCHIVE_BATCH && idle());
+    }
+
+    /**
+     * 빈 페이지를 조금씩 반환
+     * - VACUUM_PAGES 페이지씩 짧은 트랜잭션으로 나눠 실행 → 중간에 사용자가 돌아오면 바로 중단
+     * - auto_vacuum=INCREMENTAL 이 아닌 예전 DB는 손대지 않고 오프라인 변환(compactDb)이 필요하다고 기록만
+     */
+    private void vacuumStep(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            int free = pragmaInt(st, "PRAGMA freelist_count");
+            if (free == 0) return;
+            if (pragmaInt(st, "PRAGMA auto_vacuum") != 2) {
+                if (!legacyWarned) {
+                    LOG.warn("증분 vacuum이 꺼진 예전 DB라 빈 페이지 {}개를 돌려주지 못함 → 앱/서버를 모두 끄고 한 번 gradle compactDb 실행", free);
+                    legacyWarned = true;
+                }
+                return;
+            }
+            for (int i = 0; i < VACUUM_STEPS_PER_TICK && idle(); i++) {
+                // incremental_vacuum은 step 한 번에 한 페이지씩 반환 → execute()는 첫 페이지만 처리하므로 executeUpdate()로 끝까지 실행
+                st.executeUpdate("PRAGMA incremental_vacuum(" + VACUUM_PAGES + ")");
+                if (pragmaInt(st, "PRAGMA freelist_count") == 0) break;
+            }
+        }
+    }
+
+    // ==============================================================
+    // 오프라인 변환: gradle compactDb [--args=DB파일]
+    // ==============================================================
+
+    /**
+     * 예전 DB를 auto_vacuum=INCREMENTAL 로 한 번 변환 (앱/서버를 모두 끈 상태에서)
+     * - VACUUM INTO 로 새 설정의 사본을 만든 뒤 원본과 교체, 원본은 backups/compact-원래이름-시각.db 로 남김
+     *   (VACUUM INTO 는 연결에 걸어 둔 auto_vacuum 설정으로 사본을 씀)
+     * - 연결을 닫은 뒤에도 -wal 파일이 남아 있으면 다른 프로세스가 열고 있다는 뜻 → 교체하지 않고 실패
+     * - 연도별 파티션 파일은 처음부터 증분 vacuum으로 만들어지므로 대상 아님
+     */
+    public static void main(String[] args) throws SQLException, IOException {
+        String url = args.length > 0 ? "jdbc:sqlite:" + args[0] : Database.DB_URL;
+        File db = new File(url.substring("jdbc:sqlite:".length())).getAbsoluteFile();
+        if (!db.isFile()) {
+            System.out.println("[COMPACT] DB 파일 없음: " + db);
+            System.exit(1);
+        }
+        File tmp = new File(db.getPath() + ".compact");
+        tmp.delete();
+        long t0 = System.nanoTime();
+        try (Connection conn = Database.getConnection(url);
+             Statement st = conn.createStatement()) {
+            if (pragmaInt(st, "PRAGMA auto_vacuum") == 2) {
+                System.out.println("[COMPACT] 이미 증분 vacuum DB, 할 일 없음: " + db);
+                return;
+            }
+            st.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            st.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            st.execute("VACUUM INTO '" + tmp.getPath().replace("'", "''") + "'");
+        }
+        if (new File(db.getPath() + "-wal").exists()) {
+            tmp.delete();
+            System.out.println("[COMPACT] 다른 프로세스가 DB를 열고 있음 (-wal 남아 있음) → 앱/서버를 끄고 다시 실행");
+            System.exit(1);
+        }
+        File keep = new File(db.getParentFile(), "backups");
+        keep.mkdirs();
+        String name = db.getName().replaceFirst("\\.db$", "");
+        File original = new File(keep, "compact-" + name + "-" + LocalDateTime.now().format(STAMP) + ".db");
+        Files.move(db.toPath(), original.toPath());
+        Files.move(tmp.toPath(), db.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        System.out.printf("[COMPACT] 변환 완료 %,dB → %,dB (%dms), 원본: %s%n",
+                original.length(), db.length(), (System.nanoTime() - t0) / 1_000_000, original);
+    }
+
+    private static int pragmaInt(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /** 백업 파일 (최신순) */
+    private File[] listBackups() {
+        File[] files = backupDir.listFiles((d, name) -> name.startsWith("todo-") && name.endsWith(".db"));
+        if (files == null) return new File[0];
+        Arrays.sort(files, Comparator.comparing(File::getName).reversed());
+        return files;
+    }
+
+    private long latestBackupAge() {
+        File[] files = listBackups();
+        return files.length == 0 ? Long.MAX_VALUE : System.currentTimeMillis() - files[0].lastModified();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.organizer;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 연도별 파티션 (선택 기능)
+ * - 켜는 법: -Dtodo.partition=year 로 한 번 실행 → 이후로는 파티션 폴더가 있으면 계속 켜진 상태
+ * - 마감일이 있는 단발 일정은 마감 연도별 파일(todo.parts/tasks-YYYY.db)에, 반복/마감 없는 일정은 todo.db에
+ *   · 파티션 파일도 todo.db와 같은 스키마 (tasks + daily_stats 트리거 등) → 같은 SQL을 schema만 바꿔 사용
+ *   · 필요할 때 "yYYYY" 이름으로 ATTACH (StatementCache가 연결마다 최대 MAX_ATTACHED개 유지)
+ * - id는 todo.db의 AUTOINCREMENT 순번(sqlite_sequence)에서 받아서 파일이 달라도 겹치지 않음
+ *   · 어느 파일에 있는지는 todo.db의 task_part(id, year)에 기록 (쓰기 때 같은 트랜잭션에서 갱신)
+ * - 날짜/월 조회는 해당 연도 파일만, 지난 연도 파일은 거의 안 바뀌므로 백업도 바뀌었을 때만 (MaintenanceService)
+ * - 읽기 연결은 파티션을 읽기 전용(mode=ro)으로 붙임
+ * - TaskDao가 행마다 어느 파일의 문장을 쓸지는 YearFiles(TaskFiles)가 이 헬퍼로 정함
+ */
+final class Partitions {
+
+    private static final Log LOG = Log.get("DB");
+
+    private static final String COLUMNS = TaskRowMapper.COLUMNS;
+
+    /** url(정규화) → 있는 연도 목록 (오름차순), 새 파일을 만들면 갱신 */
+    private static final Map<String, int[]> YEARS = new ConcurrentHashMap<>();
+
+    private Partitions() {
+    }
+
+    /** 파티션 모드인지 (프로퍼티로 켰거나 이미 파티션 폴더가 있음) */
+    static boolean enabled(String url) {
+        return "year".equalsIgnoreCase(System.getProperty("todo.partition")) || dir(url).isDirectory();
+    }
+
+    /** todo.db → todo.parts 폴더 */
+    static File dir(String url) {
+        File main = new File(path(url));
+        String name = main.getName();
+        int dot = name.lastIndexOf('.');
+        return new File(main.getAbsoluteFile().getParentFile(), (dot > 0 ? name.substring(0, dot) : name) + ".parts");
+    }
+
+    static File file(String url, int year) {
+        return new File(dir(url), "tasks-" + year + ".db");
+    }
+
+    static String schema(int year) {
+        return "y" + year;
+    }
+
+    /** 단발 일정이 들어갈 연도 ("YYYY-MM-DD…" → YYYY), 반복/마감 없음/형식 오류면 0 = todo.db */
+    static int yearOf(String dueAt, int isRecurring) {
+        if (isRecurring == 1 || dueAt == null || dueAt.length() < 10) return 0;
+        try {
+            return Integer.parseInt(dueAt, 0, 4, 10);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** 파일이 있는 연도 (오름차순) */
+    static int[] years(String url) {
+        return YEARS.computeIfAbsent(key(url), k -> scan(url));
+    }
+
+    private static int[] scan(String url) {
+        File[] files = dir(url).listFiles((d, n) -> n.matches("tasks-\\d{4}\\.db"));
+        if (files == null) return new int[0];
+        int[] out = new int[files.length];
+        for (int i = 0; i < files.length; i++) out[i] = Integer.parseInt(files[i].getName().substring(6, 10));
+        Arrays.sort(out);
+        return out;
+    }
+
+    static boolean exists(String url, int year) {
+        return Arrays.binarySearch(years(url), year) >= 0;
+    }
+
+    /**
+     * 쓰기용으로 붙임 (파일이 없으면 스키마째 새로 만듦), 트랜잭션 밖에서 호출
+     */
+    static void attachForWrite(StatementCache w, String url, int year) throws SQLException {
+        if (w.isAttached(schema(year))) return;
+        if (!exists(url, year)) create(url, year);
+        w.attach(schema(year), file(url, year).getAbsolutePath());
+    }
+
+    /**
+     * 읽기용으로 붙임 (mode=ro)
+     *
+     * @return false = 그 연도 파일이 없음 (읽을 것도 없음)
+     */
+    static boolean attachForRead(StatementCache r, String url, int year) throws SQLException {
+        if (r.isAttached(schema(year))) return true;
+        if (!exists(url, year)) return false;
+        r.attach(schema(year), file(url, year).getAbsoluteFile().toURI() + "?mode=ro");
+        return true;
+    }
+
+    private static synchronized void create(String url, int year) throws SQLException {
+        if (exists(url, year)) return;
+        File f = file(url, year);
+        f.getParentFile().mkdirs();
+        try (Connection conn = Database.getConnection("jdbc:sqlite:" + f.getAbsolutePath())) {
+            Database.createSchema(conn);
+        }
+        YEARS.remove(key(url));
+        LOG.info("파티션 생성: {}", f.getName());
+    }
+
+    // ==============================================================
+    // 켜기: todo.db 안의 기존 단발 일정을 연도 파일로 옮김 (Database.migrate에서 호출)
+    // ==============================================================
+
+    /**
+     * main(tasks + tasks_archive)의 마감 있는 단발 일정을 연도별 파일로 옮김
+     * - 파일이 달라 한 트랜잭션으로 묶을 수 없으므로 두 단계 (어느 단계에서 멈춰도 다시 실행하면 이어서 완료)
+     *   1) 파티션에 복사 + task_part 기록 (id 그대로, 이미 있으면 건너뜀)
+     *   2) 파티션에 실제로 있는 id만 main에서 삭제 → 복사 전에 지워지는 일은 없음
+     */
+    static void split(Connection conn, String url) throws SQLException {
+        int[] years;
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("""
+                     SELECT DISTINCT CAST(substr(due_at, 1, 4) AS INTEGER) FROM (
+                         SELECT due_at FROM tasks WHERE is_recurring = 0 AND due_at IS NOT NULL
+                         UNION ALL
+                         SELECT due_at FROM tasks_archive WHERE due_at IS NOT NULL)
+                     """)) {
+            int[] buf = new int[16];
+            int n = 0;
+            while (rs.next()) {
+                if (n == buf.length) buf = Arrays.copyOf(buf, n * 2);
+                buf[n++] = rs.getInt(1);
+            }
+            years = Arrays.copyOf(buf, n);
+        }
+        dir(url).mkdirs();
+        if (years.length == 0) return;
+
+        StatementCache sc = new StatementCache(conn);
+        long t0 = System.nanoTime();
+        for (int year : years) {
+            attachForWrite(sc, url, year);
+            String y = schema(year);
+            String prefix = String.format("%04d", year);
+            conn.setAutoCommit(false);
+            try (Statement st = conn.createStatement()) {
+                for (String src : new String[]{"main.tasks", "main.tasks_archive"}) {
+                    st.executeUpdate("INSERT OR IGNORE INTO " + y + ".tasks(" + COLUMNS + ") SELECT " + COLUMNS
+                            + " FROM " + src + " WHERE is_recurring = 0 AND substr(due_at, 1, 4) = '" + prefix + "'");
+                }
+                st.executeUpdate("INSERT OR REPLACE INTO main.task_part(id, year) SELECT id, " + year + " FROM " + y + ".tasks");
+                conn.commit();
+
+                for (String src : new String[]{"main.tasks", "main.tasks_archive"}) {
+                    st.executeUpdate("DELETE FROM " + src + " WHERE id IN (SELECT id FROM " + y + ".tasks)");
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            sc.detach(y);
+        }
+        LOG.info("파티션으로 옮김: {}개 연도 ({}ms)", years.length, (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    // ==============================================================
+    // 내부
+    // ==============================================================
+
+    private static String path(String url) {
+        String u = url == null ? Database.DB_URL : url;
+        return u.startsWith("jdbc:sqlite:") ? u.substring("jdbc:sqlite:".length()) : u;
+    }
+
+    private static String key(String url) {
+        return dir(url).getAbsolutePath();
+    }
+
+    /**
+     * id를 count개 연속으로 할당: todo.db의 tasks AUTOINCREMENT 순번을 올려서 사용 (트랜잭션 안에서 호출)
+     * - todo.db의 tasks INSERT도 같은 순번을 쓰므로 어느 파일에 넣어도 id가 겹치지 않음
+     *
+     * @return 첫 id (첫 id ~ 첫 id + count - 1)
+     */
+    static int allocateIds(StatementCache w, int count) throws SQLException {
+        PreparedStatement ps = w.get("allocIds",
+                "UPDATE main.sqlite_sequence SET seq = seq + ? WHERE name = 'tasks' RETURNING seq");
+        ps.setInt(1, count);
+        try (ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) return rs.getInt(1) - count + 1;
+        }
+        // tasks에 한 번도 INSERT한 적 없는 새 DB → 순번 행부터 만듦
+        try (Statement st = w.connection().createStatement()) {
+            st.executeUpdate("INSERT INTO main.sqlite_sequence(name, seq) VALUES ('tasks', " + count + ")");
+        }
+        return 1;
+    }
+}
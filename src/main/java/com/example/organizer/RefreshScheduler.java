@@ -0,0 +1,76 @@
+package com.example.organizer;
+
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 화면 갱신 합치기 (JavaFX 스레드 전용)
+ * - 변경이 생기면 바로 다시 그리지 않고 "이 뷰가 더러워졌다"만 표시
+ * - 처음 표시된 시점부터 WINDOW 동안 들어온 요청을 모아서, 뷰마다 딱 한 번만 데이터 로드 + 렌더
+ *   · 예) 모달에서 토글 → 달력/오늘 목록/모달 목록 갱신 요청이 여러 번 와도 각 한 번씩
+ * - 창은 처음 요청 기준으로 고정 (계속 요청이 와도 WINDOW마다 최소 한 번은 갱신됨)
+ */
+public final class RefreshScheduler {
+
+    /** 한 번에 모을 시간 (한두 프레임) */
+    private static final Duration WINDOW = Duration.millis(30);
+
+    private final Map<String, Runnable> views = new LinkedHashMap<>();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    private final PauseTransition timer = new PauseTransition(WINDOW);
+
+    public RefreshScheduler() {
+        timer.setOnFinished(e -> flush());
+    }
+
+    /** 뷰 등록 (같은 key면 교체), refresh는 데이터 로드 + 렌더를 한 번에 */
+    public void register(String key, Runnable refresh) {
+        views.put(key, refresh);
+    }
+
+    /** 닫힌 뷰 제거 (예: 날짜 모달) */
+    public void unregister(String key) {
+        views.remove(key);
+        dirty.remove(key);
+    }
+
+    /** 해당 뷰들을 다음 갱신 때 다시 그리도록 표시 */
+    public void markDirty(String... keys) {
+        for (String key : keys) {
+            if (views.containsKey(key)) dirty.add(key);
+        }
+        schedule();
+    }
+
+    /** 등록된 모든 뷰를 다시 그리도록 표시 */
+    public void markAllDirty() {
+        dirty.addAll(views.keySet());
+        schedule();
+    }
+
+    /** 기다리지 않고 지금 바로 반영 (창 닫기 직전 등) */
+    public void flush() {
+        timer.stop();
+        if (dirty.isEmpty()) return;
+        // 갱신 도중 다시 더러워진 뷰는 다음 창에서 처리
+        List<Runnable> run = new ArrayList<>(dirty.size());
+        for (String key : dirty) {
+            Runnable r = views.get(key);
+            if (r != null) run.add(r);
+        }
+        dirty.clear();
+        for (Runnable r : run) r.run();
+    }
+
+    private void schedule() {
+        if (dirty.isEmpty()) return;
+        if (timer.getStatus() != javafx.animation.Animation.Status.RUNNING) timer.playFromStart();
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.organizer;
+
+import java.io.Serial;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * 생산성 통계 (달력 점 말고 긴 기간의 숫자)
+ * - 주별 완료율: 마감 주(일요일 시작)마다 오늘까지 마감인 단발 중 완료 비율
+ * - 지난 마감 미완료: 마감이 며칠 지났는지 구간별 개수
+ * - 우선순위별: 전체 / 완료 / 마감 지남 / 마감 없음
+ * - 반복 업무 연속 기록: 규칙을 시작일부터 오늘까지 펼쳐서 회차마다 완료했는지 → 지금 연속, 최장 연속
+ *   · 회차는 그날부터 다음 요일 회차 전날까지 완료 기록(forEachRecurringCompletion)이 있으면 완료
+ *   · 오늘 회차를 아직 안 했으면 지금 연속은 끊지 않음 (어제까지로 셈)
+ *
+ * 계산 방식
+ * - 입력은 TaskColumns (저장소를 한 번 훑어 만든 원시 배열) → 여기서는 저장소를 다시 읽지 않음
+ * - 단발은 fork/join으로 구간을 LEAF개씩 나눠 구간마다 부분 집계를 만들고 합침 (주별/나이별/우선순위별을 한 번에)
+ * - 반복 규칙은 규칙 하나씩 병렬 스트림으로 펼침 (규칙끼리 공유하는 것이 없음)
+ * - 둘 다 넘겨받은 ForkJoinPool 안에서 돌아감 → 코어 수를 바꿔 재 볼 수 있음 (ReportBench)
+ * - 결과는 병렬도와 상관없이 같음 (합치는 것이 전부 정수 덧셈)
+ *
+ * 실행: gradle reports [--args=주수]  → 최근 주수(기본 12)주의 완료율과 나머지 통계를 출력
+ */
+final class Reports {
+
+    /** 지난 마감 미완료 구간의 시작 (지난 일수), 마지막 구간은 끝 없음 */
+    static final int[] AGE_FROM = {1, 2, 4, 8, 15, 31, 91, 366};
+    static final String[] AGE_LABELS = {"1일", "2~3일", "4~7일", "8~14일", "15~30일", "31~90일", "91~365일", "1년 넘게"};
+
+    /** 우선순위 1~3, 그 밖의 값은 0(기타)으로 */
+    static final int PRIORITIES = 4;
+
+    /** 주별 완료율을 셀 최대 기간 (마감이 아주 오래된 할 일 하나 때문에 배열이 커지지 않게) */
+    static final int MAX_WEEKS = 20 * 53;
+
+    /** fork/join에서 더 나누지 않는 구간 크기 */
+    private static final int LEAF = 1 << 14;
+
+    record Week(LocalDate start, int total, int done) {
+        double rate() {
+            return total == 0 ? 0 : (double) done / total;
+        }
+    }
+
+    record PriorityRow(int priority, int total, int done, int overdue, int undated) {
+    }
+
+    record Streak(int id, String title, int occurrences, int done, int current, int longest) {
+    }
+
+    /**
+     * @param weeks       첫 마감 주(최대 MAX_WEEKS 전) ~ 이번 주, 오래된 순
+     * @param overdueAges AGE_FROM 구간별 개수
+     * @param priorities  우선순위 1, 2, 3, 기타(0) 순
+     * @param streaks     반복 규칙 id 순
+     */
+    record Result(LocalDate today, List<Week> weeks, int[] overdueAges, List<PriorityRow> priorities,
+                  List<Streak> streaks) {
+    }
+
+    private Reports() {
+    }
+
+    /** 전부 계산 (pool 안에서 병렬로) */
+    static Result compute(TaskColumns cols, LocalDate today, ForkJoinPool pool) {
+        int now = (int) today.toEpochDay();
+        int lastWeek = weekStart(now);
+        int first = pool.submit(() -> IntStream.range(0, cols.size).parallel()
+                .map(i -> cols.due[i])
+                .filter(d -> d != TaskColumns.NONE && d <= now)
+                .min().orElse(now)).join();
+        int firstWeek = Math.max(weekStart(first), lastWeek - (MAX_WEEKS - 1) * 7);
+        int weekCount = (lastWeek - firstWeek) / 7 + 1;
+
+        Partial p = pool.invoke(new OneOffs(cols, 0, cols.size, now, firstWeek, weekCount));
+        List<Streak> streaks = pool.submit(() -> IntStream.range(0, cols.rules).parallel()
+                .mapToObj(r -> streak(cols, r, now))
+                .toList()).join();
+
+        List<Week> weeks = new ArrayList<>(weekCount);
+        for (int w = 0; w < weekCount; w++) {
+            weeks.add(new Week(LocalDate.ofEpochDay(firstWeek + 7L * w), p.weekTotal[w], p.weekDone[w]));
+        }
+        List<PriorityRow> priorities = new ArrayList<>(PRIORITIES);
+        for (int k = 1; k <= PRIORITIES; k++) {
+            int prio = k % PRIORITIES;   // 1, 2, 3, 0
+            int[] c = p.priority;
+            priorities.add(new PriorityRow(prio, c[prio * 4], c[prio * 4 + 1], c[prio * 4 + 2], c[prio * 4 + 3]));
+        }
+        return new Result(today, weeks, p.ages, priorities, streaks);
+    }
+
+    /** epochDay가 속한 주의 일요일 (1970-01-01 = 목요일) */
+    static int weekStart(int epochDay) {
+        return epochDay - Math.floorMod(epochDay + 4, 7);
+    }
+
+    // ==============================================================
+    // 단발: fork/join 부분 집계
+    // ==============================================================
+
+    /** 구간 하나의 집계 (합치기는 배열 덧셈) */
+    private static final class Partial {
+        final int[] weekTotal;
+        final int[] weekDone;
+        final int[] ages = new int[AGE_FROM.length];
+        /** 우선순위마다 [전체, 완료, 지남, 마감 없음] */
+        final int[] priority = new int[PRIORITIES * 4];
+
+        Partial(int weeks) {
+            weekTotal = new int[weeks];
+            weekDone = new int[weeks];
+        }
+
+        Partial merge(Partial o) {
+            add(weekTotal, o.weekTotal);
+            add(weekDone, o.weekDone);
+            add(ages, o.ages);
+            add(priority, o.priority);
+            return this;
+        }
+
+        private static void add(int[] into, int[] from) {
+            for (int i = 0; i < into.length; i++) into[i] += from[i];
+        }
+    }
+
+    /** ForkJoinTask가 Serializable이라 붙는 것일 뿐 직렬화하지 않음 (열 배열은 transient) */
+    private static final class OneOffs extends RecursiveTask<Partial> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient TaskColumns cols;
+        private final int lo;
+        private final int hi;
+        private final int today;
+        private final int firstWeek;
+        private final int weeks;
+
+        OneOffs(TaskColumns cols, int lo, int hi, int today, int firstWeek, int weeks) {
+            this.cols = cols;
+            this.lo = lo;
+            this.hi = hi;
+            this.today = today;
+            this.firstWeek = firstWeek;
+            this.weeks = weeks;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (hi - lo <= LEAF) return leaf();
+            int mid = (lo + hi) >>> 1;
+            OneOffs left = new OneOffs(cols, lo, mid, today, firstWeek, weeks);
+            left.fork();
+            Partial right = new OneOffs(cols, mid, hi, today, firstWeek, weeks).compute();
+            return left.join().merge(right);
+        }
+
+        private Partial leaf() {
+            Partial p = new Partial(weeks);
+            int[] due = cols.due;
+            boolean[] done = cols.done;
+            byte[] prio = cols.priority;
+            for (int i = lo; i < hi; i++) {
+                int d = due[i];
+                int k = prio[i] >= 1 && prio[i] <= 3 ? prio[i] * 4 : 0;
+                p.priority[k]++;
+                if (done[i]) p.priority[k + 1]++;
+                if (d == TaskColumns.NONE) {
+                    p.priority[k + 3]++;
+                    continue;
+                }
+                if (d <= today && d >= firstWeek) {
+                    int w = (d - firstWeek) / 7;
+                    p.weekTotal[w]++;
+                    if (done[i]) p.weekDone[w]++;
+                }
+                if (!done[i] && d < today) {
+                    p.priority[k + 2]++;
+                    p.ages[ageBucket(today - d)]++;
+                }
+            }
+            return p;
+        }
+    }
+
+    static int ageBucket(int days) {
+        int b = AGE_FROM.length - 1;
+        while (b > 0 && days < AGE_FROM[b]) b--;
+        return b;
+    }
+
+    // ==============================================================
+    // 반복: 규칙 하나 펼치기
+    // ==============================================================
+
+    /** 규칙 r을 시작일(최대 MAX_WEEKS 전)부터 min(종료일, 오늘)까지 펼쳐서 연속 기록 */
+    static Streak streak(TaskColumns cols, int r, int today) {
+        int[] doneDays = cols.ruleDone[r];
+        int start = cols.ruleStart[r];
+        if (start == TaskColumns.NONE) start = doneDays.length > 0 ? doneDays[0] : today;
+        start = Math.max(start, today - MAX_WEEKS * 7);
+        int end = cols.ruleUntil[r] == TaskColumns.NONE ? today : Math.min(cols.ruleUntil[r], today);
+        int bits = cols.ruleDays[r] & 0x7F;
+
+        int occurrences = 0, done = 0, run = 0, longest = 0, current = 0;
+        int c = Arrays.binarySearch(doneDays, start);
+        if (c < 0) c = -c - 1;
+        // 회차 occ는 [occ, 다음 요일 회차) 안에 완료 기록이 있으면 완료 (종료일 뒤 늦은 체크도 마지막 회차로)
+        int occ = next(start, end, bits);
+        while (occ != TaskColumns.NONE) {
+            int following = next(occ + 1, today, bits);
+            int until = following == TaskColumns.NONE ? today + 1 : following;
+            boolean hit = false;
+            while (c < doneDays.length && doneDays[c] < until) {
+                if (doneDays[c] >= occ) hit = true;
+                c++;
+            }
+            occurrences++;
+            if (hit) {
+                done++;
+                run++;
+                longest = Math.max(longest, run);
+                current = run;
+            } else if (occ != today) {
+                run = 0;
+                current = 0;
+            }
+            occ = following != TaskColumns.NONE && following <= end ? following : TaskColumns.NONE;
+        }
+        return new Streak(cols.ruleId[r], cols.ruleTitle[r], occurrences, done, current, longest);
+    }
+
+    /** from ~ to(포함)에서 요일 비트에 맞는 첫날 (없으면 NONE) */
+    private static int next(int from, int to, int bits) {
+        if (bits == 0) return TaskColumns.NONE;
+        for (int d = from; d <= to; d++) {
+            if ((bits & (1 << Math.floorMod(d + 4, 7))) != 0) return d;
+        }
+        return TaskColumns.NONE;
+    }
+
+    // ==============================================================
+    // 실행 (gradle reports)
+    // ==============================================================
+
+    public static void main(String[] args) {
+        int show = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        LocalDate today = LocalDate.now();
+        try (TaskStore store = TaskStore.open()) {
+            long t0 = System.nanoTime();
+            TaskColumns cols = TaskColumns.load(store);
+            long t1 = System.nanoTime();
+            Result r = compute(cols, today, ForkJoinPool.commonPool());
+            long t2 = System.nanoTime();
+            System.out.printf("[REPORT] 읽기 %dms (단발 %d, 반복 %d) / 계산 %dms (병렬도 %d)%n",
+                    (t1 - t0) / 1_000_000, cols.size, cols.rules, (t2 - t1) / 1_000_000,
+                    ForkJoinPool.commonPool().getParallelism());
+            print(r, show);
+        }
+    }
+
+    static void print(Result r, int show) {
+        System.out.println("[REPORT] 주별 완료율 (최근 " + show + "주, 오늘까지 마감인 단발)");
+        List<Week> weeks = r.weeks();
+        for (Week w : weeks.subList(Math.max(0, weeks.size() - show), weeks.size())) {
+            System.out.printf("  %s 주  %4d/%-4d %3.0f%%%n", w.start(), w.done(), w.total(), w.rate() * 100);
+        }
+        System.out.println("[REPORT] 지난 마감 미완료 (지난 일수별)");
+        for (int b = 0; b < AGE_FROM.length; b++) {
+            System.out.printf("  %-8s %d%n", AGE_LABELS[b], r.overdueAges()[b]);
+        }
+        System.out.println("[REPORT] 우선순위별 (단발)");
+        for (PriorityRow p : r.priorities()) {
+            System.out.printf("  %-4s 전체 %d / 완료 %d / 마감 지남 %d / 마감 없음 %d%n",
+                    p.priority() == 0 ? "기타" : String.valueOf(p.priority()), p.total(), p.done(), p.overdue(), p.undated());
+        }
+        System.out.println("[REPORT] 반복 업무 연속 기록");
+        for (Streak s : r.streaks()) {
+            System.out.printf("  %s: 회차 %d / 완료 %d / 지금 연속 %d / 최장 %d%n",
+                    s.title(), s.occurrences(), s.done(), s.current(), s.longest());
+        }
+    }
+}
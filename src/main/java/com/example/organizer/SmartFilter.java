@@ -0,0 +1,304 @@
+package com.example.organizer;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 저장해 두고 쓰는 보기(스마트 필터) 조건 (불변)
+ * - 필드: 우선순위 / 마감 범위(오늘 기준 며칠) / 반복 여부 / 완료 여부 / 제목 포함
+ * - 글로 쓰고 읽기: "priority:1 due:0..6 done:no", "recurring:yes 운동", "due:overdue title:\"보고서\""
+ *   · priority:1,2  due:a..b (a.. / ..b / n / today / tomorrow / week / overdue)
+ *   · recurring:yes|no  done:yes|no  title:단어 또는 "여러 단어" (키 없이 쓴 단어도 제목)
+ * - SQL로 바꿀 때는 인덱스가 있는 쪽으로만 나눔 (Branch)
+ *   · 단발: is_recurring = 0 + 마감일 범위 → idx_tasks_kind_day 를 마감일 순서대로 읽다가 LIMIT에서 멈춤
+ *   · 반복: is_recurring = 1 → 부분 인덱스 idx_tasks_recurring (우선순위, 제목 순)
+ *   · 나머지 조건(우선순위/완료/제목)은 같은 문장 안의 바인딩 값 → 값이 달라도 문장은 같음
+ * - 문장 모양(shape)은 "어떤 조건이 있는지"만으로 정해짐 → TaskDao가 shape별로 prepare 해두고 재사용
+ */
+public record SmartFilter(int priorities, Integer dueFrom, Integer dueTo,
+                          Boolean recurring, Boolean completed, String title) {
+
+    /** 조건 없음 (전부) */
+    public static final SmartFilter ALL = new SmartFilter(0, null, null, null, null, null);
+
+    /**
+     * @param priorities 보고 싶은 우선순위 비트 (1 << 우선순위, 0 = 전부)
+     * @param dueFrom    오늘 기준 마감 시작일 (일, null = 제한 없음)
+     * @param dueTo      오늘 기준 마감 끝 (포함)
+     * @param recurring  반복만(true) / 단발만(false) / 둘 다(null)
+     * @param completed  완료만(true) / 미완료만(false) / 둘 다(null)
+     * @param title      제목에 들어 있어야 하는 글자 (대소문자 무시, null = 제한 없음)
+     * @throws IllegalArgumentException 범위가 뒤집혔거나 반복 업무에 마감 범위를 건 경우
+     */
+    public SmartFilter {
+        if ((priorities & ~PRIORITY_BITS) != 0) throw new IllegalArgumentException("우선순위는 1~3만: " + priorities);
+        if (priorities == PRIORITY_BITS) priorities = 0; // 셋 다 = 제한 없음 (shape 하나로)
+        if (title != null && title.isBlank()) title = null;
+        if (title != null) title = title.strip();
+        if (dueFrom != null && dueTo != null && dueFrom > dueTo) {
+            throw new IllegalArgumentException("마감 범위가 뒤집혔습니다: " + dueFrom + ".." + dueTo);
+        }
+        if (Boolean.TRUE.equals(recurring) && hasDue(dueFrom, dueTo)) {
+            throw new IllegalArgumentException("반복 업무에는 마감 범위를 쓸 수 없습니다");
+        }
+    }
+
+    private static final int PRIORITY_BITS = 0b1110;
+
+    private static boolean hasDue(Integer from, Integer to) {
+        return from != null || to != null;
+    }
+
+    /** 마감 범위가 있는지 (있으면 단발만) */
+    public boolean hasDue() {
+        return hasDue(dueFrom, dueTo);
+    }
+
+    /** today 기준 마감 시작일 (없으면 null) */
+    public LocalDate dueFromDate(LocalDate today) {
+        return dueFrom == null ? null : today.plusDays(dueFrom);
+    }
+
+    /** today 기준 마감 끝 (없으면 null) */
+    public LocalDate dueToDate(LocalDate today) {
+        return dueTo == null ? null : today.plusDays(dueTo);
+    }
+
+    // ==============================================================
+    // SQL 컴파일
+    // ==============================================================
+
+    /**
+     * 실행 단위 하나 (단발 쪽 또는 반복 쪽)
+     *
+     * @param shape 문장 캐시 키 (조건 구성만 반영, 값은 반영 안 함)
+     * @param sql   ? 바인딩 순서: 마감 시작, 마감 끝, 우선순위들, 완료, 제목, LIMIT (있는 것만)
+     */
+    record Branch(String shape, String sql, boolean recurring) {
+    }
+
+    /** shape → SQL (문자열 조립도 shape마다 한 번만) */
+    private static final Map<String, String> SQL = new ConcurrentHashMap<>();
+
+    /** 실행할 쪽 (단발 → 반복 순서, 결과도 이 순서로 이어 붙임) */
+    List<Branch> branches() {
+        List<Branch> out = new ArrayList<>(2);
+        if (!Boolean.TRUE.equals(recurring)) out.add(branch(false));
+        if (!Boolean.FALSE.equals(recurring) && !hasDue()) out.add(branch(true));
+        return out;
+    }
+
+    private Branch branch(boolean rec) {
+        StringBuilder key = new StringBuilder(rec ? "r" : "o");
+        if (!rec && dueFrom != null) key.append('F');
+        if (!rec && dueTo != null) key.append('T');
+        if (priorities != 0) key.append('P').append(Integer.bitCount(priorities));
+        if (completed != null) key.append('C');
+        if (title != null) key.append('L');
+        String shape = key.toString();
+        return new Branch(shape, SQL.computeIfAbsent(shape, SmartFilter::compile), rec);
+    }
+
+    /** shape 글자 → SQL (TaskRowMapper.COLUMNS 순서) */
+    private static String compile(String shape) {
+        boolean rec = shape.charAt(0) == 'r';
+        StringBuilder sql = new StringBuilder("SELECT ").append(TaskRowMapper.COLUMNS)
+                .append(" FROM tasks WHERE is_recurring = ").append(rec ? 1 : 0); // 리터럴 → 부분 인덱스 사용 가능
+        if (shape.indexOf('F') >= 0) sql.append(" AND substr(due_at, 1, 10) >= ?");
+        if (shape.indexOf('T') >= 0) sql.append(" AND substr(due_at, 1, 10) <= ?");
+        int p = shape.indexOf('P');
+        if (p >= 0) {
+            int n = shape.charAt(p + 1) - '0';
+            sql.append(" AND priority IN (?").append(", ?".repeat(n - 1)).append(')');
+        }
+        if (shape.indexOf('C') >= 0) sql.append(" AND completed = ?");
+        if (shape.indexOf('L') >= 0) sql.append(" AND title LIKE ? ESCAPE '\\'");
+        sql.append(rec
+                ? " ORDER BY priority, title"
+                : " ORDER BY substr(due_at, 1, 10), priority, id");
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    /** branch의 ?에 값 채우기 */
+    void bind(PreparedStatement ps, Branch branch, LocalDate today, int limit) throws SQLException {
+        int i = 1;
+        if (!branch.recurring()) {
+            if (dueFrom != null) ps.setString(i++, dueFromDate(today).toString());
+            if (dueTo != null) ps.setString(i++, dueToDate(today).toString());
+        }
+        for (int p = 1; p <= 3; p++) {
+            if ((priorities & (1 << p)) != 0) ps.setInt(i++, p);
+        }
+        if (completed != null) ps.setInt(i++, completed ? 1 : 0);
+        if (title != null) ps.setString(i++, "%" + escapeLike(title) + "%");
+        ps.setInt(i, limit);
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // ==============================================================
+    // 메모리 판정 (InMemoryTaskStore, SQL 결과와 같은 조건/순서)
+    // ==============================================================
+
+    /** t가 조건에 맞는지 (SQL LIKE처럼 제목은 대소문자 무시) */
+    public boolean test(Task t, LocalDate today) {
+        boolean rec = t.isRecurring == 1;
+        if (recurring != null && recurring != rec) return false;
+        if (hasDue()) {
+            if (rec || t.dueAt == null || t.dueAt.length() < 10) return false;
+            String day = t.dueAt.substring(0, 10);
+            if (dueFrom != null && day.compareTo(dueFromDate(today).toString()) < 0) return false;
+            if (dueTo != null && day.compareTo(dueToDate(today).toString()) > 0) return false;
+        }
+        if (priorities != 0 && (priorities & (1 << t.priority)) == 0) return false;
+        if (completed != null && completed != t.completed) return false;
+        return title == null || (t.title != null
+                && t.title.toLowerCase(Locale.ROOT).contains(title.toLowerCase(Locale.ROOT)));
+    }
+
+    /** 결과 순서: 단발(마감일 → 우선순위 → id, 마감 없음이 먼저) 다음 반복(우선순위 → 제목) */
+    static final Comparator<Task> ORDER = Comparator
+            .comparingInt((Task t) -> t.isRecurring)
+            .thenComparing(t -> t.isRecurring == 1 || t.dueAt == null ? "" : t.dueAt.substring(0, 10))
+            .thenComparingInt(t -> t.priority)
+            .thenComparing(t -> t.isRecurring == 1 ? t.title : "")
+            .thenComparingInt(t -> t.isRecurring == 1 ? 0 : t.id);
+
+    // ==============================================================
+    // 글 ↔ 조건
+    // ==============================================================
+
+    /**
+     * 조건 글 파싱
+     *
+     * @return 빈 글이면 ALL
+     * @throws IllegalArgumentException 모르는 키/값
+     */
+    public static SmartFilter parse(String text) {
+        int priorities = 0;
+        Integer from = null;
+        Integer to = null;
+        Boolean rec = null;
+        Boolean done = null;
+        StringBuilder title = new StringBuilder();
+
+        for (String token : tokens(text == null ? "" : text)) {
+            int colon = token.indexOf(':');
+            String key = colon < 0 ? "title" : token.substring(0, colon).toLowerCase(Locale.ROOT);
+            String value = unquote(colon < 0 ? token : token.substring(colon + 1));
+            switch (key) {
+                case "priority", "p" -> {
+                    for (String p : value.split(",")) {
+                        int n = parseInt(p.strip(), "우선순위");
+                        if (n < 1 || n > 3) throw new IllegalArgumentException("우선순위는 1~3: " + p);
+                        priorities |= 1 << n;
+                    }
+                }
+                case "due", "d" -> {
+                    int[] range = dueRange(value);
+                    from = range[0] == Integer.MIN_VALUE ? null : range[0];
+                    to = range[1] == Integer.MAX_VALUE ? null : range[1];
+                }
+                case "recurring", "rec" -> rec = yesNo(value, key);
+                case "done", "completed" -> done = yesNo(value, key);
+                case "title", "t" -> title.append(title.isEmpty() ? "" : " ").append(value);
+                default -> throw new IllegalArgumentException("모르는 조건: " + key);
+            }
+        }
+        return new SmartFilter(priorities, from, to, rec, done, title.toString());
+    }
+
+    /** parse가 다시 읽을 수 있는 표준 글 */
+    public String format() {
+        List<String> parts = new ArrayList<>();
+        if (priorities != 0) {
+            List<String> ps = new ArrayList<>();
+            for (int p = 1; p <= 3; p++) if ((priorities & (1 << p)) != 0) ps.add(String.valueOf(p));
+            parts.add("priority:" + String.join(",", ps));
+        }
+        if (hasDue()) {
+            parts.add("due:" + (dueFrom == null ? "" : dueFrom) + ".." + (dueTo == null ? "" : dueTo));
+        }
+        if (recurring != null) parts.add("recurring:" + (recurring ? "yes" : "no"));
+        if (completed != null) parts.add("done:" + (completed ? "yes" : "no"));
+        if (title != null) parts.add("title:\"" + title.replace("\"", "") + "\"");
+        return String.join(" ", parts);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+    /** 공백으로 나누되 "…" 안의 공백은 유지 */
+    private static List<String> tokens(String text) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') quoted = !quoted;
+            if (Character.isWhitespace(c) && !quoted) {
+                if (!cur.isEmpty()) out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("따옴표가 닫히지 않았습니다");
+        if (!cur.isEmpty()) out.add(cur.toString());
+        return out;
+    }
+
+    private static String unquote(String s) {
+        return s.length() >= 2 && s.startsWith("\"") && s.endsWith("\"") ? s.substring(1, s.length() - 1) : s;
+    }
+
+    /** 마감 범위 글 → [from, to] (없는 쪽은 MIN/MAX_VALUE) */
+    private static int[] dueRange(String value) {
+        String v = value.toLowerCase(Locale.ROOT);
+        switch (v) {
+            case "today" -> { return new int[]{0, 0}; }
+            case "tomorrow" -> { return new int[]{1, 1}; }
+            case "week" -> { return new int[]{0, 6}; }
+            case "overdue" -> { return new int[]{Integer.MIN_VALUE, -1}; }
+            default -> { }
+        }
+        int dots = v.indexOf("..");
+        if (dots < 0) {
+            int n = parseInt(v, "마감");
+            return new int[]{n, n};
+        }
+        String a = v.substring(0, dots);
+        String b = v.substring(dots + 2);
+        if (a.isEmpty() && b.isEmpty()) throw new IllegalArgumentException("마감 범위가 비었습니다");
+        return new int[]{
+                a.isEmpty() ? Integer.MIN_VALUE : parseInt(a, "마감"),
+                b.isEmpty() ? Integer.MAX_VALUE : parseInt(b, "마감")};
+    }
+
+    private static int parseInt(String s, String what) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(what + " 값이 숫자가 아닙니다: " + s);
+        }
+    }
+
+    private static Boolean yesNo(String value, String key) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "yes", "y", "true", "1" -> true;
+            case "no", "n", "false", "0" -> false;
+            default -> throw new IllegalArgumentException(key + " 값은 yes/no: " + value);
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.organizer;
+
+import java.time.Instant;
+
+/**
+ * 시작 구간 시간 재기 (로그 START 태그로 남김)
+ * - 기준은 App.start() 진입 시각, 프로세스 시작 시각을 알 수 있으면 그 기준도 같이 (JVM 기동 + JavaFX 초기화 포함)
+ * - 구간
+ *   · 첫 프레임(time-to-first-frame): 뼈대 UI가 처음 그려진 펄스
+ *   · 조작 가능(time-to-interactive): 저장소 + 첫 화면 데이터가 다 들어와 UI를 켠 시점
+ *   · 그 사이 백그라운드 단계(저장소 준비, 달력 집계 …)도 끝날 때마다 기록
+ * - 여러 스레드에서 mark 해도 됨
+ */
+final class StartupTrace {
+
+    private static final Log LOG = Log.get("START");
+
+    private final long t0 = System.nanoTime();
+    /** 프로세스 시작 → start() 진입 (모르면 -1) */
+    private final long launchMs;
+
+    private volatile long firstFrameMs = -1;
+    private volatile long interactiveMs = -1;
+
+    StartupTrace() {
+        long now = System.currentTimeMillis();
+        launchMs = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .map(start -> now - start)
+                .orElse(-1L);
+    }
+
+    /** start() 진입부터 지금까지 (ms) */
+    long elapsedMs() {
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+
+    /** 중간 단계 기록 */
+    long mark(String phase) {
+        long ms = elapsedMs();
+        if (launchMs >= 0) {
+            LOG.info("{}: {}ms (프로세스 시작부터 {}ms, {})", phase, ms, launchMs + ms, Thread.currentThread().getName());
+        } else {
+            LOG.info("{}: {}ms ({})", phase, ms, Thread.currentThread().getName());
+        }
+        return ms;
+    }
+
+    void firstFrame() {
+        if (firstFrameMs < 0) firstFrameMs = mark("첫 프레임");
+    }
+
+    void interactive() {
+        if (interactiveMs < 0) interactiveMs = mark("조작 가능");
+    }
+
+    /** 첫 프레임까지 (ms, 아직이면 -1) */
+    long firstFrameMs() {
+        return firstFrameMs;
+    }
+
+    /** 조작 가능까지 (ms, 아직이면 -1) */
+    long interactiveMs() {
+        return interactiveMs;
+    }
+
+    /** 프로세스 시작 → start() 진입 (ms, 모르면 -1) */
+    long launchMs() {
+        return launchMs;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.organizer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 연결(Connection) 하나에 묶인 PreparedStatement 캐시
+ * - 문장 id(예: "listByDate")로 한 번만 prepare 해두고 계속 재사용
+ * - SQLite가 같은 SQL을 매번 parse/plan 하는 비용을 없앰
+ * - Connection과 수명이 같다 → close() 시 캐시된 문장도 모두 닫힘
+ * - 연도별 파티션 DB를 schema 이름으로 ATTACH 해두고, 그 schema용 문장도 따로 캐시
+ *   (SQLite 한도 10개 → MAX_ATTACHED개를 넘으면 가장 오래 안 쓴 것부터 DETACH)
+ */
+public class StatementCache implements AutoCloseable {
+
+    /** 한 연결에 동시에 붙여둘 파티션 수 (SQLite 기본 한도 10보다 여유 있게) */
+    static final int MAX_ATTACHED = 8;
+
+    /** SQL 안의 tasks / daily_stats 테이블 이름 (tasks_archive, idx_tasks_… 는 제외) */
+    private static final Pattern TABLES = Pattern.compile("\\b(tasks|daily_stats)\\b");
+
+    private final Connection conn;
+    private final Map<String, PreparedStatement> cache = new HashMap<>();
+    private final LinkedHashMap<String, String> attached = new LinkedHashMap<>(16, 0.75f, true); // schema → 파일
+
+    public StatementCache(Connection conn) {
+        this.conn = conn;
+    }
+
+    public Connection connection() {
+        return conn;
+    }
+
+    /**
+     * id에 해당하는 문장을 돌려준다 (없으면 sql로 새로 prepare 후 저장)
+     *
+     * @param id  문장 id (같은 id는 항상 같은 SQL이어야 함)
+     * @param sql 처음 한 번만 쓰이는 SQL 문자열
+     */
+    public PreparedStatement get(String id, String sql) throws SQLException {
+        PreparedStatement ps = cache.get(id);
+        if (ps == null || ps.isClosed()) {
+            ps = conn.prepareStatement(sql);
+            cache.put(id, ps);
+        }
+        return ps;
+    }
+
+    /**
+     * schema에 붙은 DB 기준으로 sql의 tasks/daily_stats 를 schema.테이블로 바꾼 문장 (id@schema로 캐시)
+     * - 바꾸는 비용은 처음 prepare할 때 한 번만
+     */
+    public PreparedStatement get(String id, String schema, String sql) throws SQLException {
+        String key = id + "@" + schema;
+        PreparedStatement ps = cache.get(key);
+        if (ps == null || ps.isClosed()) {
+            ps = conn.prepareStatement(TABLES.matcher(sql).replaceAll(Matcher.quoteReplacement(schema) + ".$1"));
+            cache.put(key, ps);
+        }
+        attached.get(schema); // LRU 순서 갱신
+        return ps;
+    }
+
+    public boolean isAttached(String schema) {
+        return attached.containsKey(schema);
+    }
+
+    /**
+     * 다른 DB 파일을 schema 이름으로 붙임 (이미 붙어 있으면 순서만 갱신)
+     * - 트랜잭션 밖에서만 호출할 것 (SQLite 제약)
+     * - 한도를 넘으면 가장 오래 안 쓴 schema를 떼고, 그 schema용 캐시 문장도 닫음
+     *
+     * @param file 파일 경로 또는 "file:…?mode=ro" 형식 URI
+     */
+    public void attach(String schema, String file) throws SQLException {
+        if (attached.get(schema) != null) return;
+        if (attached.size() >= MAX_ATTACHED) {
+            Iterator<String> eldest = attached.keySet().iterator();
+            detach(eldest.next());
+        }
+        try (PreparedStatement ps = conn.prepareStatement("ATTACH DATABASE ? AS " + schema)) {
+            ps.setString(1, file);
+            ps.execute();
+        }
+        attached.put(schema, file);
+    }
+
+    /** 붙여둔 schema를 떼고 관련 캐시 문장을 닫음 */
+    public void detach(String schema) throws SQLException {
+        if (attached.remove(schema) == null) return;
+        String suffix = "@" + schema;
+        for (Iterator<Map.Entry<String, PreparedStatement>> it = cache.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, PreparedStatement> e = it.next();
+            if (!e.getKey().endsWith(suffix)) continue;
+            try { e.getValue().close(); } catch (SQLException ignore) { }
+            it.remove();
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute("DETACH DATABASE " + schema);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement ps : cache.values()) {
+            try { ps.close(); } catch (SQLException ignore) { }
+        }
+        cache.clear();
+        try { conn.close(); } catch (SQLException ignore) { }
+    }
+}
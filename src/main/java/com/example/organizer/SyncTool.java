@@ -0,0 +1,211 @@
+package com.example.organizer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 두 DB(기기) 사이 변경 주고받기 (ChangeLog + TaskDao 동기화 API)
+ * - 받는 쪽은 보내는 쪽 node별로 어디(seq)까지 받았는지 기억 → 다음에는 그 뒤부터만
+ * - BATCH개씩 끊어서 적용 (묶음마다 트랜잭션) → 중간에 멈춰도 다시 실행하면 이어서
+ * - 충돌 규칙 (TaskDao.applyChanges)
+ *   · 컬럼마다 나중에 바뀐 쪽이 이김 (at, 같으면 node 비교) → 제목/완료처럼 다른 컬럼을 동시에 고치면 둘 다 반영
+ *   · 삭제가 이김 (삭제된 uid로 온 수정/추가는 버림)
+ *   · 이미 받은 변경은 건너뜀 → 같은 파일을 두 번 적용해도 그대로
+ *
+ * 단독 실행 (DB 경로는 todo.db 파일)
+ *   sync a.db b.db            → 양쪽으로 밀린 변경을 주고받음
+ *   export a.db 파일 [seq]     → a의 seq 다음 변경을 파일로
+ *   apply b.db 파일            → 파일의 변경을 b에 적용
+ *   node a.db [new]           → node id 보기 / 새로 뽑기 (DB 파일을 복사해서 쓰기 시작할 때)
+ */
+public class SyncTool {
+
+    private static final Log LOG = Log.get("SYNC");
+
+    /** 트랜잭션 하나에 적용할 변경 수 */
+    static final int BATCH = 500;
+
+    private static final String HEADER = "#todo-changes node=";
+
+    private SyncTool() {
+    }
+
+    /**
+     * src의 밀린 변경을 dst로
+     *
+     * @return 보낸 변경 수, 적용 실패로 중간에 멈췄으면 -1
+     */
+    public static int pull(TaskDao src, TaskDao dst) {
+        String node = src.nodeId();
+        if (node == null || node.equals(dst.nodeId())) {
+            throw new IllegalStateException("node id가 없거나 같음 (복사한 DB라면 node … new 로 새로 뽑을 것)");
+        }
+        int sent = 0;
+        long cursor = dst.peerCursor(node);
+        for (List<ChangeLog.Change> batch; !(batch = src.changesSince(cursor, BATCH)).isEmpty(); ) {
+            if (!dst.applyChanges(node, batch)) {
+                LOG.error("적용 실패로 중단 (앞서 {}건은 반영됨)", sent);
+                return -1;
+            }
+            sent += batch.size();
+            cursor = batch.get(batch.size() - 1).seq();
+        }
+        return sent;
+    }
+
+    /** a ↔ b 양쪽으로 */
+    public static boolean sync(TaskDao a, TaskDao b) {
+        long t0 = System.nanoTime();
+        int ab = pull(a, b);
+        if (ab < 0) return false;
+        int ba = pull(b, a);
+        if (ba < 0) return false;
+        // b가 a에서 받은 것도 b의 기록이므로 되돌아온 것은 a에서 건너뜀 → 한 번 더 돌 필요 없음
+        LOG.info("동기화 완료: →{}건, ←{}건 {}ms", ab, ba, (System.nanoTime() - t0) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * db의 seq 다음 변경을 file로 (임시 파일에 쓰고 끝나면 교체)
+     *
+     * @return 내보낸 변경 수
+     */
+    public static int exportFile(TaskDao db, File file, long since) throws IOException {
+        String node = db.nodeId();
+        if (node == null) throw new IOException("node id를 읽을 수 없음");
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        File tmp = new File(file.getPath() + ".tmp");
+
+        int written = 0;
+        try (BufferedWriter w = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+            w.write(HEADER + node + "\n");
+            long cursor = since;
+            for (List<ChangeLog.Change> batch; !(batch = db.changesSince(cursor, BATCH)).isEmpty(); ) {
+                for (ChangeLog.Change c : batch) ChangeLog.write(w, c);
+                written += batch.size();
+                cursor = batch.get(batch.size() - 1).seq();
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        LOG.info("변경 내보내기: {}건 (seq > {}) → {}", written, since, file);
+        return written;
+    }
+
+    /**
+     * file의 변경을 db에 적용 (파일을 BATCH개씩 읽으면서)
+     *
+     * @return 적용한 변경 수, 실패로 중간에 멈췄으면 -1
+     */
+    public static int applyFile(TaskDao db, File file) throws IOException {
+        int applied = 0;
+        try (BufferedReader r = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String head = r.readLine();
+            if (head == null || !head.startsWith(HEADER)) throw new IOException("변경 파일이 아님: " + file);
+            String node = head.substring(HEADER.length()).trim();
+            if (node.equals(db.nodeId())) throw new IOException("자기 자신의 변경 파일: " + file);
+
+            List<ChangeLog.Change> batch = new ArrayList<>(BATCH);
+            for (String line; (line = r.readLine()) != null; ) {
+                if (line.isEmpty()) continue;
+                batch.add(ChangeLog.parse(line));
+                if (batch.size() == BATCH) {
+                    if (!db.applyChanges(node, batch)) return failed(applied);
+                    applied += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!db.applyChanges(node, batch)) return failed(applied);
+            applied += batch.size();
+        }
+        LOG.info("변경 적용: {}건 ← {}", applied, file);
+        return applied;
+    }
+
+    private static int failed(int applied) {
+        LOG.error("적용 실패로 중단 (앞서 {}건은 반영됨)", applied);
+        return -1;
+    }
+
+    // ==============================================================
+    // 단독 실행
+    // ==============================================================
+
+    private static final String USAGE = "사용법: SyncTool sync <a.db> <b.db> | export <db> <파일> [seq] | apply <db> <파일> | node <db> [new]";
+
+    public static void main(String[] args) throws IOException, SQLException {
+        if (args.length < 2) throw new IllegalArgumentException(USAGE);
+        boolean ok = true;
+        switch (args[0]) {
+            case "sync" -> {
+                if (args.length < 3) throw new IllegalArgumentException(USAGE);
+                TaskDao a = open(args[1]);
+                TaskDao b = open(args[2]);
+                try {
+                    ok = sync(a, b);
+                } finally {
+                    a.close();
+                    b.close();
+                }
+            }
+            case "export" -> {
+                if (args.length < 3) throw new IllegalArgumentException(USAGE);
+                TaskDao db = open(args[1]);
+                try {
+                    exportFile(db, new File(args[2]), args.length > 3 ? Long.parseLong(args[3]) : 0);
+                } finally {
+                    db.close();
+                }
+            }
+            case "apply" -> {
+                if (args.length < 3) throw new IllegalArgumentException(USAGE);
+                TaskDao db = open(args[1]);
+                try {
+                    ok = applyFile(db, new File(args[2])) >= 0;
+                } finally {
+                    db.close();
+                }
+            }
+            case "node" -> {
+                String url = url(args[1]);
+                Database.migrate(url);
+                if (args.length > 2 && args[2].equals("new")) {
+                    try (Connection conn = Database.getConnection(url); Statement st = conn.createStatement()) {
+                        st.executeUpdate(ChangeLog.SQL_RENEW_NODE);
+                    }
+                }
+                TaskDao db = new TaskDao(url);
+                try {
+                    LOG.info("{} node={}", args[1], db.nodeId());
+                } finally {
+                    db.close();
+                }
+            }
+            default -> throw new IllegalArgumentException(USAGE);
+        }
+        if (!ok) System.exit(1);
+    }
+
+    private static TaskDao open(String path) {
+        String url = url(path);
+        Database.migrate(url);
+        return new TaskDao(url);
+    }
+
+    private static String url(String path) {
+        return "jdbc:sqlite:" + new File(path).getAbsolutePath();
+    }
+}
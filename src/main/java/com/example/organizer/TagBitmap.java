@@ -0,0 +1,389 @@
+package com.example.organizer;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 할 일 id 집합 (Roaring 방식으로 압축한 비트맵)
+ * - id를 상위 16비트(키)로 나눠 키마다 "컨테이너" 하나
+ *   · 원소가 ARRAY_MAX개 이하: 정렬된 char[] (하위 16비트)
+ *   · 그보다 많으면: 65536비트 long[1024] 비트맵
+ * - AND/OR/AND NOT은 키가 같은 컨테이너끼리 병합/비트 연산 → 결과는 항상 새 객체 (입력은 그대로)
+ * - 밖에서는 읽기 전용 (add/remove는 TagIndex가 새로 만들거나 복사한 것에만 사용)
+ */
+public final class TagBitmap {
+
+    /** 배열 컨테이너의 최대 원소 수 (이보다 많으면 비트맵이 더 작음: 4096 × 2바이트 = 8KB) */
+    static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    public static final TagBitmap EMPTY = new TagBitmap(0);
+
+    // ---------- keys[i] 오름차순, containers[i] = char[] 또는 long[], cards[i] = 원소 수 ----------
+    private int n;
+    private char[] keys;
+    private Object[] containers;
+    private int[] cards;
+
+    private TagBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Object[capacity];
+        cards = new int[capacity];
+    }
+
+    TagBitmap() {
+        this(4);
+    }
+
+    /** ids로 새 비트맵 (중복/순서 상관없음) */
+    public static TagBitmap of(int... ids) {
+        TagBitmap b = new TagBitmap();
+        for (int id : ids) b.add(id);
+        return b;
+    }
+
+    // ==============================================================
+    // 조회
+    // ==============================================================
+
+    public boolean contains(int id) {
+        if (id < 0) return false;
+        int i = find((char) (id >>> 16));
+        if (i < 0) return false;
+        char low = (char) id;
+        Object c = containers[i];
+        if (c instanceof long[] bits) return (bits[low >>> 6] & (1L << low)) != 0;
+        return Arrays.binarySearch((char[]) c, 0, cards[i], low) >= 0;
+    }
+
+    public int cardinality() {
+        int sum = 0;
+        for (int i = 0; i < n; i++) sum += cards[i];
+        return sum;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /** 오름차순으로 하나씩 */
+    public void forEach(IntConsumer sink) {
+        for (int i = 0; i < n; i++) {
+            int high = keys[i] << 16;
+            Object c = containers[i];
+            if (c instanceof long[] bits) {
+                for (int w = 0; w < WORDS; w++) {
+                    for (long word = bits[w]; word != 0; word &= word - 1) {
+                        sink.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                    }
+                }
+            } else {
+                char[] arr = (char[]) c;
+                for (int k = 0; k < cards[i]; k++) sink.accept(high | arr[k]);
+            }
+        }
+    }
+
+    /** 오름차순 id 배열 */
+    public int[] toArray() {
+        int[] out = new int[cardinality()];
+        int[] k = {0};
+        forEach(id -> out[k[0]++] = id);
+        return out;
+    }
+
+    // ==============================================================
+    // 집합 연산 (새 비트맵)
+    // ==============================================================
+
+    public TagBitmap and(TagBitmap o) {
+        TagBitmap out = new TagBitmap(Math.min(n, o.n));
+        for (int i = 0, j = 0; i < n && j < o.n; ) {
+            if (keys[i] < o.keys[j]) i++;
+            else if (keys[i] > o.keys[j]) j++;
+            else {
+                out.append(keys[i], and(containers[i], cards[i], o.containers[j], o.cards[j]));
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    public TagBitmap or(TagBitmap o) {
+        TagBitmap out = new TagBitmap(n + o.n);
+        int i = 0, j = 0;
+        while (i < n || j < o.n) {
+            if (j == o.n || (i < n && keys[i] < o.keys[j])) {
+                out.append(keys[i], copy(containers[i]), cards[i]);
+                i++;
+            } else if (i == n || keys[i] > o.keys[j]) {
+                out.append(o.keys[j], copy(o.containers[j]), o.cards[j]);
+                j++;
+            } else {
+                out.append(keys[i], or(containers[i], cards[i], o.containers[j], o.cards[j]));
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    /** this에서 o에 있는 것을 뺌 */
+    public TagBitmap andNot(TagBitmap o) {
+        TagBitmap out = new TagBitmap(n);
+        for (int i = 0, j = 0; i < n; i++) {
+            while (j < o.n && o.keys[j] < keys[i]) j++;
+            if (j < o.n && o.keys[j] == keys[i]) {
+                out.append(keys[i], andNot(containers[i], cards[i], o.containers[j], o.cards[j]));
+            } else {
+                out.append(keys[i], copy(containers[i]), cards[i]);
+            }
+        }
+        return out;
+    }
+
+    // ==============================================================
+    // 변경 (TagIndex 전용)
+    // ==============================================================
+
+    TagBitmap copy() {
+        TagBitmap b = new TagBitmap(Math.max(n, 4));
+        for (int i = 0; i < n; i++) b.append(keys[i], copy(containers[i]), cards[i]);
+        return b;
+    }
+
+    void add(int id) {
+        if (id < 0) throw new IllegalArgumentException("음수 id: " + id);
+        char key = (char) (id >>> 16);
+        char low = (char) id;
+        int i = find(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertAt(i, key, new char[4], 0);
+        }
+        Object c = containers[i];
+        if (c instanceof long[] bits) {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) {
+                bits[low >>> 6] |= mask;
+                cards[i]++;
+            }
+            return;
+        }
+        char[] arr = (char[]) c;
+        int card = cards[i];
+        int pos = Arrays.binarySearch(arr, 0, card, low);
+        if (pos >= 0) return;
+        pos = -pos - 1;
+        if (card == ARRAY_MAX) {
+            long[] bits = toBits(arr, card);
+            bits[low >>> 6] |= 1L << low;
+            containers[i] = bits;
+            cards[i] = card + 1;
+            return;
+        }
+        if (card == arr.length) arr = Arrays.copyOf(arr, Math.min(ARRAY_MAX, card * 2));
+        System.arraycopy(arr, pos, arr, pos + 1, card - pos);
+        arr[pos] = low;
+        containers[i] = arr;
+        cards[i] = card + 1;
+    }
+
+    void remove(int id) {
+        if (id < 0) return;
+        int i = find((char) (id >>> 16));
+        if (i < 0) return;
+        char low = (char) id;
+        Object c = containers[i];
+        int card = cards[i];
+        if (c instanceof long[] bits) {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) return;
+            bits[low >>> 6] &= ~mask;
+            card--;
+            if (card <= ARRAY_MAX) containers[i] = toArray(bits, card);
+        } else {
+            char[] arr = (char[]) c;
+            int pos = Arrays.binarySearch(arr, 0, card, low);
+            if (pos < 0) return;
+            System.arraycopy(arr, pos + 1, arr, pos, card - pos - 1);
+            card--;
+        }
+        if (card == 0) {
+            removeAt(i);
+        } else {
+            cards[i] = card;
+        }
+    }
+
+    // ==============================================================
+    // 컨테이너 연산 (결과 원소 수는 out에 담아 append)
+    // ==============================================================
+
+    /** 컨테이너 연산 결과: 컨테이너 + 원소 수 */
+    private record Part(Object container, int card) {
+    }
+
+    private static Part and(Object a, int ca, Object b, int cb) {
+        if (a instanceof long[] x && b instanceof long[] y) {
+            long[] out = new long[WORDS];
+            int card = 0;
+            for (int w = 0; w < WORDS; w++) card += Long.bitCount(out[w] = x[w] & y[w]);
+            return normalize(out, card);
+        }
+        if (a instanceof long[] x) return filter((char[]) b, cb, x, true);
+        if (b instanceof long[] y) return filter((char[]) a, ca, y, true);
+        char[] x = (char[]) a, y = (char[]) b;
+        char[] out = new char[Math.min(ca, cb)];
+        int k = 0;
+        for (int i = 0, j = 0; i < ca && j < cb; ) {
+            if (x[i] < y[j]) i++;
+            else if (x[i] > y[j]) j++;
+            else {
+                out[k++] = x[i];
+                i++;
+                j++;
+            }
+        }
+        return new Part(out, k);
+    }
+
+    private static Part or(Object a, int ca, Object b, int cb) {
+        if (a instanceof long[] || b instanceof long[]) {
+            long[] out = a instanceof long[] x ? x.clone() : toBits((char[]) a, ca);
+            if (b instanceof long[] y) {
+                for (int w = 0; w < WORDS; w++) out[w] |= y[w];
+            } else {
+                char[] y = (char[]) b;
+                for (int j = 0; j < cb; j++) out[y[j] >>> 6] |= 1L << y[j];
+            }
+            int card = 0;
+            for (long word : out) card += Long.bitCount(word);
+            return new Part(out, card);
+        }
+        char[] x = (char[]) a, y = (char[]) b;
+        char[] out = new char[ca + cb];
+        int k = 0, i = 0, j = 0;
+        while (i < ca && j < cb) {
+            if (x[i] < y[j]) out[k++] = x[i++];
+            else if (x[i] > y[j]) out[k++] = y[j++];
+            else {
+                out[k++] = x[i++];
+                j++;
+            }
+        }
+        while (i < ca) out[k++] = x[i++];
+        while (j < cb) out[k++] = y[j++];
+        return k > ARRAY_MAX ? new Part(toBits(out, k), k) : new Part(out, k);
+    }
+
+    private static Part andNot(Object a, int ca, Object b, int cb) {
+        if (a instanceof long[] x) {
+            long[] out = x.clone();
+            if (b instanceof long[] y) {
+                for (int w = 0; w < WORDS; w++) out[w] &= ~y[w];
+            } else {
+                char[] y = (char[]) b;
+                for (int j = 0; j < cb; j++) out[y[j] >>> 6] &= ~(1L << y[j]);
+            }
+            int card = 0;
+            for (long word : out) card += Long.bitCount(word);
+            return normalize(out, card);
+        }
+        if (b instanceof long[] y) return filter((char[]) a, ca, y, false);
+        char[] x = (char[]) a, y = (char[]) b;
+        char[] out = new char[ca];
+        int k = 0;
+        for (int i = 0, j = 0; i < ca; i++) {
+            while (j < cb && y[j] < x[i]) j++;
+            if (j == cb || y[j] != x[i]) out[k++] = x[i];
+        }
+        return new Part(out, k);
+    }
+
+    /** 배열 원소 중 비트맵에 있는 것(keep=true) / 없는 것(keep=false)만 */
+    private static Part filter(char[] arr, int card, long[] bits, boolean keep) {
+        char[] out = new char[card];
+        int k = 0;
+        for (int i = 0; i < card; i++) {
+            char v = arr[i];
+            if (((bits[v >>> 6] & (1L << v)) != 0) == keep) out[k++] = v;
+        }
+        return new Part(out, k);
+    }
+
+    /** 비트맵 결과가 작으면 배열로 */
+    private static Part normalize(long[] bits, int card) {
+        return card <= ARRAY_MAX ? new Part(toArray(bits, card), card) : new Part(bits, card);
+    }
+
+    private static long[] toBits(char[] arr, int card) {
+        long[] bits = new long[WORDS];
+        for (int i = 0; i < card; i++) bits[arr[i] >>> 6] |= 1L << arr[i];
+        return bits;
+    }
+
+    private static char[] toArray(long[] bits, int card) {
+        char[] out = new char[Math.max(card, 4)];
+        int k = 0;
+        for (int w = 0; w < WORDS; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                out[k++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+            }
+        }
+        return out;
+    }
+
+    private static Object copy(Object c) {
+        return c instanceof long[] bits ? bits.clone() : ((char[]) c).clone();
+    }
+
+    // ==============================================================
+    // 키 배열 관리
+    // ==============================================================
+
+    private int find(char key) {
+        int lo = 0, hi = n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else if (keys[mid] > key) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /** 맨 뒤에 붙임 (키 오름차순으로 부를 것), 빈 컨테이너는 버림 */
+    private void append(char key, Part p) {
+        append(key, p.container, p.card);
+    }
+
+    private void append(char key, Object container, int card) {
+        if (card == 0) return;
+        insertAt(n, key, container, card);
+    }
+
+    private void insertAt(int i, char key, Object container, int card) {
+        if (n == keys.length) {
+            int cap = Math.max(4, n * 2);
+            keys = Arrays.copyOf(keys, cap);
+            containers = Arrays.copyOf(containers, cap);
+            cards = Arrays.copyOf(cards, cap);
+        }
+        System.arraycopy(keys, i, keys, i + 1, n - i);
+        System.arraycopy(containers, i, containers, i + 1, n - i);
+        System.arraycopy(cards, i, cards, i + 1, n - i);
+        keys[i] = key;
+        containers[i] = container;
+        cards[i] = card;
+        n++;
+    }
+
+    private void removeAt(int i) {
+        System.arraycopy(keys, i + 1, keys, i, n - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, n - i - 1);
+        System.arraycopy(cards, i + 1, cards, i, n - i - 1);
+        containers[--n] = null;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.organizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 태그 필터식 (예: "work & urgent & !done", "집 | 개인", "proj:a (urgent | !done)")
+ * - 연산자: &, and (또는 그냥 띄어 쓰기) / |, or / !, not / 괄호
+ * - 이름은 태그 (앞의 #은 있어도 없어도 됨), done·완료 는 예약어 = 완료된 할 일
+ * - 계산은 전부 TagBitmap 연산: 화면에 올릴 후보 id 집합(candidates) 안에서
+ *   · 태그 → 태그 비트맵 AND 후보
+ *   · NOT x → 후보 AND NOT x
+ *   · AND/OR → 양쪽 결과의 AND/OR
+ * - 한 번 파싱해 두고 화면을 갱신할 때마다 다시 씀 (불변)
+ */
+public final class TagFilter {
+
+    /** 완료 여부 예약어 */
+    static final String DONE = "done";
+    private static final String DONE_KO = "완료";
+
+    private sealed interface Node permits Tag, Done, Not, And, Or {
+    }
+
+    private record Tag(String name) implements Node {
+    }
+
+    private record Done() implements Node {
+    }
+
+    private record Not(Node x) implements Node {
+    }
+
+    private record And(Node a, Node b) implements Node {
+    }
+
+    private record Or(Node a, Node b) implements Node {
+    }
+
+    private final String source;
+    private final Node root;
+
+    private TagFilter(String source, Node root) {
+        this.source = source;
+        this.root = root;
+    }
+
+    /**
+     * 필터식 파싱
+     *
+     * @return 빈 문자열이면 null (필터 없음)
+     * @throws IllegalArgumentException 문법 오류
+     */
+    public static TagFilter parse(String text) {
+        if (text == null || text.isBlank()) return null;
+        Parser p = new Parser(text);
+        Node root = p.or();
+        if (p.peek() != null) throw new IllegalArgumentException("필터식 오류: 짝이 없는 ')'");
+        return new TagFilter(text.strip(), root);
+    }
+
+    static boolean isReserved(String name) {
+        return name.equals(DONE) || name.equals(DONE_KO);
+    }
+
+    /**
+     * 후보 중 조건에 맞는 id
+     *
+     * @param tags       태그 → 비트맵 (TaskStore::tagged)
+     * @param candidates 후보 id
+     * @param done       후보 중 완료된 id (done 예약어용)
+     */
+    public TagBitmap eval(Function<String, TagBitmap> tags, TagBitmap candidates, TagBitmap done) {
+        return eval(root, tags, candidates, done);
+    }
+
+    private static TagBitmap eval(Node node, Function<String, TagBitmap> tags, TagBitmap candidates, TagBitmap done) {
+        return switch (node) {
+            case Tag t -> tags.apply(t.name()).and(candidates);
+            case Done d -> done.and(candidates);
+            case Not n -> candidates.andNot(eval(n.x(), tags, candidates, done));
+            case And a -> eval(a.a(), tags, candidates, done).and(eval(a.b(), tags, candidates, done));
+            case Or o -> eval(o.a(), tags, candidates, done).or(eval(o.b(), tags, candidates, done));
+        };
+    }
+
+    /** items 중 조건에 맞는 것만 (순서 유지) */
+    public List<Task> filter(TaskStore store, List<Task> items) {
+        TagBitmap candidates = new TagBitmap();
+        TagBitmap done = new TagBitmap();
+        for (Task t : items) {
+            candidates.add(t.id);
+            if (t.completed) done.add(t.id);
+        }
+        TagBitmap hit = eval(store::tagged, candidates, done);
+        List<Task> out = new ArrayList<>(hit.cardinality());
+        for (Task t : items) {
+            if (hit.contains(t.id)) out.add(t);
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    // ==============================================================
+    // 파서 (재귀 하강: or → and → not → 이름/괄호)
+    // ==============================================================
+
+    private static final class Parser {
+        private final List<String> tokens = new ArrayList<>();
+        private int pos;
+
+        Parser(String text) {
+            for (int i = 0; i < text.length(); ) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '&' || c == '|') {
+                    tokens.add(String.valueOf(c));
+                    while (i < text.length() && text.charAt(i) == c) i++; // &&, || 도 허용
+                } else if (c == '!' || c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else if (c == '#' || TagIndex.isNameChar(c)) {
+                    int start = i++;
+                    while (i < text.length() && TagIndex.isNameChar(text.charAt(i))) i++;
+                    String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                    tokens.add(switch (word) {
+                        case "and" -> "&";
+                        case "or" -> "|";
+                        case "not" -> "!";
+                        default -> word;
+                    });
+                } else {
+                    throw new IllegalArgumentException("필터식 오류: 쓸 수 없는 글자 '" + c + "'");
+                }
+            }
+        }
+
+        String peek() {
+            return pos < tokens.size() ? tokens.get(pos) : null;
+        }
+
+        Node or() {
+            Node left = and();
+            while ("|".equals(peek())) {
+                pos++;
+                left = new Or(left, and());
+            }
+            return left;
+        }
+
+        Node and() {
+            Node left = not();
+            while (true) {
+                String t = peek();
+                if ("&".equals(t)) {
+                    pos++;
+                } else if (t == null || t.equals("|") || t.equals(")")) {
+                    return left;
+                }
+                left = new And(left, not()); // 연산자 없이 이어지면 AND
+            }
+        }
+
+        Node not() {
+            if ("!".equals(peek())) {
+                pos++;
+                return new Not(not());
+            }
+            return atom();
+        }
+
+        Node atom() {
+            String t = peek();
+            if (t == null) throw new IllegalArgumentException("필터식 오류: 식이 끝나지 않았습니다");
+            pos++;
+            if (t.equals("(")) {
+                Node inner = or();
+                if (!")".equals(peek())) throw new IllegalArgumentException("필터식 오류: ')'가 없습니다");
+                pos++;
+                return inner;
+            }
+            if (t.length() == 1 && "&|!)".contains(t)) {
+                throw new IllegalArgumentException("필터식 오류: '" + t + "' 자리에 태그가 필요합니다");
+            }
+            String name = t.startsWith("#") ? t.substring(1) : t;
+            if (name.isEmpty()) throw new IllegalArgumentException("필터식 오류: '#' 뒤에 태그가 필요합니다");
+            return isReserved(name) ? new Done() : new Tag(name);
+        }
+    }
+}
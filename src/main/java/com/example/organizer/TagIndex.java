@@ -0,0 +1,165 @@
+package com.example.organizer;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 태그 → 할 일 id 비트맵(TagBitmap) 메모리 인덱스
+ * - 필터(TagFilter)는 여기서 꺼낸 비트맵끼리 AND/OR/AND NOT으로 계산 → SQL 조인 없음
+ * - 비트맵은 바꿀 때마다 복사본을 고쳐서 통째로 교체 (copy-on-write)
+ *   · 읽는 쪽은 락 없이 받은 비트맵을 그대로 써도 됨 (절대 바뀌지 않음)
+ *   · 태그를 바꾸는 일은 드물고 태그 수도 적으므로 복사 비용은 무시할 만함
+ * - TaskDao: 프로세스 전체 공유, 처음 쓸 때 task_tags를 한 번 읽어 만들고 이후 쓰기마다 증분 갱신
+ * - InMemoryTaskStore: 저장소마다 하나 (스냅샷/저널에서 채움)
+ */
+final class TagIndex {
+
+    /** 태그 이름 최대 길이 (글자는 isNameChar: 한글/영문/숫자 + _ - / : .) */
+    private static final int MAX_NAME = 40;
+
+    private volatile boolean loaded;
+    /** 태그(정규화된 이름) → id 비트맵, 통째로 교체 */
+    private volatile Map<String, TagBitmap> byTag = Map.of();
+    /** id → 태그 (정렬됨), this로 보호 */
+    private final Map<Integer, String[]> byTask = new HashMap<>();
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /** 다음 사용 때 다시 로드하도록 표시 */
+    void invalidate() {
+        loaded = false;
+    }
+
+    /** task_tags 전체를 읽어 새로 만듦 (todo.db에만 있음, 파티션과 무관) */
+    synchronized void rebuild(Connection conn) throws SQLException {
+        Map<String, TagBitmap> tags = new HashMap<>();
+        Map<Integer, List<String>> tasks = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT tt.task_id, t.name FROM task_tags tt JOIN tags t ON t.id = tt.tag_id")) {
+            while (rs.next()) {
+                int id = rs.getInt(1);
+                String name = rs.getString(2);
+                tags.computeIfAbsent(name, k -> new TagBitmap()).add(id);
+                tasks.computeIfAbsent(id, k -> new ArrayList<>()).add(name);
+            }
+        }
+        byTask.clear();
+        tasks.forEach((id, names) -> {
+            String[] sorted = names.toArray(String[]::new);
+            Arrays.sort(sorted);
+            byTask.put(id, sorted);
+        });
+        byTag = tags;
+        loaded = true;
+    }
+
+    /** 비우고 로드된 상태로 (InMemoryTaskStore가 스냅샷을 읽기 전에) */
+    synchronized void clear() {
+        byTask.clear();
+        byTag = Map.of();
+        loaded = true;
+    }
+
+    // ==============================================================
+    // 증분 갱신 (로드 전이면 무시 → 나중에 rebuild가 반영)
+    // ==============================================================
+
+    /** id의 태그를 names로 교체 (이미 정규화된 이름) */
+    synchronized void set(int id, Collection<String> names) {
+        if (!loaded) return;
+        String[] now = new TreeSet<>(names).toArray(String[]::new);
+        String[] old = byTask.getOrDefault(id, new String[0]);
+        if (Arrays.equals(now, old)) return;
+
+        Map<String, TagBitmap> next = new HashMap<>(byTag);
+        for (String name : old) {
+            if (Arrays.binarySearch(now, name) >= 0) continue;
+            TagBitmap b = next.get(name).copy();
+            b.remove(id);
+            if (b.isEmpty()) next.remove(name);
+            else next.put(name, b);
+        }
+        for (String name : now) {
+            if (Arrays.binarySearch(old, name) >= 0) continue;
+            TagBitmap b = next.containsKey(name) ? next.get(name).copy() : new TagBitmap();
+            b.add(id);
+            next.put(name, b);
+        }
+        if (now.length == 0) byTask.remove(id);
+        else byTask.put(id, now);
+        byTag = next;
+    }
+
+    /** 삭제된 할 일 */
+    void remove(int id) {
+        set(id, List.of());
+    }
+
+    // ==============================================================
+    // 조회
+    // ==============================================================
+
+    /** 태그가 붙은 id (없으면 빈 비트맵), 돌려받은 비트맵은 바뀌지 않음 */
+    TagBitmap get(String name) {
+        TagBitmap b = byTag.get(name);
+        return b == null ? TagBitmap.EMPTY : b;
+    }
+
+    /** id의 태그 (이름순) */
+    synchronized List<String> names(int id) {
+        String[] names = byTask.get(id);
+        return names == null ? List.of() : List.of(names);
+    }
+
+    /** 쓰이고 있는 모든 태그 (이름순) */
+    List<String> all() {
+        return List.copyOf(new TreeSet<>(byTag.keySet()));
+    }
+
+    // ==============================================================
+    // 이름 규칙
+    // ==============================================================
+
+    /**
+     * 입력 이름 → 저장용 이름 (앞의 #/공백 제거, 소문자)
+     *
+     * @throws IllegalArgumentException 비었거나 쓸 수 없는 글자/예약어(TagFilter.DONE)
+     */
+    static String normalize(String raw) {
+        String name = raw == null ? "" : raw.strip();
+        if (name.startsWith("#")) name = name.substring(1);
+        name = name.toLowerCase(Locale.ROOT);
+        if (name.isEmpty() || name.length() > MAX_NAME) {
+            throw new IllegalArgumentException("태그는 1~" + MAX_NAME + "자여야 합니다: " + raw);
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!isNameChar(name.charAt(i))) throw new IllegalArgumentException("태그에 쓸 수 없는 글자: " + raw);
+        }
+        if (TagFilter.isReserved(name)) throw new IllegalArgumentException("예약어라 태그로 쓸 수 없습니다: " + raw);
+        return name;
+    }
+
+    /** 여러 이름 정규화 (중복 제거, 이름순) */
+    static List<String> normalizeAll(Collection<String> raw) {
+        TreeSet<String> out = new TreeSet<>();
+        for (String s : raw) out.add(normalize(s));
+        return List.copyOf(out);
+    }
+
+    static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '/' || c == ':' || c == '.';
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.organizer;
 
+import java.time.LocalDate;
+
 /**
  * DB <-> 자바 변환용 Task 모델
  * - DB의 INTEGER(0/1) 대신 코드에서는 boolean completed로 다룸
@@ -15,6 +17,12 @@ public class Task {
     public String createdAt;     // 생성시각
     public boolean completed;    // ✅ 완료 여부
 
+    // === 반복 규칙 (isRecurring=1 일 때만 의미 있음) ===
+    public int recurDays;        // 요일 비트마스크 (일=bit0 … 토=bit6)
+    public String recurStart;    // 반복 시작일 "YYYY-MM-DD"
+    public String recurUntil;    // 반복 종료일 (null = 끝 없음)
+    public int recurInterval = 1; // 몇 주마다
+
     // === UI에서 쓰기 쉬운 헬퍼 ===
     public int getId() { return id; }
     public String getTitle() { return title; }
@@ -22,6 +30,39 @@ public class Task {
     public boolean isCompleted() { return completed; }
     public void setCompleted(boolean v) { this.completed = v; }
 
+    /**
+     * 반복 업무가 date에 해당하는지 (SQL_LIST_RECURRING_BY_DATE와 같은 규칙)
+     * - 요일 비트 + recurStart ≤ date ≤ recurUntil (비어 있으면 제한 없음), 간격(recurInterval)은 보지 않음
+     */
+    public boolean occursOn(LocalDate date) {
+        return occursOn(date, date.toString());
+    }
+
+    /** occursOn과 같음, ymd = date.toString() (여러 규칙에 같은 날짜를 물을 때 문자열을 한 번만 만들게) */
+    public boolean occursOn(LocalDate date, String ymd) {
+        if (isRecurring != 1 || (recurDays & (1 << (date.getDayOfWeek().getValue() % 7))) == 0) return false;
+        return (recurStart == null || recurStart.compareTo(ymd) <= 0)
+                && (recurUntil == null || recurUntil.compareTo(ymd) >= 0);
+    }
+
+    /** 필드 전체 복사 (버퍼로 재사용되는 Task를 보관할 때) */
+    public Task copy() {
+        Task t = new Task();
+        t.id = id;
+        t.title = title;
+        t.priority = priority;
+        t.dueAt = dueAt;
+        t.isRecurring = isRecurring;
+        t.nextFireAt = nextFireAt;
+        t.createdAt = createdAt;
+        t.completed = completed;
+        t.recurDays = recurDays;
+        t.recurStart = recurStart;
+        t.recurUntil = recurUntil;
+        t.recurInterval = recurInterval;
+        return t;
+    }
+
     @Override public String toString() {
         return String.format("[%s] %s(prio=%d, due=%s, done=%s)",
                 (isRecurring==1?"반복":"단발"), title, priority, dueAt, completed);
@@ -0,0 +1,178 @@
+package com.example.organizer;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * 통계용 열 배열 (Reports가 읽음)
+ * - 저장소를 한 번만 훑어서(forEachTask + forEachRecurringCompletion) 필요한 컬럼만 원시 배열로 담음
+ *   → 계산은 Task 객체/문자열 없이 배열 인덱스만으로, 구간을 나눠 여러 코어가 동시에 읽어도 안전
+ * - 날짜는 전부 epochDay (int), 없으면 NONE
+ * - 단발(one-off)과 반복 규칙(rule)은 따로 담음
+ *   · 단발: 마감일, 완료, 우선순위
+ *   · 규칙: id, 제목(규칙은 적어서), 요일 비트, 시작/종료일, 완료 기록(날짜 오름차순, 같은 날 중복 없음)
+ * - 다 채운 뒤(seal)에는 바뀌지 않음
+ */
+final class TaskColumns {
+
+    /** 날짜 없음 */
+    static final int NONE = Integer.MIN_VALUE;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // ---- 단발
+    int size;
+    int[] due = new int[1024];
+    boolean[] done = new boolean[1024];
+    byte[] priority = new byte[1024];
+
+    // ---- 반복 규칙 (id 오름차순, seal 때 정렬)
+    int rules;
+    int[] ruleId = new int[64];
+    String[] ruleTitle = new String[64];
+    byte[] ruleDays = new byte[64];
+    int[] ruleStart = new int[64];
+    int[] ruleUntil = new int[64];
+    /** 규칙마다 완료한 날 (오름차순), seal 전에는 completions에 쌓아 둠 */
+    int[][] ruleDone;
+
+    private long[] completions = new long[256];   // (id << 32) | epochDay
+    private int completionCount;
+    private boolean sealed;
+
+    /** 저장소 전체를 한 번 훑어서 채움 */
+    static TaskColumns load(TaskStore store) {
+        TaskColumns cols = new TaskColumns();
+        store.forEachTask(cols::add);
+        store.forEachRecurringCompletion(cols::addCompletion);
+        cols.seal();
+        return cols;
+    }
+
+    /** 할 일 하나 (t는 버퍼로 재사용돼도 됨, 필드만 복사) */
+    void add(Task t) {
+        if (t.isRecurring == 1) {
+            if (rules == ruleId.length) {
+                int n = rules * 2;
+                ruleId = Arrays.copyOf(ruleId, n);
+                ruleTitle = Arrays.copyOf(ruleTitle, n);
+                ruleDays = Arrays.copyOf(ruleDays, n);
+                ruleStart = Arrays.copyOf(ruleStart, n);
+                ruleUntil = Arrays.copyOf(ruleUntil, n);
+            }
+            ruleId[rules] = t.id;
+            ruleTitle[rules] = t.title;
+            ruleDays[rules] = (byte) t.recurDays;
+            // 시작일이 없으면 만든 날부터
+            int start = epochDay(t.recurStart);
+            ruleStart[rules] = start != NONE ? start : epochDay(t.createdAt);
+            ruleUntil[rules] = epochDay(t.recurUntil);
+            rules++;
+            return;
+        }
+        if (size == due.length) {
+            int n = size * 2;
+            due = Arrays.copyOf(due, n);
+            done = Arrays.copyOf(done, n);
+            priority = Arrays.copyOf(priority, n);
+        }
+        due[size] = epochDay(t.dueAt);
+        done[size] = t.completed;
+        priority[size] = (byte) t.priority;
+        size++;
+    }
+
+    /** 반복 업무 id가 at(epoch ms, 이 기기 시간대 기준 날짜)에 완료됨 */
+    void addCompletion(int id, long at) {
+        addCompletionDay(id, (int) Instant.ofEpochMilli(at).atZone(ZONE).toLocalDate().toEpochDay());
+    }
+
+    void addCompletionDay(int id, int epochDay) {
+        if (completionCount == completions.length) completions = Arrays.copyOf(completions, completionCount * 2);
+        completions[completionCount++] = ((long) id << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    /** 다 채웠음: 규칙을 id 순으로 정렬하고 완료 기록을 규칙별 배열로 나눔 */
+    void seal() {
+        if (sealed) return;
+        sealed = true;
+        sortRules();
+        ruleDone = new int[rules][];
+        long[] c = Arrays.copyOf(completions, completionCount);
+        completions = null;
+        Arrays.sort(c);   // id → 날짜 순 (id는 양수라 부호 문제 없음)
+        int i = 0;
+        for (int r = 0; r < rules; r++) {
+            while (i < c.length && (int) (c[i] >>> 32) < ruleId[r]) i++;
+            int end = i;
+            while (end < c.length && (int) (c[end] >>> 32) == ruleId[r]) end++;
+            int[] days = new int[end - i];
+            int n = 0;
+            for (; i < end; i++) {
+                int day = (int) c[i];
+                if (n == 0 || days[n - 1] != day) days[n++] = day;   // 같은 날 여러 번 체크하면 한 번
+            }
+            ruleDone[r] = n == days.length ? days : Arrays.copyOf(days, n);
+        }
+    }
+
+    private void sortRules() {
+        Integer[] order = new Integer[rules];
+        for (int i = 0; i < rules; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(ruleId[a], ruleId[b]));
+        int[] id = new int[rules];
+        String[] title = new String[rules];
+        byte[] days = new byte[rules];
+        int[] start = new int[rules];
+        int[] until = new int[rules];
+        for (int i = 0; i < rules; i++) {
+            int o = order[i];
+            id[i] = ruleId[o];
+            title[i] = ruleTitle[o];
+            days[i] = ruleDays[o];
+            start[i] = ruleStart[o];
+            until[i] = ruleUntil[o];
+        }
+        ruleId = id;
+        ruleTitle = title;
+        ruleDays = days;
+        ruleStart = start;
+        ruleUntil = until;
+    }
+
+    /** "YYYY-MM-DD…" 앞 10자 → epochDay (LocalDate를 만들지 않음), 형식이 아니면 NONE */
+    static int epochDay(String s) {
+        if (s == null || s.length() < 10 || s.charAt(4) != '-' || s.charAt(7) != '-') return NONE;
+        int y = digits(s, 0, 4);
+        int m = digits(s, 5, 7);
+        int d = digits(s, 8, 10);
+        if (y < 0 || m < 1 || m > 12 || d < 1 || d > 31) return NONE;
+        // java.time.LocalDate.toEpochDay와 같은 계산
+        long total = 365L * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367L * m - 362) / 12;
+        total += d - 1;
+        if (m > 2) {
+            total--;
+            if (!leap(y)) total--;
+        }
+        return (int) (total - DAYS_0000_TO_1970);
+    }
+
+    private static final long DAYS_0000_TO_1970 = (146097L * 5) - (30L * 365 + 7);
+
+    private static boolean leap(int y) {
+        return (y & 3) == 0 && (y % 100 != 0 || y % 400 == 0);
+    }
+
+    private static int digits(String s, int from, int to) {
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+}
@@ -3,12 +3,376 @@ package com.example.organizer;
 import java.sql.*;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * tasks 테이블 접근 객체 (TaskStore의 SQLite 구현)
+ * - 인스턴스마다 연결 하나를 열어두고, 그 연결에 PreparedStatement를 캐시해서 재사용
+ * - 한 인스턴스는 한 스레드(보통 JavaFX 스레드)에서만 사용할 것
+ * - 쓰기는 프로세스 공용 DbWriter 스레드로 넘겨 직렬화 (BEGIN IMMEDIATE + BUSY 재시도), 성공 여부를 boolean으로 반환
+ * - 다 쓰면 close()로 연결과 캐시된 문장을 정리
+ * - 날짜 질의(반복 여부, 범위/지난/다가오는 일정)는 공유 DateIndex로 답하고, 쓰기마다 인덱스를 증분 갱신
+ * - 오래된 완료 단발 일정은 tasks_archive로 옮겨짐 → 날짜별 목록은 보관 범위(과거)일 때만 보관 테이블도 함께 읽음
+ * - 달력 집계는 트리거가 유지하는 daily_stats(보관분 포함)에서 날짜 범위로 읽음
+ * - 행이 있는 파일은 TaskFiles가 연도(0 = todo.db)로 알려줌 → 문장마다 그 연도의 문장을 받아 씀
+ *   · 보통은 todo.db 하나(연도는 언제나 0), 연도별 파티션 모드면 마감 있는 단발 일정은 연도 파일(YearFiles)
+ *   · 날짜/월 조회는 그 연도 하나만, 마감일까지 목록은 todo.db → 연도 순으로 이어 읽음
+ *   · id로 하는 쓰기는 위치를 찾아 그 파일에서 (한 번에 최대 MAX_ATTACHED개 연도)
+ */
+public class TaskDao implements TaskStore {
+
+    // ---------- SQL (id → 문장 캐시 키, package-private인 것은 QueryPlanCheck가 플랜 점검) ----------
+    private static final String SQL_ADD_TASK =
+            "INSERT INTO tasks(title, priority, due_at, is_recurring, next_fire_at) VALUES (?, ?, ?, ?, ?)";
+
+    static final String SQL_UPDATE_TASK =
+            "UPDATE tasks SET title=?, priority=?, due_at=?, is_recurring=?, next_fire_at=? WHERE id=?";
+
+    static final String SQL_DELETE_BY_ID = "DELETE FROM tasks WHERE id = ?";
+
+    static final String SQL_LIST_BY_DATE = """
+                SELECT %s
+                FROM tasks
+                WHERE due_at IS NOT NULL AND substr(due_at, 1, 10) = ?
+                ORDER BY priority, due_at
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    /** 달력 집계: 트리거가 유지하는 daily_stats에서 한 달치(최대 31행)만 읽음 (보관분 포함) */
+    static final String SQL_DAILY_STATS = """
+                SELECT day, done, todo
+                FROM daily_stats
+                WHERE day BETWEEN ? AND ?
+            """;
+
+    private static final String SQL_ADD_RECURRING = """
+                INSERT INTO tasks
+                    (title, priority, is_recurring, recur_days, recur_start, recur_until, recur_interval, due_at, next_fire_at)
+                VALUES
+                    (?,     ?,        1,           ?,          ?,          ?,           ?,             NULL,  NULL)
+            """;
+
+    static final String SQL_LIST_RECURRING_BY_DATE = """
+                SELECT %s
+                FROM tasks
+                WHERE is_recurring = 1
+                  AND (recur_days & ?) != 0
+                  AND (recur_start IS NULL OR recur_start <= ?)
+                  AND (recur_until IS NULL OR recur_until >= ?)
+                ORDER BY priority ASC, title ASC
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    static final String SQL_UPDATE_COMPLETED = "UPDATE tasks SET completed=? WHERE id=?";
+
+    static final String SQL_LIST_DUE_UNTIL = """
+                SELECT %s
+                FROM tasks
+                WHERE is_recurring = 0
+                  AND due_at IS NOT NULL
+                  AND substr(due_at, 1, 10) <= ?
+                ORDER BY substr(due_at, 1, 10) ASC, priority ASC
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    static final String SQL_LIST_DUE_UNTIL_OPEN = """
+                SELECT %s
+                FROM tasks
+                WHERE is_recurring = 0
+                  AND due_at IS NOT NULL
+                  AND substr(due_at, 1, 10) <= ?
+                  AND completed = 0
+                ORDER BY substr(due_at, 1, 10) ASC, priority ASC
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    /** 반복 규칙 전부 (부분 인덱스 idx_tasks_recurring 순서 그대로) → 메모리에서 날짜마다 펼침 */
+    static final String SQL_LIST_RECURRING = """
+                SELECT %s
+                FROM tasks
+                WHERE is_recurring = 1
+                ORDER BY priority ASC, title ASC
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    /** from ~ to(포함) 사이가 마감인 단발 일정 (날짜 인덱스를 거치지 않는 범위 조회) */
+    static final String SQL_LIST_DUE_BETWEEN = """
+                SELECT %s
+                FROM tasks
+                WHERE is_recurring = 0
+                  AND substr(due_at, 1, 10) BETWEEN ? AND ?
+                ORDER BY substr(due_at, 1, 10) ASC, priority ASC
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    /** DB 버전 스탬프: 모든 쓰기가 같은 트랜잭션에서 change_log에 남기므로 마지막 seq */
+    private static final String SQL_VERSION = "SELECT coalesce(max(seq), 0) FROM main.change_log";
+
+    /** 반복 업무의 완료 기록 (change_log에서 completed → 1, 처음 기록(at=0)은 시각을 모르니 제외) */
+    private static final String SQL_RECURRING_COMPLETIONS = """
+                SELECT u.id, c.at
+                FROM main.change_log c
+                JOIN main.task_uid u ON u.uid = c.uid
+                JOIN main.tasks t ON t.id = u.id AND t.is_recurring = 1
+                WHERE c.op = 'U' AND c.at > 0 AND json_extract(c.cols, '$.completed') = 1
+            """;
+
+    private static final String SQL_LAST_ID = "SELECT last_insert_rowid()";
+
+    private static final String SQL_LAST_SEQ =
+            "SELECT coalesce((SELECT seq FROM main.sqlite_sequence WHERE name = 'tasks'), 0)";
+
+    // ---------- 가져오기/내보내기 ----------
+    private static final String SQL_IMPORT_TASK =
+            "INSERT INTO tasks(title, priority, due_at, is_recurring, next_fire_at, completed) VALUES (?, ?, ?, 0, ?, ?)";
+
+    /** 정렬 없이 두 테이블을 차례로 흘려 읽음 (임시 정렬 버퍼 없음) */
+    private static final String SQL_ALL_TASKS = """
+                SELECT %1$s FROM tasks
+                UNION ALL
+                SELECT %1$s FROM tasks_archive
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    // id 목록은 JSON 배열 하나로 바인딩 → 개수와 상관없이 문장 하나를 재사용
+    static final String SQL_LIST_BY_IDS = """
+                SELECT %s
+                FROM tasks
+                WHERE id IN (SELECT value FROM json_each(?))
+                ORDER BY substr(due_at, 1, 10) ASC, id ASC
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    // ---------- 행 전체 읽기/쓰기 (연도 파일, 파일 간 이동) ----------
+    /** 파티션 행 쓰기: id까지 모든 컬럼 지정 (새로 할당한 id 또는 다른 파일에서 옮겨 오는 행) */
+    private static final String SQL_INSERT_FULL =
+            "INSERT INTO tasks(" + TaskRowMapper.COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, coalesce(?, CURRENT_TIMESTAMP), ?, ?, ?, ?, ?)";
+
+    private static final String SQL_GET_BY_ID =
+            "SELECT " + TaskRowMapper.COLUMNS + " FROM tasks WHERE id = ?";
+
+    private static final String SQL_PART_ALL =
+            "SELECT " + TaskRowMapper.COLUMNS + " FROM tasks";
+
+    // ---------- 동기화 적용 ----------
+    private static final String SQL_UPDATE_FULL = """
+                UPDATE tasks SET title=?, priority=?, due_at=?, is_recurring=?, next_fire_at=?, created_at=?,
+                                 completed=?, recur_days=?, recur_start=?, recur_until=?, recur_interval=?
+                WHERE id=?
+            """;
+
+    private static final String SQL_ARCHIVE_GET_BY_ID =
+            "SELECT " + TaskRowMapper.COLUMNS + " FROM tasks_archive WHERE id = ?";
+
+    // ---------- 보관(archive) ----------
+    private static final String ARCHIVE_COLUMNS =
+            "id, title, priority, due_at, is_recurring, next_fire_at, created_at, completed, "
+                    + "recur_days, recur_start, recur_until, recur_interval";
+
+    static final String SQL_ARCHIVE_PICK = """
+                SELECT id FROM tasks
+                WHERE is_recurring = 0 AND completed = 1
+                  AND due_at IS NOT NULL AND substr(due_at, 1, 10) < ?
+                ORDER BY id
+                LIMIT ?
+            """;
+
+    private static final String SQL_ARCHIVE_COPY =
+            "INSERT INTO tasks_archive(" + ARCHIVE_COLUMNS + ") SELECT " + ARCHIVE_COLUMNS
+                    + " FROM tasks WHERE id IN (SELECT value FROM json_each(?))";
+
+    private static final String SQL_ARCHIVE_REMOVE_HOT =
+            "DELETE FROM tasks WHERE id IN (SELECT value FROM json_each(?))";
+
+    private static final String SQL_RESTORE_COPY =
+            "INSERT INTO tasks(" + ARCHIVE_COLUMNS + ") SELECT " + ARCHIVE_COLUMNS
+                    + " FROM tasks_archive WHERE id = ?";
+
+    private static final String SQL_ARCHIVE_DELETE_BY_ID = "DELETE FROM tasks_archive WHERE id = ?";
+
+    private static final String SQL_ARCHIVE_HORIZON = "SELECT max(substr(due_at, 1, 10)) FROM tasks_archive";
+
+    static final String SQL_ARCHIVE_LIST_BY_DATE = """
+                SELECT %s
+                FROM tasks_archive
+                WHERE substr(due_at, 1, 10) = ?
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    static final String SQL_ARCHIVE_LIST_BETWEEN = """
+                SELECT %s
+                FROM tasks_archive
+                WHERE substr(due_at, 1, 10) BETWEEN ? AND ?
+            """.formatted(TaskRowMapper.COLUMNS);
+
+    // ---------- 태그 (todo.db에만, 파티션 모드에서도 main.) ----------
+    private static final String SQL_TAG_ENSURE = "INSERT OR IGNORE INTO main.tags(name) VALUES (?)";
+
+    private static final String SQL_TAG_LINK =
+            "INSERT OR IGNORE INTO main.task_tags(task_id, tag_id) SELECT ?, id FROM main.tags WHERE name = ?";
+
+    private static final String SQL_TAGS_CLEAR = "DELETE FROM main.task_tags WHERE task_id = ?";
+
+    private static final String SQL_TAGS_DELETE_IDS =
+            "DELETE FROM main.task_tags WHERE task_id IN (SELECT value FROM json_each(?))";
+
+    // ---------- 저장된 보기 (todo.db에만) ----------
+    private static final String SQL_SAVED_FILTERS = "SELECT name, spec FROM main.saved_filters ORDER BY name";
+
+    private static final String SQL_SAVE_FILTER = """
+                INSERT INTO main.saved_filters(name, spec) VALUES (?, ?)
+                ON CONFLICT(name) DO UPDATE SET spec = excluded.spec
+            """;
+
+    private static final String SQL_DELETE_FILTER = "DELETE FROM main.saved_filters WHERE name = ?";
+
+    /**
+     * 보관 테이블에 있는 가장 늦은 마감일 ("YYYY-MM-DD", 비어 있으면 "")
+     * - 이 날짜 이하를 조회할 때만 보관 테이블을 함께 읽음 (null = 아직 모름)
+     */
+    private static volatile String archiveHorizon;
+
+    private static final Log LOG = Log.get("DB");
+
+    /** readValidated가 버전 스탬프가 그대로인 결과를 얻으려고 읽어 보는 횟수 */
+    private static final int CONSISTENT_READ_TRIES = 3;
+
+    // ---------- 날짜 인덱스 / 태그 비트맵 (프로세스 전체 공유) ----------
+    private static final DateIndex INDEX = new DateIndex();
+    private static final TagIndex TAGS = new TagIndex();
+
+    static {
+        // 커밋 후 인덱스 갱신이 실패하면 (쓰기는 성공) 둘 다 버리고 다음 사용 때 다시 스캔
+        DbWriter.onStaleCaches(() -> {
+            INDEX.invalidate();
+            TAGS.invalidate();
+        });
+    }
+
+    // ---------- 연결 + 문장 캐시 ----------
+    private final String url; // null = 기본 todo.db
+    private final TaskFiles files; // 행이 있는 파일 (todo.db 하나 또는 연도별 파티션)
+    private StatementCache stmts;
 
-public class TaskDao {
+    public TaskDao() {
+        this(null);
+    }
+
+    /**
+     * 다른 DB 파일을 쓰는 DAO (쿼리 플랜 점검 등)
+     * - 날짜 인덱스/보관 범위는 프로세스 전체 공유 → 한 프로세스에서는 DB 하나만 쓸 것
+     */
+    public TaskDao(String url) {
+        this.url = url;
+        this.files = TaskFiles.of(url);
+    }
+
+    private Connection connection() throws SQLException {
+        if (stmts == null || stmts.connection().isClosed()) {
+            stmts = new StatementCache(url == null ? Database.getConnection() : Database.getConnection(url));
+        }
+        return stmts.connection();
+    }
+
+    /**
+     * 캐시된 문장을 꺼낸다 (연결이 없으면 새로 열고 캐시도 새로 만듦)
+     */
+    private PreparedStatement stmt(String id, String sql) throws SQLException {
+        connection();
+        return stmts.get(id, sql);
+    }
+
+    /** tasks AUTOINCREMENT 순번 (마지막으로 준 id, 연도 파티션 id 포함) */
+    private static int lastSeq(StatementCache w) throws SQLException {
+        try (ResultSet rs = w.get("lastSeq", SQL_LAST_SEQ).executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /** 방금 INSERT한 행의 id (writer 연결 기준) */
+    private static int lastInsertId(StatementCache w) throws SQLException {
+        try (ResultSet rs = w.get("lastId", SQL_LAST_ID).executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * 쓰기 작업을 전용 writer 스레드에 넘기고 끝날 때까지 기다림 (BEGIN IMMEDIATE + BUSY 재시도는 DbWriter가)
+     * - afterCommit: 커밋 직후 writer 스레드에서 실행 (날짜 인덱스 갱신을 커밋 순서대로)
+     *
+     * @return 작업 결과, 실패하면 null (오류는 로그로 남김)
+     */
+    private <T> T write(String what, DbWriter.Work<T> work, Consumer<T> afterCommit) {
+        return write(what, null, work, afterCommit);
+    }
+
+    /** prepare: 트랜잭션 전에 실행 (연도 파일 ATTACH) */
+    private <T> T write(String what, DbWriter.Work<?> prepare, DbWriter.Work<T> work, Consumer<T> afterCommit) {
+        try {
+            return DbWriter.of(url).submit(prepare, work, afterCommit);
+        } catch (SQLException e) {
+            LOG.error("{} 실패", what, e);
+            return null;
+        }
+    }
+
+    /**
+     * 날짜 인덱스 (아직 안 만들어졌으면 tasks 한 번 스캔해서 생성)
+     */
+    private DateIndex index() throws SQLException {
+        if (!INDEX.isLoaded()) {
+            synchronized (INDEX) {
+                if (!INDEX.isLoaded()) rebuildIndex();
+            }
+        }
+        return INDEX;
+    }
+
+    /** 태그 비트맵 (아직 안 만들어졌으면 task_tags 한 번 읽어서 생성) */
+    private TagIndex tags() throws SQLException {
+        if (!TAGS.isLoaded()) TAGS.rebuild(connection());
+        return TAGS;
+    }
+
+    /** todo.db + 연도 파일들의 tasks를 차례로 스캔 (파일마다 스캔 직전에 ATTACH) */
+    private void rebuildIndex() throws SQLException {
+        int[] years = files.years();
+        int[] next = {-1};
+        INDEX.rebuild(connection(), () -> {
+            if (next[0] < 0) {
+                next[0] = 0;
+                return "main.tasks";
+            }
+            while (next[0] < years.length) {
+                String schema = files.open(stmts, years[next[0]++]);
+                if (schema != null) return schema + ".tasks";
+            }
+            return null;
+        });
+    }
+
+    /**
+     * SQL 오류가 나면 연결 상태를 믿을 수 없으므로 캐시째 버린다 (다음 호출 때 새로 연결)
+     */
+    private void reset() {
+        if (stmts != null) {
+            stmts.close();
+            stmts = null;
+        }
+    }
+
+    /** 같은 DB에 연결을 따로 여는 새 인스턴스 (날짜 인덱스/태그 비트맵은 공유) */
+    @Override
+    public TaskStore forThread() {
+        return new TaskDao(url);
+    }
+
+    @Override
+    public void close() {
+        reset();
+    }
 
     /**
      * DB에 새로운 할 일을 추가하는 메서드 (CREATE)
@@ -17,12 +381,12 @@ public class TaskDao {
      * @param priority 우선순위 (1=High, 2=Medium, 3=Low)
      * @param dueAt    마감일 (없으면 null)
      */
-    public void addTask(String title, int priority, String dueAt) {
-        // SQL 문: tasks 테이블에 새 행 추가
-        String sql = "INSERT INTO tasks(title, priority, due_at, is_recurring, next_fire_at) VALUES (?, ?, ?, ?, ?)";
+    public boolean addTask(String title, int priority, String dueAt) {
+        int year = files.yearOf(dueAt, 0);
+        if (year != 0) return addToYear(title, priority, dueAt, year);
 
-        try (Connection conn = Database.getConnection();               // DB 연결
-             PreparedStatement ps = conn.prepareStatement(sql)) {      // SQL 준비
+        Integer id = write("addTask", w -> {
+            PreparedStatement ps = w.get("addTask", SQL_ADD_TASK);
 
             // 1번째 ? → 제목
             ps.setString(1, title);
@@ -45,56 +409,117 @@ public class TaskDao {
 
             // SQL 실행 (INSERT 수행)
             ps.executeUpdate();
-            System.out.println("[DB] Task 추가 완료: " + title);
+            int newId = lastInsertId(w);
+            ChangeLog.inserted(w, 0, newId - 1, newId);
+            return newId;
+        }, newId -> INDEX.putOneOff(newId, dueAt, false));
+        if (id == null) return false;
+
+        LOG.debug("Task 추가 완료: id={} title={}", id, title);
+        return true;
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    /** 연도 파일에 새 단발 일정 (id는 todo.db 순번에서) */
+    private boolean addToYear(String title, int priority, String dueAt, int year) {
+        Task t = new Task();
+        t.title = title;
+        t.priority = priority;
+        t.dueAt = dueAt;
+        t.nextFireAt = dueAt;
+        Integer id = write("addTask", w -> files.attach(w, Set.of(year)), w -> {
+            t.id = Partitions.allocateIds(w, 1);
+            insertFull(w, year, t).executeUpdate();
+            files.place(w, year, t.id);
+            ChangeLog.inserted(w, year, t.id - 1, t.id);
+            return t.id;
+        }, newId -> INDEX.putOneOff(newId, dueAt, false));
+        if (id == null) return false;
+
+        LOG.debug("Task 추가 완료: id={} title={} ({}년 파티션)", id, title, year);
+        return true;
     }
 
     /**
      * 기존 Task를 수정하는 메서드 (UPDATE)
+     * - 있을 곳이 그대로면 그 파일에서 UPDATE, 마감 연도가 바뀌어 달라지면(연도별 파티션) 행을 새 파일로 옮김 (id 유지)
      *
      * @param task Task 객체 (id 포함)
      */
-    public void updateTask(Task task) {
-        String sql = "UPDATE tasks SET title=?, priority=?, due_at=?, is_recurring=?, next_fire_at=? WHERE id=?";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    public boolean updateTask(Task task) {
+        int to = files.yearOf(task.dueAt, task.isRecurring);
+        Task[] after = new Task[1];
+        Boolean ok = write("updateTask", w -> {
+            Set<Integer> years = new HashSet<>(files.locate(w, new int[]{task.id}).keySet());
+            years.add(to);
+            return files.attach(w, years);
+        }, w -> {
+            int from = files.locate(w, task.id);
+            String before = ChangeLog.snapshot(w, from, task.id);
+            if (from == to) {
+                PreparedStatement ps = files.write(w, "updateTask", to, SQL_UPDATE_TASK);
+
+                // 1번째 ? → 제목
+                ps.setString(1, task.title);
+                // 2번째 ? → 우선순위
+                ps.setInt(2, task.priority);
+
+                // 3번째 ? → 마감일 (있으면 값, 없으면 null)
+                if (task.dueAt != null) {
+                    ps.setString(3, task.dueAt);
+                } else {
+                    ps.setNull(3, Types.VARCHAR);
+                }
 
-            // 1번째 ? → 제목
-            ps.setString(1, task.title);
-            // 2번째 ? → 우선순위
-            ps.setInt(2, task.priority);
+                // 4번째 ? → 반복 여부
+                ps.setInt(4, task.isRecurring);
 
-            // 3번째 ? → 마감일 (있으면 값, 없으면 null)
-            if (task.dueAt != null) {
-                ps.setString(3, task.dueAt);
-            } else {
-                ps.setNull(3, Types.VARCHAR);
-            }
+                // 5번째 ? → 알림 시간 (있으면 값, 없으면 null)
+                if (task.nextFireAt != null) {
+                    ps.setString(5, task.nextFireAt);
+                } else {
+                    ps.setNull(5, Types.VARCHAR);
+                }
 
-            // 4번째 ? → 반복 여부
-            ps.setInt(4, task.isRecurring);
+                // 6번째 ? → WHERE id=?
+                ps.setInt(6, task.id);
 
-            // 5번째 ? → 알림 시간 (있으면 값, 없으면 null)
-            if (task.nextFireAt != null) {
-                ps.setString(5, task.nextFireAt);
-            } else {
-                ps.setNull(5, Types.VARCHAR);
+                // SQL 실행 (UPDATE 수행) + 바뀐 컬럼 기록
+                ps.executeUpdate();
+                ChangeLog.updated(w, to, task.id, before);
+                // 완료/반복 규칙 컬럼은 그대로라 인덱스에 넣을 값은 바뀐 행에서
+                after[0] = readOne(files.write(w, "getById", to, SQL_GET_BY_ID), task.id);
+                return true;
             }
+            // 다른 파일로 옮김: 나머지 컬럼은 지금 행에서
+            Task row = readOne(files.write(w, "getById", from, SQL_GET_BY_ID), task.id);
+            if (row == null) return false; // 이미 없음
+            row.title = task.title;
+            row.priority = task.priority;
+            row.dueAt = task.dueAt;
+            row.isRecurring = task.isRecurring;
+            row.nextFireAt = task.nextFireAt;
+
+            PreparedStatement del = files.write(w, "deleteById", from, SQL_DELETE_BY_ID);
+            del.setInt(1, task.id);
+            del.executeUpdate();
+            insertFull(w, to, row).executeUpdate();
+            files.place(w, to, task.id);
+            ChangeLog.updated(w, to, task.id, before);
+            after[0] = row;
+            return true;
+        }, done -> reindex(after[0]));
+        if (ok == null) return false;
+
+        LOG.debug("Task 업데이트 완료: id={}", task.id);
+        return true;
+    }
 
-            // 6번째 ? → WHERE id=?
-            ps.setInt(6, task.id);
-
-            // SQL 실행 (UPDATE 수행)
-            ps.executeUpdate();
-            System.out.println("[DB] Task 업데이트 완료: " + task.id);
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    /** 수정된 행으로 날짜 인덱스 증분 갱신 (단발↔반복이 바뀌어도 빼고 다시 넣으면 됨, null = 행이 없었음) */
+    private static void reindex(Task row) {
+        if (row == null) return;
+        INDEX.remove(row.id);
+        if (row.isRecurring == 1) INDEX.putRecurring(row.id, row.recurDays, row.recurStart, row.recurUntil);
+        else INDEX.putOneOff(row.id, row.dueAt, row.completed);
     }
 
     /**
@@ -102,89 +527,604 @@ public class TaskDao {
      *
      * @param task Task 객체 (id 필요)
      */
-    public void deleteTask(Task task) {
+    public boolean deleteTask(Task task) {
         // Task가 없거나 id가 0이면 삭제 불가
         if (task == null || task.id == 0) {
             throw new IllegalArgumentException("삭제할 Task의 id가 필요합니다.");
         }
-        String sql = "DELETE FROM tasks WHERE id = ?";  // DELETE 문법
+        return deleteById(task.id);
+    }
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    /**
+     * id만으로 Task를 삭제하는 편의 메서드 (DELETE)
+     *
+     * @param id 삭제할 Task id
+     */
+    public boolean deleteById(int id) {
+        Integer rows = write("deleteById", prepare(new int[]{id}), w -> {
+            ChangeLog.deleted(w, "[" + id + "]");
+            untag(w, "[" + id + "]");
+            int year = files.locate(w, id);
+            PreparedStatement ps = files.write(w, "deleteById", year, SQL_DELETE_BY_ID);
+            ps.setInt(1, id);
+            int n = ps.executeUpdate();
+            if (year != 0) files.place(w, 0, id);
+            if (n == 0) {
+                // 보관된 과거 일정일 수 있음
+                PreparedStatement ap = w.get("archiveDeleteById", SQL_ARCHIVE_DELETE_BY_ID);
+                ap.setInt(1, id);
+                n = ap.executeUpdate();
+            }
+            return n;
+        }, n -> {
+            INDEX.remove(id);
+            TAGS.remove(id);
+        });
+        if (rows == null) return false;
+
+        // 삭제된 행 수 확인
+        if (rows == 0) {
+            LOG.debug("삭제할 행이 없습니다. id={}", id);
+        } else {
+            LOG.debug("Task 삭제 완료. id={}", id);
+        }
+        return true;
+    }
+
+
+    /**
+     * 여러 Task를 한 트랜잭션으로 삭제 (DELETE ×N, 커밋 1번)
+     * - 중간에 실패하면 전부 롤백
+     *
+     * @param ids 삭제할 Task id 목록
+     */
+    public boolean deleteByIds(int[] ids) {
+        if (ids.length == 0) return true;
+        Boolean ok = write("deleteByIds", prepare(ids), w -> {
+            ChangeLog.deleted(w, idsJson(ids));
+            untag(w, idsJson(ids));
+            for (Map.Entry<Integer, int[]> part : files.locate(w, ids).entrySet()) {
+                int year = part.getKey();
+                int[] some = part.getValue();
+                int[] rows = batch(files.write(w, "deleteById", year, SQL_DELETE_BY_ID), some, null);
+                if (year != 0) {
+                    files.place(w, 0, some);
+                    continue;
+                }
+                int[] archived = missing(some, rows);
+                if (archived.length > 0) batch(w.get("archiveDeleteById", SQL_ARCHIVE_DELETE_BY_ID), archived, null);
+            }
+            return true;
+        }, done -> {
+            for (int id : ids) {
+                INDEX.remove(id);
+                TAGS.remove(id);
+            }
+        });
+        if (ok == null) return false;
 
-            // 1번째 ? → 삭제할 Task의 id
-            ps.setInt(1, task.id);
+        LOG.debug("Task 일괄 삭제 완료. count={}", ids.length);
+        return true;
+    }
 
-            // SQL 실행 (DELETE 수행)
-            int rows = ps.executeUpdate();
+    /**
+     * 여러 Task의 완료 여부를 한 트랜잭션으로 변경 (UPDATE ×N, 커밋 1번)
+     */
+    public boolean updateCompletedBatch(int[] ids, boolean completed) {
+        if (ids.length == 0) return true;
+        Boolean result = write("updateCompletedBatch", prepare(ids), w -> {
+            ChangeLog.completed(w, idsJson(ids), completed);
+            boolean any = false;
+            for (Map.Entry<Integer, int[]> part : files.locate(w, ids).entrySet()) {
+                PreparedStatement ps = files.write(w, "updateCompleted", part.getKey(), SQL_UPDATE_COMPLETED);
+                int[] some = part.getValue();
+                int[] rows = batch(ps, some, completed ? 1 : 0);
+                if (part.getKey() != 0) continue; // 보관은 todo.db에서만
+                // 보관된 일정을 "미완료"로 돌리면 다시 tasks로 복원
+                int[] archived = missing(some, rows);
+                if (!completed && archived.length > 0) {
+                    for (int id : archived) any |= restoreFromArchive(w, id);
+                    batch(ps, archived, 0);
+                }
+            }
+            return any;
+        }, restored -> {
+            if (restored) INDEX.invalidate();
+            else for (int id : ids) INDEX.setCompleted(id, completed);
+        });
+        return result != null;
+    }
 
-            // 삭제된 행 수 확인
-            if (rows == 0) {
-                System.out.println("[DB] 삭제할 행이 없습니다. id=" + task.id);
-            } else {
-                System.out.println("[DB] Task 삭제 완료. id=" + task.id);
+    /**
+     * 같은 문장을 id마다 배치로 묶어 실행 (트랜잭션은 DbWriter가)
+     * - value != null 이면 1번 ? = value, 2번 ? = id (UPDATE용)
+     * - value == null 이면 1번 ? = id (DELETE용)
+     *
+     * @return id별 영향받은 행 수
+     */
+    private static int[] batch(PreparedStatement ps, int[] ids, Integer value) throws SQLException {
+        try {
+            for (int id : ids) {
+                if (value != null) {
+                    ps.setInt(1, value);
+                    ps.setInt(2, id);
+                } else {
+                    ps.setInt(1, id);
+                }
+                ps.addBatch();
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("deleteTask 실패: " + e.getMessage(), e);
+            return ps.executeBatch();
+        } finally {
+            ps.clearBatch();
         }
     }
 
+    // ✅ 저장 위치 (TaskFiles) ------------------------------------------
+
+    /** ids가 있는 연도 파일을 쓰기 연결에 붙이는 준비 작업 */
+    private DbWriter.Work<?> prepare(int[] ids) {
+        return w -> files.attach(w, files.locate(w, ids).keySet());
+    }
+
+    /** t 전체(id 포함)를 year 파일에 INSERT할 문장 (바인딩까지, 실행은 호출한 쪽) */
+    private PreparedStatement insertFull(StatementCache w, int year, Task t) throws SQLException {
+        PreparedStatement ps = files.write(w, "insertFull", year, SQL_INSERT_FULL);
+        ps.setInt(1, t.id);
+        ps.setString(2, t.title);
+        ps.setInt(3, t.priority);
+        ps.setString(4, t.dueAt);
+        ps.setInt(5, t.isRecurring);
+        ps.setString(6, t.nextFireAt);
+        ps.setString(7, t.createdAt);
+        ps.setInt(8, t.completed ? 1 : 0);
+        ps.setInt(9, t.recurDays);
+        ps.setString(10, t.recurStart);
+        ps.setString(11, t.recurUntil);
+        ps.setInt(12, Math.max(1, t.recurInterval));
+        return ps;
+    }
+
+    /** 읽기 연결에서 year용 문장 (그 연도 파일이 없으면 null = 읽을 것 없음) */
+    private PreparedStatement stmt(String id, int year, String sql) throws SQLException {
+        connection();
+        return files.read(stmts, id, year, sql);
+    }
+
+    // ✅ 태그 ---------------------------------------------------------
+
     /**
-     * id만으로 Task를 삭제하는 편의 메서드 (DELETE)
+     * id의 태그를 tags로 교체 (한 트랜잭션: 이름표 확보 → 연결 다시 씀)
+     * - 이름은 TagIndex.normalize 규칙 (앞의 # 제거, 소문자), 잘못된 이름이면 IllegalArgumentException
      *
-     * @param id 삭제할 Task id
+     * @return 없는 id면 false
+     */
+    @Override
+    public boolean setTags(int id, Collection<String> tags) {
+        List<String> names = TagIndex.normalizeAll(tags);
+        Boolean ok = write("setTags", prepare(new int[]{id}), w -> {
+            if (readRow(w, id, new int[1]) == null) return false;
+            PreparedStatement clear = w.get("tagsClear", SQL_TAGS_CLEAR);
+            clear.setInt(1, id);
+            clear.executeUpdate();
+            PreparedStatement ensure = w.get("tagEnsure", SQL_TAG_ENSURE);
+            PreparedStatement link = w.get("tagLink", SQL_TAG_LINK);
+            for (String name : names) {
+                ensure.setString(1, name);
+                ensure.executeUpdate();
+                link.setInt(1, id);
+                link.setString(2, name);
+                link.executeUpdate();
+            }
+            return true;
+        }, done -> {
+            if (done) TAGS.set(id, names);
+        });
+        if (ok == null || !ok) return false;
+
+        LOG.debug("태그 변경: id={} {}", id, names);
+        return true;
+    }
+
+    @Override
+    public List<String> tagsOf(int id) {
+        try {
+            return tags().names(id);
+        } catch (SQLException e) {
+            reset();
+            LOG.error("tagsOf 실패", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<String> allTags() {
+        try {
+            return tags().all();
+        } catch (SQLException e) {
+            reset();
+            LOG.error("allTags 실패", e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public TagBitmap tagged(String tag) {
+        try {
+            return tags().get(tag.toLowerCase(Locale.ROOT));
+        } catch (SQLException e) {
+            reset();
+            LOG.error("tagged 실패", e);
+            return TagBitmap.EMPTY;
+        }
+    }
+
+    // ✅ 저장된 보기 (SmartFilter) ------------------------------------
+
+    /**
+     * 조건에 맞는 할 일 (보관분 제외)
+     * - 조건 구성(shape)별로 문장을 한 번만 prepare → 값만 바꿔 재실행
+     * - 단발 쪽은 마감일 순 인덱스를 읽다가 limit에서 멈춤
+     *   · todo.db → 마감 범위에 걸친 연도 파일을 오름차순으로 이어 읽음 (= 마감일 순, 연도 파일이 없으면 todo.db만)
      */
-    public void deleteById(int id) {
-        String sql = "DELETE FROM tasks WHERE id = ?";
+    @Override
+    public List<Task> query(SmartFilter filter, LocalDate today, int limit) {
+        List<Task> out = new ArrayList<>();
+        try {
+            for (SmartFilter.Branch b : filter.branches()) {
+                if (out.size() >= limit) break;
+                String id = "smart:" + b.shape();
+                readSmart(stmt(id, b.sql()), filter, b, today, limit, out);
+                if (b.recurring()) continue;
+
+                LocalDate from = filter.dueFromDate(today);
+                LocalDate to = filter.dueToDate(today);
+                for (int year : files.years()) {
+                    if (out.size() >= limit) break;
+                    if (from != null && year < from.getYear()) continue;
+                    if (to != null && year > to.getYear()) break;
+                    PreparedStatement ps = stmt(id, year, b.sql());
+                    if (ps != null) readSmart(ps, filter, b, today, limit, out);
+                }
+            }
+        } catch (SQLException e) {
+            reset();
+            LOG.error("query 실패: {}", filter, e);
+        }
+        return out;
+    }
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    /** 남은 자리(limit - out.size())만큼만 읽어서 out에 추가 */
+    private static void readSmart(PreparedStatement ps, SmartFilter filter, SmartFilter.Branch b,
+                                  LocalDate today, int limit, List<Task> out) throws SQLException {
+        filter.bind(ps, b, today, limit - out.size());
+        try (ResultSet rs = ps.executeQuery()) {
+            TaskRowMapper.readAll(rs, out);
+        }
+    }
 
-            ps.setInt(1, id);
-            ps.executeUpdate();
-            System.out.println("[DB] Task 삭제 완료. id=" + id);
+    /** 저장된 보기 (이름순, 읽을 수 없는 조건은 건너뜀) */
+    @Override
+    public Map<String, SmartFilter> savedFilters() {
+        Map<String, SmartFilter> out = new TreeMap<>();
+        try (ResultSet rs = stmt("savedFilters", SQL_SAVED_FILTERS).executeQuery()) {
+            while (rs.next()) {
+                try {
+                    out.put(rs.getString(1), SmartFilter.parse(rs.getString(2)));
+                } catch (IllegalArgumentException bad) {
+                    LOG.warn("저장된 보기 '{}'를 읽을 수 없어 건너뜀: {}", rs.getString(1), bad.getMessage());
+                }
+            }
+        } catch (SQLException e) {
+            reset();
+            LOG.error("savedFilters 실패", e);
+        }
+        return out;
+    }
+
+    @Override
+    public boolean saveFilter(String name, SmartFilter filter) {
+        String key = name.strip();
+        if (key.isEmpty()) throw new IllegalArgumentException("보기 이름이 비었습니다");
+        Integer n = write("saveFilter", w -> {
+            PreparedStatement ps = w.get("saveFilter", SQL_SAVE_FILTER);
+            ps.setString(1, key);
+            ps.setString(2, filter.format());
+            return ps.executeUpdate();
+        }, null);
+        return n != null;
+    }
 
+    @Override
+    public boolean deleteFilter(String name) {
+        Integer n = write("deleteFilter", w -> {
+            PreparedStatement ps = w.get("deleteFilter", SQL_DELETE_FILTER);
+            ps.setString(1, name);
+            return ps.executeUpdate();
+        }, null);
+        return n != null && n > 0;
+    }
+
+    /** 삭제되는 할 일의 태그 연결 제거 (트랜잭션 안) */
+    private static void untag(StatementCache w, String idsJson) throws SQLException {
+        PreparedStatement ps = w.get("tagsDeleteIds", SQL_TAGS_DELETE_IDS);
+        ps.setString(1, idsJson);
+        ps.executeUpdate();
+    }
+
+    // ✅ 동기화 (ChangeLog) ------------------------------------------
+
+    /** 이 DB(기기)의 node id */
+    public String nodeId() {
+        try (ResultSet rs = stmt("changeNode", ChangeLog.SQL_NODE).executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
         } catch (SQLException e) {
-            throw new RuntimeException("deleteById 실패: " + e.getMessage(), e);
+            reset();
+            LOG.error("nodeId 실패", e);
+            return null;
+        }
+    }
+
+    /** node 기기의 변경을 어디(seq)까지 받았는지 (처음이면 0) */
+    public long peerCursor(String node) {
+        try {
+            PreparedStatement ps = stmt("changePeer", ChangeLog.SQL_PEER);
+            ps.setString(1, node);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            reset();
+            LOG.error("peerCursor 실패", e);
+            return 0;
+        }
+    }
+
+    /** seq 다음 변경부터 최대 limit개 (보내는 쪽, seq 순) */
+    public List<ChangeLog.Change> changesSince(long seq, int limit) {
+        List<ChangeLog.Change> out = new ArrayList<>();
+        try {
+            PreparedStatement ps = stmt("changesSince", ChangeLog.SQL_SINCE);
+            ps.setLong(1, seq);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new ChangeLog.Change(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getString(4), rs.getLong(5), rs.getString(6)));
+                }
+            }
+        } catch (SQLException e) {
+            reset();
+            LOG.error("changesSince 실패", e);
+        }
+        return out;
+    }
+
+    /**
+     * 다른 기기(fromNode)의 변경 묶음을 적용하고, 그 기기에서 어디까지 받았는지(peerCursor)도 같은 트랜잭션에서 갱신
+     * 충돌 규칙
+     * - 이미 기록된 변경(uid, op, at, node, cols가 같음)은 건너뜀 → 같은 묶음을 두 번 받거나 되돌아온 변경도 안전
+     * - 삭제가 이김: 이쪽에서 지운 할 일에 온 추가/수정은 무시, 저쪽 삭제는 이쪽 수정이 더 늦어도 적용
+     * - 수정은 컬럼별로 나중 것(at, 같으면 node)이 이김 → 한쪽은 제목, 다른 쪽은 완료를 바꿨으면 둘 다 남음
+     * - 모르는 uid의 추가는 이쪽 순번으로 새 id를 받아 INSERT (연도별 파티션이면 마감 연도 파일), 모르는 uid의 수정은 무시
+     * - 적용한 변경은 원래 at/node 그대로 이쪽 change_log에도 남김 → 세 번째 기기로 다시 전달됨
+     * - 붙여야 할 연도 파일이 MAX_ATTACHED개를 넘지 않게 나눠서 여러 트랜잭션으로
+     *   · 연도는 적용 전 상태로 미리 계산 → 같은 묶음의 앞 변경이 위치를 바꿔 빗나가면 그 묶음만 한 건씩 다시
+     *
+     * @return 모두 적용했으면 true (실패하면 앞 트랜잭션까지는 반영됨 → 다시 받으면 이어서)
+     */
+    public boolean applyChanges(String fromNode, List<ChangeLog.Change> batch) {
+        int from = 0;
+        int retryUntil = 0; // 이 위치 전까지는 한 건씩
+        while (from < batch.size()) {
+            Set<Integer> years = new HashSet<>();
+            int to = from;
+            try {
+                for (; to < batch.size() && (to == from || to >= retryUntil); to++) {
+                    Set<Integer> more = new HashSet<>(years);
+                    more.addAll(yearsTouched(batch.get(to)));
+                    more.remove(0);
+                    if (more.size() > StatementCache.MAX_ATTACHED && to > from) break;
+                    years = more;
+                }
+            } catch (SQLException e) {
+                reset();
+                LOG.error("applyChanges 실패", e);
+                return false;
+            }
+            List<ChangeLog.Change> chunk = batch.subList(from, to);
+            Set<Integer> attach = years;
+            Integer n = write("applyChanges", w -> files.attach(w, attach), w -> {
+                int applied = 0;
+                for (ChangeLog.Change c : chunk) {
+                    if (applyOne(w, c)) applied++;
+                }
+                ChangeLog.advance(w, fromNode, chunk.get(chunk.size() - 1).seq());
+                return applied;
+            }, applied -> {
+                if (applied > 0) {
+                    INDEX.invalidate();
+                    TAGS.invalidate();
+                    archiveHorizon = null;
+                }
+            });
+            if (n == null) {
+                if (attach.isEmpty() || chunk.size() == 1) return false; // 붙인 연도가 없었으면 위치가 빗나간 실패가 아님
+                retryUntil = to;
+                continue;
+            }
+
+            LOG.debug("변경 적용: {}/{}건 (from {})", n, chunk.size(), fromNode);
+            from = to;
+        }
+        return true;
+    }
+
+    /** 변경 하나가 건드릴 수 있는 연도 (지금 있는 곳 + 새 마감 연도), 읽기 연결에서 */
+    private Set<Integer> yearsTouched(ChangeLog.Change c) throws SQLException {
+        connection();
+        Set<Integer> out = new HashSet<>();
+        Task t = new Task();
+        int id = ChangeLog.idOf(stmts, c.uid());
+        if (id != 0) {
+            int year = files.locate(stmts, id);
+            out.add(year);
+            PreparedStatement ps = stmt("getById", year, SQL_GET_BY_ID);
+            Task cur = ps == null ? null : readOne(ps, id);
+            if (cur != null) t = cur;
+        }
+        if (c.cols() != null) ChangeLog.overlay(stmts, c.cols(), t);
+        out.add(files.yearOf(t.dueAt, t.isRecurring));
+        return out;
+    }
+
+    /** 변경 하나 적용 (트랜잭션 안), 실제로 바뀐 게 있으면 true */
+    private boolean applyOne(StatementCache w, ChangeLog.Change c) throws SQLException {
+        if (ChangeLog.seen(w, c)) return false;
+        int id = ChangeLog.idOf(w, c.uid());
+        int[] where = new int[1];
+
+        if (c.op().equals("D")) {
+            Task row = id == 0 ? null : readRow(w, id, where);
+            if (row != null) deleteRow(w, id, where[0]);
+            if (id != 0) {
+                ChangeLog.unbind(w, "[" + id + "]");
+                untag(w, "[" + id + "]");
+            }
+            ChangeLog.append(w, c, null);
+            return row != null;
+        }
+        if (ChangeLog.isDeleted(w, c.uid())) return false;
+
+        if (id == 0) {
+            if (!c.op().equals("I")) return false;
+            Task row = new Task();
+            row.priority = 2;
+            ChangeLog.overlay(w, c.cols(), row);
+            if (row.title == null) row.title = "";
+            row.id = Partitions.allocateIds(w, 1);
+            int year = files.yearOf(row.dueAt, row.isRecurring);
+            insertFull(w, year, row).executeUpdate();
+            if (year != 0) files.place(w, year, row.id);
+            ChangeLog.bind(w, row.id, c.uid());
+            ChangeLog.append(w, c, c.cols());
+            return true;
+        }
+
+        String cols = ChangeLog.winners(w, c);
+        if (cols == null) return false;
+        Task row = readRow(w, id, where);
+        if (row == null) return false;
+        ChangeLog.overlay(w, cols, row);
+        int to = files.yearOf(row.dueAt, row.isRecurring);
+        if (to == where[0]) {
+            updateFull(w, to, row);
+        } else {
+            deleteRow(w, id, where[0]);
+            insertFull(w, to, row).executeUpdate();
+            if (to != 0) files.place(w, to, id);
+        }
+        ChangeLog.append(w, c, cols);
+        return true;
+    }
+
+    /**
+     * id 행 읽기 (트랜잭션 안)
+     *
+     * @param where [0]에 있는 곳: 연도, 0 = tasks, -1 = tasks_archive
+     * @return 없으면 null
+     */
+    private Task readRow(StatementCache w, int id, int[] where) throws SQLException {
+        int year = files.locate(w, id);
+        Task t = readOne(files.write(w, "getById", year, SQL_GET_BY_ID), id);
+        if (t == null && year == 0) {
+            t = readOne(w.get("archiveGetById", SQL_ARCHIVE_GET_BY_ID), id);
+            year = -1;
+        }
+        where[0] = year;
+        return t;
+    }
+
+    private static Task readOne(PreparedStatement ps, int id) throws SQLException {
+        ps.setInt(1, id);
+        try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) return null;
+            Task t = new Task();
+            TaskRowMapper.readInto(rs, t);
+            return t;
+        }
+    }
+
+    /** readRow가 알려준 곳에서 행 삭제 (-1 = 보관 테이블) */
+    private void deleteRow(StatementCache w, int id, int where) throws SQLException {
+        PreparedStatement ps = where == -1
+                ? w.get("archiveDeleteById", SQL_ARCHIVE_DELETE_BY_ID)
+                : files.write(w, "deleteById", where, SQL_DELETE_BY_ID);
+        ps.setInt(1, id);
+        ps.executeUpdate();
+        if (where > 0) files.place(w, 0, id);
+    }
+
+    private void updateFull(StatementCache w, int year, Task t) throws SQLException {
+        PreparedStatement ps = files.write(w, "updateFull", year, SQL_UPDATE_FULL);
+        ps.setString(1, t.title);
+        ps.setInt(2, t.priority);
+        ps.setString(3, t.dueAt);
+        ps.setInt(4, t.isRecurring);
+        ps.setString(5, t.nextFireAt);
+        ps.setString(6, t.createdAt);
+        ps.setInt(7, t.completed ? 1 : 0);
+        ps.setInt(8, t.recurDays);
+        ps.setString(9, t.recurStart);
+        ps.setString(10, t.recurUntil);
+        ps.setInt(11, Math.max(1, t.recurInterval));
+        ps.setInt(12, t.id);
+        ps.executeUpdate();
+    }
+
+    /** 배치 결과가 0행이었던 id만 추림 (tasks에 없던 것 = 보관됐거나 이미 없음) */
+    private static int[] missing(int[] ids, int[] rows) {
+        int[] out = new int[ids.length];
+        int k = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i >= rows.length || rows[i] == 0) out[k++] = ids[i];
         }
+        return java.util.Arrays.copyOf(out, k);
     }
 
 
     //특정날짜의 할 일 가져오기
     public List<Task> listByDate(LocalDate date) {
         String ymd = date.toString(); // "YYYY-MM-DD"
-        String sql = """
-                    SELECT id, title, priority, due_at, is_recurring,
-                           next_fire_at, created_at, completed          -- ✅ 추가
-                    FROM tasks
-                    WHERE due_at IS NOT NULL AND substr(due_at, 1, 10) = ?
-                    ORDER BY priority, due_at
-                """;
-
         List<Task> out = new ArrayList<>();
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
+        try {
+            // 그날이 있는 파일 하나만 (연도 파일이 없으면 그날 일정도 없음)
+            PreparedStatement ps = stmt("listByDate", files.yearOf(date), SQL_LIST_BY_DATE);
+            if (ps == null) return out;
             ps.setString(1, ymd);
 
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Task t = new Task();
-                    t.id = rs.getInt("id");
-                    t.title = rs.getString("title");
-                    t.priority = rs.getInt("priority");
-                    t.dueAt = rs.getString("due_at");
-                    t.isRecurring = rs.getInt("is_recurring");
-                    t.nextFireAt = rs.getString("next_fire_at");
-                    t.createdAt = rs.getString("created_at");
-                    t.completed = rs.getInt("completed") == 1;
-                    out.add(t);
+                TaskRowMapper.readAll(rs, out);
+            }
+
+            // 보관 범위에 드는 과거 날짜면 보관 테이블도 읽어서 같은 순서로 합침
+            if (ymd.compareTo(archiveHorizon()) <= 0) {
+                PreparedStatement ap = stmt("archiveListByDate", SQL_ARCHIVE_LIST_BY_DATE);
+                ap.setString(1, ymd);
+                int before = out.size();
+                try (ResultSet rs = ap.executeQuery()) {
+                    TaskRowMapper.readAll(rs, out);
+                }
+                if (out.size() > before) {
+                    out.sort((a, b) -> a.priority != b.priority
+                            ? Integer.compare(a.priority, b.priority)
+                            : a.dueAt.compareTo(b.dueAt));
                 }
             }
 
         } catch (SQLException e) {
-            e.printStackTrace();
+            reset();
+            LOG.error("listByDate 실패", e);
         }
         return out;
     }
@@ -197,39 +1137,28 @@ public class TaskDao {
      */
     public Map<LocalDate, Integer> getDailyCountsForMonth(YearMonth ym) {
 
-        // 예: YearMonth = 2025-09 → "2025-09" (문자열)
-        String ymPrefix = ym.toString();
-
-        // SQL: 해당 달(YYYY-MM)로 시작하는 due_at 날짜만 가져오기
-        String sql = """
-                SELECT substr(due_at,1,10) AS ymd, COUNT(*) AS cnt
-                FROM tasks
-                WHERE due_at LIKE ? || '%'
-                GROUP BY ymd
-                """;
-
         // 결과를 담을 Map (날짜별 → 할 일 개수)
         Map<LocalDate, Integer> map = new HashMap<>();
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            // "YYYY-MM%" 조건 넣기
-            ps.setString(1, ymPrefix);
+        try {
+            // daily_stats에서 해당 달의 1일 ~ 말일 범위만 읽기
+            PreparedStatement ps = monthStats(ym);
+            if (ps == null) return map;
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     // DB에서 문자열("YYYY-MM-DD") → LocalDate로 변환
-                    LocalDate date = LocalDate.parse(rs.getString("ymd"));
-                    // 해당 날짜의 할 일 개수
-                    int count = rs.getInt("cnt");
+                    LocalDate date = LocalDate.parse(rs.getString(1));
+                    // 해당 날짜의 할 일 개수 = 완료 + 미완료
+                    int count = rs.getInt(2) + rs.getInt(3);
 
                     // Map에 저장
                     map.put(date, count);
                 }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            reset();
+            LOG.error("getDailyCountsForMonth 실패", e);
         }
 
         // 날짜별 할 일 개수 반환
@@ -247,7 +1176,7 @@ public class TaskDao {
      * @param intervalWeeks 몇 주 간격으로 반복할지 (기본 1주)
      * @param timeHHmm      시간 문자열 ("HH:mm" 권장, 비우면 종일) — 지금 단계에선 저장만, 트리거 계산은 다음 단계
      */
-    public void addRecurringTask(String title,
+    public boolean addRecurringTask(String title,
                                  int priority,
                                  int daysMask,
                                  String recurStart,
@@ -272,16 +1201,10 @@ public class TaskDao {
             intervalWeeks = 1; // 방어적 기본값
         }
 
-        // --- 2) INSERT SQL (is_recurring=1, due_at/next_fire_at은 지금은 NULL로 둠) ---
-        final String sql = """
-                INSERT INTO tasks
-                    (title, priority, is_recurring, recur_days, recur_start, recur_until, recur_interval, due_at, next_fire_at)
-                VALUES
-                    (?,     ?,        1,           ?,          ?,          ?,           ?,             NULL,  NULL)
-                """;
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        // --- 2) INSERT (is_recurring=1, due_at/next_fire_at은 지금은 NULL로 둠) ---
+        int weeks = intervalWeeks;
+        Integer id = write("addRecurringTask", w -> {
+            PreparedStatement ps = w.get("addRecurring", SQL_ADD_RECURRING);
 
             int i = 1;
             ps.setString(i++, title);
@@ -296,49 +1219,123 @@ public class TaskDao {
                 ps.setNull(i++, Types.VARCHAR);
             }
 
-            ps.setInt(i++, intervalWeeks);
+            ps.setInt(i++, weeks);
 
             // 실행
             ps.executeUpdate();
-            System.out.println("[DB] 반복 업무 추가 완료: title=" + title +
-                    ", mask=" + daysMask + ", start=" + recurStart +
-                    (recurUntil != null ? ", until=" + recurUntil : "") +
-                    ", every " + intervalWeeks + " week(s)");
+            int newId = lastInsertId(w);
+            ChangeLog.inserted(w, 0, newId - 1, newId);
+            return newId;
+        }, newId -> INDEX.putRecurring(newId, daysMask, recurStart, recurUntil));
+        if (id == null) return false;
+
+        LOG.debug("반복 업무 추가 완료: id={} title={}, mask={}, start={}, until={}, every {} week(s)",
+                id, title, daysMask, recurStart, recurUntil, weeks);
+        return true;
+    }
 
-        } catch (SQLException e) {
-            throw new RuntimeException("addRecurringTask 실패: " + e.getMessage(), e);
+    /**
+     * 여러 할 일을 트랜잭션 하나로 추가 (ICS 가져오기 등)
+     * - 단발 일정은 완료 여부까지 그대로, 반복 업무는 반복 규칙 필드로 INSERT
+     * - 행마다 인덱스를 증분 갱신하는 대신 커밋 후 한 번 무효화 (다음 날짜 질의 때 재구성)
+     * - todo.db 몫(AUTOINCREMENT)과 연도 파일 몫(연도별 파티션)으로 나눔
+     *   · 연도 파일은 트랜잭션 하나에 MAX_ATTACHED개까지 → 연도가 더 많으면 여러 트랜잭션 (앞 것은 이미 커밋)
+     */
+    @Override
+    public boolean addAll(List<Task> tasks) {
+        if (tasks.isEmpty()) return true;
+        Map<Integer, List<Task>> byYear = new TreeMap<>();
+        for (Task t : tasks) {
+            byYear.computeIfAbsent(files.yearOf(t.dueAt, t.isRecurring), y -> new ArrayList<>()).add(t);
         }
+        List<Task> rest = byYear.remove(0);
+        if (rest != null && !insertAll(rest)) return false;
+
+        List<Integer> years = new ArrayList<>(byYear.keySet());
+        for (int from = 0; from < years.size(); from += StatementCache.MAX_ATTACHED) {
+            List<Integer> group = years.subList(from, Math.min(from + StatementCache.MAX_ATTACHED, years.size()));
+            if (!insertAll(group, byYear)) return false;
+        }
+        return true;
+    }
+
+    private boolean insertAll(List<Task> tasks) {
+        Integer n = write("addAll", w -> {
+            int before = lastSeq(w);
+            PreparedStatement one = w.get("importTask", SQL_IMPORT_TASK);
+            PreparedStatement rec = w.get("addRecurring", SQL_ADD_RECURRING);
+            for (Task t : tasks) {
+                if (t.isRecurring == 1) {
+                    rec.setString(1, t.title);
+                    rec.setInt(2, t.priority);
+                    rec.setInt(3, t.recurDays);
+                    rec.setString(4, t.recurStart);
+                    rec.setString(5, t.recurUntil);
+                    rec.setInt(6, Math.max(1, t.recurInterval));
+                    rec.addBatch();
+                } else {
+                    one.setString(1, t.title);
+                    one.setInt(2, t.priority);
+                    one.setString(3, t.dueAt);
+                    one.setString(4, t.dueAt);
+                    one.setInt(5, t.completed ? 1 : 0);
+                    one.addBatch();
+                }
+            }
+            one.executeBatch();
+            rec.executeBatch();
+            ChangeLog.inserted(w, 0, before, lastSeq(w)); // AUTOINCREMENT라 이번에 들어간 id = (before, 지금 순번]
+            return tasks.size();
+        }, added -> INDEX.invalidate());
+        if (n == null) return false;
+
+        LOG.debug("일괄 추가 완료: {}건", n);
+        return true;
+    }
+
+    /** 연도 파일 몫의 일괄 추가 (group의 연도들을 붙여서 트랜잭션 하나, id는 todo.db 순번에서 한 번에) */
+    private boolean insertAll(List<Integer> group, Map<Integer, List<Task>> byYear) {
+        Integer n = write("addAll", w -> files.attach(w, new HashSet<>(group)), w -> {
+            int count = 0;
+            for (int year : group) count += byYear.get(year).size();
+            int id = Partitions.allocateIds(w, count);
+            for (int year : group) {
+                List<Task> some = byYear.get(year);
+                PreparedStatement ins = files.write(w, "insertFull", year, SQL_INSERT_FULL);
+                int[] ids = new int[some.size()];
+                try {
+                    for (int i = 0; i < ids.length; i++) {
+                        Task row = some.get(i).copy();
+                        row.id = ids[i] = id++;
+                        row.nextFireAt = row.dueAt;
+                        row.createdAt = null;
+                        insertFull(w, year, row).addBatch();
+                    }
+                    ins.executeBatch();
+                } finally {
+                    ins.clearBatch(); // 실패해도 다음 작업에 남지 않게
+                }
+                files.place(w, year, ids);
+            }
+            for (int year : group) ChangeLog.inserted(w, year, id - count - 1, id - 1);
+            return count;
+        }, added -> INDEX.invalidate());
+        if (n == null) return false;
+
+        LOG.debug("일괄 추가 완료: {}건 ({}개 연도 파티션)", n, group.size());
+        return true;
     }
 
     /**
      * 특정 날짜에 반복업무가 있는지 확인
+     * - 달력 한 달 렌더에 최대 31번 불리므로 SQL 대신 날짜 인덱스의 반복 규칙으로 판정
      */
     public boolean hasRecurringOn(LocalDate date) {
-        String sql = """
-                    SELECT COUNT(*) FROM tasks
-                    WHERE is_recurring = 1
-                      AND (recur_days & ?) != 0            -- 요일 비트가 겹치면 true
-                      AND (recur_start IS NULL OR recur_start <= ?)
-                      AND (recur_until IS NULL OR recur_until >= ?)
-                """;
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            // DayOfWeek: 월=1 … 일=7  → 일=bit0, 월=bit1 … 토=bit6 으로 매핑
-            int dow = date.getDayOfWeek().getValue();   // 1~7 (월~일)
-            int dowMask = 1 << (dow % 7);               // 월(1)->2, … 일(7%7=0)->1
-
-            String ymd = date.toString();               // "YYYY-MM-DD"
-            ps.setInt(1, dowMask);
-            ps.setString(2, ymd);
-            ps.setString(3, ymd);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() && rs.getInt(1) > 0;
-            }
+        try {
+            return index().recurringOn(date);
         } catch (SQLException e) {
-            e.printStackTrace();
+            reset();
+            LOG.error("hasRecurringOn 실패", e);
             return false;
         }
     }
@@ -352,7 +1349,7 @@ public class TaskDao {
      * 2) DB에 저장된 반복 요일 비트마스크(recur_days)와 & 연산으로 일치 여부를 판단
      * - 비트 규칙: 일=bit0, 월=bit1, … 토=bit6  (예: 월/수/금 → 0b0101010 = 42)
      * 3) 반복 유효 기간(recur_start ≤ date ≤ recur_until)도 함께 필터링
-     * 4) 일치하는 반복 업무들의 최소 필드(id, title, priority, is_recurring)를 Task로 구성해 반환
+     * 4) 공용 매퍼로 Task를 구성해 반환 (반복 업무는 due_at 등이 NULL)
      *
      * @param date 확인할 날짜 (예: LocalDate.of(2025, 9, 15))
      * @return 해당 날짜에 반복 규칙과 기간이 맞는 Task 목록(반복 업무만)
@@ -378,23 +1375,12 @@ public class TaskDao {
         // (B) 하루 문자열(YYYY-MM-DD) 준비 → 기간 비교에 사용
         String ymd = date.toString();
 
-        // (C) 반복 업무 조회 SQL -----------------------------------
+        // (C) 반복 업무 조회 (SQL_LIST_RECURRING_BY_DATE) ----------
         //  - is_recurring = 1 : 반복 업무만
         //  - (recur_days & ?) != 0 : 요일 비트가 겹치는(해당 요일에 수행되는) 것만
         //  - 기간 조건: 시작일이 비어있거나 시작일 ≤ date, 종료일이 비어있거나 date ≤ 종료일
-        final String sql = """
-                    SELECT id, title, priority, is_recurring
-                    FROM tasks
-                    WHERE is_recurring = 1
-                      AND (recur_days & ?) != 0
-                      AND (recur_start IS NULL OR recur_start <= ?)
-                      AND (recur_until IS NULL OR recur_until >= ?)
-                    ORDER BY priority ASC, title ASC
-                """;
-
-        // (D) DB 연결/실행 -----------------------------------------
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try {
+            PreparedStatement ps = stmt("listRecurringByDate", SQL_LIST_RECURRING_BY_DATE);
 
             // 바인딩 #1: 요일 비트마스크
             ps.setInt(1, dowMask);
@@ -405,111 +1391,533 @@ public class TaskDao {
 
             // 실행 및 결과 매핑
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Task t = new Task();
-
-                    // 필요한 최소 필드만 매핑 (UI에 제목/우선순위/반복태그를 보여주기 위함)
-                    t.id = rs.getInt("id");
-                    t.title = rs.getString("title");
-                    t.priority = rs.getInt("priority");
-                    t.isRecurring = rs.getInt("is_recurring"); // 1 고정
-
-                    // 필요하면 여기서 추가 필드도 매핑 가능:
-                    //   recur_days, recur_start, recur_until, recur_interval 등
-
-                    out.add(t);
-                }
+                TaskRowMapper.readAll(rs, out);
             }
 
         } catch (SQLException e) {
             // 실사용에선 로깅 권장. 여기서는 콘솔에 출력 후 빈 목록 반환.
-            e.printStackTrace();
+            reset();
+            LOG.error("listRecurringByDate 실패", e);
         }
 
         return out;
     }
 
-    public void updateCompleted(int id, boolean completed) throws SQLException {
-        String sql = "UPDATE tasks SET completed=? WHERE id=?";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    public boolean updateCompleted(int id, boolean completed) {
+        Boolean result = write("updateCompleted", prepare(new int[]{id}), w -> {
+            ChangeLog.completed(w, "[" + id + "]", completed);
+            int year = files.locate(w, id);
+            PreparedStatement ps = files.write(w, "updateCompleted", year, SQL_UPDATE_COMPLETED);
             ps.setInt(1, completed ? 1 : 0);
             ps.setInt(2, id);
-            ps.executeUpdate();
-        }
+            if (ps.executeUpdate() == 0 && year == 0 && !completed && restoreFromArchive(w, id)) {
+                // 보관된 일정을 "미완료"로 돌리면 다시 tasks로 복원
+                ps.executeUpdate();
+                return true;
+            }
+            return false;
+        }, restored -> {
+            if (restored) INDEX.invalidate();
+            else INDEX.setCompleted(id, completed);
+        });
+        return result != null;
     }
 
     // ✅ 달력용: 날짜별 [완료, 미완료] 카운트
     public Map<LocalDate, int[]> getDailyDoneTodoCounts(YearMonth ym) {
-        String ymPrefix = ym.toString(); // "YYYY-MM"
-
-        String sql = """
-                    SELECT substr(due_at,1,10) AS ymd,
-                           SUM(CASE WHEN completed = 1 THEN 1 ELSE 0 END) AS doneCnt,
-                           SUM(CASE WHEN completed = 0 THEN 1 ELSE 0 END) AS todoCnt
-                    FROM tasks
-                    WHERE due_at LIKE ? || '%'
-                    GROUP BY ymd
-                """;
+        try {
+            return readDailyStats(ym);
+        } catch (SQLException e) {
+            reset();
+            LOG.error("getDailyDoneTodoCounts 실패", e);
+            return new HashMap<>();
+        }
+    }
 
+    private Map<LocalDate, int[]> readDailyStats(YearMonth ym) throws SQLException {
         Map<LocalDate, int[]> map = new HashMap<>();
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, ymPrefix);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    LocalDate date = LocalDate.parse(rs.getString("ymd"));
-                    int done = rs.getInt("doneCnt");
-                    int todo = rs.getInt("todoCnt");
-                    map.put(date, new int[]{done, todo}); // [완료, 미완료]
-                }
+        PreparedStatement ps = monthStats(ym);
+        if (ps == null) return map;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                LocalDate date = LocalDate.parse(rs.getString(1));
+                int done = rs.getInt(2);
+                int todo = rs.getInt(3);
+                map.put(date, new int[]{done, todo}); // [완료, 미완료]
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return map;
     }
 
+    /** readDailyStats와 같은 행을 날짜(1일 = 0)별 배열에 바로 (Map/LocalDate/int[]를 날마다 만들지 않음) */
+    private void readDailyStats(YearMonth ym, int[] done, int[] todo) throws SQLException {
+        PreparedStatement ps = monthStats(ym);
+        if (ps == null) return;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String day = rs.getString(1);   // "YYYY-MM-DD"
+                int i = (day.charAt(8) - '0') * 10 + (day.charAt(9) - '0') - 1;
+                done[i] = rs.getInt(2);
+                todo[i] = rs.getInt(3);
+            }
+        }
+    }
+
+    /**
+     * 달력 한 달 + 오늘 목록을 읽기 트랜잭션 하나에서 (readConsistent)
+     * - 날짜 인덱스(DateIndex)와 보관 범위는 커밋 뒤에 따로 갱신돼 트랜잭션과 시점이 다를 수 있으므로 쓰지 않고 전부 SQL로
+     *   · 개수: 필터가 없으면 daily_stats, 있으면 그 달 단발 행을 읽어 태그로 거른 뒤 셈
+     *   · 반복: 규칙 전부를 한 번 읽어(부분 인덱스) 메모리에서 날짜마다 펼침 → 달력 점과 오늘 목록이 같은 규칙을 봄
+     *   · 오늘: 오늘까지 마감인 단발 (forEachDueUntil과 같은 문장)
+     * - 태그 비트맵(TagIndex)은 메모리 인덱스라 트랜잭션 밖 (태그만 바뀐 직후라면 잠깐 어긋날 수 있음)
+     */
+    @Override
+    public ViewSnapshot loadView(YearMonth month, LocalDate today, TagFilter filter) {
+        try {
+            // 그 달의 연도 + 오늘 목록용으로 오늘 연도까지 전부
+            return readConsistent(year -> year == month.getYear() || (today != null && year <= today.getYear()),
+                    () -> readView(month, today, filter));
+        } catch (SQLException e) {
+            reset();
+            LOG.error("loadView 실패", e);
+            return ViewSnapshot.of(month, Map.of(), new boolean[month.lengthOfMonth()], today, new ArrayList<>(), -1);
+        }
+    }
+
+    private ViewSnapshot readView(YearMonth month, LocalDate today, TagFilter filter) throws SQLException {
+        List<Task> rules = readRecurring();
+        if (filter != null) rules = filter.filter(this, rules);
+
+        int[] done = new int[month.lengthOfMonth()];
+        int[] todo = new int[month.lengthOfMonth()];
+        if (filter == null) {
+            readDailyStats(month, done, todo);
+        } else {
+            Map<LocalDate, int[]> counts =
+                    ViewSnapshot.count(filter.filter(this, readDueBetween(month.atDay(1), month.atEndOfMonth())));
+            for (Map.Entry<LocalDate, int[]> e : counts.entrySet()) {
+                done[e.getKey().getDayOfMonth() - 1] = e.getValue()[0];
+                todo[e.getKey().getDayOfMonth() - 1] = e.getValue()[1];
+            }
+        }
+
+        List<Task> todayTasks = null;
+        if (today != null) {
+            List<Task> due = new ArrayList<>();
+            dueUntil(today, false, t -> due.add(t.copy()));
+            todayTasks = filter == null ? due : filter.filter(this, due);
+            todayTasks.addAll(ViewSnapshot.occurrences(rules, today));
+        }
+        return new ViewSnapshot(month, done, todo, ViewSnapshot.recurringDays(month, rules), today, todayTasks,
+                readVersion());
+    }
+
+    /**
+     * from ~ to(포함) 날짜별 할 일 (주간 보기, 날짜 모달)
+     * - 단발: 범위 조회 한 번 (파티션 모드면 걸치는 연도 파일마다, 보관 범위면 보관 테이블도) → 날짜별로 나눠 우선순위·마감 순
+     * - 반복: 규칙 전부를 한 번 읽어 메모리에서 날짜마다 펼침 (날마다 listRecurringByDate를 부르지 않음)
+     *   → 같은 반복 업무는 여러 날에 같은 Task 객체로 들어감
+     * - loadView처럼 읽기 트랜잭션 하나에서 (날짜 인덱스를 거치지 않음)
+     */
+    @Override
+    public SortedMap<LocalDate, List<Task>> listBetween(LocalDate from, LocalDate to) {
+        try {
+            return readConsistent(year -> year >= from.getYear() && year <= to.getYear(), () -> {
+                List<Task> rules = readRecurring();
+                SortedMap<LocalDate, List<Task>> out = new TreeMap<>();
+                for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) out.put(d, new ArrayList<>());
+                for (Task t : readDueBetween(from, to)) out.get(LocalDate.parse(t.dueAt.substring(0, 10))).add(t);
+                for (Map.Entry<LocalDate, List<Task>> day : out.entrySet()) {
+                    // listByDate와 같은 순서 (우선순위, 마감, id)
+                    day.getValue().sort((a, b) -> a.priority != b.priority ? Integer.compare(a.priority, b.priority)
+                            : a.dueAt.equals(b.dueAt) ? Integer.compare(a.id, b.id) : a.dueAt.compareTo(b.dueAt));
+                    day.getValue().addAll(ViewSnapshot.occurrences(rules, day.getKey()));
+                }
+                return out;
+            });
+        } catch (SQLException e) {
+            reset();
+            LOG.error("listBetween 실패", e);
+            return new TreeMap<>();
+        }
+    }
+
+    /**
+     * DB 버전 스탬프 = change_log의 마지막 seq (추가/수정/삭제/완료/동기화 적용마다 커짐)
+     * - 보관·파티션 이동처럼 위치만 바뀌는 것은 기록되지 않음 (앱 안에서만 일어나고, 종료할 때 첫 화면 캐시를 다시 씀)
+     */
+    @Override
+    public long version() {
+        try {
+            return readVersion();
+        } catch (SQLException e) {
+            reset();
+            LOG.error("version 실패", e);
+            return -1;
+        }
+    }
+
+    private long readVersion() throws SQLException {
+        try (ResultSet rs = stmt("version", SQL_VERSION).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    /** 반복 규칙 전부 (우선순위, 제목 순) */
+    private List<Task> readRecurring() throws SQLException {
+        List<Task> rules = new ArrayList<>();
+        try (ResultSet rs = stmt("listRecurring", SQL_LIST_RECURRING).executeQuery()) {
+            TaskRowMapper.readAll(rs, rules);
+        }
+        return rules;
+    }
+
+    /** 단발 일정 범위 조회를 SQL로만 (tasks + 보관 범위면 tasks_archive + 걸치는 연도 파일들) */
+    private List<Task> readDueBetween(LocalDate from, LocalDate to) throws SQLException {
+        List<Task> out = new ArrayList<>();
+        readBetween(stmt("listDueBetween", SQL_LIST_DUE_BETWEEN), from, to, out);
+        if (from.toString().compareTo(archiveHorizon()) <= 0) {
+            readBetween(stmt("archiveListBetween", SQL_ARCHIVE_LIST_BETWEEN), from, to, out);
+        }
+        for (int year : files.years()) {
+            if (year < from.getYear() || year > to.getYear()) continue;
+            PreparedStatement ps = stmt("listDueBetween", year, SQL_LIST_DUE_BETWEEN);
+            if (ps != null) readBetween(ps, from, to, out);
+        }
+        return out;
+    }
+
+    private static void readBetween(PreparedStatement ps, LocalDate from, LocalDate to, List<Task> out) throws SQLException {
+        ps.setString(1, from.toString());
+        ps.setString(2, to.toString());
+        try (ResultSet rs = ps.executeQuery()) {
+            TaskRowMapper.readAll(rs, out);
+        }
+    }
+
+    /** 한 트랜잭션 안에서 하는 읽기 */
+    @FunctionalInterface
+    private interface SqlRead<T> {
+        T read() throws SQLException;
+    }
+
+    /**
+     * 읽기 트랜잭션 하나에서 read 실행 (WAL이라 BEGIN 뒤 첫 읽기 시점의 DB를 끝까지 봄)
+     * - ATTACH는 트랜잭션 안에서 못 하므로 years에 드는 연도 파일(연도별 파티션)을 BEGIN 전에 붙임
+     *   · 그 수가 MAX_ATTACHED개를 넘으면 (SQLite 한도 10) readValidated로
+     */
+    private <T> T readConsistent(IntPredicate years, SqlRead<T> read) throws SQLException {
+        Connection conn = connection();
+        if (!files.attachAll(stmts, years)) return readValidated(read);
+        try (Statement st = conn.createStatement()) {
+            st.execute("BEGIN");
+            try {
+                T result = read.read();
+                st.execute("COMMIT");
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                // ROLLBACK 실패가 원래 예외를 덮지 않게
+                try {
+                    st.execute("ROLLBACK");
+                } catch (SQLException rollback) {
+                    e.addSuppressed(rollback);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 연도 파일을 한 트랜잭션에 다 붙일 수 없을 때: 트랜잭션 없이 읽되(조회 사이에 붙였다 뗌) 앞뒤 버전 스탬프가 같은 결과만
+     * - 내용을 바꾸는 쓰기는 모두 같은 트랜잭션에서 main.change_log에 남기므로 스탬프가 같으면 그 사이 커밋이 없음
+     * - 쓰기가 계속 끼어들면 CONSISTENT_READ_TRIES번째 결과를 경고 로그와 함께 돌려줌
+     */
+    private <T> T readValidated(SqlRead<T> read) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            long before = readVersion();
+            T result = read.read();
+            if (readVersion() == before) return result;
+            if (attempt == CONSISTENT_READ_TRIES) {
+                LOG.warn("연도 파일이 {}개보다 많아 트랜잭션 없이 읽는 동안 쓰기가 계속 끼어듦 ({}번) → 시점이 섞였을 수 있음",
+                        StatementCache.MAX_ATTACHED, attempt);
+                return result;
+            }
+            LOG.debug("읽는 도중 쓰기가 끼어들어 다시 읽음 ({}번째)", attempt);
+        }
+    }
+
     // ✅ 오늘(또는 인자로 준 날짜)까지 마감인 단발 일정만 가져오기
     public List<Task> listDueUntil(LocalDate until, boolean onlyUncompleted) {
         String ymd = until.toString(); // "YYYY-MM-DD"
-        String sql = """
-                SELECT id, title, priority, due_at, is_recurring, next_fire_at, created_at, completed
-                FROM tasks
-                WHERE is_recurring = 0
-                  AND due_at IS NOT NULL
-                  AND substr(due_at, 1, 10) <= ?
-                """ + (onlyUncompleted ? " AND completed = 0 " : "") + """
-                    ORDER BY substr(due_at, 1, 10) ASC, priority ASC
-                """;
 
         List<Task> out = new ArrayList<>();
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try {
+            PreparedStatement ps = onlyUncompleted
+                    ? stmt("listDueUntilOpen", SQL_LIST_DUE_UNTIL_OPEN)
+                    : stmt("listDueUntil", SQL_LIST_DUE_UNTIL);
 
             ps.setString(1, ymd);
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Task t = new Task();
-                    t.id = rs.getInt("id");
-                    t.title = rs.getString("title");
-                    t.priority = rs.getInt("priority");
-                    t.dueAt = rs.getString("due_at");
-                    t.isRecurring = rs.getInt("is_recurring");
-                    t.nextFireAt = rs.getString("next_fire_at");
-                    t.createdAt = rs.getString("created_at");
-                    t.completed = rs.getInt("completed") == 1;
-                    out.add(t);
+                TaskRowMapper.readAll(rs, out);
+            }
+            dueUntilInYears(until, onlyUncompleted, new Task(), t -> out.add(t.copy()));
+        } catch (SQLException e) {
+            reset();
+            LOG.error("listDueUntil 실패", e);
+        }
+        return out;
+    }
+
+    /**
+     * listDueUntil의 스트리밍 버전
+     * - 목록을 만들지 않고 Task 하나를 버퍼로 재사용 → 행 수와 상관없이 메모리 일정
+     */
+    @Override
+    public void forEachDueUntil(LocalDate until, boolean onlyUncompleted, Consumer<Task> sink) {
+        try {
+            dueUntil(until, onlyUncompleted, sink);
+        } catch (SQLException e) {
+            reset();
+            LOG.error("forEachDueUntil 실패", e);
+        }
+    }
+
+    private void dueUntil(LocalDate until, boolean onlyUncompleted, Consumer<Task> sink) throws SQLException {
+        String id = onlyUncompleted ? "listDueUntilOpen" : "listDueUntil";
+        String sql = onlyUncompleted ? SQL_LIST_DUE_UNTIL_OPEN : SQL_LIST_DUE_UNTIL;
+        Task buf = new Task();
+        readEach(stmt(id, sql), until.toString(), buf, sink);
+        dueUntilInYears(until, onlyUncompleted, buf, sink);
+    }
+
+    /** dueUntil의 연도 파일 몫 (todo.db 다음에 이어 읽음) */
+    private void dueUntilInYears(LocalDate until, boolean onlyUncompleted, Task buf, Consumer<Task> sink) throws SQLException {
+        int[] years = files.years();
+        if (years.length == 0) return;
+        String id = onlyUncompleted ? "listDueUntilOpen" : "listDueUntil";
+        String sql = onlyUncompleted ? SQL_LIST_DUE_UNTIL_OPEN : SQL_LIST_DUE_UNTIL;
+        // 보관하는 경우와 같은 결과가 되게: 보관 기간이 지난 완료 일정은 뺌
+        //   (연도 전체가 그 기간이면 미완료 문장으로 읽어서 지난 연도의 완료 행은 아예 안 읽음)
+        String hideDoneBefore = onlyUncompleted || MaintenanceService.ARCHIVE_AFTER_DAYS <= 0
+                ? "" : LocalDate.now().minusDays(MaintenanceService.ARCHIVE_AFTER_DAYS).toString();
+        Consumer<Task> recent = t -> {
+            if (!t.completed || t.dueAt.substring(0, 10).compareTo(hideDoneBefore) >= 0) sink.accept(t);
+        };
+        // 연도 순 = 마감일 순 → 연도 파일을 오름차순으로 이어 읽으면 전체를 정렬한 것과 같음
+        for (int year : years) {
+            if (year > until.getYear()) break;
+            boolean oldYear = LocalDate.of(year, 12, 31).toString().compareTo(hideDoneBefore) < 0;
+            PreparedStatement ps = oldYear
+                    ? stmt("listDueUntilOpen", year, SQL_LIST_DUE_UNTIL_OPEN)
+                    : stmt(id, year, sql);
+            if (ps != null) readEach(ps, until.toString(), buf, hideDoneBefore.isEmpty() ? sink : recent);
+        }
+    }
+
+    /** 1번 ?에 value를 넣고 결과를 Task 버퍼 하나로 흘려 보냄 (value가 null이면 바인딩 없음) */
+    private static void readEach(PreparedStatement ps, String value, Task buf, Consumer<Task> sink) throws SQLException {
+        if (value != null) ps.setString(1, value);
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                TaskRowMapper.readInto(rs, buf);
+                sink.accept(buf);
+            }
+        }
+    }
+
+    /** tasks → tasks_archive (→ 연도 파일들) 순으로 전부 스트리밍 (Task 버퍼 하나 재사용) */
+    @Override
+    public void forEachTask(Consumer<Task> sink) {
+        try {
+            Task buf = new Task();
+            readEach(stmt("allTasks", SQL_ALL_TASKS), null, buf, sink);
+            for (int year : files.years()) {
+                PreparedStatement ps = stmt("partAll", year, SQL_PART_ALL);
+                if (ps != null) readEach(ps, null, buf, sink);
+            }
+        } catch (SQLException e) {
+            reset();
+            LOG.error("forEachTask 실패", e);
+        }
+    }
+
+    @Override
+    public void forEachRecurringCompletion(CompletionSink sink) {
+        try (ResultSet rs = stmt("recurringCompletions", SQL_RECURRING_COMPLETIONS).executeQuery()) {
+            while (rs.next()) sink.accept(rs.getInt(1), rs.getLong(2));
+        } catch (SQLException e) {
+            reset();
+            LOG.error("forEachRecurringCompletion 실패", e);
+        }
+    }
+
+    // ✅ 날짜 인덱스 기반 조회 ---------------------------------------
+
+    /** from ~ to(포함) 사이가 마감인 단발 일정 (마감일, id 순, 보관 범위에 걸치면 보관분 포함) */
+    @Override
+    public List<Task> listDueBetween(LocalDate from, LocalDate to) {
+        try {
+            List<Task> out = listByIds(index().idsBetween(from, to));
+            if (from.toString().compareTo(archiveHorizon()) <= 0) {
+                PreparedStatement ap = stmt("archiveListBetween", SQL_ARCHIVE_LIST_BETWEEN);
+                ap.setString(1, from.toString());
+                ap.setString(2, to.toString());
+                int before = out.size();
+                try (ResultSet rs = ap.executeQuery()) {
+                    TaskRowMapper.readAll(rs, out);
+                }
+                if (out.size() > before) {
+                    out.sort((a, b) -> {
+                        int c = a.dueAt.substring(0, 10).compareTo(b.dueAt.substring(0, 10));
+                        return c != 0 ? c : Integer.compare(a.id, b.id);
+                    });
                 }
             }
+            return out;
+        } catch (SQLException e) {
+            reset();
+            LOG.error("listDueBetween 실패", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /** today 이전 마감인데 아직 미완료인 단발 일정 (오래된 순) */
+    public List<Task> listOverdue(LocalDate today) {
+        try {
+            return listByIds(index().overdueIds(today));
         } catch (SQLException e) {
-            e.printStackTrace();
+            reset();
+            LOG.error("listOverdue 실패", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /** from 이후(포함) 마감인 미완료 단발 일정 중 가까운 순으로 limit개 */
+    public List<Task> listUpcoming(LocalDate from, int limit) {
+        try {
+            return listByIds(index().upcomingIds(from, limit));
+        } catch (SQLException e) {
+            reset();
+            LOG.error("listUpcoming 실패", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /** 인덱스가 고른 id들의 행을 한 번에 읽기 */
+    private List<Task> listByIds(int[] ids) throws SQLException {
+        List<Task> out = new ArrayList<>(ids.length);
+        if (ids.length == 0) return out;
+
+        connection();
+        Map<Integer, int[]> byYear = files.locate(stmts, ids);
+        for (Map.Entry<Integer, int[]> part : byYear.entrySet()) {
+            PreparedStatement ps = stmt("listByIds", part.getKey(), SQL_LIST_BY_IDS);
+            if (ps == null) continue;
+            ps.setString(1, idsJson(part.getValue()));
+            try (ResultSet rs = ps.executeQuery()) {
+                TaskRowMapper.readAll(rs, out);
+            }
+        }
+        // 파일 여러 개에서 읽었으면 한 번에 읽은 것과 같은 순서로 (마감 날짜, id)
+        if (byYear.size() > 1) {
+            out.sort((a, b) -> {
+                int c = a.dueAt.substring(0, 10).compareTo(b.dueAt.substring(0, 10));
+                return c != 0 ? c : Integer.compare(a.id, b.id);
+            });
         }
         return out;
     }
 
+    /** [1,2,3] 형식 (json_each 바인딩용) */
+    static String idsJson(int[] ids) {
+        StringBuilder json = new StringBuilder(ids.length * 6 + 2).append('[');
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) json.append(',');
+            json.append(ids[i]);
+        }
+        return json.append(']').toString();
+    }
 
-}
+    // ✅ 보관(archive) ---------------------------------------------
 
+    /**
+     * before 이전 마감인 완료 단발 일정을 최대 limit개 tasks_archive로 옮긴다 (트랜잭션 1번)
+     * - 여러 번 나눠 부르면 쓰기 락을 짧게만 잡음 (MaintenanceService가 유휴 시간에 호출)
+     * - todo.db의 tasks에서만 (연도 파일에 있는 일정은 안 옮김 → 지난 연도 파일이 보관 역할)
+     *
+     * @return 옮긴 개수 (limit보다 작으면 더 옮길 것이 없음)
+     */
+    public int archiveCompletedBatch(LocalDate before, int limit) {
+        int[] ids = write("archiveCompleted", w -> {
+            PreparedStatement pick = w.get("archivePick", SQL_ARCHIVE_PICK);
+            pick.setString(1, before.toString());
+            pick.setInt(2, limit);
+            int[] picked = new int[limit];
+            int n = 0;
+            try (ResultSet rs = pick.executeQuery()) {
+                while (rs.next()) picked[n++] = rs.getInt(1);
+            }
+            if (n == 0) return new int[0];
+
+            String json = idsJson(java.util.Arrays.copyOf(picked, n));
+            PreparedStatement copy = w.get("archiveCopy", SQL_ARCHIVE_COPY);
+            copy.setString(1, json);
+            copy.executeUpdate();
+            PreparedStatement remove = w.get("archiveRemoveHot", SQL_ARCHIVE_REMOVE_HOT);
+            remove.setString(1, json);
+            remove.executeUpdate();
+            return java.util.Arrays.copyOf(picked, n);
+        }, moved -> {
+            if (moved.length == 0) return;
+            for (int id : moved) INDEX.remove(id);
+            archiveHorizon = null; // 다음 조회 때 다시 계산
+        });
+        if (ids == null || ids.length == 0) return 0;
+
+        LOG.info("완료 일정 보관: {}개 (before {})", ids.length, before);
+        return ids.length;
+    }
 
+    /** olderThanDays일보다 오래된 완료 단발 일정을 전부 보관 (batchSize개씩) */
+    public int archiveCompleted(int olderThanDays, int batchSize) {
+        LocalDate before = LocalDate.now().minusDays(olderThanDays);
+        int total = 0, moved;
+        do {
+            moved = archiveCompletedBatch(before, batchSize);
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    /** 보관된 행 하나를 tasks로 되돌림 (트랜잭션 안에서 호출) */
+    private static boolean restoreFromArchive(StatementCache w, int id) throws SQLException {
+        PreparedStatement copy = w.get("restoreCopy", SQL_RESTORE_COPY);
+        copy.setInt(1, id);
+        if (copy.executeUpdate() == 0) return false;
+        PreparedStatement del = w.get("archiveDeleteById", SQL_ARCHIVE_DELETE_BY_ID);
+        del.setInt(1, id);
+        del.executeUpdate();
+        return true;
+    }
 
+    private String archiveHorizon() throws SQLException {
+        String h = archiveHorizon;
+        if (h == null) {
+            try (ResultSet rs = stmt("archiveHorizon", SQL_ARCHIVE_HORIZON).executeQuery()) {
+                String max = rs.next() ? rs.getString(1) : null;
+                h = max == null ? "" : max;
+            }
+            archiveHorizon = h;
+        }
+        return h;
+    }
+
+    /** daily_stats 한 달 범위 조회 준비 (1일 ~ 말일), 그 달이 있는 파일의 daily_stats (연도 파일이 없으면 null) */
+    private PreparedStatement monthStats(YearMonth ym) throws SQLException {
+        PreparedStatement ps = stmt("dailyStats", files.yearOf(ym.atDay(1)), SQL_DAILY_STATS);
+        if (ps == null) return null;
+        ps.setString(1, ym.atDay(1).toString());
+        ps.setString(2, ym.atEndOfMonth().toString());
+        return ps;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.organizer;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * 할 일 행이 어느 DB 파일에 있는지 (TaskDao의 저장 위치 라우팅)
+ * - TaskDao는 "연도"만 넘기고, 어느 파일/schema의 문장인지는 여기서 정함 (0 = todo.db)
+ * - Single: todo.db 하나 → 연도는 언제나 0, 붙일 파일 없음
+ * - YearFiles: 연도별 파티션 모드 (Partitions) → 마감 있는 단발 일정은 마감 연도 파일
+ */
+interface TaskFiles {
+
+    /** url의 DB에 맞는 라우팅 (파티션 모드면 YearFiles) */
+    static TaskFiles of(String url) {
+        return Partitions.enabled(url) ? new YearFiles(url) : Single.INSTANCE;
+    }
+
+    /** 이 행이 들어갈 곳 (0 = todo.db) */
+    int yearOf(String dueAt, int isRecurring);
+
+    /** day가 마감인 단발 일정이 있는 곳 (날짜/월 조회용) */
+    default int yearOf(LocalDate day) {
+        return yearOf(day.toString(), 0);
+    }
+
+    /** todo.db 말고 파일이 있는 연도 (오름차순, 없으면 빈 배열) */
+    int[] years();
+
+    /**
+     * 읽기 연결에 year 파일을 붙이고 schema 이름 (0 = "main")
+     *
+     * @return null = 그 연도 파일이 없음 (읽을 것도 없음)
+     */
+    String open(StatementCache r, int year) throws SQLException;
+
+    /** 읽기 연결에서 year용 문장 (그 연도 파일이 없으면 null) */
+    PreparedStatement read(StatementCache r, String id, int year, String sql) throws SQLException;
+
+    /** 쓰기 연결에서 year용 문장, attach로 붙여 두지 않은 연도면 실패 (prepare 이후 위치가 바뀐 경우) */
+    PreparedStatement write(StatementCache w, String id, int year, String sql) throws SQLException;
+
+    /** id들을 있는 곳별로 나눔 (연도 → id들, 0 = todo.db), 쓰기/읽기 연결 모두에서 사용 */
+    Map<Integer, int[]> locate(StatementCache sc, int[] ids) throws SQLException;
+
+    /** id 하나가 있는 곳 */
+    default int locate(StatementCache sc, int id) throws SQLException {
+        return locate(sc, new int[]{id}).keySet().iterator().next();
+    }
+
+    /**
+     * 연도 파일들을 쓰기 연결에 붙임 (트랜잭션 전 prepare에서, 0은 건너뜀, 없는 파일은 새로 만듦)
+     *
+     * @throws SQLException 한 트랜잭션에 붙일 수 있는 수(MAX_ATTACHED)보다 많은 연도
+     */
+    Void attach(StatementCache w, Set<Integer> years) throws SQLException;
+
+    /**
+     * years에 드는 연도 파일을 전부 읽기용으로 붙임 (읽기 트랜잭션 BEGIN 전에)
+     *
+     * @return false = MAX_ATTACHED개를 넘어서 한 번에 붙여 둘 수 없음 (아무것도 안 붙임)
+     */
+    boolean attachAll(StatementCache r, IntPredicate years) throws SQLException;
+
+    /** ids가 이제 year에 있다고 기록 (트랜잭션 안, 0 = todo.db로 돌아옴) */
+    void place(StatementCache w, int year, int... ids) throws SQLException;
+
+    /** todo.db 하나: 모든 행이 main */
+    final class Single implements TaskFiles {
+
+        static final Single INSTANCE = new Single();
+
+        private static final int[] NO_YEARS = new int[0];
+
+        private Single() {
+        }
+
+        @Override
+        public int yearOf(String dueAt, int isRecurring) {
+            return 0;
+        }
+
+        @Override
+        public int[] years() {
+            return NO_YEARS;
+        }
+
+        @Override
+        public String open(StatementCache r, int year) {
+            return "main";
+        }
+
+        @Override
+        public PreparedStatement read(StatementCache r, String id, int year, String sql) throws SQLException {
+            return r.get(id, sql);
+        }
+
+        @Override
+        public PreparedStatement write(StatementCache w, String id, int year, String sql) throws SQLException {
+            return w.get(id, sql);
+        }
+
+        @Override
+        public Map<Integer, int[]> locate(StatementCache sc, int[] ids) {
+            return Map.of(0, ids);
+        }
+
+        @Override
+        public Void attach(StatementCache w, Set<Integer> years) {
+            return null;
+        }
+
+        @Override
+        public boolean attachAll(StatementCache r, IntPredicate years) {
+            return true;
+        }
+
+        @Override
+        public void place(StatementCache w, int year, int... ids) {
+        }
+    }
+}
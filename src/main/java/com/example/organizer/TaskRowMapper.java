@@ -0,0 +1,61 @@
+package com.example.organizer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * tasks 행 → Task 변환을 한 곳에서 처리하는 공용 매퍼
+ * - 컬럼 이름 대신 "인덱스"로 읽음 → 행마다 이름 조회 비용 없음
+ * - 그래서 SELECT 절은 반드시 {@link #COLUMNS} 순서를 따라야 함
+ */
+public final class TaskRowMapper {
+
+    /** 모든 조회 SQL이 공유하는 SELECT 컬럼 목록 (순서 = 아래 인덱스) */
+    public static final String COLUMNS =
+            "id, title, priority, due_at, is_recurring, next_fire_at, created_at, completed, "
+                    + "recur_days, recur_start, recur_until, recur_interval";
+
+    private static final int ID = 1;
+    private static final int TITLE = 2;
+    private static final int PRIORITY = 3;
+    private static final int DUE_AT = 4;
+    private static final int IS_RECURRING = 5;
+    private static final int NEXT_FIRE_AT = 6;
+    private static final int CREATED_AT = 7;
+    private static final int COMPLETED = 8;
+    private static final int RECUR_DAYS = 9;
+    private static final int RECUR_START = 10;
+    private static final int RECUR_UNTIL = 11;
+    private static final int RECUR_INTERVAL = 12;
+
+    private TaskRowMapper() { }
+
+    /**
+     * 현재 행을 주어진 Task에 덮어쓴다
+     * - 스트리밍처럼 행을 하나씩 보고 버리는 곳에서는 Task 하나를 버퍼로 재사용 가능
+     */
+    public static void readInto(ResultSet rs, Task t) throws SQLException {
+        t.id = rs.getInt(ID);
+        t.title = rs.getString(TITLE);
+        t.priority = rs.getInt(PRIORITY);
+        t.dueAt = rs.getString(DUE_AT);
+        t.isRecurring = rs.getInt(IS_RECURRING);
+        t.nextFireAt = rs.getString(NEXT_FIRE_AT);
+        t.createdAt = rs.getString(CREATED_AT);
+        t.completed = rs.getInt(COMPLETED) == 1;
+        t.recurDays = rs.getInt(RECUR_DAYS);
+        t.recurStart = rs.getString(RECUR_START);
+        t.recurUntil = rs.getString(RECUR_UNTIL);
+        t.recurInterval = Math.max(1, rs.getInt(RECUR_INTERVAL));
+    }
+
+    /** 남은 행을 모두 새 Task로 만들어 out에 추가 */
+    public static void readAll(ResultSet rs, List<Task> out) throws SQLException {
+        while (rs.next()) {
+            Task t = new Task();
+            readInto(rs, t);
+            out.add(t);
+        }
+    }
+}
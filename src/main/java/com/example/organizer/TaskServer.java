@@ -0,0 +1,431 @@
+package com.example.organizer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 로컬 HTTP/JSON 서버 모드 (여러 클라이언트/스크립트가 같은 todo.db를 공유)
+ * - JDK HttpServer + 요청마다 가상 스레드 하나
+ * - 읽기: TaskDao 여러 개를 담은 풀에서 빌려 씀 (WAL 모드라 읽기끼리 동시 실행)
+ * - 쓰기: TaskDao가 프로세스 공용 DbWriter 스레드로 넘겨 직렬화 → "database is locked" 경쟁 없음
+ *   · 재시도까지 실패한 쓰기는 503 으로 응답
+ * - 기본은 127.0.0.1 에만 바인딩 (외부 노출 안 함)
+ * - 브라우저가 다른 사이트에서 보낸 요청은 403 (foreignRequest 참고)
+ *
+ * 엔드포인트
+ *   GET    /tasks?date=YYYY-MM-DD                → listByDate
+ *   GET    /tasks/due?until=YYYY-MM-DD&open=true → listDueUntil
+ *   GET    /tasks/recurring?date=YYYY-MM-DD      → listRecurringByDate
+ *   GET    /tasks/range?from=YYYY-MM-DD&to=YYYY-MM-DD → listBetween (날짜 → 목록, 최대 MAX_RANGE_DAYS일)
+ *   GET    /calendar?month=YYYY-MM               → 날짜별 [완료, 미완료] + 반복 여부
+ *   POST   /tasks            (form: title, priority, dueAt)                           → addTask
+ *   POST   /tasks/recurring  (form: title, priority, days, start, until, interval, time) → addRecurringTask
+ *   PUT    /tasks/{id}       (form: title, priority, dueAt, recurring, nextFireAt — 빠진 칸은 비움) → updateTask
+ *   POST   /tasks/{id}/completed?value=true|false → updateCompleted
+ *   POST   /tasks/completed?value=true|false (form: ids=1,2,3) → updateCompletedBatch
+ *   POST   /tasks/delete     (form: ids=1,2,3)  → deleteByIds
+ *   DELETE /tasks/{id}                            → deleteById
+ *   GET    /tags                                  → allTags
+ *   GET    /tasks/{id}/tags                       → tagsOf
+ *   PUT    /tasks/{id}/tags  (form: tags=a,b)     → setTags
+ *   GET    /filters                               → savedFilters (이름 → 조건 글)
+ *   PUT    /filters/{name}   (form: spec)         → saveFilter
+ *   DELETE /filters/{name}                        → deleteFilter
+ *   GET    /filters/{name}/tasks?today=YYYY-MM-DD&limit=N → 저장된 보기로 query
+ */
+public class TaskServer implements AutoCloseable {
+
+    private static final Log LOG = Log.get("SERVER");
+
+    /** /tasks/range 한 번에 펼칠 최대 일수 (날마다 반복 규칙을 보므로 너무 긴 구간은 막음) */
+    private static final int MAX_RANGE_DAYS = 366;
+    /** /filters/{name}/tasks 기본/최대 개수 */
+    private static final int DEFAULT_QUERY_LIMIT = 200;
+    private static final int MAX_QUERY_LIMIT = 2000;
+
+    private final HttpServer http;
+    private final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final BlockingQueue<TaskDao> readers;
+    /** 쓰기 전용 DAO: 쓰기 메서드는 자기 연결을 안 쓰고 DbWriter로 넘기므로 여러 요청 스레드가 같이 써도 됨 */
+    private final TaskDao writeDao = new TaskDao();
+
+    /**
+     * @param port        포트 (0이면 빈 포트 자동 선택)
+     * @param readerCount 읽기용 TaskDao(연결) 개수
+     */
+    public TaskServer(int port, int readerCount) throws IOException {
+        readers = new ArrayBlockingQueue<>(readerCount);
+        for (int i = 0; i < readerCount; i++) readers.add(new TaskDao());
+
+        http = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        http.setExecutor(requestExecutor);
+        http.createContext("/", this::handle);
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    public int port() {
+        return http.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        http.stop(0);
+        requestExecutor.shutdown();
+        writeDao.close();
+        for (TaskDao dao : readers) dao.close();
+    }
+
+    // ==============================================================
+    // 라우팅
+    // ==============================================================
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            String method = ex.getRequestMethod();
+            String path = ex.getRequestURI().getPath();
+            Map<String, String> q = parseForm(ex.getRequestURI().getRawQuery());
+            String[] seg = path.replaceAll("^/+|/+$", "").split("/");
+
+            String foreign = foreignRequest(ex);
+            if (foreign != null) {
+                LOG.warn("다른 사이트 요청 거부: {} {} ({})", method, path, foreign);
+                send(ex, 403, error("다른 사이트에서 온 요청은 받지 않음"));
+                return;
+            }
+
+            try {
+                String body;
+                if ("GET".equals(method) && path.equals("/tasks")) {
+                    LocalDate date = LocalDate.parse(required(q, "date"));
+                    body = read(dao -> toJson(dao.listByDate(date)));
+                } else if ("GET".equals(method) && path.equals("/tasks/due")) {
+                    LocalDate until = LocalDate.parse(required(q, "until"));
+                    boolean open = Boolean.parseBoolean(q.getOrDefault("open", "true"));
+                    body = read(dao -> toJson(dao.listDueUntil(until, open)));
+                } else if ("GET".equals(method) && path.equals("/tasks/recurring")) {
+                    LocalDate date = LocalDate.parse(required(q, "date"));
+                    body = read(dao -> toJson(dao.listRecurringByDate(date)));
+                } else if ("GET".equals(method) && path.equals("/tasks/range")) {
+                    LocalDate from = LocalDate.parse(required(q, "from"));
+                    LocalDate to = LocalDate.parse(required(q, "to"));
+                    if (to.isBefore(from) || from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+                        throw new IllegalArgumentException("from ≤ to, 최대 " + MAX_RANGE_DAYS + "일");
+                    }
+                    body = read(dao -> rangeJson(dao.listBetween(from, to)));
+                } else if ("GET".equals(method) && path.equals("/calendar")) {
+                    YearMonth ym = YearMonth.parse(required(q, "month"));
+                    body = read(dao -> calendarJson(dao, ym));
+                } else if ("POST".equals(method) && path.equals("/tasks")) {
+                    Map<String, String> f = parseForm(readBody(ex));
+                    String title = required(f, "title");
+                    int priority = Integer.parseInt(f.getOrDefault("priority", "2"));
+                    String dueAt = f.get("dueAt");
+                    body = write(dao -> dao.addTask(title, priority, dueAt));
+                } else if ("POST".equals(method) && path.equals("/tasks/recurring")) {
+                    Map<String, String> f = parseForm(readBody(ex));
+                    String title = required(f, "title");
+                    int priority = Integer.parseInt(f.getOrDefault("priority", "2"));
+                    int days = Integer.parseInt(required(f, "days"));
+                    String start = required(f, "start");
+                    String until = f.get("until");
+                    int interval = Integer.parseInt(f.getOrDefault("interval", "1"));
+                    String time = f.getOrDefault("time", "");
+                    body = write(dao -> dao.addRecurringTask(title, priority, days, start, until, interval, time));
+                } else if ("PUT".equals(method) && seg.length == 2 && seg[0].equals("tasks")) {
+                    Map<String, String> f = parseForm(readBody(ex));
+                    Task task = new Task();
+                    task.id = Integer.parseInt(seg[1]);
+                    task.title = required(f, "title");
+                    task.priority = Integer.parseInt(f.getOrDefault("priority", "2"));
+                    task.dueAt = f.get("dueAt");
+                    task.isRecurring = Boolean.parseBoolean(f.get("recurring")) ? 1 : 0;
+                    task.nextFireAt = f.get("nextFireAt");
+                    body = write(dao -> dao.updateTask(task));
+                } else if ("POST".equals(method) && path.equals("/tasks/completed")) {
+                    int[] ids = ids(parseForm(readBody(ex)));
+                    boolean value = Boolean.parseBoolean(q.getOrDefault("value", "true"));
+                    body = write(dao -> dao.updateCompletedBatch(ids, value));
+                } else if ("POST".equals(method) && path.equals("/tasks/delete")) {
+                    int[] ids = ids(parseForm(readBody(ex)));
+                    body = write(dao -> dao.deleteByIds(ids));
+                } else if ("POST".equals(method) && seg.length == 3 && seg[0].equals("tasks") && seg[2].equals("completed")) {
+                    int id = Integer.parseInt(seg[1]);
+                    boolean value = Boolean.parseBoolean(q.getOrDefault("value", "true"));
+                    body = write(dao -> dao.updateCompleted(id, value));
+                } else if ("DELETE".equals(method) && seg.length == 2 && seg[0].equals("tasks")) {
+                    int id = Integer.parseInt(seg[1]);
+                    body = write(dao -> dao.deleteById(id));
+                } else if ("GET".equals(method) && path.equals("/tags")) {
+                    body = read(dao -> toJsonStrings(dao.allTags()));
+                } else if ("GET".equals(method) && seg.length == 3 && seg[0].equals("tasks") && seg[2].equals("tags")) {
+                    int id = Integer.parseInt(seg[1]);
+                    body = read(dao -> toJsonStrings(dao.tagsOf(id)));
+                } else if ("PUT".equals(method) && seg.length == 3 && seg[0].equals("tasks") && seg[2].equals("tags")) {
+                    int id = Integer.parseInt(seg[1]);
+                    String raw = parseForm(readBody(ex)).getOrDefault("tags", "");
+                    List<String> tags = raw.isBlank() ? List.of() : Arrays.asList(raw.split(","));
+                    body = write(dao -> dao.setTags(id, tags));
+                } else if ("GET".equals(method) && path.equals("/filters")) {
+                    body = read(dao -> filtersJson(dao.savedFilters()));
+                } else if ("PUT".equals(method) && seg.length == 2 && seg[0].equals("filters")) {
+                    String name = seg[1];
+                    SmartFilter filter = SmartFilter.parse(parseForm(readBody(ex)).getOrDefault("spec", ""));
+                    body = write(dao -> dao.saveFilter(name, filter));
+                } else if ("DELETE".equals(method) && seg.length == 2 && seg[0].equals("filters")) {
+                    String name = seg[1];
+                    body = write(dao -> dao.deleteFilter(name));
+                } else if ("GET".equals(method) && seg.length == 3 && seg[0].equals("filters") && seg[2].equals("tasks")) {
+                    String name = seg[1];
+                    LocalDate today = q.containsKey("today") ? LocalDate.parse(q.get("today")) : LocalDate.now();
+                    int limit = Math.min(MAX_QUERY_LIMIT, Integer.parseInt(q.getOrDefault("limit", "" + DEFAULT_QUERY_LIMIT)));
+                    body = read(dao -> {
+                        SmartFilter filter = dao.savedFilters().get(name);
+                        return filter == null ? null : toJson(dao.query(filter, today, limit));
+                    });
+                    if (body == null) {
+                        send(ex, 404, error("저장된 보기 없음: " + name));
+                        return;
+                    }
+                } else {
+                    send(ex, 404, error("not found: " + method + " " + path));
+                    return;
+                }
+                if (body == null) {
+                    send(ex, 503, error("DB에 쓰지 못함 (잠김/오류)"));
+                    return;
+                }
+                send(ex, 200, body);
+            } catch (IllegalArgumentException | java.time.DateTimeException e) {
+                // 잘못된 파라미터 (NumberFormatException 포함)
+                send(ex, 400, error(e.getMessage()));
+            } catch (Exception e) {
+                LOG.error("요청 처리 실패: {} {}", method, path, e);
+                send(ex, 500, error(e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * 브라우저의 다른 사이트 페이지가 보낸 요청이면 그 근거(헤더), 아니면 null
+     * - 127.0.0.1 바인딩만으로는 못 막음: 사용자가 연 아무 페이지나 폼 POST(simple request)를 보낼 수 있고,
+     *   DNS 재바인딩이면 그 페이지의 이름으로 읽기까지 가능
+     * - Origin/Sec-Fetch-Site/Host 는 페이지 스크립트가 바꿀 수 없는 헤더
+     * - curl/스크립트/ServerLoadTest 는 Origin/Sec-Fetch-Site 를 안 붙이므로 그대로 통과
+     */
+    private String foreignRequest(HttpExchange ex) {
+        String host = ex.getRequestHeaders().getFirst("Host");
+        if (host != null && !isLocal(host)) return "Host: " + host;
+        String site = ex.getRequestHeaders().getFirst("Sec-Fetch-Site");
+        if (site != null && !site.equals("same-origin") && !site.equals("none")) return "Sec-Fetch-Site: " + site;
+        String origin = ex.getRequestHeaders().getFirst("Origin");
+        if (origin != null && !(origin.startsWith("http://") && isLocal(origin.substring("http://".length())))) {
+            return "Origin: " + origin;
+        }
+        return null;
+    }
+
+    /** 이 서버 자신을 가리키는 호스트:포트인지 */
+    private boolean isLocal(String hostPort) {
+        String suffix = ":" + port();
+        return hostPort.equals("127.0.0.1" + suffix) || hostPort.equals("localhost" + suffix);
+    }
+
+    // ==============================================================
+    // 읽기 풀 / 쓰기
+    // ==============================================================
+
+    @FunctionalInterface
+    private interface DaoCall {
+        String apply(TaskDao dao) throws Exception;
+    }
+
+    /** 읽기: 풀에서 DAO를 빌려 실행 후 반납 (풀이 비면 가상 스레드만 대기) */
+    private String read(DaoCall call) throws Exception {
+        TaskDao dao = readers.take();
+        try {
+            return call.apply(dao);
+        } finally {
+            readers.put(dao);
+        }
+    }
+
+    @FunctionalInterface
+    private interface DaoWrite {
+        boolean apply(TaskDao dao);
+    }
+
+    /**
+     * 쓰기: 실제 실행은 DbWriter 스레드에서 한 번에 하나씩 (읽기 풀은 빌리지 않음)
+     *
+     * @return 성공하면 {"ok":true}, 실패하면 null (→ 503)
+     */
+    private String write(DaoWrite call) {
+        return call.apply(writeDao) ? "{\"ok\":true}" : null;
+    }
+
+    // ==============================================================
+    // JSON / 폼 헬퍼
+    // ==============================================================
+
+    /** {"YYYY-MM-DD":[...], ...} (날짜 오름차순) */
+    private static String rangeJson(SortedMap<LocalDate, List<Task>> days) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<LocalDate, List<Task>> e : days.entrySet()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append('"').append(e.getKey()).append("\":").append(toJson(e.getValue()));
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String filtersJson(Map<String, SmartFilter> filters) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, SmartFilter> e : filters.entrySet()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(quote(e.getKey())).append(':').append(quote(e.getValue().format()));
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String toJsonStrings(List<String> values) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(quote(values.get(i)));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String calendarJson(TaskDao dao, YearMonth ym) {
+        Map<LocalDate, int[]> counts = dao.getDailyDoneTodoCounts(ym);
+        StringBuilder sb = new StringBuilder("[");
+        for (int d = 1; d <= ym.lengthOfMonth(); d++) {
+            LocalDate date = ym.atDay(d);
+            int[] c = counts.getOrDefault(date, new int[]{0, 0});
+            if (d > 1) sb.append(',');
+            sb.append("{\"date\":\"").append(date)
+                    .append("\",\"done\":").append(c[0])
+                    .append(",\"todo\":").append(c[1])
+                    .append(",\"recurring\":").append(dao.hasRecurringOn(date))
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    static String toJson(List<Task> tasks) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < tasks.size(); i++) {
+            Task t = tasks.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":").append(t.id)
+                    .append(",\"title\":").append(quote(t.title))
+                    .append(",\"priority\":").append(t.priority)
+                    .append(",\"dueAt\":").append(quote(t.dueAt))
+                    .append(",\"recurring\":").append(t.isRecurring == 1)
+                    .append(",\"completed\":").append(t.completed)
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String error(String msg) {
+        return "{\"error\":" + quote(msg) + "}";
+    }
+
+    static String quote(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String required(Map<String, String> params, String key) {
+        String v = params.get(key);
+        if (v == null || v.isBlank()) throw new IllegalArgumentException("필수 파라미터 없음: " + key);
+        return v;
+    }
+
+    /** ids=1,2,3 → int[] (비었으면 400) */
+    private static int[] ids(Map<String, String> form) {
+        String[] parts = required(form, "ids").split(",");
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) ids[i] = Integer.parseInt(parts[i].trim());
+        return ids;
+    }
+
+    /** a=1&b=2 형식 (query string / x-www-form-urlencoded 본문 공용) */
+    private static Map<String, String> parseForm(String raw) {
+        Map<String, String> map = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return map;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String k = eq < 0 ? pair : pair.substring(0, eq);
+            String v = eq < 0 ? "" : pair.substring(eq + 1);
+            map.put(URLDecoder.decode(k, StandardCharsets.UTF_8), URLDecoder.decode(v, StandardCharsets.UTF_8));
+        }
+        return map;
+    }
+
+    private static String readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // ==============================================================
+    // 단독 실행: gradle runServer (또는 java ... TaskServer [port])
+    // ==============================================================
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8787;
+        int readers = Integer.getInteger("todo.server.readers", Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+        Database.migrate();
+        TaskServer server = new TaskServer(port, readers);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("[SERVER] http://127.0.0.1:" + server.port() + " (readers=" + readers + ")");
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.organizer;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 할 일 저장소 인터페이스
+ * - App은 이 인터페이스만 보고 동작 → 저장 엔진 교체 가능
+ * - 구현체
+ *   · {@link TaskDao}         : SQLite(todo.db) 기반 (기본값)
+ *   · {@link InMemoryTaskStore}: 메모리 기반 + 스냅샷/저널 파일로 영속화
+ */
+public interface TaskStore extends AutoCloseable {
+
+    /*
+     * 쓰기 메서드는 성공 여부를 돌려줌 (false = 저장 실패, 원인은 구현체가 로그로 남김)
+     */
+
+    /** 단발성 할 일 추가 (dueAt: "YYYY-MM-DD" / "YYYY-MM-DD HH:mm" / null) */
+    boolean addTask(String title, int priority, String dueAt);
+
+    /** id 기준으로 제목/우선순위/마감/반복여부/알림시간 수정 */
+    boolean updateTask(Task task);
+
+    /** Task 삭제 (id 필수, 없으면 IllegalArgumentException) */
+    boolean deleteTask(Task task);
+
+    /** id로 삭제 */
+    boolean deleteById(int id);
+
+    /** 여러 id를 한 트랜잭션으로 삭제 (전부 반영되거나 전부 취소) */
+    boolean deleteByIds(int[] ids);
+
+    /** 특정 날짜가 마감인 할 일 (우선순위, 마감 순) */
+    List<Task> listByDate(LocalDate date);
+
+    /** 해당 월의 날짜별 할 일 개수 */
+    Map<LocalDate, Integer> getDailyCountsForMonth(YearMonth ym);
+
+    /** 주간 반복 업무 추가 (daysMask: 일=bit0 … 토=bit6) */
+    boolean addRecurringTask(String title, int priority, int daysMask,
+                          String recurStart, String recurUntil, int intervalWeeks, String timeHHmm);
+
+    /**
+     * 가져오기용: 여러 할 일을 한 번에 추가 (id는 무시하고 새로 발급)
+     * - isRecurring=1 이면 recurDays/recurStart/recurUntil/recurInterval, 아니면 dueAt/completed 사용
+     * - 전부 반영되거나 전부 취소 (TaskDao: 트랜잭션 하나) → 호출하는 쪽에서 적당한 크기로 나눠 부를 것
+     */
+    boolean addAll(List<Task> tasks);
+
+    /** 해당 날짜에 반복 업무가 하나라도 있는지 */
+    boolean hasRecurringOn(LocalDate date);
+
+    /** 해당 날짜에 해당하는 반복 업무 목록 (우선순위, 제목 순) */
+    List<Task> listRecurringByDate(LocalDate date);
+
+    /** 완료 여부 변경 */
+    boolean updateCompleted(int id, boolean completed);
+
+    /** 여러 id의 완료 여부를 한 트랜잭션으로 변경 */
+    boolean updateCompletedBatch(int[] ids, boolean completed);
+
+    /** 달력용: 날짜별 [완료, 미완료] 개수 */
+    Map<LocalDate, int[]> getDailyDoneTodoCounts(YearMonth ym);
+
+    /** from ~ to(포함) 사이가 마감인 단발 일정 (마감일 순) */
+    default List<Task> listDueBetween(LocalDate from, LocalDate to) {
+        List<Task> out = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) out.addAll(listByDate(d));
+        return out;
+    }
+
+    /**
+     * from ~ to(포함) 날짜별 할 일 (주간 보기, 날짜 모달)
+     * - 날마다: 그날 마감인 단발(우선순위, 마감 순) → 그날 해당하는 반복(우선순위, 제목 순)
+     * - 할 일이 없는 날도 빈 목록으로 들어 있음 (날짜 순)
+     * - 기본 구현은 날마다 listByDate + listRecurringByDate (TaskDao는 범위 조회 한 번 + 반복 규칙 펼치기)
+     */
+    default SortedMap<LocalDate, List<Task>> listBetween(LocalDate from, LocalDate to) {
+        SortedMap<LocalDate, List<Task>> out = new TreeMap<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            List<Task> items = new ArrayList<>(listByDate(d));
+            items.addAll(listRecurringByDate(d));
+            out.put(d, items);
+        }
+        return out;
+    }
+
+    /** until 날짜까지 마감인 단발 일정 (마감일, 우선순위 순) */
+    List<Task> listDueUntil(LocalDate until, boolean onlyUncompleted);
+
+    /**
+     * listDueUntil과 같은 행을 목록 없이 하나씩 흘려보냄
+     * - sink에 넘어온 Task는 구현에 따라 버퍼로 재사용될 수 있음 → 보관하려면 copy()
+     */
+    default void forEachDueUntil(LocalDate until, boolean onlyUncompleted, Consumer<Task> sink) {
+        listDueUntil(until, onlyUncompleted).forEach(sink);
+    }
+
+    /**
+     * 모든 할 일(보관분 포함)을 목록 없이 하나씩 흘려보냄 (내보내기용, 순서 보장 없음)
+     * - sink에 넘어온 Task는 구현에 따라 버퍼로 재사용될 수 있음 → 보관하려면 copy()
+     */
+    void forEachTask(Consumer<Task> sink);
+
+    /** 완료 기록 하나 (할 일 id, 완료로 바뀐 시각 epoch ms) */
+    @FunctionalInterface
+    interface CompletionSink {
+        void accept(int id, long at);
+    }
+
+    /**
+     * 반복 업무가 완료로 바뀐 기록을 하나씩 흘려보냄 (통계의 연속 기록용, 순서 보장 없음)
+     * - 반복 업무는 완료 여부가 한 칸뿐이라 지난 회차의 완료는 이 기록으로만 알 수 있음
+     * - 기본: 기록 없음 (메모리 저장소는 이력을 남기지 않음)
+     */
+    default void forEachRecurringCompletion(CompletionSink sink) {
+    }
+
+    /**
+     * DB 버전 스탬프: 저장된 내용이 바뀔 때마다 커지는 값 (첫 화면 캐시가 아직 최신인지 판단)
+     * - 기본 -1 = 모름 (캐시를 믿지 않고 항상 다시 읽음)
+     */
+    default long version() {
+        return -1;
+    }
+
+    /**
+     * 달력 한 달(점) + 오늘 목록을 한 시점 기준으로 한 번에 읽기
+     * - 기본 구현은 위의 조회를 차례로 부름 (호출 사이에 쓰기가 끼면 두 화면이 어긋날 수 있음)
+     *   → TaskDao는 읽기 트랜잭션 하나로, InMemoryTaskStore는 락 하나로 감싸서 같은 시점을 보장
+     * - 오늘 목록 = 오늘까지 마감인 단발(완료 포함) → 오늘 해당하는 반복
+     *
+     * @param today  null이면 달력만 (월 이동, 집중 모드 등 오늘 목록이 필요 없을 때)
+     * @param filter 태그 필터 (null = 없음), 달력 개수/반복 점과 오늘 목록 모두에 적용
+     */
+    default ViewSnapshot loadView(YearMonth month, LocalDate today, TagFilter filter) {
+        Map<LocalDate, int[]> counts = filter == null
+                ? getDailyDoneTodoCounts(month)
+                : ViewSnapshot.count(filter.filter(this, listDueBetween(month.atDay(1), month.atEndOfMonth())));
+        boolean[] recurring = new boolean[month.lengthOfMonth()];
+        for (int d = 1; d <= recurring.length; d++) {
+            LocalDate date = month.atDay(d);
+            recurring[d - 1] = filter == null
+                    ? hasRecurringOn(date)
+                    : !filter.filter(this, listRecurringByDate(date)).isEmpty();
+        }
+        List<Task> todayTasks = null;
+        if (today != null) {
+            todayTasks = new ArrayList<>(listDueUntil(today, false));
+            todayTasks.addAll(listRecurringByDate(today));
+            if (filter != null) todayTasks = filter.filter(this, todayTasks);
+        }
+        return ViewSnapshot.of(month, counts, recurring, today, todayTasks, version());
+    }
+
+    /*
+     * 태그: 할 일마다 여러 개 (프로젝트도 "proj:이름" 같은 태그로)
+     * - 필터는 TagFilter가 tagged()의 비트맵끼리 계산
+     */
+
+    /** id의 태그를 tags로 교체 (빈 목록 = 모두 떼기), 쓸 수 없는 이름이면 IllegalArgumentException */
+    boolean setTags(int id, Collection<String> tags);
+
+    /** id의 태그 (이름순) */
+    List<String> tagsOf(int id);
+
+    /** 쓰이고 있는 모든 태그 (이름순) */
+    List<String> allTags();
+
+    /** 태그가 붙은 할 일 id (없는 태그면 빈 비트맵), 돌려받은 비트맵은 바뀌지 않음 */
+    TagBitmap tagged(String tag);
+
+    /*
+     * 저장해 두는 보기 (SmartFilter): 이름 → 조건
+     */
+
+    /**
+     * 조건에 맞는 할 일 (단발: 마감일·우선순위 순 → 반복: 우선순위·제목 순), 합쳐서 최대 limit개
+     * - TaskDao: 보관된 할 일은 제외
+     */
+    List<Task> query(SmartFilter filter, LocalDate today, int limit);
+
+    /** 저장된 보기 (이름순) */
+    Map<String, SmartFilter> savedFilters();
+
+    /** 이름으로 저장 (같은 이름이 있으면 덮어씀) */
+    boolean saveFilter(String name, SmartFilter filter);
+
+    /** 저장된 보기 삭제 (없으면 false) */
+    boolean deleteFilter(String name);
+
+    /**
+     * 다른 스레드에서 읽기용으로 쓸 저장소 (시작할 때 여러 화면 데이터를 동시에 읽는 용도)
+     * - 기본은 자기 자신 (모든 메서드가 스레드 안전한 구현)
+     * - 받은 것이 자기 자신이 아니면 다 쓰고 close()
+     */
+    default TaskStore forThread() {
+        return this;
+    }
+
+    @Override
+    void close();
+
+    /**
+     * 시스템 프로퍼티 todo.store 에 따라 저장소를 연다
+     * - sqlite (기본): Database.migrate() 후 TaskDao
+     * - memory       : 앱 데이터 폴더/memstore 에 스냅샷+저널로 영속화되는 InMemoryTaskStore
+     */
+    static TaskStore open() {
+        String kind = System.getProperty("todo.store", "sqlite");
+        if ("memory".equalsIgnoreCase(kind)) {
+            return new InMemoryTaskStore(new File(Database.appDataDir(), "memstore"));
+        }
+        Database.migrate();
+        return new TaskDao();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.organizer;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 달력 한 달 + 오늘 목록을 한 시점에 읽은 화면 데이터 (불변)
+ * - TaskStore.loadView가 만듦: TaskDao는 읽기 트랜잭션 하나에서, InMemoryTaskStore는 락 하나 안에서
+ *   → 읽는 도중에 쓰기가 끼어도 달력 점과 오늘 목록이 서로 다른 시점을 보여 주지 않음
+ *   · 한계: 파티션 모드에서 읽을 연도 파일이 StatementCache.MAX_ATTACHED개를 넘으면 트랜잭션 하나에 다 붙일 수 없어
+ *     트랜잭션 없이 읽고 앞뒤 버전 스탬프를 비교해 바뀌었으면 다시 읽음 (3번까지, 그래도 바뀌면 경고 로그 후 마지막 결과)
+ * - 화면을 건드리지 않으므로 어느 스레드에서 만들어도 되고, App은 받은 것을 그대로 그림
+ * - todayTasks의 Task는 이 스냅샷 전용 사본 (저장소 내부 객체와 공유하지 않음)
+ * - version: 읽은 시점의 DB 버전 스탬프 (TaskStore.version, 첫 화면 캐시가 아직 최신인지 판단)
+ */
+public final class ViewSnapshot {
+
+    private final YearMonth month;
+    private final int[] done;
+    private final int[] todo;
+    private final boolean[] recurring;
+    private final LocalDate today;
+    private final List<Task> todayTasks;
+    private final long version;
+
+    ViewSnapshot(YearMonth month, int[] done, int[] todo, boolean[] recurring, LocalDate today, List<Task> todayTasks,
+                 long version) {
+        this.month = month;
+        this.done = done;
+        this.todo = todo;
+        this.recurring = recurring;
+        this.today = today;
+        this.todayTasks = todayTasks == null ? null : Collections.unmodifiableList(todayTasks);
+        this.version = version;
+    }
+
+    /** 숫자만 있는 빈 달력 (데이터가 오기 전 첫 화면) */
+    static ViewSnapshot empty(YearMonth month) {
+        int length = month.lengthOfMonth();
+        return new ViewSnapshot(month, new int[length], new int[length], new boolean[length], null, null, -1);
+    }
+
+    /**
+     * 날짜별 [완료, 미완료] 개수 + 날짜(1일 = 0)별 반복 여부로 조립
+     *
+     * @param today      null이면 오늘 목록 없음 (달력만 읽은 경우)
+     * @param todayTasks 오늘 목록 (today가 null이면 무시)
+     * @param version    DB 버전 스탬프 (모르면 -1)
+     */
+    static ViewSnapshot of(YearMonth month, Map<LocalDate, int[]> counts, boolean[] recurring,
+                           LocalDate today, List<Task> todayTasks, long version) {
+        int length = month.lengthOfMonth();
+        int[] done = new int[length];
+        int[] todo = new int[length];
+        for (Map.Entry<LocalDate, int[]> e : counts.entrySet()) {
+            int i = e.getKey().getDayOfMonth() - 1;
+            done[i] = e.getValue()[0];
+            todo[i] = e.getValue()[1];
+        }
+        return new ViewSnapshot(month, done, todo, recurring, today, today == null ? null : todayTasks, version);
+    }
+
+    /** 단발 일정 목록 → 날짜별 [완료, 미완료] (마감 없는 것은 건너뜀) */
+    static Map<LocalDate, int[]> count(List<Task> oneOffs) {
+        Map<LocalDate, int[]> counts = new HashMap<>();
+        for (Task t : oneOffs) {
+            if (t.dueAt == null) continue;
+            counts.computeIfAbsent(LocalDate.parse(t.dueAt.substring(0, 10)), k -> new int[2])[t.completed ? 0 : 1]++;
+        }
+        return counts;
+    }
+
+    /** 반복 규칙 목록을 한 달에 펼쳐서 날짜(1일 = 0)별 반복 여부 */
+    static boolean[] recurringDays(YearMonth month, List<Task> rules) {
+        boolean[] out = new boolean[month.lengthOfMonth()];
+        for (int d = 1; d <= out.length; d++) {
+            LocalDate date = month.atDay(d);
+            String ymd = date.toString();
+            for (Task r : rules) {
+                if (r.occursOn(date, ymd)) {
+                    out[d - 1] = true;
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+
+    /** 반복 규칙 중 date에 해당하는 것 (rules의 순서 유지) */
+    static List<Task> occurrences(List<Task> rules, LocalDate date) {
+        List<Task> out = new ArrayList<>();
+        String ymd = date.toString();
+        for (Task r : rules) {
+            if (r.occursOn(date, ymd)) out.add(r);
+        }
+        return out;
+    }
+
+    public YearMonth month() {
+        return month;
+    }
+
+    /** 그 달의 날 수 */
+    public int length() {
+        return done.length;
+    }
+
+    /** day일(1부터)에 마감인 완료 단발 일정 수 */
+    public int done(int day) {
+        return done[day - 1];
+    }
+
+    /** day일(1부터)에 마감인 미완료 단발 일정 수 */
+    public int todo(int day) {
+        return todo[day - 1];
+    }
+
+    /** day일(1부터)에 반복 업무가 있는지 */
+    public boolean recurring(int day) {
+        return recurring[day - 1];
+    }
+
+    /** 오늘 목록을 같이 읽었는지 */
+    public boolean hasToday() {
+        return todayTasks != null;
+    }
+
+    /** 오늘 목록의 기준 날짜 (없으면 null) */
+    public LocalDate today() {
+        return today;
+    }
+
+    /** 오늘 목록: 오늘까지 마감인 단발 → 오늘 해당하는 반복 (없으면 null, 고칠 수 없음) */
+    public List<Task> todayTasks() {
+        return todayTasks;
+    }
+
+    /** 읽은 시점의 DB 버전 스탬프 (모르면 -1) */
+    public long version() {
+        return version;
+    }
+
+    /** CalendarCanvas.setMonth에 넘길 배열 (사본) */
+    int[] doneArray() {
+        return done.clone();
+    }
+
+    int[] todoArray() {
+        return todo.clone();
+    }
+
+    boolean[] recurringArray() {
+        return recurring.clone();
+    }
+}
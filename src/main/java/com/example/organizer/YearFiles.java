@@ -0,0 +1,119 @@
+package com.example.organizer;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * 연도별 파티션 모드의 저장 위치 (TaskFiles, 파일 다루기는 Partitions)
+ * - 마감 있는 단발 일정은 마감 연도 파일(yYYYY 스키마), 반복/마감 없는 일정은 todo.db
+ * - id가 어느 연도 파일에 있는지는 todo.db의 task_part (행이 없으면 todo.db)
+ * - todo.db에는 보관할 단발 일정이 없음 → 보관(tasks_archive)은 비어 있고 지난 연도 파일이 그 역할
+ * - 한 연결에 붙일 수 있는 연도 파일은 StatementCache.MAX_ATTACHED개까지
+ */
+final class YearFiles implements TaskFiles {
+
+    private static final String SQL_PART_OF_IDS =
+            "SELECT id, year FROM main.task_part WHERE id IN (SELECT value FROM json_each(?))";
+
+    private static final String SQL_PART_PUT = "INSERT OR REPLACE INTO main.task_part(id, year) VALUES (?, ?)";
+
+    private static final String SQL_PART_DELETE = "DELETE FROM main.task_part WHERE id = ?";
+
+    private final String url;
+
+    YearFiles(String url) {
+        this.url = url;
+    }
+
+    @Override
+    public int yearOf(String dueAt, int isRecurring) {
+        return Partitions.yearOf(dueAt, isRecurring);
+    }
+
+    @Override
+    public int[] years() {
+        return Partitions.years(url);
+    }
+
+    @Override
+    public String open(StatementCache r, int year) throws SQLException {
+        if (year == 0) return "main";
+        return Partitions.attachForRead(r, url, year) ? Partitions.schema(year) : null;
+    }
+
+    @Override
+    public PreparedStatement read(StatementCache r, String id, int year, String sql) throws SQLException {
+        if (year == 0) return r.get(id, sql);
+        String schema = open(r, year);
+        return schema == null ? null : r.get(id, schema, sql);
+    }
+
+    @Override
+    public PreparedStatement write(StatementCache w, String id, int year, String sql) throws SQLException {
+        if (year == 0) return w.get(id, sql);
+        String schema = Partitions.schema(year);
+        if (!w.isAttached(schema)) throw new SQLException("파티션이 붙어 있지 않음: " + schema);
+        return w.get(id, schema, sql);
+    }
+
+    @Override
+    public Map<Integer, int[]> locate(StatementCache sc, int[] ids) throws SQLException {
+        Map<Integer, Integer> yearById = new HashMap<>();
+        PreparedStatement ps = sc.get("partOfIds", SQL_PART_OF_IDS);
+        ps.setString(1, TaskDao.idsJson(ids));
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) yearById.put(rs.getInt(1), rs.getInt(2));
+        }
+        Map<Integer, List<Integer>> grouped = new TreeMap<>();
+        for (int id : ids) grouped.computeIfAbsent(yearById.getOrDefault(id, 0), y -> new ArrayList<>()).add(id);
+        Map<Integer, int[]> out = new TreeMap<>();
+        grouped.forEach((year, some) -> out.put(year, some.stream().mapToInt(Integer::intValue).toArray()));
+        return out;
+    }
+
+    @Override
+    public Void attach(StatementCache w, Set<Integer> years) throws SQLException {
+        int n = 0;
+        for (int year : years) if (year != 0) n++;
+        if (n > StatementCache.MAX_ATTACHED) {
+            throw new SQLException("한 번에 바꿀 수 있는 연도는 최대 " + StatementCache.MAX_ATTACHED + "개 (" + n + "개 요청)");
+        }
+        for (int year : years) if (year != 0) Partitions.attachForWrite(w, url, year);
+        return null;
+    }
+
+    @Override
+    public boolean attachAll(StatementCache r, IntPredicate years) throws SQLException {
+        List<Integer> need = new ArrayList<>();
+        for (int year : Partitions.years(url)) {
+            if (years.test(year)) need.add(year);
+        }
+        if (need.size() > StatementCache.MAX_ATTACHED) return false;
+        for (int year : need) Partitions.attachForRead(r, url, year);
+        return true;
+    }
+
+    /** task_part 갱신 (0 = todo.db → 행 삭제) */
+    @Override
+    public void place(StatementCache w, int year, int... ids) throws SQLException {
+        PreparedStatement ps = year == 0 ? w.get("partDelete", SQL_PART_DELETE) : w.get("partPut", SQL_PART_PUT);
+        try {
+            for (int id : ids) {
+                ps.setInt(1, id);
+                if (year != 0) ps.setInt(2, year);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } finally {
+            ps.clearBatch();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.organizer;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.scene.control.ListCell;
+
+/**
+ * 할당 예산 회귀 점검 (gradle allocationCheck, gradle test/check 에 포함)
+ * - 속도(QueryPlanCheck)와 별개로, 자주 도는 경로가 호출 한 번에 힙을 몇 바이트 새로 할당하는지 잼
+ *   · 잴 때는 ThreadMXBean.getCurrentThreadAllocatedBytes (이 스레드가 할당한 누적 바이트) 앞뒤 차이
+ *   · WARMUP번 버리고(JIT/문장 캐시 준비) RUNS번 잰 중앙값을 예산과 비교
+ * - 대상
+ *   · TaskDao 조회 (작은 픽스처 DB에서)
+ *   · 달력 한 달 그릴 데이터 (loadView 달력만 / 달력+오늘)
+ *   · TaskCell.updateItem (JavaFX 스레드에서, 화면이 없어 툴킷을 못 띄우면 건너뜀)
+ *     App 안의 private 클래스라 MethodHandles.privateLookupIn으로 열어 부름 (앱 쪽 가시성은 그대로)
+ * - 예산 0인 경로(할당 없는 경로)는 0바이트여야 통과 → 한 번이라도 할당이 끼면 빌드 실패
+ * - 하나라도 넘으면 종료 코드 1 → 빌드 실패
+ *
+ * 시스템 프로퍼티
+ *   todo.alloc.scale    (기본 1.0)   예산 배율 (JDK/드라이버가 바뀌어 전체가 조금씩 늘었을 때)
+ *   todo.alloc.requireFx (기본 false) true면 TaskCell을 못 재는 것도 실패로
+ */
+final class AllocationCheck {
+
+    private static final LocalDate FIXTURE_START = LocalDate.of(2024, 1, 1);
+    private static final int FIXTURE_DAYS = 365;
+    private static final int ROWS = 20_000;
+    private static final int RECURRING_ROWS = 100;
+
+    private static final int WARMUP = 1000;   // 적으면 JIT(이스케이프 분석) 전후가 섞여 실행마다 값이 달라짐
+    private static final int RUNS = 51;
+
+    /** 재는 셀 (App의 private 중첩 클래스) */
+    private static final String CELL_CLASS = "com.example.organizer.App$TaskCell";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final List<String> failures = new ArrayList<>();
+    private final double scale;
+
+    private AllocationCheck(double scale) {
+        this.scale = scale;
+    }
+
+    public static void main(String[] args) throws Exception {
+        File db = new File(args.length > 0 ? args[0] : "build/alloc/fixture.db");
+        double scale = Double.parseDouble(System.getProperty("todo.alloc.scale", "1.0"));
+
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.out.println("[ALLOC] 이 JVM은 스레드별 할당 바이트를 지원하지 않아 건너뜀");
+            return;
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        db.getAbsoluteFile().getParentFile().mkdirs();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            new File(db.getPath() + suffix).delete();
+        }
+        String url = "jdbc:sqlite:" + db.getAbsolutePath();
+        Database.migrate(url);
+        try (Connection conn = Database.getConnection(url)) {
+            seed(conn);
+        }
+
+        AllocationCheck check = new AllocationCheck(scale);
+        try (TaskDao dao = new TaskDao(url)) {
+            check.queries(dao);
+            check.cells(dao);
+        }
+
+        if (!check.failures.isEmpty()) {
+            check.failures.forEach(f -> System.out.println("[ALLOC] 실패 " + f));
+            System.out.println("[ALLOC] 실패 " + check.failures.size() + "건");
+            System.exit(1);
+        }
+        System.out.println("[ALLOC] 통과");
+    }
+
+    /** 단발 ROWS개 (1년에 고르게, 하루 약 55개, 30% 완료) + 반복 RECURRING_ROWS개 */
+    private static void seed(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement one = conn.prepareStatement(
+                     "INSERT INTO tasks(title, priority, due_at, is_recurring, completed) VALUES (?, ?, ?, 0, ?)");
+             PreparedStatement rec = conn.prepareStatement(
+                     "INSERT INTO tasks(title, priority, is_recurring, recur_days, recur_start, recur_interval) "
+                             + "VALUES (?, ?, 1, ?, ?, 1)")) {
+            for (int i = 0; i < ROWS; i++) {
+                LocalDate day = FIXTURE_START.plusDays(i % FIXTURE_DAYS);
+                one.setString(1, "fixture-" + i);
+                one.setInt(2, 1 + i % 3);
+                one.setString(3, i % 4 == 0 ? day + " 09:30" : day.toString());
+                one.setInt(4, i % 10 < 3 ? 1 : 0);
+                one.addBatch();
+            }
+            one.executeBatch();
+            for (int i = 0; i < RECURRING_ROWS; i++) {
+                rec.setString(1, "recurring-" + i);
+                rec.setInt(2, 1 + i % 3);
+                rec.setInt(3, 1 + i % 127);
+                rec.setString(4, FIXTURE_START.plusDays(i).toString());
+                rec.addBatch();
+            }
+            rec.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // ==============================================================
+    // 조회 / 달력 데이터
+    // ==============================================================
+
+    /**
+     * 예산은 이 픽스처(하루 약 55개, 반복 100개)에서 잰 값의 약 1.3배 (JDK 21, sqlite-jdbc 3.46 기준)
+     * - 목록을 돌려주는 조회는 행마다 Task + 문자열이 들어 있으니 그만큼은 어쩔 수 없음
+     * - hasRecurringOn은 메모리 인덱스만 보므로 0
+     */
+    private void queries(TaskDao dao) {
+        LocalDate day = FIXTURE_START.plusDays(FIXTURE_DAYS / 2);
+        YearMonth ym = YearMonth.from(day);
+        int[] rows = new int[1];
+
+        measure("hasRecurringOn", 0, () -> dao.hasRecurringOn(day));
+        measure("listByDate", 52_000, () -> dao.listByDate(day));
+        measure("listRecurringByDate", 48_000, () -> dao.listRecurringByDate(day));
+        measure("getDailyDoneTodoCounts", 32_000, () -> dao.getDailyDoneTodoCounts(ym));
+        measure("getDailyCountsForMonth", 32_000, () -> dao.getDailyCountsForMonth(ym));
+        measure("forEachDueUntil(한 주, 미완료, 복사 없음)", 200_000,
+                () -> dao.forEachDueUntil(FIXTURE_START.plusDays(6), true, t -> rows[0]++));
+        measure("listBetween(한 주)", 700_000, () -> dao.listBetween(day, day.plusDays(6)));
+        measure("loadView(달력만)", 110_000, () -> dao.loadView(ym, null, null));
+        measure("loadView(달력+오늘, 첫 주)", 460_000,
+                () -> dao.loadView(YearMonth.from(FIXTURE_START), FIXTURE_START.plusDays(6), null));
+    }
+
+    // ==============================================================
+    // TaskCell.updateItem (JavaFX 스레드)
+    // ==============================================================
+
+    /**
+     * 셀은 CSS 다시 적용 같은 JavaFX 내부 할당이 버전/환경마다 달라 예산을 넉넉하게
+     * - 빈 칸(재사용 셀이 비워질 때)은 그릴 것이 없으니 거의 0이어야 함
+     */
+    private void cells(TaskStore store) throws Exception {
+        if (!startFx()) {
+            String msg = "화면이 없어 JavaFX를 띄우지 못함 → TaskCell 측정 건너뜀";
+            if (Boolean.getBoolean("todo.alloc.requireFx")) failures.add(msg);
+            System.out.println("[ALLOC] " + msg);
+            return;
+        }
+        List<Task> tasks = store.listByDate(FIXTURE_START.plusDays(FIXTURE_DAYS / 2));
+        Class<?> type = Class.forName(CELL_CLASS);
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        MethodHandle create = lookup.findConstructor(type, MethodType.methodType(void.class, TaskStore.class))
+                .asType(MethodType.methodType(ListCell.class, TaskStore.class));
+        // invokeExact로 부르도록 (ListCell, Task, boolean) 모양으로 → 상자화/가변 인자 배열 할당 없음
+        MethodHandle update = lookup.findVirtual(type, "updateItem",
+                        MethodType.methodType(void.class, Task.class, boolean.class))
+                .asType(MethodType.methodType(void.class, ListCell.class, Task.class, boolean.class));
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                ListCell<?> cell = (ListCell<?>) create.invokeExact((TaskStore) store);
+                int[] i = {0};
+                // 셀 재사용처럼 매번 다른 할 일로
+                measure("TaskCell.updateItem", 32_000,
+                        () -> updateItem(update, cell, tasks.get(i[0]++ % tasks.size()), false));
+                measure("TaskCell.updateItem(빈 칸)", 1_024, () -> updateItem(update, cell, null, true));
+                done.complete(null);
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        });
+        try {
+            done.get(60, TimeUnit.SECONDS);
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    private static void updateItem(MethodHandle update, ListCell<?> cell, Task task, boolean empty) {
+        try {
+            update.invokeExact((ListCell<?>) cell, task, empty);
+        } catch (Throwable e) {
+            throw new IllegalStateException("TaskCell.updateItem 호출 실패", e);
+        }
+    }
+
+    /** JavaFX 툴킷 시작 (화면이 없으면 false) */
+    private static boolean startFx() {
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Platform.startup(started::countDown);
+            return started.await(10, TimeUnit.SECONDS);
+        } catch (RuntimeException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    // ==============================================================
+    // 재기
+    // ==============================================================
+
+    /** WARMUP번 버리고 RUNS번 잰 호출당 할당 바이트 중앙값이 budget(× scale) 이하인지 */
+    private void measure(String name, long budget, Runnable call) {
+        for (int i = 0; i < WARMUP; i++) call.run();
+        long[] bytes = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            call.run();
+            bytes[i] = THREADS.getCurrentThreadAllocatedBytes() - before;
+        }
+        Arrays.sort(bytes);
+        long median = bytes[RUNS / 2];
+        long limit = (long) (budget * scale);
+        System.out.printf("[ALLOC] %-40s median=%,dB min=%,dB max=%,dB (budget %,dB)%n",
+                name, median, bytes[0], bytes[RUNS - 1], limit);
+        if (median > limit) {
+            failures.add(String.format("%s: 호출당 %,dB > 예산 %,dB", name, median, limit));
+        }
+    }
+}
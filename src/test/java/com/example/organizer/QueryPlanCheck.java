@@ -0,0 +1,243 @@
+package com.example.organizer;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TaskDao 질의 플랜/시간 회귀 점검
+ * - 큰 픽스처 DB를 새로 만들어 migrate() + 시드 + ANALYZE
+ * - 각 문장을 EXPLAIN QUERY PLAN 으로 돌려서 (gradle queryPlans, gradle test/check 에 포함)
+ *   · 기대한 인덱스가 플랜에 나오는지
+ *   · "SCAN tasks" (전체 스캔)가 없는지 확인
+ * - --timings 를 주면 주요 조회를 여러 번 실행해 중앙값이 시간 예산 안인지도 확인 (gradle queryPlanCheck)
+ *   · 벽시계 시간은 기기/부하에 따라 흔들려서 기본 빌드에는 넣지 않음
+ * - 하나라도 어긋나면 종료 코드 1 → 빌드 실패
+ *
+ * 인자: [픽스처 DB 파일] [--timings]
+ * 시스템 프로퍼티
+ *   todo.plan.rows   (기본 200000) 단발 일정 행 수
+ *   todo.plan.scale  (기본 1.0)    시간 예산 배율 (느린 CI에서 늘리기)
+ */
+final class QueryPlanCheck {
+
+    private static final LocalDate FIXTURE_START = LocalDate.of(2024, 1, 1);
+    private static final int FIXTURE_DAYS = 3 * 365;
+    private static final int RECURRING_ROWS = 300;
+    private static final int ARCHIVE_ROWS = 20_000;
+
+    private static final int WARMUP = 20;
+    private static final int RUNS = 50;
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        String path = "build/queryplan/fixture.db";
+        boolean timings = false;
+        for (String a : args) {
+            if (a.equals("--timings")) timings = true;
+            else path = a;
+        }
+        File db = new File(path);
+        int rows = Integer.getInteger("todo.plan.rows", 200_000);
+        double scale = Double.parseDouble(System.getProperty("todo.plan.scale", "1.0"));
+
+        db.getAbsoluteFile().getParentFile().mkdirs();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            new File(db.getPath() + suffix).delete();
+        }
+        String url = "jdbc:sqlite:" + db.getAbsolutePath();
+
+        QueryPlanCheck check = new QueryPlanCheck();
+        long t0 = System.nanoTime();
+        Database.migrate(url);
+        try (Connection conn = Database.getConnection(url)) {
+            seed(conn, rows);
+            check.plans(conn);
+        }
+        System.out.printf("[PLAN] 픽스처 %d행 준비+플랜 점검 %dms%n", rows, (System.nanoTime() - t0) / 1_000_000);
+
+        if (timings) {
+            try (TaskDao dao = new TaskDao(url)) {
+                check.timings(dao, scale);
+            }
+        }
+
+        if (!check.failures.isEmpty()) {
+            check.failures.forEach(f -> System.out.println("[PLAN] 실패 " + f));
+            System.out.println("[PLAN] 실패 " + check.failures.size() + "건");
+            System.exit(1);
+        }
+        System.out.println("[PLAN] 통과");
+    }
+
+    // ==============================================================
+    // 픽스처
+    // ==============================================================
+
+    /**
+     * 단발 일정 rows개 (3년에 고르게, 약 30% 완료, 일부는 시각 포함)
+     * + 반복 업무 + 보관 행, 마지막에 ANALYZE
+     */
+    private static void seed(Connection conn, int rows) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement one = conn.prepareStatement(
+                     "INSERT INTO tasks(title, priority, due_at, is_recurring, completed) VALUES (?, ?, ?, 0, ?)");
+             PreparedStatement rec = conn.prepareStatement(
+                     "INSERT INTO tasks(title, priority, is_recurring, recur_days, recur_start, recur_until, recur_interval) "
+                             + "VALUES (?, ?, 1, ?, ?, ?, 1)");
+             PreparedStatement arc = conn.prepareStatement(
+                     "INSERT INTO tasks_archive(id, title, priority, due_at, completed) VALUES (?, ?, ?, ?, 1)")) {
+            for (int i = 0; i < rows; i++) {
+                LocalDate day = FIXTURE_START.plusDays(i % FIXTURE_DAYS);
+                one.setString(1, "fixture-" + i);
+                one.setInt(2, 1 + i % 3);
+                one.setString(3, i % 4 == 0 ? day + " " + String.format("%02d:%02d", i % 24, i % 60) : day.toString());
+                one.setInt(4, i % 10 < 3 ? 1 : 0);
+                one.addBatch();
+                if (i % 10_000 == 9_999) one.executeBatch();
+            }
+            one.executeBatch();
+
+            for (int i = 0; i < RECURRING_ROWS; i++) {
+                rec.setString(1, "recurring-" + i);
+                rec.setInt(2, 1 + i % 3);
+                rec.setInt(3, 1 + i % 127);
+                rec.setString(4, FIXTURE_START.plusDays(i).toString());
+                if (i % 2 == 0) rec.setString(5, FIXTURE_START.plusDays(FIXTURE_DAYS).toString());
+                else rec.setNull(5, java.sql.Types.VARCHAR);
+                rec.addBatch();
+            }
+            rec.executeBatch();
+
+            for (int i = 0; i < ARCHIVE_ROWS; i++) {
+                arc.setInt(1, 10_000_000 + i);
+                arc.setString(2, "archived-" + i);
+                arc.setInt(3, 1 + i % 3);
+                arc.setString(4, FIXTURE_START.minusDays(1 + i % 365).toString());
+                arc.addBatch();
+            }
+            arc.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute("ANALYZE");
+        }
+    }
+
+    // ==============================================================
+    // 플랜 점검
+    // ==============================================================
+
+    private void plans(Connection conn) throws SQLException {
+        plan(conn, "listByDate", TaskDao.SQL_LIST_BY_DATE, "idx_tasks_due_day");
+        plan(conn, "listRecurringByDate", TaskDao.SQL_LIST_RECURRING_BY_DATE, "idx_tasks_recurring");
+        plan(conn, "listRecurring", TaskDao.SQL_LIST_RECURRING, "idx_tasks_recurring");
+        plan(conn, "listDueBetween", TaskDao.SQL_LIST_DUE_BETWEEN, "idx_tasks_kind_day");
+        plan(conn, "archiveListBetween", TaskDao.SQL_ARCHIVE_LIST_BETWEEN, "idx_tasks_archive_due_day");
+        plan(conn, "dailyStats", TaskDao.SQL_DAILY_STATS, "daily_stats USING PRIMARY KEY");
+        plan(conn, "listDueUntil", TaskDao.SQL_LIST_DUE_UNTIL, "idx_tasks_kind_day");
+        plan(conn, "listDueUntilOpen", TaskDao.SQL_LIST_DUE_UNTIL_OPEN, "idx_tasks_kind_day");
+        plan(conn, "listByIds", TaskDao.SQL_LIST_BY_IDS, "INTEGER PRIMARY KEY");
+        plan(conn, "archivePick", TaskDao.SQL_ARCHIVE_PICK, "idx_tasks_kind_day");
+        plan(conn, "archiveListByDate", TaskDao.SQL_ARCHIVE_LIST_BY_DATE, "idx_tasks_archive_due_day");
+        plan(conn, "updateCompleted", TaskDao.SQL_UPDATE_COMPLETED, "INTEGER PRIMARY KEY");
+        plan(conn, "updateTask", TaskDao.SQL_UPDATE_TASK, "INTEGER PRIMARY KEY");
+        plan(conn, "deleteById", TaskDao.SQL_DELETE_BY_ID, "INTEGER PRIMARY KEY");
+
+        // 저장된 보기: 조건 구성마다 단발 쪽은 idx_tasks_kind_day, 반복 쪽은 idx_tasks_recurring
+        for (String spec : SMART_SPECS) {
+            for (SmartFilter.Branch b : SmartFilter.parse(spec).branches()) {
+                plan(conn, "smart:" + b.shape() + " [" + spec + "]", b.sql(),
+                        b.recurring() ? "idx_tasks_recurring" : "idx_tasks_kind_day");
+            }
+        }
+    }
+
+    /** 플랜 점검할 보기 조건 (모양이 서로 다르게) */
+    private static final String[] SMART_SPECS = {
+            "",
+            "priority:1 due:0..6 done:no",
+            "due:overdue done:no",
+            "done:no title:fixture-1",
+            "priority:1,2 recurring:yes",
+    };
+
+    /**
+     * 한 문장의 플랜 확인 (바인딩 안 한 ? 는 NULL로 취급되지만 플랜 선택에는 영향 없음)
+     *
+     * @param expect 플랜 어딘가에 나와야 하는 문자열 (인덱스 이름 등)
+     */
+    private void plan(Connection conn, String name, String sql, String expect) throws SQLException {
+        List<String> details = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) details.add(rs.getString("detail"));
+        }
+        String joined = String.join(" | ", details);
+        System.out.println("[PLAN] " + name + ": " + joined);
+
+        for (String d : details) {
+            if (d.equals("SCAN tasks") || d.startsWith("SCAN tasks ") || d.startsWith("SCAN tasks_archive")) {
+                failures.add(name + ": 전체 스캔 → " + d);
+            }
+        }
+        if (!joined.contains(expect)) {
+            failures.add(name + ": 플랜에 '" + expect + "' 없음 → " + joined);
+        }
+    }
+
+    // ==============================================================
+    // 시간 예산
+    // ==============================================================
+
+    private void timings(TaskDao dao, double scale) {
+        LocalDate day = FIXTURE_START.plusDays(FIXTURE_DAYS / 2);
+        YearMonth ym = YearMonth.from(day);
+        LocalDate oldDay = FIXTURE_START.minusDays(10);
+
+        time("listByDate", 10 * scale, () -> dao.listByDate(day));
+        time("listByDate(보관 포함)", 10 * scale, () -> dao.listByDate(oldDay));
+        time("listRecurringByDate", 5 * scale, () -> dao.listRecurringByDate(day));
+        time("getDailyDoneTodoCounts", 2 * scale, () -> dao.getDailyDoneTodoCounts(ym));
+        time("getDailyCountsForMonth", 2 * scale, () -> dao.getDailyCountsForMonth(ym));
+        time("listDueUntil(첫 달, 미완료)", 20 * scale, () -> dao.listDueUntil(FIXTURE_START.plusDays(30), true));
+        time("hasRecurringOn", 0.5 * scale, () -> dao.hasRecurringOn(day));
+        time("loadView(달력만)", 5 * scale, () -> dao.loadView(ym, null, null));
+        time("listBetween(한 주)", 15 * scale, () -> dao.listBetween(day, day.plusDays(6)));
+        LocalDate firstMonth = FIXTURE_START.plusDays(30);
+        time("loadView(달력+오늘, 첫 달)", 40 * scale, () -> dao.loadView(YearMonth.from(firstMonth), firstMonth, null));
+        SmartFilter week = SmartFilter.parse("priority:1 due:0..6 done:no");
+        time("query(이번 주 중요)", 5 * scale, () -> dao.query(week, day, 200));
+        SmartFilter open = SmartFilter.parse("done:no");
+        time("query(미완료 전부, 200개)", 5 * scale, () -> dao.query(open, day, 200));
+    }
+
+    /** WARMUP번 버리고 RUNS번 잰 중앙값이 budgetMs 이하인지 */
+    private void time(String name, double budgetMs, Runnable call) {
+        for (int i = 0; i < WARMUP; i++) call.run();
+        long[] ns = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long t0 = System.nanoTime();
+            call.run();
+            ns[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(ns);
+        double median = ns[RUNS / 2] / 1e6;
+        System.out.printf("[PLAN] %-28s median=%.3fms max=%.3fms (budget %.1fms)%n",
+                name, median, ns[RUNS - 1] / 1e6, budgetMs);
+        if (median > budgetMs) {
+            failures.add(String.format("%s: 중앙값 %.3fms > 예산 %.1fms", name, median, budgetMs));
+        }
+    }
+}
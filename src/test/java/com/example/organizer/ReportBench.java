@@ -0,0 +1,119 @@
+package com.example.organizer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reports 확장성 측정 (코어 수 × 데이터 크기)
+ * - 데이터 크기마다 여러 해에 걸친 가짜 이력을 TaskColumns로 만들고 (저장소 없이, 같은 add 경로)
+ *   병렬도(기본 1, 2, 4, … , 코어 수)마다 ForkJoinPool을 만들어 Reports.compute를 반복해 중앙값을 잼
+ * - 병렬도마다 결과가 처음 잰 병렬도와 같은지도 확인 (다르면 실패 종료)
+ * - 배율(×)은 처음 잰 병렬도 대비
+ *
+ * 실행: gradle reportBench
+ *   -Dtodo.bench.rows=100000,1000000,4000000  데이터 크기 (단발 + 반복, 반복은 그중 0.5%)
+ *   -Dtodo.bench.years=5                       이력 기간
+ *   -Dtodo.bench.runs=7                        측정 횟수 (앞에 3번 예열)
+ *   -Dtodo.bench.parallelism=1,2,4             재 볼 병렬도 (기본 1, 2, 4, … , 코어 수)
+ */
+final class ReportBench {
+
+    private ReportBench() {
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = Arrays.stream(System.getProperty("todo.bench.rows", "100000,1000000,4000000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int years = Integer.getInteger("todo.bench.years", 5);
+        int runs = Integer.getInteger("todo.bench.runs", 7);
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> levels = new ArrayList<>();
+        String given = System.getProperty("todo.bench.parallelism");
+        if (given != null) {
+            for (String s : given.split(",")) levels.add(Integer.parseInt(s.trim()));
+        } else {
+            for (int p = 1; p < cores; p *= 2) levels.add(p);
+            levels.add(cores);
+        }
+        LocalDate today = LocalDate.now();
+
+        System.out.printf("[BENCH] 코어 %d, 이력 %d년, 중앙값 %d회%n", cores, years, runs);
+        boolean same = true;
+        for (int rows : sizes) {
+            long t0 = System.nanoTime();
+            TaskColumns cols = generate(rows, years, today, new Random(rows));
+            System.out.printf("[BENCH] %,d행 (단발 %,d, 반복 %,d) 만들기 %dms%n",
+                    rows, cols.size, cols.rules, (System.nanoTime() - t0) / 1_000_000);
+            double base = 0;
+            String expected = null;
+            for (int p : levels) {
+                ForkJoinPool pool = new ForkJoinPool(p);
+                try {
+                    Reports.Result result = null;
+                    long[] ns = new long[runs];
+                    for (int i = -3; i < runs; i++) {
+                        long s = System.nanoTime();
+                        result = Reports.compute(cols, today, pool);
+                        if (i >= 0) ns[i] = System.nanoTime() - s;
+                    }
+                    Arrays.sort(ns);
+                    double ms = ns[runs / 2] / 1e6;
+                    if (base == 0) base = ms;
+                    String sig = signature(result);
+                    if (expected == null) expected = sig;
+                    boolean ok = sig.equals(expected);
+                    same &= ok;
+                    System.out.printf("[BENCH]   병렬도 %2d: %8.2fms  ×%.2f%s%n", p, ms, base / ms, ok ? "" : "  결과 다름!");
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+        if (!same) System.exit(1);
+    }
+
+    /** 여러 해 이력: 마감은 today 기준 years년 전 ~ 30일 뒤 (지난 것은 85% 완료), 반복은 날마다 60% 확률로 체크 */
+    static TaskColumns generate(int rows, int years, LocalDate today, Random rnd) {
+        TaskColumns cols = new TaskColumns();
+        int now = (int) today.toEpochDay();
+        int span = years * 365;
+        Task t = new Task();
+        for (int i = 1; i <= rows; i++) {
+            t.id = i;
+            t.title = "t" + i;
+            t.priority = 1 + rnd.nextInt(3);
+            t.completed = false;
+            if (i % 200 == 0) {
+                t.isRecurring = 1;
+                t.recurDays = 1 + rnd.nextInt(127);
+                int start = now - rnd.nextInt(span);
+                t.recurStart = LocalDate.ofEpochDay(start).toString();
+                t.recurUntil = rnd.nextInt(4) == 0 ? LocalDate.ofEpochDay(start + rnd.nextInt(span)).toString() : null;
+                t.dueAt = null;
+                for (int d = start; d <= now; d++) {
+                    if (rnd.nextInt(10) < 6) cols.addCompletionDay(i, d);
+                }
+            } else {
+                t.isRecurring = 0;
+                t.recurDays = 0;
+                t.recurStart = null;
+                t.recurUntil = null;
+                int due = now - span + rnd.nextInt(span + 30);
+                t.dueAt = rnd.nextInt(50) == 0 ? null : LocalDate.ofEpochDay(due) + (i % 3 == 0 ? " 09:30" : "");
+                t.completed = due < now && rnd.nextInt(100) < 85;
+            }
+            cols.add(t);
+        }
+        cols.seal();
+        return cols;
+    }
+
+    /** 결과 비교용 */
+    private static String signature(Reports.Result r) {
+        return r.weeks() + Arrays.toString(r.overdueAges()) + r.priorities() + r.streaks();
+    }
+}
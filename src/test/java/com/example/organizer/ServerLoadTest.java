@@ -0,0 +1,156 @@
+package com.example.organizer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TaskServer 로컬 부하 테스트 (gradle loadTestServer)
+ * - 서버를 빈 포트로 띄우고, 가상 스레드 클라이언트 N개가 정해진 시간 동안 요청을 보냄
+ * - 요청 비율: 읽기 90% (오늘 목록/날짜별/달력/한 주 범위/태그/저장된 보기)
+ *            + 쓰기 10% (추가/완료 토글/수정/일괄 완료/태그 지정/일괄 삭제)
+ * - 결과: 처리량(req/s), 지연시간 p50/p95/p99/max, 실패 수
+ *
+ * 시스템 프로퍼티
+ *   todo.load.clients  (기본 32)   동시 클라이언트 수
+ *   todo.load.seconds  (기본 10)   측정 시간
+ *   todo.load.seed     (기본 2000) 시작 전에 넣어둘 단발 일정 수
+ */
+final class ServerLoadTest {
+
+    /** 읽기 요청에 쓰는 저장된 보기 이름 */
+    private static final String FILTER = "load";
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("todo.load.clients", 32);
+        int seconds = Integer.getInteger("todo.load.seconds", 10);
+        int seed = Integer.getInteger("todo.load.seed", 2000);
+        int readers = Integer.getInteger("todo.server.readers", Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+        Database.migrate();
+        try (TaskDao dao = new TaskDao()) {
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < seed; i++) {
+                dao.addTask("load-" + i, 1 + i % 3, today.minusDays(i % 60).toString());
+            }
+            dao.saveFilter(FILTER, SmartFilter.parse("priority:1 done:no"));
+        }
+
+        try (TaskServer server = new TaskServer(0, readers)) {
+            server.start();
+            String base = "http://127.0.0.1:" + server.port();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+            long[][] samples = new long[clients][];
+            int[] counts = new int[clients];
+            AtomicInteger failures = new AtomicInteger();
+
+            try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < clients; c++) {
+                    final int me = c;
+                    samples[me] = new long[1 << 16];
+                    pool.submit(() -> {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        while (System.nanoTime() < deadline) {
+                            HttpRequest req = nextRequest(base, rnd);
+                            long t0 = System.nanoTime();
+                            try {
+                                HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
+                                if (res.statusCode() != 200) failures.incrementAndGet();
+                            } catch (Exception e) {
+                                failures.incrementAndGet();
+                            }
+                            long took = System.nanoTime() - t0;
+                            if (counts[me] == samples[me].length) {
+                                samples[me] = Arrays.copyOf(samples[me], counts[me] * 2);
+                            }
+                            samples[me][counts[me]++] = took;
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            int total = 0;
+            for (int c : counts) total += c;
+            long[] all = new long[total];
+            int k = 0;
+            for (int c = 0; c < clients; c++) {
+                System.arraycopy(samples[c], 0, all, k, counts[c]);
+                k += counts[c];
+            }
+            Arrays.sort(all);
+
+            System.out.printf("[LOAD] clients=%d readers=%d seconds=%d seed=%d%n", clients, readers, seconds, seed);
+            System.out.printf("[LOAD] requests=%d failures=%d throughput=%.0f req/s%n",
+                    total, failures.get(), total / (double) seconds);
+            System.out.printf("[LOAD] latency p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms%n",
+                    pct(all, 0.50), pct(all, 0.95), pct(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        }
+    }
+
+    /** 90% 읽기 / 10% 쓰기 */
+    private static HttpRequest nextRequest(String base, ThreadLocalRandom rnd) {
+        LocalDate day = LocalDate.now().minusDays(rnd.nextInt(60));
+        int id = 1 + rnd.nextInt(1000);
+        int p = rnd.nextInt(100);
+        if (p < 30) {
+            return get(base + "/tasks/due?until=" + LocalDate.now());
+        } else if (p < 50) {
+            return get(base + "/tasks?date=" + day);
+        } else if (p < 65) {
+            return get(base + "/calendar?month=" + java.time.YearMonth.from(day));
+        } else if (p < 80) {
+            return get(base + "/tasks/range?from=" + day + "&to=" + day.plusDays(6));
+        } else if (p < 85) {
+            return get(base + (rnd.nextBoolean() ? "/tags" : "/tasks/" + id + "/tags"));
+        } else if (p < 90) {
+            return get(base + "/filters/" + FILTER + "/tasks?limit=50");
+        } else if (p < 93) {
+            return form("POST", base + "/tasks", "title=load&priority=2&dueAt=" + day);
+        } else if (p < 95) {
+            return HttpRequest.newBuilder(URI.create(base + "/tasks/" + id + "/completed?value=" + rnd.nextBoolean()))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        } else if (p < 97) {
+            return form("PUT", base + "/tasks/" + id, "title=load-edit-" + id + "&priority=" + (1 + rnd.nextInt(3)) + "&dueAt=" + day);
+        } else if (p < 98) {
+            return form("POST", base + "/tasks/completed?value=" + rnd.nextBoolean(),
+                    "ids=" + id + "," + (id + 1) + "," + (id + 2));
+        } else if (p < 99) {
+            return form("PUT", base + "/tasks/" + id + "/tags", "tags=load,t" + rnd.nextInt(5));
+        } else {
+            // 없는 id → 실제로 지워지는 행은 없어 읽기 대상은 그대로, 일괄 삭제 트랜잭션 경로만 잼
+            int gone = 1_000_000 + rnd.nextInt(1000);
+            return form("POST", base + "/tasks/delete", "ids=" + gone + "," + (gone + 1));
+        }
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static HttpRequest form(String method, String uri, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static double pct(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        int i = (int) Math.min(sorted.length - 1, Math.round(q * (sorted.length - 1)));
+        return sorted[i] / 1e6;
+    }
+}